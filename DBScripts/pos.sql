@@ -128,6 +128,105 @@ INSERT INTO `products` VALUES (1,'xyz','234567',12.00,123.00,1,'2024-02-13 06:05
 /*!40000 ALTER TABLE `products` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `sale_items`
+--
+
+DROP TABLE IF EXISTS `sale_items`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `sale_items` (
+  `id` int NOT NULL AUTO_INCREMENT,
+  `sale_id` int NOT NULL,
+  `product_id` int DEFAULT NULL,
+  `product_name` varchar(255) NOT NULL,
+  `quantity` decimal(10,2) NOT NULL,
+  `unit_price` decimal(10,2) NOT NULL,
+  `total_price` decimal(10,2) NOT NULL,
+  `net_total` decimal(10,2) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `fk_sale_items_sales1_idx` (`sale_id`),
+  KEY `fk_sale_items_products1_idx` (`product_id`),
+  CONSTRAINT `fk_sale_items_products1` FOREIGN KEY (`product_id`) REFERENCES `products` (`id`) ON DELETE SET NULL,
+  CONSTRAINT `fk_sale_items_sales1` FOREIGN KEY (`sale_id`) REFERENCES `sales` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `sales`
+--
+
+DROP TABLE IF EXISTS `sales`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `sales` (
+  `id` int NOT NULL AUTO_INCREMENT,
+  `customer_id` int DEFAULT NULL,
+  `sale_date` datetime NOT NULL,
+  `total_amount` decimal(10,2) NOT NULL,
+  `sale_uid` char(36) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `sale_uid_UNIQUE` (`sale_uid`),
+  KEY `fk_sales_customers1_idx` (`customer_id`),
+  KEY `sale_date` (`sale_date`),
+  CONSTRAINT `fk_sales_customers1` FOREIGN KEY (`customer_id`) REFERENCES `customers` (`id`) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `sales_hourly_cashier`
+--
+
+DROP TABLE IF EXISTS `sales_hourly_cashier`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `sales_hourly_cashier` (
+  `bucket_hour` datetime NOT NULL,
+  `cashier` varchar(20) NOT NULL,
+  `sale_count` bigint NOT NULL DEFAULT '0',
+  `quantity` bigint NOT NULL DEFAULT '0',
+  `revenue` decimal(14,2) NOT NULL DEFAULT '0.00',
+  PRIMARY KEY (`bucket_hour`,`cashier`),
+  KEY `cashier_bucket_hour` (`cashier`,`bucket_hour`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `sales_hourly_category`
+--
+
+DROP TABLE IF EXISTS `sales_hourly_category`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `sales_hourly_category` (
+  `bucket_hour` datetime NOT NULL,
+  `category_id` int NOT NULL,
+  `quantity` bigint NOT NULL DEFAULT '0',
+  `revenue` decimal(14,2) NOT NULL DEFAULT '0.00',
+  `line_count` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`bucket_hour`,`category_id`),
+  KEY `category_id_bucket_hour` (`category_id`,`bucket_hour`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `sales_hourly_product`
+--
+
+DROP TABLE IF EXISTS `sales_hourly_product`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `sales_hourly_product` (
+  `bucket_hour` datetime NOT NULL,
+  `product_id` int NOT NULL,
+  `quantity` bigint NOT NULL DEFAULT '0',
+  `revenue` decimal(14,2) NOT NULL DEFAULT '0.00',
+  `line_count` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`bucket_hour`,`product_id`),
+  KEY `product_id_bucket_hour` (`product_id`,`bucket_hour`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `suppliers`
 --
@@ -0,0 +1,74 @@
+-- Fills the hourly sales rollups (sales_hourly_product, sales_hourly_category
+-- and sales_hourly_cashier) from the sales already in `sales` and
+-- `sale_items`, so the reports of a database upgraded to them show its
+-- history.
+--
+-- Run it once, after creating the rollup tables from pos.sql and before the
+-- tills save new sales: it adds the net_total column to `sale_items` and
+-- replaces whatever the rollups hold.
+--
+-- Revenue is the sum of the lines' net totals, as the till writes them: each
+-- line gets its share of the sale's total_amount in proportion to its
+-- total_price, rounded to the cent, and the last line of the sale gets what
+-- is left, so a cart discount is spread over the lines. Sales saved
+-- before the upgrade recorded neither the cashier nor the category of a line,
+-- so they are rolled up under the cashier '' (shown as Unknown) and the
+-- product's current category; lines of deleted products go to product and
+-- category 0.
+
+USE `pos`;
+
+ALTER TABLE `sale_items` ADD COLUMN `net_total` decimal(10,2) NOT NULL DEFAULT 0 AFTER `total_price`;
+ALTER TABLE `sale_items` ALTER COLUMN `net_total` DROP DEFAULT;
+
+START TRANSACTION;
+
+UPDATE `sale_items` i
+  JOIN (SELECT `id`,
+               share + CASE WHEN ROW_NUMBER() OVER (PARTITION BY `sale_id` ORDER BY `id` DESC) = 1
+                            THEN `total_amount` - SUM(share) OVER (PARTITION BY `sale_id`)
+                            ELSE 0 END AS net_total
+          FROM (SELECT i.`id`, i.`sale_id`, s.`total_amount`,
+                       CASE WHEN SUM(i.`total_price`) OVER (PARTITION BY i.`sale_id`) = 0 THEN 0
+                            ELSE ROUND(i.`total_price` * s.`total_amount`
+                                       / SUM(i.`total_price`) OVER (PARTITION BY i.`sale_id`), 2) END AS share
+                  FROM `sale_items` i
+                  JOIN `sales` s ON s.`id` = i.`sale_id`) shares) net ON net.`id` = i.`id`
+   SET i.`net_total` = net.net_total;
+
+DELETE FROM `sales_hourly_product`;
+DELETE FROM `sales_hourly_category`;
+DELETE FROM `sales_hourly_cashier`;
+
+INSERT INTO `sales_hourly_product` (`bucket_hour`, `product_id`, `quantity`, `revenue`, `line_count`)
+SELECT CAST(DATE_FORMAT(s.`sale_date`, '%Y-%m-%d %H:00:00') AS DATETIME) AS bucket_hour,
+       COALESCE(i.`product_id`, 0) AS product_id,
+       CAST(SUM(i.`quantity`) AS SIGNED),
+       SUM(i.`net_total`),
+       COUNT(*)
+  FROM `sales` s
+  JOIN `sale_items` i ON i.`sale_id` = s.`id`
+ GROUP BY bucket_hour, product_id;
+
+INSERT INTO `sales_hourly_category` (`bucket_hour`, `category_id`, `quantity`, `revenue`, `line_count`)
+SELECT CAST(DATE_FORMAT(s.`sale_date`, '%Y-%m-%d %H:00:00') AS DATETIME) AS bucket_hour,
+       COALESCE(p.`category_id`, 0) AS category_id,
+       CAST(SUM(i.`quantity`) AS SIGNED),
+       SUM(i.`net_total`),
+       COUNT(*)
+  FROM `sales` s
+  JOIN `sale_items` i ON i.`sale_id` = s.`id`
+  LEFT JOIN `products` p ON p.`id` = i.`product_id`
+ GROUP BY bucket_hour, category_id;
+
+INSERT INTO `sales_hourly_cashier` (`bucket_hour`, `cashier`, `sale_count`, `quantity`, `revenue`)
+SELECT CAST(DATE_FORMAT(s.`sale_date`, '%Y-%m-%d %H:00:00') AS DATETIME) AS bucket_hour,
+       '',
+       COUNT(DISTINCT s.`id`),
+       CAST(COALESCE(SUM(i.`quantity`), 0) AS SIGNED),
+       COALESCE(SUM(i.`net_total`), 0)
+  FROM `sales` s
+  LEFT JOIN `sale_items` i ON i.`sale_id` = s.`id`
+ GROUP BY bucket_hour;
+
+COMMIT;
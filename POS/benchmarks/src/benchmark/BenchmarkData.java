@@ -0,0 +1,105 @@
+package benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import model.dto.ProductDTO;
+
+/**
+ * Synthetic catalog shared by the benchmarks, so they run offline and every
+ * run sees the same products. DAL reads are answered from fixed rows, see
+ * {@link FixedResultDatabase}.
+ *
+ * @author fawad
+ */
+final class BenchmarkData {
+
+    private static final String[] KINDS = {"Arroz", "Feijão", "Açúcar", "Café", "Leite", "Óleo", "Sabão",
+        "Biscoito", "Macarrão", "Farinha", "Molho", "Suco", "Água", "Queijo", "Manteiga", "Detergente"};
+    private static final String[] BRANDS = {"Tio João", "Camil", "União", "Pilão", "Italac", "Soya", "Ypê",
+        "Piraquê", "Renata", "Dona Benta", "Pomarola", "Del Valle", "Crystal", "Tirolez", "Aviação", "Limpol"};
+    private static final String[] SIZES = {"200g", "500g", "1kg", "2kg", "5kg", "1L", "2L", "12un"};
+
+    static final int CATEGORIES = 20;
+    // the SQL of DALManager.getProducts
+    static final String PRODUCT_LIST_QUERY = "SELECT id, name, barcode, price, stock_quantity, category_id FROM products";
+    private static final String[] PRODUCT_LIST_COLUMNS = {"id", "name", "barcode", "price", "stock_quantity", "category_id"};
+    private static final String[] WIDE_COLUMNS = {"id", "name", "barcode", "price", "stock_quantity", "category_id",
+        "created_at", "updated_at", "quantity_type", "suppliers_id", "description", "image_url", "notes"};
+
+    private BenchmarkData() {
+    }
+
+    static ProductDTO product(int id) {
+        String name = KINDS[id % KINDS.length] + " " + BRANDS[(id / KINDS.length) % BRANDS.length]
+                + " " + SIZES[id % SIZES.length] + " " + id;
+        return new ProductDTO(id, name, String.format("789%010d", id), 1.99 + (id % 500) * 0.25,
+                10 + id % 90, 1 + id % CATEGORIES, "counted");
+    }
+
+    static List<ProductDTO> products(int count) {
+        List<ProductDTO> products = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            products.add(product(id));
+        }
+        return products;
+    }
+
+    /**
+     * The catalog as the product list query returns it, in the order of
+     * DALManager.getProducts' columns.
+     */
+    static FixedResultDatabase productList(int productCount) {
+        FixedResultDatabase database = new FixedResultDatabase();
+        database.answer(PRODUCT_LIST_QUERY, PRODUCT_LIST_COLUMNS, listRows(productCount));
+        return database;
+    }
+
+    /**
+     * The same catalog in a products table as wide as a real store's: the
+     * usual columns first, then a description, an image URL and notes that
+     * no list screen shows. SELECT * returns all of them, the list query
+     * only its own.
+     */
+    static FixedResultDatabase wideProducts(int productCount) {
+        Timestamp created = Timestamp.valueOf("2024-01-02 08:00:00");
+        Object[][] rows = new Object[productCount][];
+        for (int i = 0; i < productCount; i++) {
+            ProductDTO product = product(i + 1);
+            String name = product.getProductName();
+            rows[i] = new Object[]{product.getProductId(), name, product.getBarcode(),
+                BigDecimal.valueOf(product.getPrice()), BigDecimal.valueOf(product.getStockQuantity()),
+                product.getCategoryId(), created, created, "counted", 1,
+                (name + ". Produto de qualidade, embalagem econômica, conservar em local seco e arejado. ").repeat(4),
+                "https://cdn.example.com/products/" + product.getBarcode() + "/front-1200x1200.jpg",
+                "Reposição semanal; fornecedor entrega às terças."};
+        }
+        FixedResultDatabase database = new FixedResultDatabase();
+        database.answer("SELECT * FROM products", WIDE_COLUMNS, rows);
+        database.answer(PRODUCT_LIST_QUERY, PRODUCT_LIST_COLUMNS, listRows(productCount));
+        return database;
+    }
+
+    /**
+     * Fails the setup when a read did not return the whole catalog, for
+     * instance because the DAL's SQL no longer matches a fixed query and the
+     * error went to the Response.
+     */
+    static void checkRead(List<ProductDTO> read, int productCount) {
+        if (read.size() != productCount) {
+            throw new IllegalStateException("Read " + read.size() + " of " + productCount + " products");
+        }
+    }
+
+    private static Object[][] listRows(int productCount) {
+        Object[][] rows = new Object[productCount][];
+        for (int i = 0; i < productCount; i++) {
+            ProductDTO product = product(i + 1);
+            rows[i] = new Object[]{product.getProductId(), product.getProductName(), product.getBarcode(),
+                BigDecimal.valueOf(product.getPrice()), BigDecimal.valueOf(product.getStockQuantity()),
+                product.getCategoryId()};
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,52 @@
+package benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import model.Cart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cart totals as CartUI shows them: reading the total, and the running
+ * totals kept up to date while a line is added and removed again.
+ *
+ * @author fawad
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CartTotalBenchmark {
+
+    @Param({"10", "1000"})
+    public int lines;
+
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        for (int id = 1; id <= lines; id++) {
+            cart.add(BenchmarkData.product(id), 1 + id % 5);
+        }
+        cart.setDiscount(new BigDecimal("1.50"));
+    }
+
+    @Benchmark
+    public BigDecimal getTotal() {
+        return cart.getTotal();
+    }
+
+    @Benchmark
+    public long addAndRemoveLine() {
+        cart.add(lines + 1, "extra", 4.75, 2);
+        long total = cart.getTotalMinor();
+        cart.remove(cart.size() - 1);
+        return total;
+    }
+}
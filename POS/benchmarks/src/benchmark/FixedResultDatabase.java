@@ -0,0 +1,107 @@
+package benchmark;
+
+import dal.db.IConnection;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Answers each known query with the same rows every time, as a
+ * {@link FixedResultSet}, so a benchmark of a DAL read measures the DAL and
+ * its mapping rather than a database. The connection and statement do
+ * nothing but hand out the result; their cost is paid once per query, not
+ * per row.
+ *
+ * @author fawad
+ */
+final class FixedResultDatabase implements IConnection {
+
+    private final Map<String, Result> results = new HashMap<>();
+    private long bytesSent;
+
+    /**
+     * Rows returned for exactly this SQL; other queries fail.
+     */
+    void answer(String sql, String[] labels, Object[][] rows) {
+        long bytes = 0;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                bytes += wireSize(value);
+            }
+        }
+        results.put(sql, new Result(labels, rows, bytes));
+    }
+
+    /**
+     * Bytes of the column values of every result handed out so far, as the
+     * server would have sent them.
+     */
+    long getBytesSent() {
+        return bytesSent;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return (Connection) Proxy.newProxyInstance(FixedResultDatabase.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "prepareStatement" -> statement((String) args[0]);
+            case "isValid", "getAutoCommit" -> true;
+            case "isClosed" -> false;
+            default -> objectMethod(proxy, method, args);
+        });
+    }
+
+    private PreparedStatement statement(String sql) throws SQLException {
+        Result result = results.get(sql);
+        if (result == null) {
+            throw new SQLException("No fixed result for: " + sql);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(FixedResultDatabase.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+            if (method.getName().equals("executeQuery")) {
+                bytesSent += result.bytes;
+                return new FixedResultSet(result.labels, result.rows);
+            }
+            return method.getName().equals("isClosed") ? false : objectMethod(proxy, method, args);
+        });
+    }
+
+    /**
+     * equals, hashCode and toString of a proxy; every other call, such as
+     * close or a parameter setter, does nothing.
+     */
+    private static Object objectMethod(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "FixedResult@" + Integer.toHexString(System.identityHashCode(proxy));
+            default -> null;
+        };
+    }
+
+    private static long wireSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Integer) {
+            return 4;
+        }
+        if (value instanceof Long || value instanceof Double || value instanceof Timestamp) {
+            return 8;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString().length();
+        }
+        return value.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private record Result(String[] labels, Object[][] rows, long bytes) {
+    }
+}
@@ -0,0 +1,148 @@
+package benchmark;
+
+import dal.DALManager;
+import dal.db.ConnectionPool;
+import dal.db.MySQLConnection;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import model.dto.CategoryDTO;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import model.dto.SupplierDTO;
+import model.productimport.ImportProgress;
+import model.productimport.ProductImporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import test.util.InMemoryDatabase;
+
+/**
+ * Importing a supplier's CSV of 20,000 products into an empty catalog with
+ * ProductImporter, by chunk size: 1 is a statement per row, as saving each
+ * product through addProduct would be; larger chunks send one batched
+ * upsert per chunk.
+ *
+ * By default the products go to the in-memory test database, which only
+ * shows how the chunk size changes the number of statements. For real
+ * numbers run it against MySQL on localhost, whose connection sets
+ * rewriteBatchedStatements, with
+ *
+ *     -jvmArgsAppend "-Dpos.benchmark.mysqlDb=pos -Dpos.benchmark.mysqlUser=root -Dpos.benchmark.mysqlPassword=..."
+ *
+ * The database needs the pos.sql schema. The benchmark adds the categories
+ * and the supplier it uses when missing, and deletes the products whose
+ * barcodes it writes before every import.
+ *
+ * @author fawad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductImportBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final String SUPPLIER = "Supplier 1";
+    private static final String MYSQL_DB = System.getProperty("pos.benchmark.mysqlDb");
+
+    @Param({"1", "100", "1000"})
+    public int chunkSize;
+
+    private Path file;
+    private ConnectionPool mysql;
+    private ProductImporter importer;
+
+    @Setup
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("products", ".csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("name,barcode,price,stock,category,supplier\n");
+            for (ProductDTO product : BenchmarkData.products(ROWS)) {
+                out.write("\"" + product.getProductName() + "\"," + product.getBarcode() + "," + product.getPrice() + ","
+                        + product.getStockQuantity() + ",Category " + product.getCategoryId() + "," + SUPPLIER + "\n");
+            }
+        }
+        if (MYSQL_DB != null) {
+            mysql = new ConnectionPool(new MySQLConnection(MYSQL_DB, System.getProperty("pos.benchmark.mysqlUser", "root"),
+                    System.getProperty("pos.benchmark.mysqlPassword", "")), Runtime.getRuntime().availableProcessors() + 1);
+            addReferenceData(new DALManager(mysql));
+        }
+    }
+
+    /**
+     * Adds the categories and the supplier the file names, when the
+     * database does not have them yet.
+     */
+    private static void addReferenceData(DALManager dalManager) {
+        Response response = new Response();
+        Set<String> names = new HashSet<>();
+        dalManager.getCategories(response).forEach(category -> names.add(category.getName()));
+        for (int id = 1; id <= BenchmarkData.CATEGORIES; id++) {
+            if (!names.contains("Category " + id)) {
+                dalManager.saveCategory(new CategoryDTO(0, "Category " + id), response);
+            }
+        }
+        if (dalManager.getSuppliers(response).stream().noneMatch(supplier -> SUPPLIER.equals(supplier.getName()))) {
+            dalManager.saveSupplier(new SupplierDTO(0, SUPPLIER, "1133334444"), response);
+        }
+        if (!response.isSuccessfull()) {
+            throw new IllegalStateException(response.getErrorMessages());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyCatalog() throws SQLException {
+        if (mysql != null) {
+            try (Connection connection = mysql.getConnection();
+                    PreparedStatement delete = connection.prepareStatement("DELETE FROM products WHERE barcode BETWEEN ? AND ?")) {
+                delete.setString(1, BenchmarkData.product(1).getBarcode());
+                delete.setString(2, BenchmarkData.product(ROWS).getBarcode());
+                delete.executeUpdate();
+            }
+            importer = new ProductImporter(new DALManager(mysql), chunkSize, Runtime.getRuntime().availableProcessors());
+            return;
+        }
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.setUniqueKey("products", "barcode");
+        for (int id = 1; id <= BenchmarkData.CATEGORIES; id++) {
+            database.insert("category", id, "Category " + id);
+        }
+        database.insert("suppliers", 1, SUPPLIER, "1133334444");
+        importer = new ProductImporter(new DALManager(database), chunkSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        if (mysql != null) {
+            mysql.shutdown();
+        }
+    }
+
+    @Benchmark
+    public ImportProgress importCsv() {
+        Response response = new Response();
+        ImportProgress progress = importer.importFile(file, report -> {
+        }, response);
+        if (!response.isSuccessfull()) {
+            throw new IllegalStateException(response.getErrorMessages());
+        }
+        return progress;
+    }
+}
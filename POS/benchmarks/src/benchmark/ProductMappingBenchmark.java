@@ -0,0 +1,44 @@
+package benchmark;
+
+import dal.DALManager;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * DALManager.getProducts over a fixed result: DBReader's handling of one
+ * statement and ObjectMapper.productListColumns for every row, with no
+ * database behind them.
+ *
+ * @author fawad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductMappingBenchmark {
+
+    @Param({"100", "10000"})
+    public int products;
+
+    private DALManager dalManager;
+
+    @Setup
+    public void setUp() {
+        dalManager = new DALManager(BenchmarkData.productList(products));
+        BenchmarkData.checkRead(getProducts(), products);
+    }
+
+    @Benchmark
+    public ArrayList<ProductDTO> getProducts() {
+        return dalManager.getProducts(new Response());
+    }
+}
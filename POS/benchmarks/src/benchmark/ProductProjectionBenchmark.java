@@ -0,0 +1,87 @@
+package benchmark;
+
+import dal.DALManager;
+import dal.DBReader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reading the product list from a wide products table, before and after
+ * narrowing the projection: SELECT * mapped by position, as the DAL used to
+ * read it, against DALManager.getProducts, which selects only the list
+ * columns and finds them by name once per statement. Both read fixed rows,
+ * so the time is the DAL's alone; the bytes a server would send for each
+ * read are reported as bytesSent.
+ *
+ * @author fawad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductProjectionBenchmark {
+
+    @Param({"100", "10000"})
+    public int products;
+
+    private FixedResultDatabase database;
+    private DBReader reader;
+    private DALManager dalManager;
+
+    /**
+     * Bytes of rows sent by the database, per operation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Transfer {
+
+        public long bytesSent;
+    }
+
+    @Setup
+    public void setUp() {
+        database = BenchmarkData.wideProducts(products);
+        reader = new DBReader(database);
+        dalManager = new DALManager(database);
+        BenchmarkData.checkRead(selectStarByPosition(new Transfer()), products);
+        BenchmarkData.checkRead(listColumnsByName(new Transfer()), products);
+    }
+
+    @Benchmark
+    public ArrayList<ProductDTO> selectStarByPosition(Transfer transfer) {
+        long before = database.getBytesSent();
+        ArrayList<ProductDTO> list = reader.getRecords("SELECT * FROM products", new Response(),
+                ProductProjectionBenchmark::byPosition);
+        transfer.bytesSent += database.getBytesSent() - before;
+        return list;
+    }
+
+    @Benchmark
+    public ArrayList<ProductDTO> listColumnsByName(Transfer transfer) {
+        long before = database.getBytesSent();
+        ArrayList<ProductDTO> list = dalManager.getProducts(new Response());
+        transfer.bytesSent += database.getBytesSent() - before;
+        return list;
+    }
+
+    /**
+     * The mapping the DAL used before: every column of the table, read by
+     * its position in the schema.
+     */
+    private static ProductDTO byPosition(ResultSet resultSet) throws SQLException {
+        return new ProductDTO(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3),
+                resultSet.getDouble(4), resultSet.getDouble(5), resultSet.getInt(6), resultSet.getString(9));
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import model.ProductSearchIndex;
+import model.dto.ProductDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Product search as typed in the cart and product screens: a short prefix
+ * (scanned), a word inside the name and an accented text that matches
+ * without its accents.
+ *
+ * @author fawad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchBenchmark {
+
+    private static final int LIMIT = 50;
+
+    @Param({"10000", "100000"})
+    public int products;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new ProductSearchIndex(BenchmarkData.products(products));
+    }
+
+    @Benchmark
+    public ArrayList<ProductDTO> shortPrefix() {
+        return index.search("ca", LIMIT);
+    }
+
+    @Benchmark
+    public ArrayList<ProductDTO> wordInName() {
+        return index.search("pilão 500g", LIMIT);
+    }
+
+    @Benchmark
+    public ArrayList<ProductDTO> withoutAccents() {
+        return index.search("feijao", LIMIT);
+    }
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import model.SalesColumnStore;
+import model.dto.ReportRowDTO;
+import model.dto.SalesGrouping;
+import model.dto.SalesQueryDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Ad-hoc report queries over a year of sale lines in SalesColumnStore.
+ *
+ * @author fawad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SalesQueryBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    @Param({"1000000"})
+    public int lines;
+
+    private SalesColumnStore store;
+    private SalesQueryDTO byCategory;
+    private SalesQueryDTO byDay;
+    private SalesQueryDTO filteredByProduct;
+
+    @Setup
+    public void setUp() {
+        store = new SalesColumnStore(lines);
+        LocalDateTime start = FIRST_DAY.atStartOfDay();
+        long minutes = 365L * 24 * 60;
+        for (int i = 0; i < lines; i++) {
+            store.appendLine(start.plusMinutes(i * minutes / lines), i % 5_000, i % BenchmarkData.CATEGORIES,
+                    (i * 31) % 2_000, 1 + i % 4, 100 + (i * 7L) % 2_000);
+        }
+        byCategory = new SalesQueryDTO(null, null, SalesGrouping.Category);
+        byDay = new SalesQueryDTO(null, null, SalesGrouping.Day);
+        filteredByProduct = new SalesQueryDTO(FIRST_DAY, FIRST_DAY.plusMonths(6).minusDays(1), SalesGrouping.Product);
+        filteredByProduct.setCategoryIds(Set.of(1, 3, 5, 7, 9));
+    }
+
+    @Benchmark
+    public List<ReportRowDTO> groupByCategory() {
+        return store.query(byCategory);
+    }
+
+    @Benchmark
+    public List<ReportRowDTO> groupByDay() {
+        return store.query(byDay);
+    }
+
+    @Benchmark
+    public List<ReportRowDTO> filteredGroupByProduct() {
+        return store.query(filteredByProduct);
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import model.dto.CustomerDTO;
+import model.dto.Message;
+import model.dto.MessageType;
+import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import model.validators.CommonValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * CommonValidator.validateObject for the objects checked on every save, and
+ * Response.isSuccessfull on a response carrying only information messages.
+ *
+ * @author fawad
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    private SaleDTO sale;
+    private CustomerDTO customer;
+    private Response informed;
+
+    @Setup
+    public void setUp() {
+        sale = new SaleDTO();
+        sale.setCustomer(new CustomerDTO(1, "Maria Souza", "11987654321"));
+        ArrayList<SaleItemDTO> items = new ArrayList<>();
+        for (int id = 1; id <= 20; id++) {
+            items.add(new SaleItemDTO(id, BenchmarkData.product(id).getProductName(), 2.50, 1 + id % 3));
+        }
+        sale.setItems(items);
+        customer = sale.getCustomer();
+        informed = new Response();
+        for (int i = 0; i < 10; i++) {
+            informed.messagesList.add(new Message("Saved " + i, MessageType.Information));
+        }
+    }
+
+    @Benchmark
+    public Response validateSale() {
+        Response response = new Response();
+        CommonValidator.validateObject(sale, response);
+        return response;
+    }
+
+    @Benchmark
+    public Response validateCustomer() {
+        Response response = new Response();
+        CommonValidator.validateObject(customer, response);
+        return response;
+    }
+
+    @Benchmark
+    public boolean isSuccessfull() {
+        return informed.isSuccessfull();
+    }
+}
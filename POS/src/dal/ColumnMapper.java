@@ -0,0 +1,17 @@
+package dal;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Finds the columns a mapper reads by name, once per statement, and returns
+ * the {@link RowMapper} for that statement's rows. Rows are then read by
+ * index, and the query may list its columns in any order.
+ *
+ * @author fawad
+ */
+@FunctionalInterface
+public interface ColumnMapper<T> {
+
+    RowMapper<T> bind(ResultSet resultSet) throws SQLException;
+}
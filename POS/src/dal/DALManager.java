@@ -1,9 +1,14 @@
 package dal;
 
-import dal.db.MySQLConnection;
+import dal.db.ConnectionPool;
+import dal.db.IConnection;
+import dal.db.PoolStatistics;
 import java.sql.Connection;
-import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 import model.dto.Message;
 import model.dto.MessageType;
 import model.dto.Response;
@@ -13,6 +18,10 @@ import model.dto.CategoryDTO;
 import model.dto.CustomerDTO;
 import model.dto.EmployeeDTO;
 import model.dto.ProductDTO;
+import model.dto.ReportDimension;
+import model.dto.ReportRowDTO;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
 import model.dto.SupplierDTO;
 
 /**
@@ -21,7 +30,7 @@ import model.dto.SupplierDTO;
  */
 public class DALManager implements IDALManager {
 
-    private MySQLConnection mySQL;
+    private IConnection mySQL;
     private ObjectMapper objMapper;
     private DBReader objReader;
     private ObjectAdder objAdder;
@@ -29,30 +38,33 @@ public class DALManager implements IDALManager {
     private ObjectModifier objModifier;
 
     public DALManager() {
-        this.mySQL = new MySQLConnection("pos", "root", "12345");
+        this(POSFactory.getInstanceOfConnectionPool());
+    }
+
+    public DALManager(IConnection connection) {
+        this.mySQL = connection;
         this.objMapper = POSFactory.getInstanceOfObjectMapper();
-        this.objReader = POSFactory.getInstanceOfDBReader();
+        this.objReader = POSFactory.getInstanceOfDBReader(connection);
         this.objAdder = POSFactory.getInstanceOfObjectAdder();
         this.objRemover = POSFactory.getInstanceOfObjectRemover();
         this.objModifier = POSFactory.getInstanceOfObjectModifier();
     }
 
     @Override
-    public void verifyUser(UserDTO user, Response responseObj) {
-        Connection connection = mySQL.getConnection();
-        ResultSet resultSet = null;
-
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            responseObj.messagesList.add((message));
-        } else {
-            String query = "SELECT * FROM users WHERE username = ? AND password = ?";
-            resultSet = objReader.getUser(responseObj, user, connection, query);
+    public PoolStatistics getConnectionPoolStatistics() {
+        if (mySQL instanceof ConnectionPool pool) {
+            return pool.getStatistics();
         }
+        return null;
+    }
+
+    @Override
+    public void verifyUser(UserDTO user, Response responseObj) {
+        String query = "SELECT username, password, role FROM users WHERE username = ? AND password = ?";
+        UserDTO storedUser = objReader.getRecord(query, responseObj, objMapper::mapUser, user.getUsername(), user.getPassword());
         if (responseObj.isSuccessfull()) {
-            objMapper.verifyUser(resultSet, user, responseObj);
+            objMapper.verifyUser(storedUser, user, responseObj);
         }
-        mySQL.closeConnection(connection);
     }
 
     @Override
@@ -70,15 +82,8 @@ public class DALManager implements IDALManager {
 
     @Override
     public ArrayList<UserDTO> getUsers(Response response) {
-        Connection connection = mySQL.getConnection();
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            response.messagesList.add((message));
-        }
-        ResultSet resultSet = null;
-        String query = "SELECT * FROM users";
-        resultSet = objReader.getRecords(connection, response, query);
-        return objMapper.getUsers(resultSet);
+        String query = "SELECT username, password, role FROM users";
+        return objReader.getRecords(query, response, objMapper::mapUser);
     }
 
     @Override
@@ -102,6 +107,7 @@ public class DALManager implements IDALManager {
             responseObj.messagesList.add((message));
         } else {
             objModifier.updatePassword(userObj, connection, responseObj);
+            mySQL.closeConnection(connection);
         }
 
     }
@@ -146,15 +152,20 @@ public class DALManager implements IDALManager {
 
     @Override
     public ArrayList<CustomerDTO> getCustomers(Response response) {
-        Connection connection = mySQL.getConnection();
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            response.messagesList.add((message));
-        }
-        ResultSet resultSet = null;
-        String query = "SELECT * FROM customers";
-        resultSet = objReader.getRecords(connection, response, query);
-        return objMapper.getCustomers(resultSet);
+        String query = "SELECT " + ObjectMapper.PERSON_COLUMNS + " FROM customers";
+        return objReader.getRecords(query, response, objMapper::mapCustomer);
+    }
+
+    @Override
+    public ArrayList<CustomerDTO> getCustomersPage(int afterId, int pageSize, Response response) {
+        String query = "SELECT " + ObjectMapper.PERSON_COLUMNS + " FROM customers WHERE id > ? ORDER BY id LIMIT ?";
+        return objReader.getRecords(query, response, objMapper::mapCustomer, afterId, pageSize);
+    }
+
+    @Override
+    public long forEachCustomer(Consumer<? super CustomerDTO> consumer, Response response) {
+        String query = "SELECT " + ObjectMapper.PERSON_COLUMNS + " FROM customers";
+        return objReader.forEachRecord(query, response, objMapper::mapCustomer, consumer);
     }
 
     @Override
@@ -196,15 +207,14 @@ public class DALManager implements IDALManager {
 
     @Override
     public ArrayList<SupplierDTO> getSuppliers(Response res) {
-        Connection connection = mySQL.getConnection();
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            res.messagesList.add((message));
-        }
-        ResultSet resultSet = null;
-        String query = "SELECT * FROM suppliers";
-        resultSet = objReader.getRecords(connection, res, query);
-        return objMapper.getSuppliers(resultSet);
+        String query = "SELECT " + ObjectMapper.PERSON_COLUMNS + " FROM suppliers";
+        return objReader.getRecords(query, res, objMapper::mapSupplier);
+    }
+
+    @Override
+    public ArrayList<SupplierDTO> getSuppliersPage(int afterId, int pageSize, Response res) {
+        String query = "SELECT " + ObjectMapper.PERSON_COLUMNS + " FROM suppliers WHERE id > ? ORDER BY id LIMIT ?";
+        return objReader.getRecords(query, res, objMapper::mapSupplier, afterId, pageSize);
     }
 
     @Override
@@ -232,19 +242,19 @@ public class DALManager implements IDALManager {
         }
     }
 
+    @Override
     public ArrayList<EmployeeDTO> getEmployees(Response res) {
-        Connection connection = mySQL.getConnection();
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            res.messagesList.add((message));
-        }
-        ResultSet resultSet = null;
-        String query = "SELECT * FROM employees";
-        resultSet = objReader.getRecords(connection, res, query);
-        return objMapper.getEmployees(resultSet);
+        String query = "SELECT " + ObjectMapper.PERSON_COLUMNS + " FROM employees";
+        return objReader.getRecords(query, res, objMapper::mapEmployee);
+    }
 
+    @Override
+    public ArrayList<EmployeeDTO> getEmployeesPage(int afterId, int pageSize, Response res) {
+        String query = "SELECT " + ObjectMapper.PERSON_COLUMNS + " FROM employees WHERE id > ? ORDER BY id LIMIT ?";
+        return objReader.getRecords(query, res, objMapper::mapEmployee, afterId, pageSize);
     }
 
+    @Override
     public void deleteEmployee(EmployeeDTO employee, Response response) {
         Connection connection = mySQL.getConnection();
         if (connection == null) {
@@ -256,6 +266,7 @@ public class DALManager implements IDALManager {
         }
     }
 
+    @Override
     public void saveEmployee(EmployeeDTO employee, Response response) {
         Connection connection = mySQL.getConnection();
         if (connection == null) {
@@ -267,6 +278,7 @@ public class DALManager implements IDALManager {
         }
     }
 
+    @Override
     public void updateEmployee(EmployeeDTO employee, Response response) {
         Connection connection = mySQL.getConnection();
         if (connection == null) {
@@ -278,6 +290,7 @@ public class DALManager implements IDALManager {
         }
     }
 
+    @Override
     public void addProduct(ProductDTO product, Response response) {
         Connection connection = mySQL.getConnection();
         if (connection == null) {
@@ -289,6 +302,19 @@ public class DALManager implements IDALManager {
         }
     }
 
+    @Override
+    public void upsertProducts(List<ProductDTO> products, Response response) {
+        Connection connection = mySQL.getConnection();
+        if (connection == null) {
+            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
+            response.messagesList.add((message));
+        } else {
+            objAdder.upsertProducts(products, connection, response);
+            mySQL.closeConnection(connection);
+        }
+    }
+
+    @Override
     public void deleteProduct(ProductDTO product, Response response) {
         Connection connection = mySQL.getConnection();
         if (connection == null) {
@@ -300,6 +326,7 @@ public class DALManager implements IDALManager {
         }
     }
 
+    @Override
     public void updateProduct(ProductDTO product, Response response) {
         Connection connection = mySQL.getConnection();
         if (connection == null) {
@@ -311,17 +338,78 @@ public class DALManager implements IDALManager {
         }
     }
 
-    public ArrayList<ProductDTO> getProducts(Response response) {
+    @Override
+    public void saveSale(SaleDTO sale, Response response) {
         Connection connection = mySQL.getConnection();
         if (connection == null) {
             Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
             response.messagesList.add((message));
+        } else {
+            objAdder.addSale(sale, connection, response);
+            mySQL.closeConnection(connection);
         }
-        String query = "SELECT * FROM products";
-        ResultSet resultSet = objReader.getRecords(connection, response, query);
-        return objMapper.getProducts(resultSet);
     }
 
+    @Override
+    public long forEachSale(Consumer<? super SaleDTO> consumer, Response response) {
+        String query = "SELECT id, customer_id, sale_date, total_amount, sale_uid FROM sales";
+        return objReader.forEachRecord(query, response, objMapper::mapSaleHeader, consumer);
+    }
+
+    @Override
+    public long forEachSaleItem(Consumer<? super SaleItemDTO> consumer, Response response) {
+        String query = "SELECT sale_id, product_id, product_name, quantity, unit_price, total_price, net_total FROM sale_items";
+        return objReader.forEachRecord(query, response, objMapper::mapSaleLine, consumer);
+    }
+
+    /**
+     * Sales per hour in [from, to), summed over cashiers from the hourly
+     * rollup; hours without sales are left out.
+     */
+    @Override
+    public ArrayList<ReportRowDTO> getHourlyRevenue(LocalDateTime from, LocalDateTime to, Response response) {
+        String query = "SELECT bucket_hour AS report_key, SUM(sale_count) AS row_count, SUM(quantity) AS quantity, SUM(revenue) AS revenue"
+                + " FROM sales_hourly_cashier WHERE bucket_hour >= ? AND bucket_hour < ? GROUP BY bucket_hour";
+        return objReader.getRecords(query, response, objMapper::mapHourlyReportRow, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Totals per product, category or cashier in [from, to), summed from the
+     * hourly rollup of that dimension. The key is the product or category id,
+     * or the cashier's username.
+     */
+    @Override
+    public ArrayList<ReportRowDTO> getSalesBreakdown(ReportDimension dimension, LocalDateTime from, LocalDateTime to, Response response) {
+        String query = switch (dimension) {
+            case Product -> "SELECT product_id AS report_key, SUM(line_count) AS row_count, SUM(quantity) AS quantity, SUM(revenue) AS revenue"
+                    + " FROM sales_hourly_product WHERE bucket_hour >= ? AND bucket_hour < ? GROUP BY product_id";
+            case Category -> "SELECT category_id AS report_key, SUM(line_count) AS row_count, SUM(quantity) AS quantity, SUM(revenue) AS revenue"
+                    + " FROM sales_hourly_category WHERE bucket_hour >= ? AND bucket_hour < ? GROUP BY category_id";
+            case Cashier -> "SELECT cashier AS report_key, SUM(sale_count) AS row_count, SUM(quantity) AS quantity, SUM(revenue) AS revenue"
+                    + " FROM sales_hourly_cashier WHERE bucket_hour >= ? AND bucket_hour < ? GROUP BY cashier";
+        };
+        return objReader.getRecords(query, response, objMapper::mapReportRow, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    @Override
+    public ArrayList<ProductDTO> getProducts(Response response) {
+        String query = "SELECT " + ObjectMapper.PRODUCT_LIST_COLUMNS + " FROM products";
+        return objReader.getRecordsByName(query, response, objMapper::productListColumns);
+    }
+
+    @Override
+    public ArrayList<ProductDTO> getProductsPage(int afterId, int pageSize, Response response) {
+        String query = "SELECT " + ObjectMapper.PRODUCT_LIST_COLUMNS + " FROM products WHERE id > ? ORDER BY id LIMIT ?";
+        return objReader.getRecordsByName(query, response, objMapper::productListColumns, afterId, pageSize);
+    }
+
+    @Override
+    public long forEachProduct(Consumer<? super ProductDTO> consumer, Response response) {
+        String query = "SELECT " + ObjectMapper.PRODUCT_COLUMNS + " FROM products";
+        return objReader.forEachRecordByName(query, response, objMapper::productColumns, consumer);
+    }
+
+    @Override
     public void deleteCategory(CategoryDTO category, Response response) {
          Connection connection = mySQL.getConnection();
         if (connection == null) {
@@ -333,6 +421,7 @@ public class DALManager implements IDALManager {
         }
     }
 
+    @Override
     public void updateCategory(CategoryDTO category, Response response) {
         Connection connection = mySQL.getConnection();
         if (connection == null) {
@@ -344,17 +433,13 @@ public class DALManager implements IDALManager {
         }
     }
 
+    @Override
     public ArrayList<CategoryDTO> getCategories(Response res) {
-        Connection connection = mySQL.getConnection();
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            res.messagesList.add((message));
-        }
-        String query = "SELECT * FROM category";
-        ResultSet resultSet = objReader.getRecords(connection, res, query);
-        return objMapper.getCategories(resultSet);
+        String query = "SELECT " + ObjectMapper.CATEGORY_COLUMNS + " FROM category";
+        return objReader.getRecords(query, res, objMapper::mapCategory);
     }
 
+    @Override
     public void saveCategory(CategoryDTO category, Response response) {
 
         Connection connection = mySQL.getConnection();
@@ -367,75 +452,41 @@ public class DALManager implements IDALManager {
         }
     }
 
+    @Override
     public ArrayList<ProductDTO> searchProductsByName(String searchName, Response res) {
-        Connection connection = mySQL.getConnection();
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            res.messagesList.add(message);
-            return null;
-        }
-
-        String query = "SELECT * FROM products WHERE name LIKE '%" + searchName + "%'";
-        ResultSet resultSet = objReader.getRecords(connection, res, query);
-        return objMapper.searchProductsByName(resultSet);
+        String query = "SELECT " + ObjectMapper.PRODUCT_LIST_COLUMNS + " FROM products WHERE name LIKE ?";
+        return objReader.getRecordsByName(query, res, objMapper::productListColumns, "%" + searchName + "%");
     }
 
    
 
+    @Override
     public CategoryDTO getCategoryByName(String selectedItem) {
-        Connection connection = mySQL.getConnection();
-        String query = "SELECT * FROM category WHERE name=?";
-        ResultSet resultSet = objReader.getCategoryByName(connection ,query,selectedItem);
-        return objMapper.getCategoryByName(resultSet);
-   
+        String query = "SELECT " + ObjectMapper.CATEGORY_COLUMNS + " FROM category WHERE name=?";
+        return objReader.getRecord(query, POSFactory.getInstanceOfResponse(), objMapper::mapCategory, selectedItem);
     }
 
+    @Override
     public SupplierDTO getSupplierByName(String string) {
-    Connection connection = mySQL.getConnection();
-        String query = "SELECT * FROM suppliers WHERE name=?";
-        ResultSet resultSet = objReader.getSupplierByName(connection ,query,string);
-        return objMapper.getSupplierByName(resultSet);
-       
+        String query = "SELECT " + ObjectMapper.PERSON_COLUMNS + " FROM suppliers WHERE name=?";
+        return objReader.getRecord(query, POSFactory.getInstanceOfResponse(), objMapper::mapSupplier, string);
     }
 
+    @Override
     public ProductDTO getProductById(int searchId, Response response) {
-      
-        Connection connection = mySQL.getConnection();
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            response.messagesList.add((message));
-        } else {
-             String query = "SELECT id FROM suppliers WHERE id=?";
-        ResultSet resultSet = objReader.getProductById(connection ,query,searchId);
-            return objMapper.getProductById(resultSet,response);
-        }
-        return null;
+        String query = "SELECT " + ObjectMapper.PRODUCT_COLUMNS + " FROM products WHERE id=?";
+        return objReader.getRecordByName(query, response, objMapper::productColumns, searchId);
     }
 
+    @Override
     public ArrayList<CategoryDTO> searchCategoryByName(String searchName, Response res) {
-    Connection connection = mySQL.getConnection();
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            res.messagesList.add(message);
-            return null;
-        }
-
-        String query = "SELECT * FROM category WHERE name LIKE '%" + searchName + "%'";
-        ResultSet resultSet = objReader.getRecords(connection, res, query);
-        return objMapper.getCategories(resultSet);
-       
+        String query = "SELECT " + ObjectMapper.CATEGORY_COLUMNS + " FROM category WHERE name LIKE ?";
+        return objReader.getRecords(query, res, objMapper::mapCategory, "%" + searchName + "%");
     }
 
+    @Override
     public ArrayList<CustomerDTO> searchCustomersByName(String searchName, Response res) {
-      Connection connection = mySQL.getConnection();
-        if (connection == null) {
-            Message message = new Message("Database Connection issue please contact customer services.", MessageType.Exception);
-            res.messagesList.add(message);
-            return null;
-        }
-
-        String query = "SELECT * FROM customers WHERE name LIKE '%" + searchName + "%'";
-        ResultSet resultSet = objReader.getRecords(connection, res, query);
-        return objMapper.getCustomers(resultSet);
+        String query = "SELECT " + ObjectMapper.PERSON_COLUMNS + " FROM customers WHERE name LIKE ?";
+        return objReader.getRecords(query, res, objMapper::mapCustomer, "%" + searchName + "%");
     }
 }
@@ -5,93 +5,253 @@
  */
 package dal;
 
+import dal.db.IConnection;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import model.dto.Message;
 import model.dto.MessageType;
 import model.dto.Response;
-import model.dto.UserDTO;
+import model.jfr.DbStatementEvent;
 
 /**
+ * Runs every read of the DAL. The connection, statement and result set are
+ * opened and closed here, so callers only supply the SQL, its parameters and
+ * a {@link RowMapper}; nothing JDBC escapes this class.
  *
  * @author fawad
  */
 public class DBReader {
-    ResultSet getRecords(Connection connection, Response responseObj,String query) {
-        PreparedStatement statement = null;
-        try {
-            statement = connection.prepareStatement(query);
-            return statement.executeQuery();
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
-            responseObj.messagesList.add(new Message(e.getMessage(), MessageType.Exception));
-        }
-        return null;
+
+    private static final AtomicInteger OPEN_HANDLES = new AtomicInteger();
+    // MySQL Connector/J sends the rows of a forward-only, read-only statement
+    // one at a time with this fetch size, instead of reading them all first
+    static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final IConnection connectionSource;
+
+    public DBReader(IConnection connectionSource) {
+        this.connectionSource = connectionSource;
     }
 
-    ResultSet getUser(Response responseObj, UserDTO user, Connection connection, String query) {
-        PreparedStatement statement = null;
+    /**
+     * Number of connections, statements and result sets opened by any
+     * DBReader and not closed yet. Zero whenever no query is running.
+     */
+    public static int getOpenHandleCount() {
+        return OPEN_HANDLES.get();
+    }
 
-        try {
-            statement = connection.prepareStatement(query);
-            statement.setString(1, user.getUsername());
-            statement.setString(2, user.getPassword());
-            return statement.executeQuery();
-        } catch (Exception ex) {
-            try {
-                connection.close();
-            } catch (SQLException ex1) {
-                   }
-            responseObj.messagesList.add(new Message(ex.getMessage(), MessageType.Exception));
+    public <T> ArrayList<T> getRecords(String query, Response responseObj, RowMapper<T> mapper, Object... params) {
+        return getRecordsByName(query, responseObj, byPosition(mapper), params);
+    }
+
+    /**
+     * Like {@link #getRecords}, with a {@link ColumnMapper} that finds its
+     * columns by name once for the statement.
+     */
+    public <T> ArrayList<T> getRecordsByName(String query, Response responseObj, ColumnMapper<T> columns, Object... params) {
+        ArrayList<T> records = new ArrayList<>();
+        execute(query, responseObj, false, resultSet -> {
+            RowMapper<T> mapper = columns.bind(resultSet);
+            while (resultSet.next()) {
+                records.add(mapper.mapRow(resultSet));
+            }
+            return null;
+        }, records::size, params);
+        return records;
+    }
+
+    /**
+     * Hands each row to the consumer as soon as it is read and keeps none of
+     * them, so a result of any size is read in constant memory. The
+     * connection is held until the consumer has seen the last row. Returns
+     * the number of rows read; a consumer that throws stops the read and
+     * the error is added to the response.
+     */
+    public <T> long forEachRecord(String query, Response responseObj, RowMapper<T> mapper, Consumer<? super T> consumer,
+            Object... params) {
+        return forEachRecordByName(query, responseObj, byPosition(mapper), consumer, params);
+    }
+
+    /**
+     * Like {@link #forEachRecord}, with a {@link ColumnMapper}.
+     */
+    public <T> long forEachRecordByName(String query, Response responseObj, ColumnMapper<T> columns,
+            Consumer<? super T> consumer, Object... params) {
+        long[] count = {0};
+        execute(query, responseObj, true, resultSet -> {
+            RowMapper<T> mapper = columns.bind(resultSet);
+            while (resultSet.next()) {
+                consumer.accept(mapper.mapRow(resultSet));
+                count[0]++;
+            }
+            return null;
+        }, () -> count[0], params);
+        return count[0];
+    }
+
+    /**
+     * Returns the first row mapped, or null when the query returned nothing.
+     */
+    public <T> T getRecord(String query, Response responseObj, RowMapper<T> mapper, Object... params) {
+        return getRecordByName(query, responseObj, byPosition(mapper), params);
+    }
+
+    /**
+     * Like {@link #getRecord}, with a {@link ColumnMapper}.
+     */
+    public <T> T getRecordByName(String query, Response responseObj, ColumnMapper<T> columns, Object... params) {
+        Object[] row = new Object[1];
+        execute(query, responseObj, false, resultSet -> row[0] = resultSet.next() ? columns.bind(resultSet).mapRow(resultSet) : null,
+                () -> row[0] == null ? 0 : 1, params);
+        @SuppressWarnings("unchecked")
+        T record = (T) row[0];
+        return record;
+    }
 
+    /**
+     * Gives the whole ResultSet to the mapper, which may move the cursor.
+     * The ResultSet is closed as soon as the mapper returns.
+     */
+    public <T> T execute(String query, Response responseObj, ResultSetMapper<T> resultSetMapper, Object... params) {
+        return execute(query, responseObj, false, resultSetMapper, () -> -1, params);
+    }
+
+    private <T> T execute(String query, Response responseObj, boolean streaming, ResultSetMapper<T> resultSetMapper,
+            LongSupplier rows, Object... params) {
+        DbStatementEvent event = new DbStatementEvent();
+        event.begin();
+        Connection connection = connectionSource.getConnection();
+        if (connection == null) {
+            responseObj.messagesList.add(new Message("Database Connection issue please contact customer services.", MessageType.Exception));
+            return null;
+        }
+        try (Handle<Connection> c = new Handle<>(connection, connection::close)) {
+            PreparedStatement prepared = prepare(c.resource, query, streaming);
+            try (Handle<PreparedStatement> statement = new Handle<>(prepared, prepared::close)) {
+                bind(statement.resource, params);
+                ResultSet result = statement.resource.executeQuery();
+                try (Handle<ResultSet> resultSet = new Handle<>(result, result::close)) {
+                    return resultSetMapper.mapResultSet(resultSet.resource);
+                }
+            }
+        } catch (Exception e) {
+            System.out.println(e.getMessage());
+            responseObj.messagesList.add(new Message(e.getMessage(), MessageType.Exception));
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.set(query, rows.getAsLong(), 0);
+                event.commit();
+            }
         }
         return null;
     }
 
-    ResultSet searchProductsByName(Connection connection, Response res, String query) {
-        throw new UnsupportedOperationException("Not supported yet."); // Generated from nbfs://nbhost/SystemFileSystem/Templates/Classes/Code/GeneratedMethodBody
+    private static <T> ColumnMapper<T> byPosition(RowMapper<T> mapper) {
+        return resultSet -> mapper;
     }
 
-    ResultSet getCategoryByName(Connection connection, String query, String selectedItem) {
-        PreparedStatement statement = null;
+    private static PreparedStatement prepare(Connection connection, String query, boolean streaming) throws SQLException {
+        if (!streaming) {
+            return connection.prepareStatement(query);
+        }
+        // not taken from the pool's statement cache, which only keeps plain statements
+        PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(STREAMING_FETCH_SIZE);
+        return statement;
+    }
 
+    /**
+     * Runs an INSERT, UPDATE or DELETE and records it as a
+     * {@link DbStatementEvent}.
+     */
+    static int executeUpdate(PreparedStatement statement, String sql) throws SQLException {
+        DbStatementEvent event = new DbStatementEvent();
+        event.begin();
+        int rows = -1;
         try {
-            statement = connection.prepareStatement(query);
-            statement.setString(1, selectedItem);
-            return statement.executeQuery();
-        } catch (Exception ex) {
-           
+            rows = statement.executeUpdate();
+            return rows;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.set(sql, rows, 0);
+                event.commit();
+            }
         }
-        return null;
     }
 
-    ResultSet getSupplierByName(Connection connection, String query, String string) {
-        PreparedStatement statement = null;
-
+    /**
+     * Runs a batch of {@code batchSize} statements and records it as one
+     * {@link DbStatementEvent} with the total of rows changed.
+     */
+    static int[] executeBatch(PreparedStatement statement, String sql, int batchSize) throws SQLException {
+        DbStatementEvent event = new DbStatementEvent();
+        event.begin();
+        int[] counts = null;
         try {
-            statement = connection.prepareStatement(query);
-            statement.setString(1, string);
-            return statement.executeQuery();
-        } catch (Exception ex) {
-           
+            counts = statement.executeBatch();
+            return counts;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                long rows = -1;
+                if (counts != null) {
+                    rows = 0;
+                    for (int count : counts) {
+                        rows += Math.max(0, count);
+                    }
+                }
+                event.set(sql, rows, batchSize);
+                event.commit();
+            }
+        }
+    }
+
+    static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
         }
-        return null;
     }
 
-    ResultSet getProductById(Connection connection, String query, int searchId) {
-         PreparedStatement statement = null;
+    /**
+     * Closes a JDBC resource; Connection, Statement and ResultSet share no
+     * interface whose close() throws only SQLException.
+     */
+    @FunctionalInterface
+    private interface Closer {
 
-        try {
-            statement = connection.prepareStatement(query);
-            statement.setInt(1, searchId);
-            return statement.executeQuery();
-        } catch (Exception ex) {
-           
+        void close() throws SQLException;
+    }
+
+    /**
+     * Counts a JDBC resource as open until it has actually been closed.
+     */
+    private static final class Handle<T> implements AutoCloseable {
+
+        private final T resource;
+        private final Closer closer;
+
+        Handle(T resource, Closer closer) {
+            this.resource = resource;
+            this.closer = closer;
+            OPEN_HANDLES.incrementAndGet();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                closer.close();
+            } finally {
+                OPEN_HANDLES.decrementAndGet();
+            }
         }
-        return null;
     }
 }
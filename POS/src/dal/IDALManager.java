@@ -4,9 +4,20 @@
  */
 package dal;
 
+import java.time.LocalDateTime;
+import dal.db.PoolStatistics;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import model.dto.CategoryDTO;
 import model.dto.CustomerDTO;
+import model.dto.EmployeeDTO;
+import model.dto.ProductDTO;
+import model.dto.ReportDimension;
+import model.dto.ReportRowDTO;
 import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
 import model.dto.SupplierDTO;
 import model.dto.UserDTO;
 
@@ -15,6 +26,8 @@ import model.dto.UserDTO;
  * @author fawad
  */
 public interface IDALManager {
+
+    PoolStatistics getConnectionPoolStatistics();
     
      //user methods
 
@@ -41,6 +54,18 @@ public interface IDALManager {
     void deleteCustomer(CustomerDTO customer, Response response);
     
     ArrayList<CustomerDTO> getCustomers(Response response);
+
+    /**
+     * Up to pageSize customers with an id above afterId, in id order: 0 for
+     * the first page, then the last id of the page before.
+     */
+    ArrayList<CustomerDTO> getCustomersPage(int afterId, int pageSize, Response response);
+
+    /**
+     * Hands every customer to the consumer as it is read, for exports and
+     * batch jobs; returns how many were read.
+     */
+    long forEachCustomer(Consumer<? super CustomerDTO> consumer, Response response);
     
      //supplier methods
 
@@ -51,5 +76,95 @@ public interface IDALManager {
     void deleteSupplier(SupplierDTO supplier, Response response);
 
     ArrayList<SupplierDTO> getSuppliers(Response res);
+
+    ArrayList<SupplierDTO> getSuppliersPage(int afterId, int pageSize, Response res);
+
+    SupplierDTO getSupplierByName(String string);
+
+     //employee methods
+
+    ArrayList<EmployeeDTO> getEmployees(Response res);
+
+    ArrayList<EmployeeDTO> getEmployeesPage(int afterId, int pageSize, Response res);
+
+    void saveEmployee(EmployeeDTO employee, Response response);
+
+    void updateEmployee(EmployeeDTO employee, Response response);
+
+    void deleteEmployee(EmployeeDTO employee, Response response);
+
+     //product methods
+
+    void addProduct(ProductDTO product, Response response);
+
+    /**
+     * Adds the products, updating those whose barcode is already there, in
+     * one batch and one transaction: all of them are written or none.
+     */
+    void upsertProducts(List<ProductDTO> products, Response response);
+
+    void updateProduct(ProductDTO product, Response response);
+
+    void deleteProduct(ProductDTO product, Response response);
+
+    /**
+     * Every product with the columns the product list shows. Quantity type
+     * and supplier id are not read and are left unset; use
+     * {@link #getProductById} or {@link #forEachProduct} for whole products.
+     */
+    ArrayList<ProductDTO> getProducts(Response response);
+
+    /**
+     * Like {@link #getProducts}, one page after the given id.
+     */
+    ArrayList<ProductDTO> getProductsPage(int afterId, int pageSize, Response response);
+
+    long forEachProduct(Consumer<? super ProductDTO> consumer, Response response);
+
+    /**
+     * Like {@link #getProducts}, for the products whose name contains the
+     * text.
+     */
+    ArrayList<ProductDTO> searchProductsByName(String searchName, Response res);
+
+    ProductDTO getProductById(int searchId, Response response);
+
+     //category methods
+
+    void saveCategory(CategoryDTO category, Response response);
+
+    void updateCategory(CategoryDTO category, Response response);
+
+    void deleteCategory(CategoryDTO category, Response response);
+
+    ArrayList<CategoryDTO> getCategories(Response res);
+
+    ArrayList<CategoryDTO> searchCategoryByName(String searchName, Response res);
+
+    CategoryDTO getCategoryByName(String selectedItem);
+
+    ArrayList<CustomerDTO> searchCustomersByName(String searchName, Response res);
+
+     //sale methods
+
+    void saveSale(SaleDTO sale, Response response);
+
+    /**
+     * Like {@link #forEachCustomer}, with each sale's header only; its
+     * items are left empty.
+     */
+    long forEachSale(Consumer<? super SaleDTO> consumer, Response response);
+
+    /**
+     * Like {@link #forEachSale}, for the lines of every sale, each carrying
+     * its sale id.
+     */
+    long forEachSaleItem(Consumer<? super SaleItemDTO> consumer, Response response);
+
+     //report methods
+
+    ArrayList<ReportRowDTO> getHourlyRevenue(LocalDateTime from, LocalDateTime to, Response response);
+
+    ArrayList<ReportRowDTO> getSalesBreakdown(ReportDimension dimension, LocalDateTime from, LocalDateTime to, Response response);
     
 }
@@ -10,11 +10,22 @@ import model.dto.Response;
  *
  * @author fawad
  */
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.ResultSet;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import model.dto.CategoryDTO;
@@ -23,16 +34,29 @@ import model.dto.EmployeeDTO;
 import model.dto.Message;
 import model.dto.MessageType;
 import model.dto.ProductDTO;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
 import model.dto.SupplierDTO;
 import model.dto.UserDTO;
 
 public class ObjectAdder {
 
+    private static final String UPDATE_STOCK = "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+    private static final String INSERT_SALE = "INSERT INTO sales (customer_id, sale_date, total_amount, sale_uid) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_SALE_ITEM = "INSERT INTO sale_items (sale_id, product_id, product_name, quantity, unit_price, total_price, net_total) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_PRODUCT = "INSERT INTO products (name, barcode, price, stock_quantity, category_id, quantity_type, suppliers_id) VALUES (?, ?, ?, ?, ?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE name = VALUES(name), price = VALUES(price), stock_quantity = VALUES(stock_quantity), category_id = VALUES(category_id), quantity_type = VALUES(quantity_type), suppliers_id = VALUES(suppliers_id)";
+    private static final String UPSERT_PRODUCT_ROLLUP = "INSERT INTO sales_hourly_product (bucket_hour, product_id, quantity, revenue, line_count) VALUES (?, ?, ?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue), line_count = line_count + VALUES(line_count)";
+    private static final String UPSERT_CATEGORY_ROLLUP = "INSERT INTO sales_hourly_category (bucket_hour, category_id, quantity, revenue, line_count) VALUES (?, ?, ?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue), line_count = line_count + VALUES(line_count)";
+    private static final String UPSERT_CASHIER_ROLLUP = "INSERT INTO sales_hourly_cashier (bucket_hour, cashier, sale_count, quantity, revenue) VALUES (?, ?, ?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE sale_count = sale_count + VALUES(sale_count), quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue)";
+
     void addUser(UserDTO userObj, Connection connection, Response objResponse) {
-        try {
-            // Prepare the SQL query
-            String query = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
-            PreparedStatement statement = connection.prepareStatement(query);
+        // Prepare the SQL query
+        String query = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, userObj.getUsername());
@@ -40,7 +64,7 @@ public class ObjectAdder {
             statement.setString(3, userObj.getRole());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Course added successfully
@@ -63,14 +87,15 @@ public class ObjectAdder {
         try {
             connection.setAutoCommit(false); // Start transaction
             String query = "INSERT INTO users(username, password, role) VALUES(?, ?, ?)";
-            PreparedStatement pstmt = connection.prepareStatement(query);
-            for (UserDTO user : users) {
-                pstmt.setString(1, user.getUsername());
-                pstmt.setString(2, user.getPassword());
-                pstmt.setString(3, user.getRole());
-                pstmt.addBatch();
-            }
-            pstmt.executeBatch(); // Execute all the statements as a batch
+            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+                for (UserDTO user : users) {
+                    pstmt.setString(1, user.getUsername());
+                    pstmt.setString(2, user.getPassword());
+                    pstmt.setString(3, user.getRole());
+                    pstmt.addBatch();
+                }
+                DBReader.executeBatch(pstmt, query, users.size()); // Execute all the statements as a batch
+            }
             connection.commit(); // Commit the transaction
         } catch (SQLException ex) {
             try {
@@ -83,17 +108,16 @@ public class ObjectAdder {
     }
 
     void addCustomer(CustomerDTO customer, Connection connection, Response objResponse) {
-        try {
-            // Prepare the SQL query
-            String query = "INSERT INTO customers (name, phoneNumber) VALUES (?, ?)";
-            PreparedStatement statement = connection.prepareStatement(query);
+        // Prepare the SQL query
+        String query = "INSERT INTO customers (name, phoneNumber) VALUES (?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, customer.getName());
             statement.setString(2, customer.getPhoneNumber());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Customer added successfully
@@ -113,17 +137,16 @@ public class ObjectAdder {
     }
 
     void addSupplier(SupplierDTO supplier, Connection connection, Response response) {
-        try {
-            // Prepare the SQL query
-            String query = "INSERT INTO suppliers (name, phoneNumber) VALUES (?, ?)";
-            PreparedStatement statement = connection.prepareStatement(query);
+        // Prepare the SQL query
+        String query = "INSERT INTO suppliers (name, phoneNumber) VALUES (?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, supplier.getName());
             statement.setString(2, supplier.getPhoneNumber());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Customer added successfully
@@ -143,17 +166,16 @@ public class ObjectAdder {
     }
 
     void saveEmployee(EmployeeDTO employee, Connection connection, Response response) {
-        try {
-            // Prepare the SQL query
-            String query = "INSERT INTO employees (name, phoneNumber) VALUES (?, ?)";
-            PreparedStatement statement = connection.prepareStatement(query);
+        // Prepare the SQL query
+        String query = "INSERT INTO employees (name, phoneNumber) VALUES (?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, employee.getName());
             statement.setString(2, employee.getPhoneNumber());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Customer added successfully
@@ -173,10 +195,9 @@ public class ObjectAdder {
     }
 
     void addProduct(ProductDTO product, Connection connection, Response response) {
-        try {
-            // Prepare the SQL query
-            String query = "INSERT INTO products (name, barcode, price, stock_quantity, category_id, quantity_type,suppliers_id) VALUES (?, ?, ?, ?, ?, ? , ?)";
-            PreparedStatement statement = connection.prepareStatement(query);
+        // Prepare the SQL query
+        String query = "INSERT INTO products (name, barcode, price, stock_quantity, category_id, quantity_type,suppliers_id) VALUES (?, ?, ?, ?, ?, ? , ?)";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, product.getProductName());
@@ -188,7 +209,7 @@ public class ObjectAdder {
             statement.setInt(7, product.getSupplierId()); // Use enum name
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Product added successfully
@@ -208,16 +229,15 @@ public class ObjectAdder {
     }
 
     void saveCategory(CategoryDTO category, Connection connection, Response response) {
-        try {
-            // Prepare the SQL query
-            String query = "INSERT INTO category (name) VALUES (?)";
-            PreparedStatement statement = connection.prepareStatement(query);
+        // Prepare the SQL query
+        String query = "INSERT INTO category (name) VALUES (?)";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, category.getName());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Customer added successfully
@@ -235,4 +255,215 @@ public class ObjectAdder {
             }
         }
     }
+
+    /**
+     * Adds the products in one batch, updating by barcode those already
+     * there, and commits them together. With rewriteBatchedStatements the
+     * batch reaches MySQL as a few multi-row inserts.
+     */
+    void upsertProducts(List<ProductDTO> products, Connection connection, Response response) {
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_PRODUCT)) {
+                for (ProductDTO product : products) {
+                    statement.setString(1, product.getProductName());
+                    statement.setString(2, product.getBarcode());
+                    statement.setDouble(3, product.getPrice());
+                    statement.setDouble(4, product.getStockQuantity());
+                    statement.setInt(5, product.getCategoryId());
+                    statement.setString(6, product.getQuantityType());
+                    statement.setInt(7, product.getSupplierId());
+                    statement.addBatch();
+                }
+                DBReader.executeBatch(statement, UPSERT_PRODUCT, products.size());
+            }
+            connection.commit();
+        } catch (SQLException ex) {
+            try {
+                connection.rollback();
+            } catch (SQLException ex1) {
+                Logger.getLogger(ObjectAdder.class.getName()).log(Level.SEVERE, null, ex1);
+            }
+            response.messagesList.add(new Message("Database Error while importing products " + ex.getMessage(), MessageType.Exception));
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException ex) {
+                Logger.getLogger(ObjectAdder.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        }
+    }
+
+    /**
+     * Writes the sale header and its lines, takes the sold quantities off
+     * stock and adds the sale to the hourly report rollups, in one
+     * transaction. Every step is a single statement or batch, so the number
+     * of round trips does not grow with the basket. If any product does not
+     * have enough stock nothing is written.
+     */
+    void addSale(SaleDTO sale, Connection connection, Response response) {
+        // one stock update per product, in id order so concurrent sales lock rows in the same order
+        TreeMap<Integer, Integer> quantities = new TreeMap<>();
+        Map<Integer, String> names = new HashMap<>();
+        for (SaleItemDTO item : sale.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            names.put(item.getProductId(), item.getProductName());
+        }
+        if (sale.getSaleDate() == null) {
+            sale.setSaleDate(LocalDateTime.now());
+        }
+        sale.spreadTotalOverLines();
+        try {
+            connection.setAutoCommit(false);
+            if (sale.getSaleUid() != null && isSaleSaved(sale, connection)) {
+                // replayed from the sales journal after it had already been committed
+                connection.commit();
+                response.messagesList.add(new Message("Sale was already saved.", MessageType.Information));
+                return;
+            }
+            try (PreparedStatement stock = connection.prepareStatement(UPDATE_STOCK);
+                    PreparedStatement header = connection.prepareStatement(INSERT_SALE, Statement.RETURN_GENERATED_KEYS);
+                    PreparedStatement lines = connection.prepareStatement(INSERT_SALE_ITEM)) {
+
+                for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+                    stock.setInt(1, entry.getValue());
+                    stock.setInt(2, entry.getKey());
+                    stock.setInt(3, entry.getValue());
+                    stock.addBatch();
+                }
+                int[] updated = DBReader.executeBatch(stock, UPDATE_STOCK, quantities.size());
+                StringBuilder outOfStock = new StringBuilder();
+                int index = 0;
+                for (Integer productId : quantities.keySet()) {
+                    if (updated[index++] == 0) {
+                        outOfStock.append(outOfStock.length() == 0 ? "" : ", ").append(names.get(productId));
+                    }
+                }
+                if (outOfStock.length() > 0) {
+                    connection.rollback();
+                    response.messagesList.add(new Message("Not enough stock for " + outOfStock + ".", MessageType.Error));
+                    return;
+                }
+
+                if (sale.getCustomer() != null) {
+                    header.setInt(1, sale.getCustomer().getId());
+                } else {
+                    header.setNull(1, Types.INTEGER);
+                }
+                header.setTimestamp(2, Timestamp.valueOf(sale.getSaleDate()));
+                header.setDouble(3, sale.getTotalAmount());
+                header.setString(4, sale.getSaleUid());
+                DBReader.executeUpdate(header, INSERT_SALE);
+                try (ResultSet keys = header.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        sale.setSaleId(keys.getInt(1));
+                    }
+                }
+
+                for (SaleItemDTO item : sale.getItems()) {
+                    lines.setInt(1, sale.getSaleId());
+                    lines.setInt(2, item.getProductId());
+                    lines.setString(3, item.getProductName());
+                    lines.setInt(4, item.getQuantity());
+                    lines.setDouble(5, item.getPrice());
+                    lines.setDouble(6, item.getTotal());
+                    lines.setDouble(7, item.getNetTotal());
+                    lines.addBatch();
+                }
+                DBReader.executeBatch(lines, INSERT_SALE_ITEM, sale.getItems().size());
+                addToRollups(sale, connection);
+                connection.commit();
+                response.messagesList.add(new Message("Sale saved successfully.", MessageType.Information));
+            }
+        } catch (SQLException ex) {
+            sale.setSaleId(0);
+            try {
+                connection.rollback();
+            } catch (SQLException ex1) {
+                Logger.getLogger(ObjectAdder.class.getName()).log(Level.SEVERE, null, ex1);
+            }
+            response.messagesList.add(new Message("Database Error while saving sale " + ex.getMessage(), MessageType.Exception, ex));
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException ex) {
+                Logger.getLogger(ObjectAdder.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        }
+    }
+
+    /**
+     * Adds the sale to this hour's rows of the product, category and cashier
+     * rollups that the reports read instead of the sale lines. Keys are
+     * written in order so concurrent sales lock rollup rows in the same order.
+     * Revenue is the lines' net totals, so a cart discount is taken off the
+     * products and categories it was spread over and every report adds up
+     * to what was charged.
+     */
+    private void addToRollups(SaleDTO sale, Connection connection) throws SQLException {
+        TreeMap<Integer, Rollup> products = new TreeMap<>();
+        TreeMap<Integer, Rollup> categories = new TreeMap<>();
+        int units = 0;
+        BigDecimal saleRevenue = BigDecimal.ZERO;
+        for (SaleItemDTO item : sale.getItems()) {
+            units += item.getQuantity();
+            BigDecimal revenue = BigDecimal.valueOf(item.getNetTotal()).setScale(2, RoundingMode.HALF_UP);
+            saleRevenue = saleRevenue.add(revenue);
+            products.computeIfAbsent(item.getProductId(), id -> new Rollup()).add(item.getQuantity(), revenue);
+            categories.computeIfAbsent(item.getCategoryId(), id -> new Rollup()).add(item.getQuantity(), revenue);
+        }
+        Timestamp hour = Timestamp.valueOf(sale.getSaleDate().truncatedTo(ChronoUnit.HOURS));
+        try (PreparedStatement product = connection.prepareStatement(UPSERT_PRODUCT_ROLLUP);
+                PreparedStatement category = connection.prepareStatement(UPSERT_CATEGORY_ROLLUP);
+                PreparedStatement cashier = connection.prepareStatement(UPSERT_CASHIER_ROLLUP)) {
+            addRollupBatch(product, hour, products);
+            addRollupBatch(category, hour, categories);
+            DBReader.executeBatch(product, UPSERT_PRODUCT_ROLLUP, products.size());
+            DBReader.executeBatch(category, UPSERT_CATEGORY_ROLLUP, categories.size());
+
+            cashier.setTimestamp(1, hour);
+            cashier.setString(2, sale.getCashier() == null ? "" : sale.getCashier());
+            cashier.setInt(3, 1);
+            cashier.setInt(4, units);
+            cashier.setBigDecimal(5, saleRevenue);
+            DBReader.executeUpdate(cashier, UPSERT_CASHIER_ROLLUP);
+        }
+    }
+
+    private static void addRollupBatch(PreparedStatement statement, Timestamp hour, Map<Integer, Rollup> rollups) throws SQLException {
+        for (Map.Entry<Integer, Rollup> entry : rollups.entrySet()) {
+            statement.setTimestamp(1, hour);
+            statement.setInt(2, entry.getKey());
+            statement.setInt(3, entry.getValue().quantity);
+            statement.setBigDecimal(4, entry.getValue().revenue);
+            statement.setInt(5, entry.getValue().lines);
+            statement.addBatch();
+        }
+    }
+
+    private static class Rollup {
+
+        int quantity;
+        int lines;
+        BigDecimal revenue = BigDecimal.ZERO;
+
+        void add(int quantity, BigDecimal revenue) {
+            this.quantity += quantity;
+            this.lines++;
+            this.revenue = this.revenue.add(revenue);
+        }
+    }
+
+    private boolean isSaleSaved(SaleDTO sale, Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM sales WHERE sale_uid = ?")) {
+            statement.setString(1, sale.getSaleUid());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    sale.setSaleId(resultSet.getInt(1));
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
 }
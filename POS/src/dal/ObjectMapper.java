@@ -1,17 +1,20 @@
 package dal;
 
-import java.util.ArrayList;
+import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import model.dto.CategoryDTO;
 import model.dto.CustomerDTO;
 import model.dto.EmployeeDTO;
 import model.dto.Message;
 import model.dto.MessageType;
 import model.dto.ProductDTO;
+import model.dto.ReportRowDTO;
 import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
 import model.dto.SupplierDTO;
 import model.dto.UserDTO;
 
@@ -21,182 +24,161 @@ import model.dto.UserDTO;
  */
 public class ObjectMapper {
 
-    void verifyUser(ResultSet resultSet, UserDTO user, Response responseObj) {
-        try {
-            if (resultSet.next()) {
-                user.setRole(resultSet.getString(3));
-                responseObj.messagesList.add(new Message("Successfully Login", MessageType.Information));
-            } else {
-                responseObj.messagesList.add(new Message("Invalid credentials check your email and password", MessageType.Error));
-            }
-        } catch (SQLException ex) {
-            Message message = new Message("Resultset issue please contact customer services.", MessageType.Exception);
-            responseObj.messagesList.add((message));
-//            Logger.getLogger(DALManager.class.getName()).log(Level.SEVERE, null, ex);
+    /**
+     * The product columns the lists, the search and the catalog use.
+     */
+    static final String PRODUCT_LIST_COLUMNS = "id, name, barcode, price, stock_quantity, category_id";
+    static final String PRODUCT_COLUMNS = PRODUCT_LIST_COLUMNS + ", quantity_type, suppliers_id";
+    static final String PERSON_COLUMNS = "id, name, phoneNumber";
+    static final String CATEGORY_COLUMNS = "id, name";
+
+    void verifyUser(UserDTO storedUser, UserDTO user, Response responseObj) {
+        if (storedUser != null) {
+            user.setRole(storedUser.getRole());
+            responseObj.messagesList.add(new Message("Successfully Login", MessageType.Information));
+        } else {
+            responseObj.messagesList.add(new Message("Invalid credentials check your email and password", MessageType.Error));
         }
     }
 
-    ArrayList<UserDTO> getUsers(ResultSet rs) {
-        ArrayList<UserDTO> userList = new ArrayList<>();
-        try {
-            while (rs.next()) {
-                UserDTO objUser = new UserDTO();
-                objUser.setUsername(rs.getString(1));
-                objUser.setPassword(rs.getString(2));
-                objUser.setRole(rs.getString(3));
-
-                userList.add(objUser);
-            }
-        } catch (Exception e) {
-        }
-        return userList;
+    /**
+     * Maps a summed rollup row (report_key, row_count, quantity, revenue);
+     * the label is filled in by the controller.
+     */
+    ReportRowDTO mapReportRow(ResultSet rs) throws SQLException {
+        BigDecimal revenue = rs.getBigDecimal("revenue");
+        return new ReportRowDTO(rs.getString("report_key"), null, rs.getLong("row_count"), rs.getLong("quantity"),
+                revenue == null ? BigDecimal.ZERO : revenue);
     }
 
-    ArrayList<CustomerDTO> getCustomers(ResultSet resultSet) {
-        ArrayList<CustomerDTO> customerList = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                CustomerDTO objCustomer = new CustomerDTO();
-                objCustomer.setId(resultSet.getInt(1));
-                objCustomer.setName(resultSet.getString(2));
-                objCustomer.setPhoneNumber(resultSet.getString(3));
-
-                customerList.add(objCustomer);
-            }
-        } catch (Exception e) {
-        }
-        return customerList;
+    /**
+     * Like {@link #mapReportRow}, with the hour as an ISO date-time key.
+     */
+    ReportRowDTO mapHourlyReportRow(ResultSet rs) throws SQLException {
+        ReportRowDTO row = mapReportRow(rs);
+        row.setKey(rs.getTimestamp("report_key").toLocalDateTime().toString());
+        return row;
     }
 
-    ArrayList<SupplierDTO> getSuppliers(ResultSet resultSet) {
-        ArrayList<SupplierDTO> supplierList = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                SupplierDTO supplier = new SupplierDTO();
-                supplier.setId(resultSet.getInt(1));
-                supplier.setName(resultSet.getString(2));
-                supplier.setPhoneNumber(resultSet.getString(3));
-
-                supplierList.add(supplier);
-            }
-        } catch (Exception e) {
+    /**
+     * Maps a sales row (id, customer_id, sale_date, total_amount, sale_uid)
+     * with an empty list of items.
+     */
+    SaleDTO mapSaleHeader(ResultSet rs) throws SQLException {
+        SaleDTO sale = new SaleDTO();
+        sale.setSaleId(rs.getInt("id"));
+        int customerId = rs.getInt("customer_id");
+        if (!rs.wasNull()) {
+            CustomerDTO customer = new CustomerDTO();
+            customer.setId(customerId);
+            sale.setCustomer(customer);
         }
-        return supplierList;
+        Timestamp saleDate = rs.getTimestamp("sale_date");
+        sale.setSaleDate(saleDate == null ? null : saleDate.toLocalDateTime());
+        sale.setTotalAmount(rs.getDouble("total_amount"));
+        sale.setSaleUid(rs.getString("sale_uid"));
+        sale.setItems(new ArrayList<>());
+        return sale;
     }
 
-    ArrayList<EmployeeDTO> getEmployees(ResultSet resultSet) {
-        ArrayList<EmployeeDTO> empList = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                EmployeeDTO emp = new EmployeeDTO();
-                emp.setId(resultSet.getInt(1));
-                emp.setName(resultSet.getString(2));
-                emp.setPhoneNumber(resultSet.getString(3));
-
-                empList.add(emp);
-            }
-        } catch (Exception e) {
-        }
-        return empList;
+    /**
+     * Maps a sale_items row (product_id, product_name, quantity, unit_price,
+     * total_price, net_total).
+     */
+    SaleItemDTO mapSaleItem(ResultSet rs) throws SQLException {
+        SaleItemDTO item = new SaleItemDTO();
+        item.setProductId(rs.getInt("product_id"));
+        item.setProductName(rs.getString("product_name"));
+        item.setQuantity(rs.getInt("quantity"));
+        item.setPrice(rs.getDouble("unit_price"));
+        item.setTotal(rs.getDouble("total_price"));
+        item.setNetTotal(rs.getDouble("net_total"));
+        return item;
     }
 
-    ArrayList<ProductDTO> getProducts(ResultSet resultSet) {
-        ArrayList<ProductDTO> productList = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                ProductDTO product = new ProductDTO();
-                product.setProductId(resultSet.getInt(1));
-                product.setProductName(resultSet.getString(2));
-                product.setBarcode(resultSet.getString(3));
-                product.setPrice(resultSet.getDouble(4));
-                product.setStockQuantity(resultSet.getDouble(5));
-                product.setCategoryId(resultSet.getInt(6));
-                product.setQuantityType(resultSet.getString(9));
-                productList.add(product);
-            }
-        } catch (Exception e) {
-        }
-        return productList;
+    SaleItemDTO mapSaleLine(ResultSet rs) throws SQLException {
+        SaleItemDTO item = mapSaleItem(rs);
+        item.setSaleId(rs.getInt("sale_id"));
+        return item;
     }
 
-    ArrayList<CategoryDTO> getCategories(ResultSet resultSet) {
-        ArrayList<CategoryDTO> catList = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                CategoryDTO cat = new CategoryDTO();
-                cat.setId(resultSet.getInt(1));
-                cat.setName(resultSet.getString(2));
-
-                catList.add(cat);
-            }
-        } catch (Exception e) {
-        }
-        return catList;
+    UserDTO mapUser(ResultSet rs) throws SQLException {
+        UserDTO objUser = new UserDTO();
+        objUser.setUsername(rs.getString(1));
+        objUser.setPassword(rs.getString(2));
+        objUser.setRole(rs.getString(3));
+        return objUser;
     }
 
-    ArrayList<ProductDTO> searchProductsByName(ResultSet resultSet) {
-        ArrayList<ProductDTO> productList = new ArrayList<>();
-        try {
-            while (resultSet.next()) {
-                ProductDTO product = new ProductDTO();
-                product.setProductId(resultSet.getInt(1));
-                product.setProductName(resultSet.getString(2));
-                product.setBarcode(resultSet.getString(3));
-                product.setPrice(resultSet.getDouble(4));
-                product.setStockQuantity(resultSet.getDouble(5));
-                product.setCategoryId(resultSet.getInt(6));
-                product.setQuantityType(resultSet.getString(9));
-                productList.add(product);
-            }
-        } catch (Exception e) {
-        }
-        return productList;
+    /**
+     * Maps a row of {@link #PERSON_COLUMNS}, as are suppliers and employees.
+     */
+    CustomerDTO mapCustomer(ResultSet resultSet) throws SQLException {
+        CustomerDTO objCustomer = new CustomerDTO();
+        objCustomer.setId(resultSet.getInt(1));
+        objCustomer.setName(resultSet.getString(2));
+        objCustomer.setPhoneNumber(resultSet.getString(3));
+        return objCustomer;
     }
 
-     public CategoryDTO getCategoryByName(ResultSet resultSet) {
-        try {
-            if (resultSet.next()) {
-                CategoryDTO cat=new CategoryDTO(resultSet.getInt(1),resultSet.getString(2));
-                return cat;
-            } 
-        } catch (SQLException ex) {
-               
-        }
-        return null;
+    SupplierDTO mapSupplier(ResultSet resultSet) throws SQLException {
+        SupplierDTO supplier = new SupplierDTO();
+        supplier.setId(resultSet.getInt(1));
+        supplier.setName(resultSet.getString(2));
+        supplier.setPhoneNumber(resultSet.getString(3));
+        return supplier;
     }
 
-    SupplierDTO getSupplierByName(ResultSet resultSet) {
-        try {
-            if (resultSet.next()) {
-                SupplierDTO cat=new SupplierDTO(resultSet.getInt(1),resultSet.getString(2),resultSet.getString(2));
-                return cat;
-            } 
-        } catch (SQLException ex) {
-               
-        }
-        return null;
+    EmployeeDTO mapEmployee(ResultSet resultSet) throws SQLException {
+        EmployeeDTO emp = new EmployeeDTO();
+        emp.setId(resultSet.getInt(1));
+        emp.setName(resultSet.getString(2));
+        emp.setPhoneNumber(resultSet.getString(3));
+        return emp;
     }
 
-    ProductDTO getProductById(ResultSet resultSet, Response response) {
-        try {
-            if(resultSet.next()){
-                ProductDTO product = new ProductDTO();
-                product.setProductId(resultSet.getInt(1));
-                product.setProductName(resultSet.getString(2));
-                product.setBarcode(resultSet.getString(3));
-                product.setPrice(resultSet.getDouble(4));
-                product.setStockQuantity(resultSet.getDouble(5));
-                product.setCategoryId(resultSet.getInt(6));
-                product.setQuantityType(resultSet.getString(9));
-                return product;
-            }
-        } catch (SQLException ex) {
-          
-        }
-        return null;
+    /**
+     * Maps the {@link #PRODUCT_LIST_COLUMNS}; quantity type and supplier are
+     * left unset.
+     */
+    RowMapper<ProductDTO> productListColumns(ResultSet resultSet) throws SQLException {
+        int id = resultSet.findColumn("id");
+        int name = resultSet.findColumn("name");
+        int barcode = resultSet.findColumn("barcode");
+        int price = resultSet.findColumn("price");
+        int stock = resultSet.findColumn("stock_quantity");
+        int categoryId = resultSet.findColumn("category_id");
+        return rs -> {
+            ProductDTO product = new ProductDTO();
+            product.setProductId(rs.getInt(id));
+            product.setProductName(rs.getString(name));
+            product.setBarcode(rs.getString(barcode));
+            product.setPrice(rs.getDouble(price));
+            product.setStockQuantity(rs.getDouble(stock));
+            product.setCategoryId(rs.getInt(categoryId));
+            return product;
+        };
+    }
+
+    /**
+     * Maps all the {@link #PRODUCT_COLUMNS}.
+     */
+    RowMapper<ProductDTO> productColumns(ResultSet resultSet) throws SQLException {
+        RowMapper<ProductDTO> listColumns = productListColumns(resultSet);
+        int quantityType = resultSet.findColumn("quantity_type");
+        int supplierId = resultSet.findColumn("suppliers_id");
+        return rs -> {
+            ProductDTO product = listColumns.mapRow(rs);
+            product.setQuantityType(rs.getString(quantityType));
+            product.setSupplierId(rs.getInt(supplierId));
+            return product;
+        };
     }
 
-    ArrayList<CategoryDTO> searchCategoryByName(ResultSet resultSet) {
-        throw new UnsupportedOperationException("Not supported yet."); // Generated from nbfs://nbhost/SystemFileSystem/Templates/Classes/Code/GeneratedMethodBody
+    CategoryDTO mapCategory(ResultSet resultSet) throws SQLException {
+        CategoryDTO cat = new CategoryDTO();
+        cat.setId(resultSet.getInt(1));
+        cat.setName(resultSet.getString(2));
+        return cat;
     }
 }
@@ -25,17 +25,16 @@ public class ObjectModifier {
 
     
     public void updatePassword(UserDTO userObj, Connection connection, Response responseObj) {
-        try {
-            // Prepare the SQL query
-            String query = "UPDATE users SET password = ? WHERE username = ?";
-            PreparedStatement statement = connection.prepareStatement(query);
+        // Prepare the SQL query
+        String query = "UPDATE users SET password = ? WHERE username = ?";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, userObj.getPassword());
             statement.setString(2, userObj.getUsername());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Password updated successfully
@@ -51,10 +50,9 @@ public class ObjectModifier {
     }
 
     void updateCustomer(CustomerDTO customer, Connection connection, Response responseObj) {
-        try {
-            // Prepare the SQL query
-            String query = "UPDATE customers SET name = ?, phoneNumber = ? WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(query);
+        // Prepare the SQL query
+        String query = "UPDATE customers SET name = ?, phoneNumber = ? WHERE id = ?";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, customer.getName());
@@ -62,7 +60,7 @@ public class ObjectModifier {
             statement.setInt(3, customer.getId());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Customer updated successfully
@@ -78,10 +76,9 @@ public class ObjectModifier {
     }
 
     void updateSupplier(SupplierDTO suppier, Connection connection, Response responseObj) {
-       try {
-            // Prepare the SQL query
-            String query = "UPDATE suppliers SET name = ?, phoneNumber = ? WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(query);
+       // Prepare the SQL query
+       String query = "UPDATE suppliers SET name = ?, phoneNumber = ? WHERE id = ?";
+       try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, suppier.getName());
@@ -89,7 +86,7 @@ public class ObjectModifier {
             statement.setInt(3, suppier.getId());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Customer updated successfully
@@ -105,10 +102,9 @@ public class ObjectModifier {
     }
 
    void updateProduct(ProductDTO product, Connection connection, Response responseObj) {
-    try {
-        // Prepare the SQL query
-        String query = "UPDATE products SET name = ?, barcode = ?, price = ?, stock_quantity = ? WHERE id = ?";
-        PreparedStatement statement = connection.prepareStatement(query);
+    // Prepare the SQL query
+    String query = "UPDATE products SET name = ?, barcode = ?, price = ?, stock_quantity = ? WHERE id = ?";
+    try (PreparedStatement statement = connection.prepareStatement(query)) {
 
         // Set the values for the parameters in the query
         statement.setString(1, product.getProductName());
@@ -118,7 +114,7 @@ public class ObjectModifier {
         statement.setInt(5, product.getProductId());
 
         // Execute the query
-        int rowsAffected = statement.executeUpdate();
+        int rowsAffected = DBReader.executeUpdate(statement, query);
 
         if (rowsAffected > 0) {
             // Product updated successfully
@@ -134,10 +130,9 @@ public class ObjectModifier {
 }
 
     void updateEmployee(EmployeeDTO employee, Connection connection, Response responseObj) {
-         try {
-            // Prepare the SQL query
-            String query = "UPDATE employees SET name = ?, phoneNumber = ? WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(query);
+         // Prepare the SQL query
+         String query = "UPDATE employees SET name = ?, phoneNumber = ? WHERE id = ?";
+         try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, employee.getName());
@@ -145,7 +140,7 @@ public class ObjectModifier {
             statement.setInt(3, employee.getId());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Customer updated successfully
@@ -161,17 +156,16 @@ public class ObjectModifier {
     }
 
     void updateCategory(CategoryDTO category, Connection connection, Response responseObj) {
-        try {
-            // Prepare the SQL query
-            String query = "UPDATE category SET name = ? WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(query);
+        // Prepare the SQL query
+        String query = "UPDATE category SET name = ? WHERE id = ?";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             // Set the values for the parameters in the query
             statement.setString(1, category.getName());
             statement.setInt(2, category.getId());
 
             // Execute the query
-            int rowsAffected = statement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(statement, query);
 
             if (rowsAffected > 0) {
                 // Customer updated successfully
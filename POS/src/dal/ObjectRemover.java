@@ -21,7 +21,7 @@ public class ObjectRemover {
             String query = "DELETE FROM users WHERE username = ?";
             preparedStatement = connection.prepareStatement(query);
             preparedStatement.setString(1, userObj.getUsername());
-            int rowsAffected = preparedStatement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(preparedStatement, query);
             if (rowsAffected > 0) {
                 responseObj.messagesList.add(new Message("User Deleted successfully.",MessageType.Information));
             } else {
@@ -48,7 +48,7 @@ public class ObjectRemover {
             String query = "DELETE FROM customers WHERE id = ?";
             preparedStatement = connection.prepareStatement(query);
             preparedStatement.setInt(1, customer.getId());
-            int rowsAffected = preparedStatement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(preparedStatement, query);
             if (rowsAffected > 0) {
                 response.messagesList.add(new Message("Customer Deleted successfully.",MessageType.Information));
             } else {
@@ -74,7 +74,7 @@ public class ObjectRemover {
             String query = "DELETE FROM suppliers WHERE id = ?";
             preparedStatement = connection.prepareStatement(query);
             preparedStatement.setInt(1, supplier.getId());
-            int rowsAffected = preparedStatement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(preparedStatement, query);
             if (rowsAffected > 0) {
                 response.messagesList.add(new Message("Supplier Deleted successfully.",MessageType.Information));
             } else {
@@ -100,7 +100,7 @@ public class ObjectRemover {
             String query = "DELETE FROM employees WHERE id = ?";
             preparedStatement = connection.prepareStatement(query);
             preparedStatement.setInt(1, employee.getId());
-            int rowsAffected = preparedStatement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(preparedStatement, query);
             if (rowsAffected > 0) {
                 response.messagesList.add(new Message("Supplier Deleted successfully.",MessageType.Information));
             } else {
@@ -126,7 +126,7 @@ public class ObjectRemover {
             String query = "DELETE FROM products WHERE id = ?";
             preparedStatement = connection.prepareStatement(query);
             preparedStatement.setInt(1, product.getProductId());
-            int rowsAffected = preparedStatement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(preparedStatement, query);
             if (rowsAffected > 0) {
                 response.messagesList.add(new Message("Product Deleted successfully.",MessageType.Information));
             } else {
@@ -152,7 +152,7 @@ public class ObjectRemover {
             String query = "DELETE FROM category WHERE id = ?";
             preparedStatement = connection.prepareStatement(query);
             preparedStatement.setInt(1, category.getId());
-            int rowsAffected = preparedStatement.executeUpdate();
+            int rowsAffected = DBReader.executeUpdate(preparedStatement, query);
             if (rowsAffected > 0) {
                 response.messagesList.add(new Message("Category Deleted successfully.",MessageType.Information));
             } else {
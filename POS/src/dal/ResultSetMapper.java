@@ -0,0 +1,17 @@
+package dal;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads a whole ResultSet, moving the cursor itself, for results that are
+ * not one object per row. The ResultSet is closed as soon as the mapper
+ * returns and must not be kept.
+ *
+ * @author fawad
+ */
+@FunctionalInterface
+public interface ResultSetMapper<T> {
+
+    T mapResultSet(ResultSet resultSet) throws SQLException;
+}
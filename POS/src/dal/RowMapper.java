@@ -0,0 +1,16 @@
+package dal;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a ResultSet to an object. Implementations must not
+ * move the cursor or keep a reference to the ResultSet.
+ *
+ * @author fawad
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
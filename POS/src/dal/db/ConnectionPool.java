@@ -0,0 +1,442 @@
+package dal.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of physical connections taken from another {@link IConnection}
+ * (normally {@link MySQLConnection}). Connections handed out are proxies whose
+ * close() returns the physical connection to the pool. Each physical
+ * connection keeps its own {@link StatementCache}, so statements prepared
+ * through a borrowed connection are reused by later borrowers.
+ *
+ * @author fawad
+ */
+public class ConnectionPool implements IConnection {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final IConnection source;
+    private final int maxPoolSize;
+
+    private long borrowTimeoutMillis = 5_000;
+    private int validationTimeoutSeconds = 2;
+    private long validationBypassMillis = 500;
+    private long idleTimeoutMillis = 10 * 60 * 1000;
+    private long maxLifetimeMillis = 30 * 60 * 1000;
+    private long leakDetectionThresholdMillis = 0;
+    private int statementCacheSize = 64;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition connectionAvailable = lock.newCondition();
+    private final ArrayDeque<PooledEntry> idle = new ArrayDeque<>();
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private int totalConnections;
+    private int threadsAwaiting;
+    private boolean closed;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(IConnection source, int maxPoolSize) {
+        this(source, maxPoolSize, 30_000);
+    }
+
+    public ConnectionPool(IConnection source, int maxPoolSize, long housekeepingPeriodMillis) {
+        if (maxPoolSize < 1) {
+            throw new IllegalArgumentException("maxPoolSize must be at least 1");
+        }
+        this.source = source;
+        this.maxPoolSize = maxPoolSize;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pos-connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::runHousekeeping,
+                housekeepingPeriodMillis, housekeepingPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout when the pool is
+     * exhausted. Returns null when no connection could be obtained, like
+     * {@link MySQLConnection#getConnection()}.
+     */
+    @Override
+    public Connection getConnection() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        while (true) {
+            PooledEntry entry;
+            lock.lock();
+            try {
+                while (idle.isEmpty() && totalConnections >= maxPoolSize && !closed) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        borrowTimeouts.incrementAndGet();
+                        LOGGER.log(Level.WARNING, "Timed out after {0} ms waiting for a connection: {1}",
+                                new Object[]{borrowTimeoutMillis, getStatistics()});
+                        return null;
+                    }
+                    threadsAwaiting++;
+                    try {
+                        connectionAvailable.awaitNanos(remaining);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    } finally {
+                        threadsAwaiting--;
+                    }
+                }
+                if (closed) {
+                    return null;
+                }
+                entry = idle.pollFirst();
+                if (entry == null) {
+                    totalConnections++;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (entry == null) {
+                entry = createEntry();
+                if (entry == null) {
+                    return null;
+                }
+            } else if (!isUsable(entry)) {
+                destroy(entry);
+                continue;
+            }
+            return lend(entry, start);
+        }
+    }
+
+    private PooledEntry createEntry() {
+        Connection physical = null;
+        try {
+            physical = source.getConnection();
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Could not open a new connection", ex);
+        }
+        if (physical == null) {
+            lock.lock();
+            try {
+                totalConnections--;
+                connectionAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+        createdCount.incrementAndGet();
+        return new PooledEntry(physical, new StatementCache(physical, statementCacheSize,
+                statementCacheHits, statementCacheMisses, statementCacheEvictions));
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        long now = System.currentTimeMillis();
+        if (maxLifetimeMillis > 0 && now - entry.createdAt > maxLifetimeMillis) {
+            return false;
+        }
+        if (now - entry.lastReturnedAt < validationBypassMillis) {
+            return true;
+        }
+        try {
+            if (entry.physical.isValid(validationTimeoutSeconds)) {
+                return true;
+            }
+        } catch (SQLException ex) {
+            LOGGER.log(Level.FINE, "Connection validation failed", ex);
+        }
+        validationFailures.incrementAndGet();
+        return false;
+    }
+
+    private Connection lend(PooledEntry entry, long requestedAt) {
+        long waited = System.nanoTime() - requestedAt;
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        entry.borrowedAt = System.currentTimeMillis();
+        entry.leakReported = false;
+        entry.borrowSite = leakDetectionThresholdMillis > 0
+                ? new Throwable("Connection borrowed by thread " + Thread.currentThread().getName())
+                : null;
+        borrowed.add(entry);
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new BorrowedConnection(entry));
+    }
+
+    private void release(PooledEntry entry) {
+        borrowed.remove(entry);
+        entry.statements.reclaim();
+        boolean reusable;
+        try {
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            reusable = !entry.physical.isClosed();
+        } catch (SQLException ex) {
+            reusable = false;
+        }
+        if (maxLifetimeMillis > 0 && System.currentTimeMillis() - entry.createdAt > maxLifetimeMillis) {
+            reusable = false;
+        }
+        if (!reusable) {
+            destroy(entry);
+            return;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                reusable = false;
+            } else {
+                entry.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(entry);
+                connectionAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!reusable) {
+            destroy(entry);
+        }
+    }
+
+    private void destroy(PooledEntry entry) {
+        entry.statements.close();
+        try {
+            entry.physical.close();
+        } catch (SQLException ex) {
+
+        }
+        destroyedCount.incrementAndGet();
+        lock.lock();
+        try {
+            totalConnections--;
+            connectionAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evicts idle connections past the idle timeout or maximum lifetime and
+     * reports borrowed connections held longer than the leak detection
+     * threshold. Normally run by the background housekeeper.
+     */
+    public void runHousekeeping() {
+        long now = System.currentTimeMillis();
+        List<PooledEntry> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<PooledEntry> it = idle.iterator();
+            while (it.hasNext()) {
+                PooledEntry entry = it.next();
+                boolean idleTooLong = idleTimeoutMillis > 0 && now - entry.lastReturnedAt > idleTimeoutMillis;
+                boolean tooOld = maxLifetimeMillis > 0 && now - entry.createdAt > maxLifetimeMillis;
+                if (idleTooLong || tooOld) {
+                    it.remove();
+                    expired.add(entry);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (PooledEntry entry : expired) {
+            destroy(entry);
+        }
+
+        if (leakDetectionThresholdMillis > 0) {
+            for (PooledEntry entry : borrowed) {
+                if (!entry.leakReported && now - entry.borrowedAt > leakDetectionThresholdMillis) {
+                    entry.leakReported = true;
+                    leaksDetected.incrementAndGet();
+                    LOGGER.log(Level.WARNING, "Connection held for " + (now - entry.borrowedAt)
+                            + " ms without being closed, possible leak", entry.borrowSite);
+                }
+            }
+        }
+    }
+
+    public PoolStatistics getStatistics() {
+        lock.lock();
+        try {
+            int cachedStatements = 0;
+            for (PooledEntry entry : idle) {
+                cachedStatements += entry.statements.size();
+            }
+            for (PooledEntry entry : borrowed) {
+                cachedStatements += entry.statements.size();
+            }
+            return new PoolStatistics(borrowed.size(), idle.size(), totalConnections, maxPoolSize, threadsAwaiting,
+                    borrowCount.get(), totalWaitNanos.get(), maxWaitNanos.get(), createdCount.get(),
+                    destroyedCount.get(), validationFailures.get(), leaksDetected.get(), borrowTimeouts.get(),
+                    cachedStatements, statementCacheHits.get(), statementCacheMisses.get(), statementCacheEvictions.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes idle connections and stops the housekeeper. Connections still
+     * borrowed are closed when they are returned.
+     */
+    public void shutdown() {
+        List<PooledEntry> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            connectionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledEntry entry : toClose) {
+            destroy(entry);
+        }
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public void setValidationBypassMillis(long validationBypassMillis) {
+        this.validationBypassMillis = validationBypassMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public void setMaxLifetimeMillis(long maxLifetimeMillis) {
+        this.maxLifetimeMillis = maxLifetimeMillis;
+    }
+
+    public void setLeakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+    }
+
+    /**
+     * Number of prepared statements each physical connection keeps open for
+     * reuse; 0 turns the cache off. Applies to connections opened afterwards.
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    private static class PooledEntry {
+
+        final Connection physical;
+        final StatementCache statements;
+        final long createdAt;
+        volatile long lastReturnedAt;
+        volatile long borrowedAt;
+        volatile boolean leakReported;
+        volatile Throwable borrowSite;
+
+        PooledEntry(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+            this.createdAt = System.currentTimeMillis();
+            this.lastReturnedAt = createdAt;
+        }
+    }
+
+    /**
+     * Handle given to callers; each borrow gets its own so a stale handle
+     * closed twice cannot return someone else's connection.
+     */
+    private class BorrowedConnection implements InvocationHandler {
+
+        private final PooledEntry entry;
+        private boolean returned;
+
+        BorrowedConnection(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            release(entry);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + (returned ? ", returned]" : "]");
+                case "prepareStatement":
+                    if (!returned && args.length == 1) {
+                        return entry.statements.prepare((String) args[0], (Connection) proxy);
+                    }
+                    // statements asking for generated keys or cursor options are not cached
+                    return onPhysical(method, args);
+                default:
+                    return onPhysical(method, args);
+            }
+        }
+
+        private Object onPhysical(Method method, Object[] args) throws Throwable {
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -2,8 +2,19 @@ package dal.db;
 
 
 import java.sql.Connection;
+import java.sql.SQLException;
 
 public interface IConnection{
 
     public Connection getConnection();
+
+    public default void closeConnection(Connection connection) {
+        try {
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (SQLException ex) {
+
+        }
+    }
 }
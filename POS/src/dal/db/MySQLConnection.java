@@ -23,7 +23,12 @@ public class MySQLConnection implements IConnection {
     @Override
     public Connection getConnection() {
         try {
-            return DriverManager.getConnection("jdbc:mysql://localhost:3306/"+dbName, username, password);
+            // rewriteBatchedStatements sends a whole executeBatch() in one round trip;
+            // useServerPrepStmts parses a statement once on the server, and the pool's
+            // StatementCache keeps it open and closes it (freeing the handle) on eviction,
+            // so the driver's own cachePrepStmts is left off
+            return DriverManager.getConnection("jdbc:mysql://localhost:3306/"+dbName+"?rewriteBatchedStatements=true"
+                    + "&useServerPrepStmts=true", username, password);
         } catch (SQLException ex) {
             System.out.println("Connection Probelm."+ex.getLocalizedMessage());
         }
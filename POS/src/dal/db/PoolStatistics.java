@@ -0,0 +1,143 @@
+package dal.db;
+
+/**
+ * Point-in-time snapshot of a {@link ConnectionPool}.
+ *
+ * @author fawad
+ */
+public class PoolStatistics {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int maxPoolSize;
+    private final int threadsAwaitingConnection;
+    private final long borrowCount;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long validationFailures;
+    private final long leaksDetected;
+    private final long borrowTimeouts;
+    private final int cachedStatements;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    public PoolStatistics(int activeConnections, int idleConnections, int totalConnections, int maxPoolSize,
+            int threadsAwaitingConnection, long borrowCount, long totalWaitNanos, long maxWaitNanos,
+            long createdCount, long destroyedCount, long validationFailures, long leaksDetected, long borrowTimeouts,
+            int cachedStatements, long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.totalConnections = totalConnections;
+        this.maxPoolSize = maxPoolSize;
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+        this.borrowCount = borrowCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.validationFailures = validationFailures;
+        this.leaksDetected = leaksDetected;
+        this.borrowTimeouts = borrowTimeouts;
+        this.cachedStatements = cachedStatements;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public int getThreadsAwaitingConnection() {
+        return threadsAwaitingConnection;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public double getTotalWaitMillis() {
+        return totalWaitNanos / 1_000_000.0;
+    }
+
+    public double getAverageWaitMillis() {
+        return borrowCount == 0 ? 0 : getTotalWaitMillis() / borrowCount;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public long getBorrowTimeouts() {
+        return borrowTimeouts;
+    }
+
+    /**
+     * Prepared statements kept open by the statement caches of all connections.
+     */
+    public int getCachedStatements() {
+        return cachedStatements;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    /**
+     * Share of prepareStatement calls served from the statement caches.
+     */
+    public double getStatementCacheHitRatio() {
+        long requests = statementCacheHits + statementCacheMisses;
+        return requests == 0 ? 0 : (double) statementCacheHits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStatistics{" + "active=" + activeConnections + ", idle=" + idleConnections + ", total=" + totalConnections
+                + ", max=" + maxPoolSize + ", awaiting=" + threadsAwaitingConnection + ", borrows=" + borrowCount
+                + ", avgWaitMs=" + String.format("%.3f", getAverageWaitMillis()) + ", maxWaitMs=" + String.format("%.3f", getMaxWaitMillis())
+                + ", created=" + createdCount + ", destroyed=" + destroyedCount + ", validationFailures=" + validationFailures
+                + ", leaks=" + leaksDetected + ", timeouts=" + borrowTimeouts + ", cachedStmts=" + cachedStatements + ", stmtCacheHits=" + statementCacheHits
+                + ", stmtCacheMisses=" + statementCacheMisses + ", stmtCacheEvictions=" + statementCacheEvictions + '}';
+    }
+}
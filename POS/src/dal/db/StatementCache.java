@@ -0,0 +1,203 @@
+package dal.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Prepared statements of one physical connection, kept open between uses and
+ * keyed by their SQL text, so a query the DAL runs again is not parsed and
+ * planned again. The statement handed out is a proxy whose close() clears
+ * its parameters and gives it back to the cache. When the cache is full the
+ * least recently used statement that nobody is holding is closed.
+ *
+ * A connection is used by one borrower at a time, so the cache is too; the
+ * methods are synchronized only so the pool can close it from another thread.
+ *
+ * @author fawad
+ */
+class StatementCache {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection physical;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The counters are shared by every cache of a pool so they add up to
+     * pool wide figures.
+     */
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Returns the cached statement for the SQL, preparing it on the physical
+     * connection the first time. If the same SQL is already held open by the
+     * caller a plain, uncached statement is prepared instead.
+     *
+     * @param owner the connection handle the statement reports as its own
+     */
+    synchronized PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && cached.lease == null) {
+            hits.incrementAndGet();
+            return cached.lend(owner);
+        }
+        misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        if (cached != null || maxSize <= 0) {
+            return statement;
+        }
+        cached = new CachedStatement(sql, statement);
+        statements.put(sql, cached);
+        evictIfFull();
+        return cached.lend(owner);
+    }
+
+    private void evictIfFull() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            if (eldest.lease == null) {
+                it.remove();
+                evictions.incrementAndGet();
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    /**
+     * Takes back every statement still held when the connection returns to
+     * the pool; the caller's handles stop working.
+     */
+    synchronized void reclaim() {
+        for (CachedStatement cached : new ArrayList<>(statements.values())) {
+            if (cached.lease != null) {
+                cached.lease.closed = true;
+                giveBack(cached);
+            }
+        }
+    }
+
+    /**
+     * Closes every cached statement, before the physical connection closes.
+     */
+    synchronized void close() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.lease != null) {
+                cached.lease.closed = true;
+            }
+            closeQuietly(cached.statement);
+        }
+        statements.clear();
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    private synchronized void giveBack(CachedStatement cached) {
+        cached.lease = null;
+        try {
+            cached.statement.clearParameters();
+            cached.statement.clearBatch();
+        } catch (SQLException ex) {
+            // a statement that cannot be reset is not reused
+            statements.remove(cached.sql, cached);
+            closeQuietly(cached.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.FINE, "Could not close a cached statement", ex);
+        }
+    }
+
+    private class CachedStatement {
+
+        final String sql;
+        final PreparedStatement statement;
+        Lease lease;
+
+        CachedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        PreparedStatement lend(Connection owner) {
+            lease = new Lease(this, owner);
+            return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, lease);
+        }
+    }
+
+    /**
+     * One use of a cached statement, from prepare to close.
+     */
+    private class Lease implements InvocationHandler {
+
+        private final CachedStatement cached;
+        private final Connection owner;
+        private volatile boolean closed;
+
+        Lease(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (StatementCache.this) {
+                        if (!closed) {
+                            closed = true;
+                            giveBack(cached);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.sql + (closed ? ", closed]" : "]");
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement has already been closed.");
+                    }
+                    try {
+                        return method.invoke(cached.statement, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+            }
+        }
+    }
+}
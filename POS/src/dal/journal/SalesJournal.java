@@ -0,0 +1,463 @@
+package dal.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import model.dto.CustomerDTO;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+
+/**
+ * Local append-only journal of completed sales. A sale is written to a
+ * memory-mapped file and made durable before the cashier gets the
+ * acknowledgement, and the {@link SalesJournalReplayer} copies it to the
+ * database later, so checkout does not wait on MySQL.
+ *
+ * Appends from several threads are flushed together: while one
+ * thread forces the file to disk the others queue up and the next force
+ * covers all of them (group commit).
+ *
+ * File layout: a 64 byte header (magic, version, generation, drained
+ * offset) followed by records of [length, generation, crc32, sale]. On open
+ * the records after the drained offset are read back until the first one
+ * that is torn, zeroed or from an older generation, which is where the next
+ * append goes. When every record is drained and the file is full it starts
+ * over from the header with a new generation; otherwise the file grows.
+ *
+ * Every sale gets a sale uid before it is written; the database keeps it
+ * unique so a sale replayed twice after a crash is only saved once.
+ *
+ * @author fawad
+ */
+public class SalesJournal implements Closeable {
+
+    public static final String FILE_NAME = "sales.journal";
+    public static final String REJECTED_FILE_NAME = "sales-rejected.log";
+
+    private static final int MAGIC = 0x504F534A; // "POSJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final int GENERATION_OFFSET = 8;
+    private static final int DRAINED_OFFSET = 12;
+    private static final long DEFAULT_CAPACITY = 16L * 1024 * 1024;
+
+    private final File directory;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final Condition appended = lock.newCondition();
+
+    private MappedByteBuffer buffer;
+    private int generation;
+    private long writePosition;
+    private long durablePosition;
+    private long drainedPosition;
+    private long appendSequence;
+    private long durableSequence;
+    private boolean flushing;
+    private boolean closed;
+
+    private long appendCount;
+    private long forceCount;
+    private int pendingCount;
+
+    private SalesJournal(File directory, long capacity) throws IOException {
+        this.directory = directory;
+        this.file = new RandomAccessFile(new File(directory, FILE_NAME), "rw");
+        this.channel = file.getChannel();
+        boolean created = channel.size() < HEADER_SIZE;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, channel.size()));
+        if (created) {
+            generation = 1;
+            drainedPosition = HEADER_SIZE;
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            writeHeader();
+        } else {
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                channel.close();
+                throw new IOException("Not a sales journal: " + new File(directory, FILE_NAME));
+            }
+            generation = buffer.getInt(GENERATION_OFFSET);
+            drainedPosition = buffer.getLong(DRAINED_OFFSET);
+        }
+        recover();
+    }
+
+    /**
+     * Opens the journal in the given directory, creating it if needed, and
+     * finds the sales that were journaled but not yet saved to the database.
+     */
+    public static SalesJournal open(File directory) throws IOException {
+        return open(directory, DEFAULT_CAPACITY);
+    }
+
+    public static SalesJournal open(File directory, long capacity) throws IOException {
+        Files.createDirectories(directory.toPath());
+        return new SalesJournal(directory, capacity);
+    }
+
+    private void recover() {
+        long position = drainedPosition;
+        Record record;
+        while ((record = readRecord(position)) != null) {
+            position = record.end;
+            pendingCount++;
+        }
+        writePosition = position;
+        durablePosition = position;
+    }
+
+    /**
+     * Writes the sale to the journal and returns once it is on disk. A sale
+     * without a sale uid or date gets one here.
+     */
+    public void append(SaleDTO sale) throws IOException {
+        if (sale.getSaleUid() == null) {
+            sale.setSaleUid(UUID.randomUUID().toString());
+        }
+        if (sale.getSaleDate() == null) {
+            sale.setSaleDate(LocalDateTime.now());
+        }
+        byte[] payload = encode(sale);
+        long sequence;
+        lock.lock();
+        try {
+            ensureOpen();
+            long recordSize = RECORD_HEADER_SIZE + payload.length;
+            if (writePosition + recordSize > buffer.capacity()) {
+                makeRoom(recordSize);
+            }
+            int position = (int) writePosition;
+            CRC32 crc = new CRC32();
+            crc.update(generation);
+            crc.update(payload);
+            buffer.putInt(position + 4, generation);
+            buffer.putInt(position + 8, (int) crc.getValue());
+            buffer.put(position + RECORD_HEADER_SIZE, payload);
+            buffer.putInt(position, payload.length);
+            writePosition += recordSize;
+            sequence = ++appendSequence;
+            appendCount++;
+            pendingCount++;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(sequence);
+    }
+
+    private void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                flushing = true;
+                MappedByteBuffer target = buffer;
+                long from = durablePosition;
+                long to = writePosition;
+                long upTo = appendSequence;
+                lock.unlock();
+                try {
+                    target.force((int) from, (int) (to - from));
+                } finally {
+                    lock.lock();
+                    flushing = false;
+                    flushed.signalAll();
+                }
+                forceCount++;
+                durablePosition = Math.max(durablePosition, to);
+                durableSequence = Math.max(durableSequence, upTo);
+                appended.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void makeRoom(long recordSize) throws IOException {
+        while (flushing) {
+            flushed.awaitUninterruptibly();
+        }
+        if (drainedPosition == writePosition && durablePosition == writePosition
+                && HEADER_SIZE + recordSize <= buffer.capacity()) {
+            // everything is in the database: start over with a new generation
+            generation++;
+            drainedPosition = HEADER_SIZE;
+            writePosition = HEADER_SIZE;
+            durablePosition = HEADER_SIZE;
+            writeHeader();
+            return;
+        }
+        buffer.force();
+        long capacity = buffer.capacity();
+        while (writePosition + recordSize > capacity) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Sales journal is full, the database has not been reachable for too long.");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void writeHeader() {
+        buffer.putInt(GENERATION_OFFSET, generation);
+        buffer.putLong(DRAINED_OFFSET, drainedPosition);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    /**
+     * Returns up to {@code max} durable sales that are not yet in the
+     * database, oldest first, waiting up to the timeout if there are none.
+     */
+    List<Entry> pending(int max, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (!closed && drainedPosition >= durablePosition) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return new ArrayList<>();
+                }
+                appended.awaitNanos(remaining);
+            }
+            List<Entry> entries = new ArrayList<>();
+            long position = drainedPosition;
+            while (entries.size() < max && position < durablePosition) {
+                Record record = readRecord(position);
+                if (record == null) {
+                    break;
+                }
+                entries.add(new Entry(record.payload, record.end));
+                position = record.end;
+            }
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that every sale up to the entry is in the database. The
+     * header is forced by {@link #checkpoint()}; until then a crash only
+     * means those sales are replayed again and found already saved.
+     */
+    void markDrained(Entry entry) {
+        lock.lock();
+        try {
+            if (entry.end > drainedPosition && entry.end <= writePosition) {
+                drainedPosition = entry.end;
+                buffer.putLong(DRAINED_OFFSET, drainedPosition);
+                pendingCount--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void checkpoint() {
+        lock.lock();
+        try {
+            if (!closed) {
+                buffer.force(0, HEADER_SIZE);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keeps a sale the database refused (for example when stock ran out)
+     * in a plain text file next to the journal, so it is not lost.
+     */
+    void reject(Entry entry, String reason) throws IOException {
+        SaleDTO sale = entry.getSale();
+        StringBuilder line = new StringBuilder();
+        line.append(LocalDateTime.now()).append('\t').append(sale.getSaleUid()).append('\t')
+                .append(sale.getSaleDate()).append('\t').append(sale.getTotalAmount()).append('\t');
+        for (SaleItemDTO item : sale.getItems()) {
+            line.append(item.getProductId()).append('x').append(item.getQuantity()).append(' ');
+        }
+        line.append('\t').append(reason.replace('\n', ' ')).append(System.lineSeparator());
+        Files.write(new File(directory, REJECTED_FILE_NAME).toPath(), line.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+    }
+
+    private Record readRecord(long position) {
+        if (position + RECORD_HEADER_SIZE > buffer.capacity()) {
+            return null;
+        }
+        int offset = (int) position;
+        int length = buffer.getInt(offset);
+        if (length <= 0 || position + RECORD_HEADER_SIZE + length > buffer.capacity()
+                || buffer.getInt(offset + 4) != generation) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(offset + RECORD_HEADER_SIZE, payload);
+        CRC32 crc = new CRC32();
+        crc.update(generation);
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(offset + 8)) {
+            return null;
+        }
+        return new Record(payload, position + RECORD_HEADER_SIZE + length);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Sales journal is closed.");
+        }
+    }
+
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pendingCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAppendCount() {
+        lock.lock();
+        try {
+            return appendCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getForceCount() {
+        lock.lock();
+        try {
+            return forceCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            buffer.force();
+            closed = true;
+            appended.signalAll();
+            channel.close();
+            file.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] encode(SaleDTO sale) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(sale.getSaleUid());
+            out.writeUTF(sale.getSaleDate().toString());
+            out.writeInt(sale.getCustomer() == null ? 0 : sale.getCustomer().getId());
+            out.writeUTF(sale.getCashier() == null ? "" : sale.getCashier());
+            out.writeDouble(sale.getTotalAmount());
+            out.writeInt(sale.getItems().size());
+            for (SaleItemDTO item : sale.getItems()) {
+                out.writeInt(item.getProductId());
+                out.writeUTF(item.getProductName() == null ? "" : item.getProductName());
+                out.writeDouble(item.getPrice());
+                out.writeInt(item.getQuantity());
+                out.writeInt(item.getCategoryId());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static SaleDTO decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            SaleDTO sale = new SaleDTO();
+            sale.setSaleUid(in.readUTF());
+            sale.setSaleDate(LocalDateTime.parse(in.readUTF()));
+            int customerId = in.readInt();
+            if (customerId != 0) {
+                CustomerDTO customer = new CustomerDTO();
+                customer.setId(customerId);
+                sale.setCustomer(customer);
+            }
+            String cashier = in.readUTF();
+            sale.setCashier(cashier.isEmpty() ? null : cashier);
+            sale.setTotalAmount(in.readDouble());
+            int count = in.readInt();
+            List<SaleItemDTO> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int productId = in.readInt();
+                String name = in.readUTF();
+                double price = in.readDouble();
+                SaleItemDTO item = new SaleItemDTO(productId, name, price, in.readInt());
+                item.setCategoryId(in.readInt());
+                items.add(item);
+            }
+            sale.setItems(items);
+            return sale;
+        }
+    }
+
+    private static class Record {
+
+        final byte[] payload;
+        final long end;
+
+        Record(byte[] payload, long end) {
+            this.payload = payload;
+            this.end = end;
+        }
+    }
+
+    /**
+     * A journaled sale and the position just after it.
+     */
+    static class Entry {
+
+        private final byte[] payload;
+        final long end;
+
+        Entry(byte[] payload, long end) {
+            this.payload = payload;
+            this.end = end;
+        }
+
+        SaleDTO getSale() throws IOException {
+            return decode(payload);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package dal.journal;
+
+import dal.IDALManager;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import model.dto.Message;
+import model.dto.MessageType;
+import model.dto.Response;
+import model.dto.SaleDTO;
+
+/**
+ * Background thread that copies journaled sales to the database in the
+ * order they were made. A sale the database could not be reached for stays
+ * in the journal and is retried with a growing pause; a sale the database
+ * refused, whether by a business rule or by an SQL error that retrying
+ * will not fix, is moved to the rejected file so the rest can go through.
+ *
+ * @author fawad
+ */
+public class SalesJournalReplayer {
+
+    private static final Logger LOGGER = Logger.getLogger(SalesJournalReplayer.class.getName());
+    private static final int BATCH_SIZE = 64;
+    private static final long IDLE_WAIT_MILLIS = 1_000;
+    private static final long MIN_RETRY_MILLIS = 200;
+    private static final long MAX_RETRY_MILLIS = 30_000;
+
+    private final SalesJournal journal;
+    private final IDALManager dalManager;
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private volatile boolean running;
+    private Thread thread;
+
+    public SalesJournalReplayer(SalesJournal journal, IDALManager dalManager) {
+        this.journal = journal;
+        this.dalManager = dalManager;
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "pos-sales-replayer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = thread;
+            thread = null;
+        }
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(5_000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        long retryMillis = MIN_RETRY_MILLIS;
+        while (running) {
+            try {
+                if (drain(IDLE_WAIT_MILLIS)) {
+                    retryMillis = MIN_RETRY_MILLIS;
+                } else {
+                    Thread.sleep(retryMillis);
+                    retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+                }
+            } catch (InterruptedException ex) {
+                return;
+            } catch (RuntimeException | IOException ex) {
+                LOGGER.log(Level.SEVERE, "Sales journal replay failed", ex);
+                failedCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Saves every pending sale to the database. Returns false when the
+     * database could not take a sale, which then stays first in line.
+     */
+    public boolean drainAll() throws IOException {
+        try {
+            while (journal.getPendingCount() > 0) {
+                if (!drain(0)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean drain(long waitMillis) throws InterruptedException, IOException {
+        List<SalesJournal.Entry> entries = journal.pending(BATCH_SIZE, waitMillis);
+        try {
+            for (SalesJournal.Entry entry : entries) {
+                SaleDTO sale = entry.getSale();
+                Response response = new Response();
+                dalManager.saveSale(sale, response);
+                if (response.isSuccessfull()) {
+                    replayedCount.incrementAndGet();
+                } else if (isUnreachable(response)) {
+                    failedCount.incrementAndGet();
+                    LOGGER.log(Level.WARNING, "Sale {0} not saved yet: {1}",
+                            new Object[]{sale.getSaleUid(), response.getErrorMessages()});
+                    return false;
+                } else {
+                    journal.reject(entry, response.getErrorMessages());
+                    rejectedCount.incrementAndGet();
+                    LOGGER.log(Level.SEVERE, "Sale {0} refused by the database and kept in {1}: {2}",
+                            new Object[]{sale.getSaleUid(), SalesJournal.REJECTED_FILE_NAME, response.getErrorMessages()});
+                }
+                journal.markDrained(entry);
+            }
+            return true;
+        } finally {
+            if (!entries.isEmpty()) {
+                journal.checkpoint();
+            }
+        }
+    }
+
+    /**
+     * True when the sale failed because the database could not be used
+     * right now: no connection, a connection error (SQLState class 08) or a
+     * transient error such as a lock timeout. Constraint violations and
+     * other SQL errors are not, as the same sale would fail again.
+     */
+    static boolean isUnreachable(Response response) {
+        for (Message message : response.messagesList) {
+            if (message.type == MessageType.Exception
+                    && (message.cause == null || isTransient(message.cause))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientException || t instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (t instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getReplayedCount() {
+        return replayedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+}
@@ -0,0 +1,93 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import model.dto.Response;
+
+/**
+ * A list read from the database and kept for a while, like the customers or
+ * the categories. Readers get a copy. Concurrent readers of a missing or old
+ * list wait for one load instead of each running the query, and a write
+ * through the controller drops the list so the next read loads it again.
+ *
+ * @author fawad
+ */
+public class CachedList<T> {
+
+    private final String name;
+    private final Function<Response, ArrayList<T>> loader;
+    private final long maxAgeMillis;
+    private final Object loadLock = new Object();
+    private volatile List<T> rows;
+    private volatile long loadedAt;
+    // bumped by invalidate, so a load that started before a write is not kept
+    private volatile long generation;
+
+    /**
+     * @param maxAgeMillis how long a loaded list is used; 0 reads the
+     * database every time
+     */
+    public CachedList(String name, Function<Response, ArrayList<T>> loader, long maxAgeMillis) {
+        this.name = name;
+        this.loader = loader;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ArrayList<T> get(Response response) {
+        List<T> current = rows;
+        if (current == null || isOld()) {
+            synchronized (loadLock) {
+                current = rows;
+                if (current == null || isOld()) {
+                    return load(response);
+                }
+            }
+        }
+        return new ArrayList<>(current);
+    }
+
+    /**
+     * Reads the list from the database now. Returns what was read, and
+     * keeps it when the read succeeded.
+     */
+    public ArrayList<T> load(Response response) {
+        synchronized (loadLock) {
+            long loading = generation;
+            Response loadResponse = POSFactory.getInstanceOfResponse();
+            ArrayList<T> loaded = loader.apply(loadResponse);
+            if (!loadResponse.isSuccessfull()) {
+                response.messagesList.addAll(loadResponse.messagesList);
+                return loaded == null ? new ArrayList<>() : loaded;
+            }
+            if (loading == generation) {
+                rows = Collections.unmodifiableList(new ArrayList<>(loaded));
+                loadedAt = System.currentTimeMillis();
+            }
+            return loaded;
+        }
+    }
+
+    public void invalidate() {
+        generation++;
+        rows = null;
+    }
+
+    public boolean isLoaded() {
+        return rows != null;
+    }
+
+    public int size() {
+        List<T> current = rows;
+        return current == null ? 0 : current.size();
+    }
+
+    private boolean isOld() {
+        return maxAgeMillis <= 0 || System.currentTimeMillis() - loadedAt > maxAgeMillis;
+    }
+}
@@ -0,0 +1,193 @@
+package model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import model.dto.ProductDTO;
+import model.dto.SaleItemDTO;
+
+/**
+ * The products being sold at the till, independent of how they are shown.
+ * Scanning a product that is already in the cart adds to its line instead
+ * of adding a new one. Subtotal, discount and total are kept up to date on
+ * every change in minor units (cents), so reading them never walks the
+ * lines and never picks up floating point error.
+ *
+ * The cart belongs to the Swing thread that shows it and is not thread safe.
+ *
+ * @author fawad
+ */
+public class Cart {
+
+    /**
+     * Told about every change, with the index of the line that changed.
+     */
+    public interface Listener {
+
+        default void lineInserted(int index) {
+        }
+
+        default void lineUpdated(int index) {
+        }
+
+        default void lineRemoved(int index) {
+        }
+
+        default void cartCleared() {
+        }
+
+        default void totalsChanged() {
+        }
+    }
+
+    private static final int SCALE = 2;
+
+    private final ArrayList<CartLine> lines = new ArrayList<>();
+    private final HashMap<Integer, CartLine> byProductId = new HashMap<>();
+    private final List<Listener> listeners = new ArrayList<>();
+    private long subtotalMinor;
+    private long discountMinor;
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public CartLine add(ProductDTO product, int quantity) {
+        return add(product.getProductId(), product.getProductName(), product.getPrice(), quantity);
+    }
+
+    /**
+     * Adds the quantity to the product's line, creating the line the first
+     * time the product is added.
+     */
+    public CartLine add(int productId, String productName, double price, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero.");
+        }
+        CartLine line = byProductId.get(productId);
+        if (line != null) {
+            line.addQuantity(quantity);
+            subtotalMinor += line.getUnitPriceMinor() * quantity;
+            for (Listener listener : listeners) {
+                listener.lineUpdated(line.index);
+            }
+        } else {
+            line = new CartLine(productId, productName, toMinor(price), quantity, lines.size());
+            lines.add(line);
+            byProductId.put(productId, line);
+            subtotalMinor += line.getLineTotalMinor();
+            for (Listener listener : listeners) {
+                listener.lineInserted(line.index);
+            }
+        }
+        fireTotalsChanged();
+        return line;
+    }
+
+    public void remove(int index) {
+        CartLine line = lines.remove(index);
+        byProductId.remove(line.getProductId());
+        for (int i = index; i < lines.size(); i++) {
+            lines.get(i).index = i;
+        }
+        subtotalMinor -= line.getLineTotalMinor();
+        for (Listener listener : listeners) {
+            listener.lineRemoved(index);
+        }
+        fireTotalsChanged();
+    }
+
+    public void clear() {
+        lines.clear();
+        byProductId.clear();
+        subtotalMinor = 0;
+        discountMinor = 0;
+        for (Listener listener : listeners) {
+            listener.cartCleared();
+        }
+        fireTotalsChanged();
+    }
+
+    /**
+     * Sets the discount taken off the whole cart. It is never more than the
+     * subtotal; a negative amount counts as no discount.
+     */
+    public void setDiscount(BigDecimal discount) {
+        long minor = discount == null ? 0 : Math.max(0, toMinor(discount));
+        if (minor != discountMinor) {
+            discountMinor = minor;
+            fireTotalsChanged();
+        }
+    }
+
+    private void fireTotalsChanged() {
+        for (Listener listener : listeners) {
+            listener.totalsChanged();
+        }
+    }
+
+    public int size() {
+        return lines.size();
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    public CartLine getLine(int index) {
+        return lines.get(index);
+    }
+
+    public long getSubtotalMinor() {
+        return subtotalMinor;
+    }
+
+    public long getDiscountMinor() {
+        return Math.min(discountMinor, subtotalMinor);
+    }
+
+    public long getTotalMinor() {
+        return subtotalMinor - getDiscountMinor();
+    }
+
+    public BigDecimal getSubtotal() {
+        return toAmount(getSubtotalMinor());
+    }
+
+    public BigDecimal getDiscount() {
+        return toAmount(getDiscountMinor());
+    }
+
+    public BigDecimal getTotal() {
+        return toAmount(getTotalMinor());
+    }
+
+    public List<SaleItemDTO> toSaleItems() {
+        List<SaleItemDTO> items = new ArrayList<>(lines.size());
+        for (CartLine line : lines) {
+            SaleItemDTO item = new SaleItemDTO(line.getProductId(), line.getProductName(),
+                    line.getUnitPrice().doubleValue(), line.getQuantity());
+            item.setTotal(line.getLineTotal().doubleValue());
+            items.add(item);
+        }
+        return items;
+    }
+
+    static long toMinor(double amount) {
+        return toMinor(BigDecimal.valueOf(amount));
+    }
+
+    static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal toAmount(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -0,0 +1,58 @@
+package model;
+
+import java.math.BigDecimal;
+
+/**
+ * One product in the cart. Money is kept in minor units (cents) so line
+ * and cart totals add up exactly.
+ *
+ * @author fawad
+ */
+public class CartLine {
+
+    private final int productId;
+    private final String productName;
+    private final long unitPriceMinor;
+    private int quantity;
+    int index;
+
+    CartLine(int productId, String productName, long unitPriceMinor, int quantity, int index) {
+        this.productId = productId;
+        this.productName = productName;
+        this.unitPriceMinor = unitPriceMinor;
+        this.quantity = quantity;
+        this.index = index;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    void addQuantity(int quantity) {
+        this.quantity += quantity;
+    }
+
+    public long getUnitPriceMinor() {
+        return unitPriceMinor;
+    }
+
+    public long getLineTotalMinor() {
+        return unitPriceMinor * quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return Cart.toAmount(unitPriceMinor);
+    }
+
+    public BigDecimal getLineTotal() {
+        return Cart.toAmount(getLineTotalMinor());
+    }
+}
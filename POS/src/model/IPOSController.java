@@ -1,13 +1,22 @@
 package model;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.function.Consumer;
 import model.dto.CategoryDTO;
+import model.dto.ReportDimension;
+import model.dto.ReportPeriod;
+import model.dto.ReportRowDTO;
 import model.dto.CustomerDTO;
 import model.dto.EmployeeDTO;
 import model.dto.ProductDTO;
 import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SalesQueryDTO;
 import model.dto.SupplierDTO;
 import model.dto.UserDTO;
+import model.productimport.ImportProgress;
 
 /**
  *
@@ -33,6 +42,12 @@ public interface IPOSController {
 
     public ArrayList<CustomerDTO> getCustomers(Response response);
 
+    /**
+     * Up to pageSize customers with an id above afterId, in id order: 0 for
+     * the first page, then the last id of the page before.
+     */
+    public ArrayList<CustomerDTO> getCustomersPage(int afterId, int pageSize, Response response);
+
     public Response deleteCustomer(CustomerDTO customer);
 
     public Response saveSupplier(SupplierDTO supplier);
@@ -43,6 +58,8 @@ public interface IPOSController {
 
     public ArrayList<SupplierDTO> getSuppliers(Response res);
 
+    public ArrayList<SupplierDTO> getSuppliersPage(int afterId, int pageSize, Response res);
+
     public Response saveEmployee(EmployeeDTO employee);
 
     public Response updateEmployee(EmployeeDTO employee);
@@ -51,14 +68,32 @@ public interface IPOSController {
 
     public ArrayList<EmployeeDTO> getEmployees(Response res);
 
+    public ArrayList<EmployeeDTO> getEmployeesPage(int afterId, int pageSize, Response res);
+
     public Response addProduct(ProductDTO product);
 
+    /**
+     * Adds or updates, by barcode, the products listed in a .csv or .xlsx
+     * file, telling progress after every chunk written.
+     */
+    public Response importProducts(Path file, Consumer<ImportProgress> progress);
+
     public Response deleteProduct(ProductDTO product);
 
     public Response updateProduct(ProductDTO product);
 
     ArrayList<ProductDTO> getProducts(Response response);
 
+    public ArrayList<ProductDTO> getProductsPage(int afterId, int pageSize, Response response);
+
+    public ArrayList<ProductDTO> searchProductsByName(String searchName, Response res);
+
+    public ProductDTO getProductById(int searchId, Response response);
+
+    public ProductDTO getProductByBarcode(String barcode, Response response);
+
+    public Response saveSale(SaleDTO sale);
+
     public Response deleteCategory(CategoryDTO category);
 
     public Response updateCategory(CategoryDTO category);
@@ -67,8 +102,18 @@ public interface IPOSController {
 
     public Response saveCategory(CategoryDTO customer);
 
+    public CategoryDTO getCategoryByName(String selectedItem);
+
+    public SupplierDTO getSupplierByName(String string);
+
    ArrayList<CategoryDTO> searchCategoryByName(String searchText, Response response);
 
     public ArrayList<CustomerDTO> searchCustomersByName(String searchText, Response res);
 
+    public ArrayList<ReportRowDTO> getRevenueReport(LocalDate from, LocalDate to, ReportPeriod period, Response response);
+
+    public ArrayList<ReportRowDTO> getSalesBreakdown(ReportDimension dimension, LocalDate from, LocalDate to, Response response);
+
+    public ArrayList<ReportRowDTO> getSalesAnalysis(SalesQueryDTO query, Response response);
+
 }
@@ -0,0 +1,69 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import model.dto.SaleDTO;
+import model.jfr.InvoiceEvent;
+
+/**
+ * The plain text invoice shown after a sale is saved.
+ *
+ * @author fawad
+ */
+public final class Invoice {
+
+    private static final String RULE = "--------------------------------------------------------------\n";
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd  HH:mm:ss");
+
+    private Invoice() {
+    }
+
+    public static String format(SaleDTO sale, Cart cart, LocalDateTime printedAt) {
+        InvoiceEvent event = new InvoiceEvent();
+        event.begin();
+        StringBuilder invoice = new StringBuilder(256 + cart.size() * 72);
+        invoice.append(RULE);
+        invoice.append("|                          INVOICE                           |\n");
+        invoice.append(RULE).append('\n');
+
+        invoice.append("Invoice Number: ").append(number(sale)).append('\n');
+        invoice.append("Date: ").append(printedAt.format(DATE_TIME)).append('\n');
+        invoice.append("Customer: ").append(sale.getCustomer() == null ? "Walk-in" : sale.getCustomer().getName()).append("\n\n");
+
+        invoice.append(String.format("| %-30s | %-10s | %-10s | %-10s |\n", "Product Name", "Quantity", "Unit Price", "Total Price"));
+        invoice.append(RULE);
+        for (int i = 0; i < cart.size(); i++) {
+            CartLine line = cart.getLine(i);
+            invoice.append(String.format("| %-30s | %-10s | %-10s | %-10s |\n", line.getProductName(), line.getQuantity(),
+                    line.getUnitPrice().toPlainString(), line.getLineTotal().toPlainString()));
+        }
+
+        invoice.append(RULE);
+        if (cart.getDiscountMinor() > 0) {
+            invoice.append(String.format("| %-50s | %-10s |\n", "Subtotal:", cart.getSubtotal().toPlainString()));
+            invoice.append(String.format("| %-50s | %-10s |\n", "Discount:", cart.getDiscount().toPlainString()));
+        }
+        invoice.append(String.format("| %-50s | %-10s |\n", "Total:", cart.getTotal().toPlainString()));
+        invoice.append(RULE);
+        String text = invoice.toString();
+        event.end();
+        if (event.shouldCommit()) {
+            event.number = number(sale);
+            event.lines = cart.size();
+            event.total = cart.getTotal().doubleValue();
+            event.commit();
+        }
+        return text;
+    }
+
+    /**
+     * The database id, or the start of the sale uid while the sale waits in
+     * the journal.
+     */
+    public static String number(SaleDTO sale) {
+        if (sale.getSaleId() > 0) {
+            return "INV-" + sale.getSaleId();
+        }
+        return "INV-" + sale.getSaleUid().substring(0, 8).toUpperCase();
+    }
+}
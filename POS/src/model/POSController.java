@@ -1,11 +1,33 @@
 
 package model;
 
-import dal.DALManager;
+import dal.IDALManager;
+import dal.db.PoolStatistics;
+import dal.journal.SalesJournal;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.swing.JFrame;
 import model.dto.CategoryDTO;
 import model.dto.CustomerDTO;
+import model.dto.Message;
+import model.dto.MessageType;
+import model.dto.ReportDimension;
+import model.dto.ReportPeriod;
+import model.dto.ReportRowDTO;
+import model.dto.SalesGrouping;
+import model.dto.SalesQueryDTO;
 import model.dto.Response;
 import model.dto.SupplierDTO;
 import model.dto.UserDTO;
@@ -13,6 +35,10 @@ import model.validators.CommonValidator;
 import ui.LoginUI;
 import model.dto.EmployeeDTO;
 import model.dto.ProductDTO;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import model.jfr.SaleCommitEvent;
+import model.productimport.ImportProgress;
 
 /**
  *
@@ -21,10 +47,60 @@ import model.dto.ProductDTO;
 public class POSController implements IPOSController {
 
     public static ApplicationSession objApplicationSession;
-    private DALManager dalManagerObj;
+    private static final int SEARCH_RESULT_LIMIT = Integer.getInteger("pos.search.limit", 200);
+    private static final int MAX_PAGE_SIZE = 1000;
+    private IDALManager dalManagerObj;
+    private ProductCatalog productCatalog;
+    // null writes sales straight to the database
+    private SalesJournal salesJournal;
+    private SalesAggregates salesAggregates;
+    private SalesColumnStore salesColumnStore;
+    private ReferenceData referenceData;
 
     public POSController() {
-        dalManagerObj = POSFactory.getDALManagerInstance();
+        this(POSFactory.getDALManagerInstance(), POSFactory.getInstanceOfProductCatalog(), POSFactory.getInstanceOfSalesJournal(),
+                POSFactory.getInstanceOfSalesAggregates(), POSFactory.getInstanceOfSalesColumnStore(),
+                POSFactory.getInstanceOfReferenceData());
+    }
+
+    public POSController(IDALManager dalManager, ProductCatalog productCatalog) {
+        this(dalManager, productCatalog, null);
+    }
+
+    public POSController(IDALManager dalManager, ProductCatalog productCatalog, SalesJournal salesJournal) {
+        this(dalManager, productCatalog, salesJournal, new SalesAggregates());
+    }
+
+    public POSController(IDALManager dalManager, ProductCatalog productCatalog, SalesJournal salesJournal,
+            SalesAggregates salesAggregates) {
+        this(dalManager, productCatalog, salesJournal, salesAggregates, new SalesColumnStore());
+    }
+
+    /**
+     * Customers, categories, suppliers and employees are read from the
+     * database on every call.
+     */
+    public POSController(IDALManager dalManager, ProductCatalog productCatalog, SalesJournal salesJournal,
+            SalesAggregates salesAggregates, SalesColumnStore salesColumnStore) {
+        this(dalManager, productCatalog, salesJournal, salesAggregates, salesColumnStore, new ReferenceData(dalManager, 0));
+    }
+
+    public POSController(IDALManager dalManager, ProductCatalog productCatalog, SalesJournal salesJournal,
+            SalesAggregates salesAggregates, SalesColumnStore salesColumnStore, ReferenceData referenceData) {
+        this.dalManagerObj = dalManager;
+        this.referenceData = referenceData;
+        this.productCatalog = productCatalog;
+        this.salesJournal = salesJournal;
+        this.salesAggregates = salesAggregates;
+        this.salesColumnStore = salesColumnStore;
+    }
+
+    public SalesAggregates getSalesAggregates() {
+        return salesAggregates;
+    }
+
+    public SalesColumnStore getSalesColumnStore() {
+        return salesColumnStore;
     }
 
     private static void startSessionExpirationThread() {
@@ -67,6 +143,10 @@ public class POSController implements IPOSController {
         }
     }
 
+    public PoolStatistics getConnectionPoolStatistics() {
+        return dalManagerObj.getConnectionPoolStatistics();
+    }
+
     public static boolean isUserLoggedIn() {
         return objApplicationSession != null;
     }
@@ -125,19 +205,26 @@ public class POSController implements IPOSController {
         CommonValidator.validateObject(customer, response);
         if (response.isSuccessfull()) {
             dalManagerObj.saveCustomer(customer, response);
+            referenceData.customers().invalidate();
         }
         return response;
     }
 
     @Override
     public ArrayList<CustomerDTO> getCustomers(Response response) {
-        return dalManagerObj.getCustomers(response);
+        return referenceData.customers().get(response);
+    }
+
+    @Override
+    public ArrayList<CustomerDTO> getCustomersPage(int afterId, int pageSize, Response response) {
+        return dalManagerObj.getCustomersPage(afterId, pageSize(pageSize), response);
     }
 
     @Override
     public Response deleteCustomer(CustomerDTO customer) {
         Response response = POSFactory.getInstanceOfResponse();
         dalManagerObj.deleteCustomer(customer, response);
+        referenceData.customers().invalidate();
         return response;
     }
 
@@ -147,6 +234,7 @@ public class POSController implements IPOSController {
         CommonValidator.validateObject(customer, response);
         if (response.isSuccessfull()) {
             dalManagerObj.updateCustomer(customer, response);
+            referenceData.customers().invalidate();
         }
         return response;
     }
@@ -155,6 +243,7 @@ public class POSController implements IPOSController {
     public Response saveSupplier(SupplierDTO supplier) {
         Response response = POSFactory.getInstanceOfResponse();
         dalManagerObj.saveSupplier(supplier, response);
+        referenceData.suppliers().invalidate();
         return response;
     }
 
@@ -162,6 +251,7 @@ public class POSController implements IPOSController {
     public Response updateSupplier(SupplierDTO suppier) {
         Response response = POSFactory.getInstanceOfResponse();
         dalManagerObj.updateSupplier(suppier, response);
+        referenceData.suppliers().invalidate();
         return response;
     }
 
@@ -169,12 +259,18 @@ public class POSController implements IPOSController {
     public Response deleteSupplier(SupplierDTO supplier) {
         Response response = POSFactory.getInstanceOfResponse();
         dalManagerObj.deleteSupplier(supplier, response);
+        referenceData.suppliers().invalidate();
         return response;
     }
 
     @Override
     public ArrayList<SupplierDTO> getSuppliers(Response res) {
-        return dalManagerObj.getSuppliers(res);
+        return referenceData.suppliers().get(res);
+    }
+
+    @Override
+    public ArrayList<SupplierDTO> getSuppliersPage(int afterId, int pageSize, Response res) {
+        return dalManagerObj.getSuppliersPage(afterId, pageSize(pageSize), res);
     }
 
     @Override
@@ -183,6 +279,7 @@ public class POSController implements IPOSController {
         CommonValidator.validateObject(employee, response);
         if (response.isSuccessfull()) {
             dalManagerObj.saveEmployee(employee, response);
+            referenceData.employees().invalidate();
         }
         return response;
 
@@ -192,6 +289,7 @@ public class POSController implements IPOSController {
     public Response updateEmployee(EmployeeDTO employee) {
         Response response = POSFactory.getInstanceOfResponse();
         dalManagerObj.updateEmployee(employee, response);
+        referenceData.employees().invalidate();
         return response;
 
     }
@@ -200,6 +298,7 @@ public class POSController implements IPOSController {
     public Response deleteEmployee(EmployeeDTO employee) {
         Response response = POSFactory.getInstanceOfResponse();
         dalManagerObj.deleteEmployee(employee, response);
+        referenceData.employees().invalidate();
         return response;
 
     }
@@ -207,8 +306,13 @@ public class POSController implements IPOSController {
     @Override
     public ArrayList<EmployeeDTO> getEmployees(Response res) {
 
-        return dalManagerObj.getEmployees(res);
+        return referenceData.employees().get(res);
+
+    }
 
+    @Override
+    public ArrayList<EmployeeDTO> getEmployeesPage(int afterId, int pageSize, Response res) {
+        return dalManagerObj.getEmployeesPage(afterId, pageSize(pageSize), res);
     }
 
     @Override
@@ -217,16 +321,254 @@ public class POSController implements IPOSController {
         CommonValidator.validateObject(product, response);
         if (response.isSuccessfull()) {
             dalManagerObj.addProduct(product, response);
+            if (response.isSuccessfull()) {
+                // the insert does not return the generated id, so reload on next read
+                productCatalog.invalidate();
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public Response importProducts(Path file, Consumer<ImportProgress> progress) {
+        Response response = POSFactory.getInstanceOfResponse();
+        ImportProgress imported = POSFactory.getInstanceOfProductImporter(dalManagerObj).importFile(file, progress, response);
+        if (imported.getRowsWritten() > 0) {
+            productCatalog.invalidate();
         }
         return response;
     }
 
+    @Override
+    public Response saveSale(SaleDTO sale) {
+        SaleCommitEvent event = new SaleCommitEvent();
+        event.begin();
+        Response response = POSFactory.getInstanceOfResponse();
+        CommonValidator.validateObject(sale, response);
+        if (response.isSuccessfull()) {
+            describeSale(sale);
+        }
+        boolean journaled = false;
+        if (response.isSuccessfull() && salesJournal != null) {
+            checkStock(sale, response);
+            journaled = response.isSuccessfull() && journalSale(sale, response);
+        }
+        if (response.isSuccessfull() && !journaled) {
+            dalManagerObj.saveSale(sale, response);
+        }
+        if (response.isSuccessfull()) {
+            saleCommitted(sale);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.lines = sale == null || sale.getItems() == null ? 0 : sale.getItems().size();
+            event.total = sale == null ? 0 : sale.getTotalAmount();
+            event.journaled = journaled;
+            event.succeeded = response.isSuccessfull();
+            event.commit();
+        }
+        return response;
+    }
+
+    /**
+     * Fills in what the report rollups need and the till does not set: the
+     * logged in cashier, each product's category and each line's share of
+     * the discounted total.
+     */
+    private void describeSale(SaleDTO sale) {
+        sale.spreadTotalOverLines();
+        if (sale.getCashier() == null && objApplicationSession != null && objApplicationSession.getUser() != null) {
+            sale.setCashier(objApplicationSession.getUser().getUsername());
+        }
+        Response lookup = POSFactory.getInstanceOfResponse();
+        for (SaleItemDTO item : sale.getItems()) {
+            if (item.getCategoryId() == 0) {
+                ProductDTO product = productCatalog.getProductById(item.getProductId(), lookup);
+                if (product != null) {
+                    item.setCategoryId(product.getCategoryId());
+                }
+            }
+        }
+    }
+
+    private void saleCommitted(SaleDTO sale) {
+        Map<Integer, Double> sold = new HashMap<>();
+        for (SaleItemDTO item : sale.getItems()) {
+            sold.merge(item.getProductId(), (double) -item.getQuantity(), Double::sum);
+        }
+        productCatalog.adjustStock(sold);
+        Response lookup = POSFactory.getInstanceOfResponse();
+        salesAggregates.record(sale, productId -> {
+            ProductDTO product = productCatalog.getProductById(productId, lookup);
+            return product == null ? 0 : product.getCategoryId();
+        });
+        salesColumnStore.append(sale);
+    }
+
+    /**
+     * Revenue for each day, week or month from the first to the last date,
+     * both included, summed from the hourly rollup. Periods without sales
+     * are listed with zero. The key of each row is the first day of its
+     * period; the first and last periods only cover the dates asked for.
+     */
+    @Override
+    public ArrayList<ReportRowDTO> getRevenueReport(LocalDate from, LocalDate to, ReportPeriod period, Response response) {
+        ArrayList<ReportRowDTO> report = new ArrayList<>();
+        if (!isValidReportRange(from, to, response)) {
+            return report;
+        }
+        TreeMap<LocalDate, ReportRowDTO> periods = new TreeMap<>();
+        for (LocalDate start = period.start(from); !start.isAfter(to); start = period.next(start)) {
+            periods.put(start, new ReportRowDTO(start.toString(), periodLabel(period, start), 0, 0, BigDecimal.ZERO));
+        }
+        for (ReportRowDTO hour : dalManagerObj.getHourlyRevenue(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), response)) {
+            ReportRowDTO row = periods.get(period.start(LocalDateTime.parse(hour.getKey()).toLocalDate()));
+            row.setCount(row.getCount() + hour.getCount());
+            row.setQuantity(row.getQuantity() + hour.getQuantity());
+            row.setRevenue(row.getRevenue().add(hour.getRevenue()));
+        }
+        report.addAll(periods.values());
+        return report;
+    }
+
+    /**
+     * Sales per product, category or cashier from the first to the last
+     * date, both included, best selling first.
+     */
+    @Override
+    public ArrayList<ReportRowDTO> getSalesBreakdown(ReportDimension dimension, LocalDate from, LocalDate to, Response response) {
+        if (!isValidReportRange(from, to, response)) {
+            return new ArrayList<>();
+        }
+        ArrayList<ReportRowDTO> report = dalManagerObj.getSalesBreakdown(dimension, from.atStartOfDay(), to.plusDays(1).atStartOfDay(), response);
+        Map<String, String> categoryNames = dimension == ReportDimension.Category && !report.isEmpty() ? categoryNames() : Map.of();
+        Response lookup = POSFactory.getInstanceOfResponse();
+        for (ReportRowDTO row : report) {
+            row.setLabel(switch (dimension) {
+                case Product -> productLabel(row.getKey(), lookup);
+                case Category -> categoryLabel(categoryNames, row.getKey());
+                case Cashier -> row.getKey().isEmpty() ? "Unknown" : row.getKey();
+            });
+        }
+        report.sort(Comparator.comparing(ReportRowDTO::getRevenue).reversed());
+        return report;
+    }
+
+    /**
+     * Sale lines between the first and last date of the query, both
+     * included, filtered and grouped in memory. Groups by product, category
+     * or customer come best selling first, days and months in date order.
+     */
+    @Override
+    public ArrayList<ReportRowDTO> getSalesAnalysis(SalesQueryDTO query, Response response) {
+        if (!isValidReportRange(query.getFrom(), query.getTo(), response)) {
+            return new ArrayList<>();
+        }
+        ArrayList<ReportRowDTO> report = salesColumnStore.query(query);
+        Map<String, String> names = new HashMap<>();
+        if (query.getGrouping() == SalesGrouping.Category && !report.isEmpty()) {
+            names = categoryNames();
+        } else if (query.getGrouping() == SalesGrouping.Customer && !report.isEmpty()) {
+            for (CustomerDTO customer : referenceData.customers().get(POSFactory.getInstanceOfResponse())) {
+                names.put(String.valueOf(customer.getId()), customer.getName());
+            }
+        }
+        Response lookup = POSFactory.getInstanceOfResponse();
+        for (ReportRowDTO row : report) {
+            String key = row.getKey();
+            row.setLabel(switch (query.getGrouping()) {
+                case Product -> productLabel(key, lookup);
+                case Category -> categoryLabel(names, key);
+                case Customer -> key.equals("0") ? "Walk-in" : names.getOrDefault(key, "Customer " + key);
+                case Day -> key;
+                case Month -> periodLabel(ReportPeriod.Month, LocalDate.parse(key));
+            });
+        }
+        if (query.getGrouping() != SalesGrouping.Day && query.getGrouping() != SalesGrouping.Month) {
+            report.sort(Comparator.comparing(ReportRowDTO::getRevenue).reversed());
+        }
+        return report;
+    }
+
+    private Map<String, String> categoryNames() {
+        Map<String, String> names = new HashMap<>();
+        for (CategoryDTO category : referenceData.categories().get(POSFactory.getInstanceOfResponse())) {
+            names.put(String.valueOf(category.getId()), category.getName());
+        }
+        return names;
+    }
+
+    private String productLabel(String key, Response lookup) {
+        ProductDTO product = productCatalog.getProductById(Integer.parseInt(key), lookup);
+        return product != null ? product.getProductName() : "Product " + key;
+    }
+
+    private static String categoryLabel(Map<String, String> names, String key) {
+        return names.getOrDefault(key, key.equals("0") ? "Other" : "Category " + key);
+    }
+
+    private static boolean isValidReportRange(LocalDate from, LocalDate to, Response response) {
+        if (from == null || to == null) {
+            response.messagesList.add(new Message("Select the first and last day of the report.", MessageType.Error));
+            return false;
+        }
+        if (from.isAfter(to)) {
+            response.messagesList.add(new Message("The first day of the report must not be after the last day.", MessageType.Error));
+            return false;
+        }
+        return true;
+    }
+
+    private static String periodLabel(ReportPeriod period, LocalDate start) {
+        return switch (period) {
+            case Day -> start.toString();
+            case Week -> "Week of " + start;
+            case Month -> start.format(DateTimeFormatter.ofPattern("MMMM yyyy"));
+        };
+    }
+
+    private boolean journalSale(SaleDTO sale, Response response) {
+        try {
+            salesJournal.append(sale);
+            response.messagesList.add(new Message("Sale saved successfully.", MessageType.Information));
+            return true;
+        } catch (IOException ex) {
+            // the sale still goes to the database, only without the journal
+            Logger.getLogger(POSController.class.getName()).log(Level.SEVERE, "Sales journal write failed", ex);
+            return false;
+        }
+    }
+
+    /**
+     * The database checks stock again when the journal is replayed; this
+     * catches the usual case while the cashier is still at the till.
+     */
+    private void checkStock(SaleDTO sale, Response response) {
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (SaleItemDTO item : sale.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        StringBuilder outOfStock = new StringBuilder();
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            ProductDTO product = productCatalog.getProductById(entry.getKey(), POSFactory.getInstanceOfResponse());
+            if (product != null && product.getStockQuantity() < entry.getValue()) {
+                outOfStock.append(outOfStock.length() == 0 ? "" : ", ").append(product.getProductName());
+            }
+        }
+        if (outOfStock.length() > 0) {
+            response.messagesList.add(new Message("Not enough stock for " + outOfStock + ".", MessageType.Error));
+        }
+    }
+
     @Override
     public Response deleteProduct(ProductDTO product) {
         Response response = POSFactory.getInstanceOfResponse();
         CommonValidator.validateObject(product, response);
         if (response.isSuccessfull()) {
             dalManagerObj.deleteProduct(product, response);
+            if (response.isSuccessfull()) {
+                productCatalog.remove(product.getProductId());
+            }
         }
         return response;
     }
@@ -237,13 +579,28 @@ public class POSController implements IPOSController {
         CommonValidator.validateObject(product, response);
         if (response.isSuccessfull()) {
             dalManagerObj.updateProduct(product, response);
+            if (response.isSuccessfull()) {
+                productCatalog.put(new ProductDTO(product));
+            }
         }
         return response;
     }
 
     @Override
     public ArrayList<ProductDTO> getProducts(Response response) {
-        return dalManagerObj.getProducts(response);
+        return productCatalog.getProducts(response);
+    }
+
+    @Override
+    public ArrayList<ProductDTO> getProductsPage(int afterId, int pageSize, Response response) {
+        return dalManagerObj.getProductsPage(afterId, pageSize(pageSize), response);
+    }
+
+    /**
+     * Keeps a page between 1 and MAX_PAGE_SIZE rows.
+     */
+    private static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
     }
 
     @Override
@@ -252,6 +609,7 @@ public class POSController implements IPOSController {
         CommonValidator.validateObject(category, response);
         if (response.isSuccessfull()) {
             dalManagerObj.deleteCategory(category, response);
+            referenceData.categories().invalidate();
         }
         return response;
     
@@ -263,13 +621,14 @@ public class POSController implements IPOSController {
         CommonValidator.validateObject(category, response);
         if (response.isSuccessfull()) {
             dalManagerObj.updateCategory(category, response);
+            referenceData.categories().invalidate();
         }
         return response;
     }
 
     @Override
     public ArrayList<CategoryDTO> getCategories(Response res) {
-        return dalManagerObj.getCategories(res);
+        return referenceData.categories().get(res);
     }
 
     @Override
@@ -278,25 +637,39 @@ public class POSController implements IPOSController {
         CommonValidator.validateObject(category, response);
         if (response.isSuccessfull()) {
             dalManagerObj.saveCategory(category, response);
+            referenceData.categories().invalidate();
         }
         return response;
     }
 
+    @Override
     public ArrayList<ProductDTO> searchProductsByName(String searchName, Response res) {
-       return dalManagerObj.searchProductsByName(searchName,  res);
+       return productCatalog.searchProductsByName(searchName, SEARCH_RESULT_LIMIT, res);
     }
 
+    @Override
     public CategoryDTO getCategoryByName(String selectedItem) {
         return dalManagerObj.getCategoryByName(selectedItem);
     }
 
+    @Override
     public SupplierDTO getSupplierByName(String string) {
          return dalManagerObj.getSupplierByName(string);
     
     }
     
+    @Override
     public ProductDTO getProductById(int searchId,Response response) {
-        return dalManagerObj.getProductById(searchId,response);
+        return productCatalog.getProductById(searchId, response);
+    }
+
+    @Override
+    public ProductDTO getProductByBarcode(String barcode, Response response) {
+        return productCatalog.getProductByBarcode(barcode, response);
+    }
+
+    public ProductCatalog getProductCatalog() {
+        return productCatalog;
     }
 
     @Override
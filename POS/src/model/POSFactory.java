@@ -5,7 +5,31 @@
 package model;
 
 import dal.*;
+import dal.db.ConnectionPool;
+import dal.db.IConnection;
+import dal.db.MySQLConnection;
+import dal.journal.SalesJournal;
+import dal.journal.SalesJournalReplayer;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.function.IntUnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jdk.jfr.Recording;
+import model.dto.ProductDTO;
 import model.dto.Response;
+import model.jfr.PosFlightRecorder;
+import model.metrics.EdtStallMonitor;
+import model.metrics.InstrumentedProxy;
+import model.metrics.MetricsFileWriter;
+import model.metrics.MetricsRegistry;
+import model.metrics.MetricsServer;
+import model.metrics.PosMetrics;
+import model.productimport.ProductImporter;
 
 /**
  *
@@ -13,14 +37,241 @@ import model.dto.Response;
  */
 public class POSFactory {
 
-    public static DALManager getDALManagerInstance() {
-        return new DALManager();
+    private static ConnectionPool connectionPool;
+
+    public static synchronized ConnectionPool getInstanceOfConnectionPool() {
+        if (connectionPool == null) {
+            connectionPool = new ConnectionPool(new MySQLConnection("pos", "root", "12345"), 10);
+            connectionPool.setLeakDetectionThresholdMillis(60_000);
+        }
+        return connectionPool;
+    }
+
+    private static ProductCatalog productCatalog;
+
+    public static synchronized ProductCatalog getInstanceOfProductCatalog() {
+        if (productCatalog == null) {
+            productCatalog = new ProductCatalog(getDALManagerInstance(), Long.getLong("pos.catalog.refreshMillis", 5 * 60 * 1000));
+        }
+        return productCatalog;
+    }
+
+    private static ReferenceData referenceData;
+
+    public static synchronized ReferenceData getInstanceOfReferenceData() {
+        if (referenceData == null) {
+            referenceData = new ReferenceData(getDALManagerInstance(), Long.getLong("pos.reference.maxAgeMillis", 5 * 60 * 1000));
+        }
+        return referenceData;
+    }
+
+    private static StartupWarmup startupWarmup;
+
+    /**
+     * The warm-up of the catalog and reference lists, not started yet.
+     */
+    public static synchronized StartupWarmup getInstanceOfStartupWarmup() {
+        if (startupWarmup == null) {
+            startupWarmup = new StartupWarmup(getInstanceOfProductCatalog(), getInstanceOfReferenceData());
+        }
+        return startupWarmup;
+    }
+
+    private static SalesJournal salesJournal;
+    private static boolean salesJournalOpened;
+
+    /**
+     * The local sales journal, with its replayer started, or null when it is
+     * turned off with -Dpos.journal.enabled=false or cannot be opened.
+     */
+    public static synchronized SalesJournal getInstanceOfSalesJournal() {
+        if (!salesJournalOpened) {
+            salesJournalOpened = true;
+            if (Boolean.parseBoolean(System.getProperty("pos.journal.enabled", "true"))) {
+                File directory = new File(System.getProperty("pos.journal.dir",
+                        System.getProperty("user.home") + File.separator + ".pos"));
+                try {
+                    salesJournal = SalesJournal.open(directory);
+                    new SalesJournalReplayer(salesJournal, getDALManagerInstance()).start();
+                } catch (IOException ex) {
+                    Logger.getLogger(POSFactory.class.getName()).log(Level.SEVERE, "Sales journal not available, sales are saved directly", ex);
+                }
+            }
+        }
+        return salesJournal;
+    }
+
+    private static SalesAggregates salesAggregates;
+
+    public static synchronized SalesAggregates getInstanceOfSalesAggregates() {
+        if (salesAggregates == null) {
+            salesAggregates = new SalesAggregates();
+        }
+        return salesAggregates;
+    }
+
+    private static SalesColumnStore salesColumnStore;
+
+    /**
+     * The in-memory store of sale lines. The sales already in the database
+     * are streamed into it in the background, headers first and then lines;
+     * sales saved meanwhile are added when the load ends. The same stream
+     * seeds the home screen's sales aggregates.
+     */
+    public static synchronized SalesColumnStore getInstanceOfSalesColumnStore() {
+        if (salesColumnStore == null) {
+            SalesColumnStore store = new SalesColumnStore();
+            salesColumnStore = store;
+            Thread.ofVirtual().name("pos-sales-history").start(() -> {
+                ProductCatalog catalog = getInstanceOfProductCatalog();
+                Response lookup = getInstanceOfResponse();
+                IntUnaryOperator categoryOfProduct = productId -> {
+                    ProductDTO product = catalog.getProductById(productId, lookup);
+                    return product == null ? 0 : product.getCategoryId();
+                };
+                SalesColumnStore.HistoryLoad load = store.beginHistoryLoad(categoryOfProduct);
+                SalesAggregates.HistoryLoad seed = getInstanceOfSalesAggregates().beginHistoryLoad(categoryOfProduct);
+                IDALManager dal = getDALManagerInstance();
+                Response response = getInstanceOfResponse();
+                dal.forEachSale(sale -> {
+                    load.sale(sale);
+                    seed.sale(sale);
+                }, response);
+                if (response.isSuccessfull()) {
+                    dal.forEachSaleItem(item -> {
+                        load.line(item);
+                        seed.line(item);
+                    }, response);
+                }
+                if (!response.isSuccessfull()) {
+                    Logger.getLogger(POSFactory.class.getName()).log(Level.WARNING, "Sales history not loaded: {0}", response.getErrorMessages());
+                    load.abandon();
+                    seed.abandon();
+                    return;
+                }
+                load.finish();
+                seed.finish();
+            });
+        }
+        return salesColumnStore;
+    }
+
+    private static MetricsRegistry metricsRegistry;
+
+    /**
+     * Call counts and latencies of the controller and DAL methods. Turned on
+     * with -Dpos.metrics.enabled=true or by the metrics endpoint, which also
+     * writes them every pos.metrics.periodMillis to metrics.log in
+     * pos.metrics.dir (~/.pos by default). When off, the controller and DAL
+     * are not wrapped at all.
+     */
+    public static synchronized MetricsRegistry getInstanceOfMetricsRegistry() {
+        if (metricsRegistry == null) {
+            metricsRegistry = new MetricsRegistry(Boolean.getBoolean("pos.metrics.enabled")
+                    || System.getProperty("pos.metrics.port") != null);
+            if (metricsRegistry.isEnabled()) {
+                File directory = new File(System.getProperty("pos.metrics.dir",
+                        System.getProperty("user.home") + File.separator + ".pos"));
+                new MetricsFileWriter(metricsRegistry, directory).start(Long.getLong("pos.metrics.periodMillis", 60_000));
+            }
+        }
+        return metricsRegistry;
+    }
+
+    private static EdtStallMonitor edtStallMonitor;
+
+    /**
+     * The EDT watchdog, started with the application. Stalls longer than
+     * pos.edt.stallMillis are logged with the EDT stack and counted by
+     * blocking method on the metrics endpoint.
+     */
+    public static synchronized EdtStallMonitor getInstanceOfEdtStallMonitor() {
+        if (edtStallMonitor == null) {
+            edtStallMonitor = new EdtStallMonitor(Long.getLong("pos.edt.periodMillis", 100),
+                    Long.getLong("pos.edt.stallMillis", 200));
+            edtStallMonitor.start();
+        }
+        return edtStallMonitor;
+    }
+
+    private static MetricsServer metricsServer;
+    private static boolean metricsServerStarted;
+
+    /**
+     * The Prometheus endpoint at http://localhost:PORT/metrics, started when
+     * -Dpos.metrics.port=PORT is given. It listens on the loopback address
+     * unless pos.metrics.bind names another one. Null when it is off or the
+     * port cannot be bound.
+     */
+    public static synchronized MetricsServer getInstanceOfMetricsServer() {
+        if (!metricsServerStarted) {
+            metricsServerStarted = true;
+            Integer port = Integer.getInteger("pos.metrics.port");
+            if (port != null) {
+                MetricsServer server = new MetricsServer()
+                        .addSource(PosMetrics.calls(getInstanceOfMetricsRegistry()))
+                        .addSource(PosMetrics.connectionPool(getInstanceOfConnectionPool()))
+                        .addSource(PosMetrics.productCatalog(getInstanceOfProductCatalog()))
+                        .addSource(PosMetrics.sales(getInstanceOfSalesAggregates()))
+                        .addSource(PosMetrics.edtStalls(getInstanceOfEdtStallMonitor()))
+                        .addSource(PosMetrics.warmup(getInstanceOfStartupWarmup()))
+                        .addSource(PosMetrics.jvm());
+                try {
+                    String bind = System.getProperty("pos.metrics.bind");
+                    InetAddress address = bind == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bind);
+                    server.start(new InetSocketAddress(address, port));
+                    metricsServer = server;
+                } catch (IOException ex) {
+                    Logger.getLogger(POSFactory.class.getName()).log(Level.WARNING, "Metrics endpoint not started", ex);
+                }
+            }
+        }
+        return metricsServer;
+    }
+
+    private static Recording flightRecording;
+    private static boolean flightRecordingStarted;
+
+    /**
+     * A Flight Recorder recording with the bundled pos.jfc settings, written
+     * to pos.jfr.file when the application exits. Null when the property is
+     * not set.
+     */
+    public static synchronized Recording getInstanceOfFlightRecording() {
+        if (!flightRecordingStarted) {
+            flightRecordingStarted = true;
+            String file = System.getProperty("pos.jfr.file");
+            if (file != null) {
+                try {
+                    flightRecording = PosFlightRecorder.start(Path.of(file));
+                } catch (IOException | ParseException ex) {
+                    Logger.getLogger(POSFactory.class.getName()).log(Level.WARNING, "Flight recording not started", ex);
+                }
+            }
+        }
+        return flightRecording;
+    }
+
+    private static <T> T instrument(Class<T> type, T target) {
+        MetricsRegistry registry = getInstanceOfMetricsRegistry();
+        return registry.isEnabled() ? InstrumentedProxy.wrap(type, target, registry) : target;
+    }
+
+    public static IDALManager getDALManagerInstance() {
+        return instrument(IDALManager.class, new DALManager());
     }
 
     public static POSController getInstanceOfPOSController() {
         return new POSController();
     }
 
+    /**
+     * The controller for the screens, instrumented when metrics are on.
+     */
+    public static IPOSController getInstanceOfController() {
+        return instrument(IPOSController.class, getInstanceOfPOSController());
+    }
+
     public static Response getInstanceOfResponse() {
         return new Response();
     }
@@ -40,7 +291,16 @@ public class POSFactory {
     public static ObjectRemover getInstanceOfObjectRemover() {
         return new ObjectRemover();
     }
-    public static DBReader getInstanceOfDBReader() {
-        return new DBReader();
+    public static DBReader getInstanceOfDBReader(IConnection connection) {
+        return new DBReader(connection);
+    }
+
+    /**
+     * A product importer writing through the given DAL, with the chunk size
+     * from pos.import.chunkSize and a validation thread per processor.
+     */
+    public static ProductImporter getInstanceOfProductImporter(IDALManager dalManager) {
+        return new ProductImporter(dalManager, Integer.getInteger("pos.import.chunkSize", ProductImporter.DEFAULT_CHUNK_SIZE),
+                Runtime.getRuntime().availableProcessors());
     }
 }
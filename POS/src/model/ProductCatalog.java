@@ -0,0 +1,328 @@
+package model;
+
+import dal.IDALManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import model.jfr.ProductSearchEvent;
+import model.metrics.MethodMetrics;
+import model.metrics.MethodStatistics;
+
+/**
+ * In-memory copy of the products table with O(1) lookups by id and barcode.
+ * The first read loads the catalog; after that reads are served from memory
+ * and the catalog is reloaded in the background once it is older than the
+ * refresh interval. POSController keeps it in step with its own writes.
+ * Callers get copies of the cached products, so editing one before saving
+ * it cannot change the catalog; a write replaces the snapshot instead.
+ *
+ * @author fawad
+ */
+public class ProductCatalog {
+
+    private static final Logger LOGGER = Logger.getLogger(ProductCatalog.class.getName());
+    // a load that keeps overlapping writes is installed as already stale
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final IDALManager dalManager;
+    private volatile long refreshIntervalMillis;
+    private volatile Snapshot snapshot;
+    private final Object loadLock = new Object();
+    // bumped under loadLock by every write, so a load can tell it overlapped one
+    private long generation;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+    private final MethodMetrics searches = new MethodMetrics("ProductCatalog.search");
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private volatile long lastRefreshNanos;
+
+    public ProductCatalog(IDALManager dalManager, long refreshIntervalMillis) {
+        this.dalManager = dalManager;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    public ArrayList<ProductDTO> getProducts(Response response) {
+        return copies(current(response).products);
+    }
+
+    public ProductDTO getProductById(int productId, Response response) {
+        return copy(current(response).byId.get(productId));
+    }
+
+    public ProductDTO getProductByBarcode(String barcode, Response response) {
+        if (barcode == null) {
+            return null;
+        }
+        return copy(current(response).byBarcode.get(barcode.trim()));
+    }
+
+    /**
+     * Products whose name contains the text, best matches first, answered
+     * from the name index instead of a LIKE '%text%' table scan.
+     */
+    public ArrayList<ProductDTO> searchProductsByName(String text, int limit, Response response) {
+        ProductSearchEvent event = new ProductSearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        current(response);
+        ArrayList<ProductDTO> results = copies(searchIndex.search(text, limit));
+        searches.record(System.nanoTime() - start, !response.isSuccessfull());
+        event.end();
+        if (event.shouldCommit()) {
+            event.queryLength = text == null ? 0 : text.length();
+            event.resultCount = results.size();
+            event.commit();
+        }
+        return results;
+    }
+
+    private static ProductDTO copy(ProductDTO product) {
+        return product == null ? null : new ProductDTO(product);
+    }
+
+    private static ArrayList<ProductDTO> copies(List<ProductDTO> products) {
+        ArrayList<ProductDTO> copies = new ArrayList<>(products.size());
+        for (ProductDTO product : products) {
+            copies.add(new ProductDTO(product));
+        }
+        return copies;
+    }
+
+    /**
+     * Replaces (or adds) a product after it was written to the database.
+     */
+    public void put(ProductDTO product) {
+        synchronized (loadLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            List<ProductDTO> products = new ArrayList<>(current.products.size() + 1);
+            boolean replaced = false;
+            for (ProductDTO p : current.products) {
+                if (p.getProductId() == product.getProductId()) {
+                    products.add(product);
+                    replaced = true;
+                } else {
+                    products.add(p);
+                }
+            }
+            if (!replaced) {
+                products.add(product);
+            }
+            generation++;
+            snapshot = new Snapshot(products, current.loadedAt);
+            searchIndex.update(product);
+        }
+    }
+
+    /**
+     * Drops a product after it was deleted from the database.
+     */
+    public void remove(int productId) {
+        synchronized (loadLock) {
+            Snapshot current = snapshot;
+            if (current == null || !current.byId.containsKey(productId)) {
+                return;
+            }
+            List<ProductDTO> products = new ArrayList<>(current.products);
+            products.removeIf(p -> p.getProductId() == productId);
+            generation++;
+            snapshot = new Snapshot(products, current.loadedAt);
+            searchIndex.remove(productId);
+        }
+    }
+
+    public void adjustStock(int productId, double delta) {
+        adjustStock(Map.of(productId, delta));
+    }
+
+    /**
+     * Adds each delta to the stock of a cached product after a write such as
+     * a sale. The products are copied and the snapshot replaced once for
+     * all of them.
+     */
+    public void adjustStock(Map<Integer, Double> deltas) {
+        synchronized (loadLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            Map<Integer, ProductDTO> changed = new HashMap<>();
+            deltas.forEach((productId, delta) -> {
+                ProductDTO product = current.byId.get(productId);
+                if (product != null) {
+                    ProductDTO copy = new ProductDTO(product);
+                    copy.setStockQuantity(product.getStockQuantity() + delta);
+                    changed.put(productId, copy);
+                }
+            });
+            if (changed.isEmpty()) {
+                return;
+            }
+            List<ProductDTO> products = new ArrayList<>(current.products.size());
+            for (ProductDTO p : current.products) {
+                products.add(changed.getOrDefault(p.getProductId(), p));
+            }
+            generation++;
+            snapshot = new Snapshot(products, current.loadedAt);
+            changed.values().forEach(searchIndex::update);
+        }
+    }
+
+    /**
+     * Forces the next read to reload the catalog from the database.
+     */
+    public void invalidate() {
+        synchronized (loadLock) {
+            generation++;
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Reloads the catalog from the database. The query runs outside the
+     * lock; if a write reached the catalog meanwhile, the rows read may
+     * predate it, so they are thrown away and read again.
+     */
+    public boolean refresh(Response response) {
+        long start = System.nanoTime();
+        for (int attempt = 1;; attempt++) {
+            long seen;
+            synchronized (loadLock) {
+                seen = generation;
+            }
+            Response loadResponse = POSFactory.getInstanceOfResponse();
+            ArrayList<ProductDTO> products = dalManager.getProducts(loadResponse);
+            if (!loadResponse.isSuccessfull()) {
+                refreshFailures.incrementAndGet();
+                response.messagesList.addAll(loadResponse.messagesList);
+                return false;
+            }
+            synchronized (loadLock) {
+                boolean overlapped = generation != seen;
+                if (overlapped && attempt < MAX_LOAD_ATTEMPTS) {
+                    continue;
+                }
+                searchIndex.rebuild(products);
+                // loaded at 0 makes the next read refresh it again
+                snapshot = new Snapshot(products, overlapped ? 0 : System.currentTimeMillis());
+            }
+            refreshes.incrementAndGet();
+            lastRefreshNanos = System.nanoTime() - start;
+            return true;
+        }
+    }
+
+    private Snapshot current(Response response) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (loadLock) {
+                current = snapshot;
+                if (current == null) {
+                    misses.incrementAndGet();
+                    return refresh(response) ? snapshot : Snapshot.EMPTY;
+                }
+            }
+        }
+        hits.incrementAndGet();
+        if (System.currentTimeMillis() - current.loadedAt > refreshIntervalMillis) {
+            refreshInBackground();
+        }
+        return current;
+    }
+
+    private void refreshInBackground() {
+        if (refreshing.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("pos-catalog-refresh").start(() -> {
+                try {
+                    Response response = POSFactory.getInstanceOfResponse();
+                    if (!refresh(response)) {
+                        LOGGER.log(Level.WARNING, "Catalog refresh failed: {0}", response.getErrorMessages());
+                    }
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+
+    public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Reads answered from memory count as hits; reads that had to load the
+     * catalog from the database count as misses.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    public long getRefreshFailureCount() {
+        return refreshFailures.get();
+    }
+
+    public MethodStatistics getSearchStatistics() {
+        return searches.snapshot();
+    }
+
+    public double getLastRefreshMillis() {
+        return lastRefreshNanos / 1_000_000.0;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.products.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ProductCatalog{" + "size=" + size() + ", hits=" + hits + ", misses=" + misses
+                + ", refreshes=" + refreshes + ", refreshFailures=" + refreshFailures
+                + ", lastRefreshMs=" + String.format("%.3f", getLastRefreshMillis()) + '}';
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), 0);
+
+        final List<ProductDTO> products;
+        final Map<Integer, ProductDTO> byId;
+        final Map<String, ProductDTO> byBarcode;
+        final long loadedAt;
+
+        Snapshot(List<ProductDTO> products, long loadedAt) {
+            this.products = Collections.unmodifiableList(products);
+            this.byId = new HashMap<>(products.size() * 2);
+            this.byBarcode = new HashMap<>(products.size() * 2);
+            for (ProductDTO product : products) {
+                byId.put(product.getProductId(), product);
+                if (product.getBarcode() != null) {
+                    byBarcode.put(product.getBarcode().trim(), product);
+                }
+            }
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import model.dto.ProductDTO;
+
+/**
+ * Trigram inverted index over product names. Answers "name contains text"
+ * searches without scanning the products: the posting lists of the query's
+ * trigrams are intersected and the few candidates left are verified.
+ * Matching ignores case and accents. Results are ranked name-prefix matches
+ * first, then word-prefix matches, then other substring matches, and are
+ * capped at the requested limit.
+ *
+ * @author fawad
+ */
+public class ProductSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<Long, IntList> postings = new HashMap<>();
+    private final HashMap<Integer, Integer> docByProductId = new HashMap<>();
+    private ProductDTO[] products = new ProductDTO[16];
+    private String[] names = new String[16];
+    private int docCount;
+    private int liveCount;
+
+    public ProductSearchIndex() {
+    }
+
+    public ProductSearchIndex(Collection<ProductDTO> products) {
+        rebuild(products);
+    }
+
+    /**
+     * Replaces the whole index with the given products.
+     */
+    public void rebuild(Collection<ProductDTO> all) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docByProductId.clear();
+            int capacity = Math.max(16, all.size());
+            products = new ProductDTO[capacity];
+            names = new String[capacity];
+            docCount = 0;
+            liveCount = 0;
+            for (ProductDTO product : all) {
+                addDocument(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a product, or re-indexes it when its id is already present.
+     */
+    public void update(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getProductId());
+            addDocument(product);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ArrayList<ProductDTO> search(String text, int limit) {
+        ArrayList<ProductDTO> results = new ArrayList<>();
+        String query = normalize(text);
+        if (query.isEmpty() || limit <= 0) {
+            return results;
+        }
+        ArrayList<ProductDTO> wordPrefix = new ArrayList<>();
+        ArrayList<ProductDTO> contains = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (query.length() < 3) {
+                // too short for trigrams: scan, stopping once the best tier is full
+                for (int doc = 0; doc < docCount && results.size() < limit; doc++) {
+                    rank(doc, query, limit, results, wordPrefix, contains);
+                }
+            } else {
+                IntList[] lists = postingsFor(query);
+                if (lists == null) {
+                    return results;
+                }
+                Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+                IntList smallest = lists[0];
+                for (int i = 0; i < smallest.size && results.size() < limit; i++) {
+                    int doc = smallest.values[i];
+                    if (inAll(lists, doc)) {
+                        rank(doc, query, limit, results, wordPrefix, contains);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int i = 0; i < wordPrefix.size() && results.size() < limit; i++) {
+            results.add(wordPrefix.get(i));
+        }
+        for (int i = 0; i < contains.size() && results.size() < limit; i++) {
+            results.add(contains.get(i));
+        }
+        return results;
+    }
+
+    private void rank(int doc, String query, int limit, List<ProductDTO> namePrefix,
+            List<ProductDTO> wordPrefix, List<ProductDTO> contains) {
+        String name = names[doc];
+        if (name == null) {
+            return;
+        }
+        int at = name.indexOf(query);
+        if (at < 0) {
+            return;
+        }
+        if (at == 0) {
+            namePrefix.add(products[doc]);
+        } else if (wordPrefix.size() + namePrefix.size() < limit && startsWord(name, query, at)) {
+            wordPrefix.add(products[doc]);
+        } else if (wordPrefix.size() + namePrefix.size() + contains.size() < limit) {
+            contains.add(products[doc]);
+        }
+    }
+
+    private static boolean startsWord(String name, String query, int from) {
+        for (int at = from; at >= 0; at = name.indexOf(query, at + 1)) {
+            if (!Character.isLetterOrDigit(name.charAt(at - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private IntList[] postingsFor(String query) {
+        long[] grams = trigrams(query);
+        IntList[] lists = new IntList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            IntList list = postings.get(grams[i]);
+            if (list == null) {
+                return null;
+            }
+            lists[i] = list;
+        }
+        return lists;
+    }
+
+    private static boolean inAll(IntList[] lists, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(doc)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addDocument(ProductDTO product) {
+        if (product.getProductName() == null) {
+            return;
+        }
+        if (docCount == products.length) {
+            products = Arrays.copyOf(products, docCount * 2);
+            names = Arrays.copyOf(names, docCount * 2);
+        }
+        int doc = docCount++;
+        String name = normalize(product.getProductName());
+        products[doc] = product;
+        names[doc] = name;
+        docByProductId.put(product.getProductId(), doc);
+        liveCount++;
+        // doc ids only grow, so appending keeps every posting list sorted
+        for (long gram : trigrams(name)) {
+            postings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+        }
+    }
+
+    private void removeDocument(int productId) {
+        Integer doc = docByProductId.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        for (long gram : trigrams(names[doc])) {
+            IntList list = postings.get(gram);
+            if (list != null) {
+                list.remove(doc);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        products[doc] = null;
+        names[doc] = null;
+        liveCount--;
+    }
+
+    private void compactIfNeeded() {
+        if (docCount > 64 && liveCount < docCount / 2) {
+            ArrayList<ProductDTO> live = new ArrayList<>(liveCount);
+            for (int doc = 0; doc < docCount; doc++) {
+                if (products[doc] != null) {
+                    live.add(products[doc]);
+                }
+            }
+            postings.clear();
+            docByProductId.clear();
+            docCount = 0;
+            liveCount = 0;
+            for (ProductDTO product : live) {
+                addDocument(product);
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.trim().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7F) {
+                return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * Distinct trigrams of an already normalized string, each packed into a
+     * long (three UTF-16 units of 16 bits).
+     */
+    private static long[] trigrams(String s) {
+        if (s.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[s.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Sorted growable list of document ids.
+     */
+    private static final class IntList {
+
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        void remove(int value) {
+            int at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) {
+                System.arraycopy(values, at + 1, values, at, size - at - 1);
+                size--;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.readLock().lock();
+        try {
+            return "ProductSearchIndex{" + "products=" + liveCount + ", trigrams=" + postings.size() + '}';
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+import dal.IDALManager;
+import java.util.List;
+import model.dto.CategoryDTO;
+import model.dto.CustomerDTO;
+import model.dto.EmployeeDTO;
+import model.dto.SupplierDTO;
+
+/**
+ * The customers, categories, suppliers and employees the screens list,
+ * each kept as a {@link CachedList}.
+ *
+ * @author fawad
+ */
+public class ReferenceData {
+
+    private final CachedList<CustomerDTO> customers;
+    private final CachedList<CategoryDTO> categories;
+    private final CachedList<SupplierDTO> suppliers;
+    private final CachedList<EmployeeDTO> employees;
+
+    /**
+     * @param maxAgeMillis how long a loaded list is used; 0 reads the
+     * database every time
+     */
+    public ReferenceData(IDALManager dalManager, long maxAgeMillis) {
+        customers = new CachedList<>("customers", dalManager::getCustomers, maxAgeMillis);
+        categories = new CachedList<>("categories", dalManager::getCategories, maxAgeMillis);
+        suppliers = new CachedList<>("suppliers", dalManager::getSuppliers, maxAgeMillis);
+        employees = new CachedList<>("employees", dalManager::getEmployees, maxAgeMillis);
+    }
+
+    public CachedList<CustomerDTO> customers() {
+        return customers;
+    }
+
+    public CachedList<CategoryDTO> categories() {
+        return categories;
+    }
+
+    public CachedList<SupplierDTO> suppliers() {
+        return suppliers;
+    }
+
+    public CachedList<EmployeeDTO> employees() {
+        return employees;
+    }
+
+    public List<CachedList<?>> all() {
+        return List.of(customers, categories, suppliers, employees);
+    }
+}
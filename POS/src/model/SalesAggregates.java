@@ -0,0 +1,346 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntUnaryOperator;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+
+/**
+ * Running sales figures for the home screen: amount and count per hour of
+ * the current day, amount per category and per month, and how many units
+ * each basket had. The sales already in the database are streamed in once
+ * at startup, alongside the column store's history load, and every
+ * committed sale is added in constant time per line, so the charts never
+ * need an aggregate query. Amounts are what was charged: the sale's total
+ * amount, split over categories by the lines' net totals.
+ *
+ * @author fawad
+ */
+public class SalesAggregates {
+
+    /**
+     * Told after each recorded sale, on the thread that saved it, and after
+     * the history is loaded.
+     */
+    public interface Listener {
+
+        void aggregatesChanged();
+    }
+
+    /**
+     * Baskets of 1 to 9 units get their own bucket; the last one counts 10
+     * units and more.
+     */
+    public static final int BASKET_BUCKETS = 10;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private LocalDate day;
+    private final long[] hourAmountMinor = new long[24];
+    private final int[] hourSales = new int[24];
+    private final Map<Integer, Long> categoryAmountMinor = new HashMap<>();
+    private final TreeMap<YearMonth, Long> monthAmountMinor = new TreeMap<>();
+    private final int[] basketSizes = new int[BASKET_BUCKETS];
+    private long salesCount;
+    private long totalMinor;
+    private long recordedCount;
+    private long recordedMinor;
+
+    // sales recorded before the history load finished, so it does not add them twice
+    private final Set<String> liveSales = new HashSet<>();
+    // sales recorded while a history load runs, added when it finishes
+    private List<Sale> pending;
+    private boolean historyLoaded;
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts loading the sales already in the database, the same way as
+     * {@link SalesColumnStore#beginHistoryLoad}: every sale header goes to
+     * {@link HistoryLoad#sale}, then every line to {@link HistoryLoad#line},
+     * then {@link HistoryLoad#finish} adds them to the figures at once.
+     *
+     * @param categoryOfProduct gives the category id of a product id, 0 when
+     * it is not known
+     */
+    public synchronized HistoryLoad beginHistoryLoad(IntUnaryOperator categoryOfProduct) {
+        pending = new ArrayList<>();
+        return new HistoryLoad(categoryOfProduct);
+    }
+
+    /**
+     * Adds a committed sale to every figure. While a history load runs the
+     * sale is held back until it finishes.
+     *
+     * @param categoryOfProduct gives the category id of a product id, 0 when
+     * it is not known
+     */
+    public void record(SaleDTO sale, IntUnaryOperator categoryOfProduct) {
+        LocalDateTime date = sale.getSaleDate() != null ? sale.getSaleDate() : LocalDateTime.now();
+        Map<Integer, Long> categories = new HashMap<>();
+        int units = 0;
+        for (SaleItemDTO item : sale.getItems()) {
+            units += item.getQuantity();
+            categories.merge(categoryOfProduct.applyAsInt(item.getProductId()), Cart.toMinor(item.getNetTotal()), Long::sum);
+        }
+        Sale recorded = new Sale(sale.getSaleId(), date, Cart.toMinor(sale.getTotalAmount()), units, categories);
+        synchronized (this) {
+            recordedCount++;
+            recordedMinor += recorded.amountMinor;
+            if (!historyLoaded) {
+                if (sale.getSaleUid() != null) {
+                    liveSales.add("uid:" + sale.getSaleUid());
+                }
+                if (sale.getSaleId() > 0) {
+                    liveSales.add("id:" + sale.getSaleId());
+                }
+            }
+            if (pending != null) {
+                pending.add(recorded);
+                return;
+            }
+            add(recorded);
+        }
+        notifyListeners();
+    }
+
+    private void add(Sale sale) {
+        add(sale.date, sale.amountMinor, sale.units);
+        sale.categoryAmountMinor.forEach((categoryId, amount) -> categoryAmountMinor.merge(categoryId, amount, Long::sum));
+    }
+
+    private void add(LocalDateTime date, long saleMinor, int units) {
+        LocalDate saleDay = date.toLocalDate();
+        if (day == null || saleDay.isAfter(day)) {
+            // first sale of a new day starts the hourly figures again
+            startDay(saleDay);
+        }
+        if (saleDay.equals(day)) {
+            hourAmountMinor[date.getHour()] += saleMinor;
+            hourSales[date.getHour()]++;
+        }
+        monthAmountMinor.merge(YearMonth.from(date), saleMinor, Long::sum);
+        basketSizes[Math.min(Math.max(units, 1), BASKET_BUCKETS) - 1]++;
+        salesCount++;
+        totalMinor += saleMinor;
+    }
+
+    private void startDay(LocalDate newDay) {
+        day = newDay;
+        Arrays.fill(hourAmountMinor, 0);
+        Arrays.fill(hourSales, 0);
+    }
+
+    private void notifyListeners() {
+        for (Listener listener : listeners) {
+            listener.aggregatesChanged();
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Copy of the figures at one moment, safe to read on any thread.
+     * Amounts are in minor units (cents).
+     */
+    public static final class Snapshot {
+
+        private final long[] hourAmountMinor;
+        private final int[] hourSales;
+        private final Map<Integer, Long> categoryAmountMinor;
+        private final Map<YearMonth, Long> monthAmountMinor;
+        private final int[] basketSizes;
+        private final long salesCount;
+        private final long totalMinor;
+        private final long recordedCount;
+        private final long recordedMinor;
+
+        private Snapshot(SalesAggregates source) {
+            this.hourAmountMinor = source.hourAmountMinor.clone();
+            this.hourSales = source.hourSales.clone();
+            this.categoryAmountMinor = Collections.unmodifiableMap(new TreeMap<>(source.categoryAmountMinor));
+            this.monthAmountMinor = Collections.unmodifiableMap(new TreeMap<>(source.monthAmountMinor));
+            this.basketSizes = source.basketSizes.clone();
+            this.salesCount = source.salesCount;
+            this.totalMinor = source.totalMinor;
+            this.recordedCount = source.recordedCount;
+            this.recordedMinor = source.recordedMinor;
+        }
+
+        public long getHourAmountMinor(int hour) {
+            return hourAmountMinor[hour];
+        }
+
+        public int getHourSales(int hour) {
+            return hourSales[hour];
+        }
+
+        /**
+         * Amount per category id, in id order.
+         */
+        public Map<Integer, Long> getCategoryAmountMinor() {
+            return categoryAmountMinor;
+        }
+
+        /**
+         * Amount per month, oldest first.
+         */
+        public Map<YearMonth, Long> getMonthAmountMinor() {
+            return monthAmountMinor;
+        }
+
+        /**
+         * Number of sales whose basket had bucket + 1 units.
+         */
+        public int getBasketSizeCount(int bucket) {
+            return basketSizes[bucket];
+        }
+
+        public long getSalesCount() {
+            return salesCount;
+        }
+
+        public long getTotalMinor() {
+            return totalMinor;
+        }
+
+        /**
+         * Sales committed since the application started, without the
+         * history loaded from the database.
+         */
+        public long getRecordedCount() {
+            return recordedCount;
+        }
+
+        public long getRecordedMinor() {
+            return recordedMinor;
+        }
+    }
+
+    /**
+     * One load of the history. Headers leave their time and amount in
+     * arrays indexed by sale id and lines add their units and net totals;
+     * the sales are added to the figures when the load finishes. Headers of
+     * sales already recorded are skipped along with their lines, and a sale
+     * recorded during the load whose header was read is dropped at the end.
+     */
+    public final class HistoryLoad {
+
+        private final IntUnaryOperator categoryOfProduct;
+        private final BitSet loaded = new BitSet();
+        private long[] secondOf = new long[1024];
+        private long[] amountOf = new long[1024];
+        private int[] unitsOf = new int[1024];
+        private final Map<Integer, Long> categoryAmounts = new HashMap<>();
+
+        private HistoryLoad(IntUnaryOperator categoryOfProduct) {
+            this.categoryOfProduct = categoryOfProduct;
+        }
+
+        /**
+         * Takes the header of a saved sale; its items are not read.
+         */
+        public void sale(SaleDTO header) {
+            int id = header.getSaleId();
+            if (id <= 0) {
+                return;
+            }
+            LocalDateTime date = header.getSaleDate() != null ? header.getSaleDate() : LocalDateTime.now();
+            synchronized (SalesAggregates.this) {
+                if (liveSales.contains("uid:" + header.getSaleUid()) || liveSales.contains("id:" + id)) {
+                    return;
+                }
+                if (id >= secondOf.length) {
+                    int capacity = Math.max(id + 1, secondOf.length + (secondOf.length >> 1));
+                    secondOf = Arrays.copyOf(secondOf, capacity);
+                    amountOf = Arrays.copyOf(amountOf, capacity);
+                    unitsOf = Arrays.copyOf(unitsOf, capacity);
+                }
+                secondOf[id] = date.toEpochSecond(ZoneOffset.UTC);
+                amountOf[id] = Cart.toMinor(header.getTotalAmount());
+                loaded.set(id);
+            }
+        }
+
+        /**
+         * Takes a saved line, with its sale id; lines of sales whose header
+         * was skipped or not seen are ignored.
+         */
+        public void line(SaleItemDTO item) {
+            int id = item.getSaleId();
+            int categoryId = categoryOfProduct.applyAsInt(item.getProductId());
+            synchronized (SalesAggregates.this) {
+                if (id > 0 && loaded.get(id)) {
+                    unitsOf[id] += item.getQuantity();
+                    categoryAmounts.merge(categoryId, Cart.toMinor(item.getNetTotal()), Long::sum);
+                }
+            }
+        }
+
+        /**
+         * Adds the history and the sales recorded meanwhile to the figures.
+         * The hourly figures are for today, so only today's sales go in them.
+         */
+        public void finish() {
+            synchronized (SalesAggregates.this) {
+                LocalDate today = LocalDate.now();
+                if (day == null || today.isAfter(day)) {
+                    startDay(today);
+                }
+                for (int id = loaded.nextSetBit(0); id >= 0; id = loaded.nextSetBit(id + 1)) {
+                    add(LocalDateTime.ofEpochSecond(secondOf[id], 0, ZoneOffset.UTC), amountOf[id], unitsOf[id]);
+                }
+                categoryAmounts.forEach((categoryId, amount) -> categoryAmountMinor.merge(categoryId, amount, Long::sum));
+                for (Sale sale : pending) {
+                    if (sale.saleId <= 0 || !loaded.get(sale.saleId)) {
+                        add(sale);
+                    }
+                }
+                pending = null;
+                historyLoaded = true;
+                liveSales.clear();
+            }
+            notifyListeners();
+        }
+
+        /**
+         * Adds only the sales recorded meanwhile, after a failed read.
+         */
+        public void abandon() {
+            synchronized (SalesAggregates.this) {
+                for (Sale sale : pending) {
+                    add(sale);
+                }
+                pending = null;
+            }
+            notifyListeners();
+        }
+    }
+
+    /**
+     * A recorded sale reduced to what the figures need.
+     */
+    private record Sale(int saleId, LocalDateTime date, long amountMinor, int units, Map<Integer, Long> categoryAmountMinor) {
+    }
+}
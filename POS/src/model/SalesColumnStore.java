@@ -0,0 +1,516 @@
+package model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntUnaryOperator;
+import model.dto.ReportRowDTO;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import model.dto.SalesQueryDTO;
+
+/**
+ * Every sale line in memory, one primitive array per column, for the ad-hoc
+ * queries of the reports screen. Product, category and customer ids are
+ * replaced by dense codes given in order of first use, so grouping adds into
+ * plain arrays indexed by code instead of a map. A query splits the lines
+ * into chunks that are filtered and grouped in parallel on the fork/join
+ * pool, and the partial totals are added up at the end.
+ *
+ * The history is streamed once from the database and each committed sale is
+ * appended as it is saved. Writers take the lock; queries read the last
+ * published snapshot of the columns and never wait for a writer.
+ *
+ * @author fawad
+ */
+public class SalesColumnStore {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    // smallest chunk worth handing to another thread
+    private static final int MIN_CHUNK = 1 << 16;
+
+    private int size;
+    private int[] minute;
+    private int[] product;
+    private int[] category;
+    private int[] customer;
+    private int[] quantity;
+    private long[] amountMinor;
+    private int firstMinute = Integer.MAX_VALUE;
+    private int lastMinute = Integer.MIN_VALUE;
+    private final Dictionary products = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary customers = new Dictionary();
+    private volatile Columns columns;
+
+    // sales appended before the history load finished, so it does not add them twice
+    private final Set<String> liveSales = new HashSet<>();
+    // sales appended while a history load runs, added when it finishes
+    private List<SaleDTO> pending;
+    private boolean historyLoaded;
+
+    public SalesColumnStore() {
+        this(1024);
+    }
+
+    public SalesColumnStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        minute = new int[capacity];
+        product = new int[capacity];
+        category = new int[capacity];
+        customer = new int[capacity];
+        quantity = new int[capacity];
+        amountMinor = new long[capacity];
+        columns = new Columns(this);
+    }
+
+    /**
+     * Starts loading the sales already in the database. The caller streams
+     * every sale header into {@link HistoryLoad#sale}, then every line into
+     * {@link HistoryLoad#line}, and calls {@link HistoryLoad#finish}; nothing
+     * loaded is visible to queries before that.
+     *
+     * @param categoryOfProduct gives the category id of a product id, 0 when
+     * it is not known
+     */
+    public synchronized HistoryLoad beginHistoryLoad(IntUnaryOperator categoryOfProduct) {
+        pending = new ArrayList<>();
+        return new HistoryLoad(categoryOfProduct);
+    }
+
+    /**
+     * Adds the lines of a committed sale, with the category id each line
+     * carries. While a history load runs the sale is held back until it
+     * finishes.
+     */
+    public synchronized void append(SaleDTO sale) {
+        if (!historyLoaded) {
+            if (sale.getSaleUid() != null) {
+                liveSales.add("uid:" + sale.getSaleUid());
+            }
+            if (sale.getSaleId() > 0) {
+                liveSales.add("id:" + sale.getSaleId());
+            }
+        }
+        if (pending != null) {
+            pending.add(sale);
+            return;
+        }
+        addSale(sale);
+        columns = new Columns(this);
+    }
+
+    private void addSale(SaleDTO sale) {
+        LocalDateTime date = sale.getSaleDate() != null ? sale.getSaleDate() : LocalDateTime.now();
+        for (SaleItemDTO item : sale.getItems()) {
+            addLine(toMinute(date), item.getProductId(), item.getCategoryId(), customerOf(sale),
+                    item.getQuantity(), Cart.toMinor(item.getNetTotal()));
+        }
+    }
+
+    /**
+     * Adds one line; for loading lines that are not in a SaleDTO.
+     */
+    public synchronized void appendLine(LocalDateTime date, int productId, int categoryId, int customerId,
+            int units, long lineAmountMinor) {
+        addLine(toMinute(date), productId, categoryId, customerId, units, lineAmountMinor);
+        columns = new Columns(this);
+    }
+
+    public synchronized boolean isHistoryLoaded() {
+        return historyLoaded;
+    }
+
+    /**
+     * Number of sale lines held.
+     */
+    public int size() {
+        return columns.size;
+    }
+
+    private static int customerOf(SaleDTO sale) {
+        return sale.getCustomer() == null ? 0 : sale.getCustomer().getId();
+    }
+
+    private void addLine(int lineMinute, int productId, int categoryId, int customerId, int units, long lineAmountMinor) {
+        if (size == minute.length) {
+            int capacity = size + (size >> 1);
+            minute = Arrays.copyOf(minute, capacity);
+            product = Arrays.copyOf(product, capacity);
+            category = Arrays.copyOf(category, capacity);
+            customer = Arrays.copyOf(customer, capacity);
+            quantity = Arrays.copyOf(quantity, capacity);
+            amountMinor = Arrays.copyOf(amountMinor, capacity);
+        }
+        minute[size] = lineMinute;
+        product[size] = products.code(productId);
+        category[size] = categories.code(categoryId);
+        customer[size] = customers.code(customerId);
+        quantity[size] = units;
+        amountMinor[size] = lineAmountMinor;
+        firstMinute = Math.min(firstMinute, lineMinute);
+        lastMinute = Math.max(lastMinute, lineMinute);
+        size++;
+    }
+
+    private static int toMinute(LocalDateTime date) {
+        return (int) Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Totals of the lines the query keeps, one row per group. The key is the
+     * product, category or customer id, or the ISO date of the day or of the
+     * first day of the month; labels are left to the caller. Groups without
+     * lines are left out, and rows come in code order for ids and in date
+     * order for days and months.
+     */
+    public ArrayList<ReportRowDTO> query(SalesQueryDTO query) {
+        Columns snapshot = columns;
+        ArrayList<ReportRowDTO> report = new ArrayList<>();
+        Scan scan = new Scan(snapshot, query);
+        if (snapshot.size == 0 || scan.groups <= 0) {
+            return report;
+        }
+        int chunk = Math.max(MIN_CHUNK, snapshot.size / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        GroupTask task = new GroupTask(scan, 0, snapshot.size, chunk);
+        long[] totals = snapshot.size <= chunk ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+
+        TreeMap<LocalDate, ReportRowDTO> months = new TreeMap<>();
+        for (int group = 0; group < scan.groups; group++) {
+            long lines = totals[group * 3];
+            if (lines == 0) {
+                continue;
+            }
+            long units = totals[group * 3 + 1];
+            long minor = totals[group * 3 + 2];
+            switch (query.getGrouping()) {
+                case Day -> report.add(row(LocalDate.ofEpochDay(scan.firstDay + group).toString(), lines, units, minor));
+                case Month -> {
+                    LocalDate month = LocalDate.ofEpochDay(scan.firstDay + group).withDayOfMonth(1);
+                    ReportRowDTO row = months.computeIfAbsent(month, m -> row(m.toString(), 0, 0, 0));
+                    row.setCount(row.getCount() + lines);
+                    row.setQuantity(row.getQuantity() + units);
+                    row.setRevenue(row.getRevenue().add(BigDecimal.valueOf(minor, 2)));
+                }
+                default -> report.add(row(String.valueOf(scan.ids[group]), lines, units, minor));
+            }
+        }
+        report.addAll(months.values());
+        return report;
+    }
+
+    private static ReportRowDTO row(String key, long lines, long units, long minor) {
+        return new ReportRowDTO(key, null, lines, units, BigDecimal.valueOf(minor, 2));
+    }
+
+    /**
+     * One load of the history, read as two forward-only streams so no sale
+     * is held as an object: headers leave their minute and customer in
+     * arrays indexed by sale id, and each line goes straight into the
+     * columns. Headers of sales already appended are skipped along with
+     * their lines. A sale appended during the load whose header was read
+     * before it is dropped at the end, since its lines come from the
+     * stream.
+     */
+    public final class HistoryLoad {
+
+        private final IntUnaryOperator categoryOfProduct;
+        private final int sizeBefore;
+        private final int firstMinuteBefore;
+        private final int lastMinuteBefore;
+        private final BitSet loaded = new BitSet();
+        private int[] minuteOf = new int[1024];
+        private int[] customerOf = new int[1024];
+
+        private HistoryLoad(IntUnaryOperator categoryOfProduct) {
+            this.categoryOfProduct = categoryOfProduct;
+            sizeBefore = size;
+            firstMinuteBefore = firstMinute;
+            lastMinuteBefore = lastMinute;
+        }
+
+        /**
+         * Takes the header of a saved sale; its items are not read.
+         */
+        public void sale(SaleDTO header) {
+            int id = header.getSaleId();
+            if (id <= 0) {
+                return;
+            }
+            synchronized (SalesColumnStore.this) {
+                if (liveSales.contains("uid:" + header.getSaleUid()) || liveSales.contains("id:" + id)) {
+                    return;
+                }
+                if (id >= minuteOf.length) {
+                    int capacity = Math.max(id + 1, minuteOf.length + (minuteOf.length >> 1));
+                    minuteOf = Arrays.copyOf(minuteOf, capacity);
+                    customerOf = Arrays.copyOf(customerOf, capacity);
+                }
+                minuteOf[id] = toMinute(header.getSaleDate() != null ? header.getSaleDate() : LocalDateTime.now());
+                customerOf[id] = customerOf(header);
+                loaded.set(id);
+            }
+        }
+
+        /**
+         * Takes a saved line, with its sale id; lines of sales whose header
+         * was skipped or not seen are ignored.
+         */
+        public void line(SaleItemDTO item) {
+            int id = item.getSaleId();
+            int categoryId = categoryOfProduct.applyAsInt(item.getProductId());
+            synchronized (SalesColumnStore.this) {
+                if (id > 0 && loaded.get(id)) {
+                    addLine(minuteOf[id], item.getProductId(), categoryId, customerOf[id], item.getQuantity(),
+                            Cart.toMinor(item.getNetTotal()));
+                }
+            }
+        }
+
+        /**
+         * Publishes the history with the sales appended meanwhile.
+         */
+        public void finish() {
+            synchronized (SalesColumnStore.this) {
+                for (SaleDTO sale : pending) {
+                    if (sale.getSaleId() <= 0 || !loaded.get(sale.getSaleId())) {
+                        addSale(sale);
+                    }
+                }
+                pending = null;
+                historyLoaded = true;
+                liveSales.clear();
+                columns = new Columns(SalesColumnStore.this);
+            }
+        }
+
+        /**
+         * Drops what the load read, after a failed read, and adds the
+         * sales appended meanwhile. The store keeps only live sales.
+         */
+        public void abandon() {
+            synchronized (SalesColumnStore.this) {
+                size = sizeBefore;
+                firstMinute = firstMinuteBefore;
+                lastMinute = lastMinuteBefore;
+                for (SaleDTO sale : pending) {
+                    addSale(sale);
+                }
+                pending = null;
+                columns = new Columns(SalesColumnStore.this);
+            }
+        }
+    }
+
+    /**
+     * Gives each id a code, 0, 1, 2... in order of first use. Codes are
+     * never reused, so a snapshot of the ids array stays valid.
+     */
+    private static final class Dictionary {
+
+        private final Map<Integer, Integer> codes = new HashMap<>();
+        private int[] ids = new int[16];
+
+        int code(int id) {
+            Integer code = codes.get(id);
+            if (code == null) {
+                code = codes.size();
+                if (code == ids.length) {
+                    ids = Arrays.copyOf(ids, code * 2);
+                }
+                ids[code] = id;
+                codes.put(id, code);
+            }
+            return code;
+        }
+
+        int size() {
+            return codes.size();
+        }
+    }
+
+    /**
+     * The columns as they were when published. Appends only write past the
+     * snapshot's size, or into new arrays, so it never changes.
+     */
+    private static final class Columns {
+
+        final int size;
+        final int[] minute;
+        final int[] product;
+        final int[] category;
+        final int[] customer;
+        final int[] quantity;
+        final long[] amountMinor;
+        final int firstMinute;
+        final int lastMinute;
+        final int[] productIds;
+        final int productCount;
+        final int[] categoryIds;
+        final int categoryCount;
+        final int[] customerIds;
+        final int customerCount;
+
+        Columns(SalesColumnStore store) {
+            this.size = store.size;
+            this.minute = store.minute;
+            this.product = store.product;
+            this.category = store.category;
+            this.customer = store.customer;
+            this.quantity = store.quantity;
+            this.amountMinor = store.amountMinor;
+            this.firstMinute = store.firstMinute;
+            this.lastMinute = store.lastMinute;
+            this.productIds = store.products.ids;
+            this.productCount = store.products.size();
+            this.categoryIds = store.categories.ids;
+            this.categoryCount = store.categories.size();
+            this.customerIds = store.customers.ids;
+            this.customerCount = store.customers.size();
+        }
+    }
+
+    /**
+     * A query turned into what the scan loop needs: the minute range, a
+     * keep flag per code for each filtered column, and the column whose
+     * codes are the groups, or the first day when grouping by date.
+     */
+    private static final class Scan {
+
+        final Columns columns;
+        final int fromMinute;
+        final int toMinute;
+        final boolean[] keepProduct;
+        final boolean[] keepCategory;
+        final boolean[] keepCustomer;
+        final int[] keys;
+        final int[] ids;
+        final long firstDay;
+        final int groups;
+
+        Scan(Columns columns, SalesQueryDTO query) {
+            this.columns = columns;
+            fromMinute = query.getFrom() == null ? Integer.MIN_VALUE : toMinute(query.getFrom().atStartOfDay());
+            toMinute = query.getTo() == null ? Integer.MAX_VALUE : toMinute(query.getTo().plusDays(1).atStartOfDay());
+            keepProduct = keep(query.getProductIds(), columns.productIds, columns.productCount);
+            keepCategory = keep(query.getCategoryIds(), columns.categoryIds, columns.categoryCount);
+            keepCustomer = keep(query.getCustomerIds(), columns.customerIds, columns.customerCount);
+            keys = switch (query.getGrouping()) {
+                case Product -> columns.product;
+                case Category -> columns.category;
+                case Customer -> columns.customer;
+                default -> null;
+            };
+            ids = switch (query.getGrouping()) {
+                case Product -> columns.productIds;
+                case Category -> columns.categoryIds;
+                case Customer -> columns.customerIds;
+                default -> null;
+            };
+            if (keys == null) {
+                long first = Math.floorDiv(Math.max(fromMinute, columns.firstMinute), MINUTES_PER_DAY);
+                long last = Math.floorDiv(Math.min(toMinute - 1L, columns.lastMinute), MINUTES_PER_DAY);
+                firstDay = first;
+                groups = (int) Math.max(0, last - first + 1);
+            } else {
+                firstDay = 0;
+                groups = switch (query.getGrouping()) {
+                    case Product -> columns.productCount;
+                    case Category -> columns.categoryCount;
+                    default -> columns.customerCount;
+                };
+            }
+        }
+
+        private static boolean[] keep(Set<Integer> wanted, int[] ids, int count) {
+            if (wanted == null || wanted.isEmpty()) {
+                return null;
+            }
+            boolean[] keep = new boolean[count];
+            for (int code = 0; code < count; code++) {
+                keep[code] = wanted.contains(ids[code]);
+            }
+            return keep;
+        }
+    }
+
+    /**
+     * Totals of lines [lo, hi) as count, units and amount per group, side by
+     * side in one array.
+     */
+    private static final class GroupTask extends RecursiveTask<long[]> {
+
+        private final Scan scan;
+        private final int lo;
+        private final int hi;
+        private final int chunk;
+
+        GroupTask(Scan scan, int lo, int hi, int chunk) {
+            this.scan = scan;
+            this.lo = lo;
+            this.hi = hi;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hi - lo <= chunk) {
+                return scan();
+            }
+            int mid = (lo + hi) >>> 1;
+            GroupTask left = new GroupTask(scan, lo, mid, chunk);
+            left.fork();
+            long[] totals = new GroupTask(scan, mid, hi, chunk).compute();
+            long[] leftTotals = left.join();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += leftTotals[i];
+            }
+            return totals;
+        }
+
+        private long[] scan() {
+            long[] totals = new long[scan.groups * 3];
+            Columns c = scan.columns;
+            int[] minute = c.minute;
+            int[] product = c.product;
+            int[] category = c.category;
+            int[] customer = c.customer;
+            int[] quantity = c.quantity;
+            long[] amountMinor = c.amountMinor;
+            int[] keys = scan.keys;
+            boolean[] keepProduct = scan.keepProduct;
+            boolean[] keepCategory = scan.keepCategory;
+            boolean[] keepCustomer = scan.keepCustomer;
+            int fromMinute = scan.fromMinute;
+            int toMinute = scan.toMinute;
+            // kept lines are never before the first day, so plain division finds their day
+            int firstDayMinute = (int) (scan.firstDay * MINUTES_PER_DAY);
+            for (int i = lo; i < hi; i++) {
+                int m = minute[i];
+                if (m < fromMinute || m >= toMinute
+                        || keepProduct != null && !keepProduct[product[i]]
+                        || keepCategory != null && !keepCategory[category[i]]
+                        || keepCustomer != null && !keepCustomer[customer[i]]) {
+                    continue;
+                }
+                int slot = 3 * (keys != null ? keys[i] : (m - firstDayMinute) / MINUTES_PER_DAY);
+                totals[slot]++;
+                totals[slot + 1] += quantity[i];
+                totals[slot + 2] += amountMinor[i];
+            }
+            return totals;
+        }
+    }
+}
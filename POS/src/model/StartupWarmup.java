@@ -0,0 +1,114 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import model.dto.Response;
+
+/**
+ * Loads the product catalog and the reference lists while the login screen
+ * is up, so the Dashboard and the first sale find them in memory. Each
+ * dataset is read on its own virtual thread with its own pooled connection,
+ * and the warm-up ends only when all of them have finished; a dataset that
+ * fails is left to load on first use. The time of each dataset is logged
+ * and kept for the metrics endpoint.
+ *
+ * @author fawad
+ */
+public class StartupWarmup {
+
+    private static final Logger LOGGER = Logger.getLogger(StartupWarmup.class.getName());
+
+    private final Map<String, ToIntFunction<Response>> datasets = new LinkedHashMap<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile List<WarmupTiming> timings = Collections.emptyList();
+    private volatile long totalNanos;
+    private boolean started;
+
+    public StartupWarmup(ProductCatalog productCatalog, ReferenceData referenceData) {
+        datasets.put("products", response -> productCatalog.refresh(response) ? productCatalog.size() : -1);
+        for (CachedList<?> list : referenceData.all()) {
+            datasets.put(list.getName(), response -> list.load(response).size());
+        }
+    }
+
+    /**
+     * Starts the warm-up in the background. Only the first call does
+     * anything.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        Thread.ofVirtual().name("pos-warmup").start(this::run);
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        List<Future<WarmupTiming>> tasks = new ArrayList<>();
+        try (ExecutorService scope = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pos-warmup-", 0).factory())) {
+            for (Map.Entry<String, ToIntFunction<Response>> dataset : datasets.entrySet()) {
+                tasks.add(scope.submit(() -> load(dataset.getKey(), dataset.getValue())));
+            }
+        }
+        // closing the executor waited for every task
+        List<WarmupTiming> results = new ArrayList<>();
+        for (Future<WarmupTiming> task : tasks) {
+            results.add(task.resultNow());
+        }
+        timings = Collections.unmodifiableList(results);
+        totalNanos = System.nanoTime() - start;
+        finished.countDown();
+        LOGGER.log(Level.INFO, "Warm-up finished in {0} ms: {1}",
+                new Object[]{TimeUnit.NANOSECONDS.toMillis(totalNanos), results});
+    }
+
+    private static WarmupTiming load(String dataset, ToIntFunction<Response> loader) {
+        long start = System.nanoTime();
+        Response response = POSFactory.getInstanceOfResponse();
+        try {
+            int rows = loader.applyAsInt(response);
+            return new WarmupTiming(dataset, Math.max(rows, 0), System.nanoTime() - start,
+                    response.isSuccessfull() ? null : response.getErrorMessages());
+        } catch (RuntimeException ex) {
+            return new WarmupTiming(dataset, 0, System.nanoTime() - start, String.valueOf(ex));
+        }
+    }
+
+    /**
+     * Waits for the warm-up to finish. Returns false on timeout.
+     */
+    public boolean await(long timeoutMillis) throws InterruptedException {
+        return finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isFinished() {
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * The time of each dataset, in start order; empty until the warm-up
+     * has finished.
+     */
+    public List<WarmupTiming> getTimings() {
+        return timings;
+    }
+
+    /**
+     * Wall time of the whole warm-up, 0 until it has finished.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+}
@@ -0,0 +1,51 @@
+package model;
+
+/**
+ * How long one dataset took to load during the startup warm-up.
+ *
+ * @author fawad
+ */
+public class WarmupTiming {
+
+    private final String dataset;
+    private final int rows;
+    private final long nanos;
+    private final String error;
+
+    public WarmupTiming(String dataset, int rows, long nanos, String error) {
+        this.dataset = dataset;
+        this.rows = rows;
+        this.nanos = nanos;
+        this.error = error;
+    }
+
+    public String getDataset() {
+        return dataset;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public boolean isSuccessfull() {
+        return error == null;
+    }
+
+    /**
+     * Why the dataset could not be loaded, or null.
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccessfull()
+                ? String.format("%s %d rows in %.1f ms", dataset, rows, nanos / 1e6)
+                : String.format("%s failed after %.1f ms: %s", dataset, nanos / 1e6, error);
+    }
+}
@@ -32,6 +32,17 @@ public class ProductDTO {
         this.quantityType = quantityType;
     }
 
+    public ProductDTO(ProductDTO other) {
+        this.productId = other.productId;
+        this.productName = other.productName;
+        this.barcode = other.barcode;
+        this.price = other.price;
+        this.stockQuantity = other.stockQuantity;
+        this.categoryId = other.categoryId;
+        this.supplierId = other.supplierId;
+        this.quantityType = other.quantityType;
+    }
+
     // Getters and Setters
     public int getProductId() {
         return productId;
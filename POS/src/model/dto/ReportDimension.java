@@ -0,0 +1,12 @@
+package model.dto;
+
+/**
+ * What a sales breakdown report is grouped by.
+ *
+ * @author fawad
+ */
+public enum ReportDimension {
+    Product,
+    Category,
+    Cashier
+}
@@ -0,0 +1,42 @@
+package model.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of the periods a revenue report is split into.
+ *
+ * @author fawad
+ */
+public enum ReportPeriod {
+    Day,
+    Week,
+    Month;
+
+    /**
+     * First day of the period the date falls in; weeks start on Monday.
+     */
+    public LocalDate start(LocalDate date) {
+        return switch (this) {
+            case Day -> date;
+            case Week -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case Month -> date.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Last day of the period the date falls in.
+     */
+    public LocalDate end(LocalDate date) {
+        return next(start(date)).minusDays(1);
+    }
+
+    public LocalDate next(LocalDate periodStart) {
+        return switch (this) {
+            case Day -> periodStart.plusDays(1);
+            case Week -> periodStart.plusWeeks(1);
+            case Month -> periodStart.plusMonths(1);
+        };
+    }
+}
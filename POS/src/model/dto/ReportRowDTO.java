@@ -0,0 +1,70 @@
+package model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a sales report: a period or a product, category or cashier,
+ * with what was sold in it. Count is the number of sales for periods and
+ * cashiers, and the number of sale lines for products and categories.
+ *
+ * @author fawad
+ */
+public class ReportRowDTO {
+
+    private String key;
+    private String label;
+    private long count;
+    private long quantity;
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    public ReportRowDTO() {
+    }
+
+    public ReportRowDTO(String key, String label, long count, long quantity, BigDecimal revenue) {
+        this.key = key;
+        this.label = label;
+        this.count = count;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
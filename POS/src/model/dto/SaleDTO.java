@@ -5,14 +5,20 @@ package model.dto;
  *
  * @author fawad
  */
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 
 public class SaleDTO {
     private int saleId;
+    private String saleUid;
     private LocalDateTime saleDate;
     private CustomerDTO customer;
     private List<SaleItemDTO> items;
+    private double totalAmount;
+    // username of the cashier who made the sale
+    private String cashier;
     
     public int getSaleId() {
         return saleId;
@@ -22,6 +28,14 @@ public class SaleDTO {
         this.saleId = saleId;
     }
 
+    public String getSaleUid() {
+        return saleUid;
+    }
+
+    public void setSaleUid(String saleUid) {
+        this.saleUid = saleUid;
+    }
+
     public LocalDateTime getSaleDate() {
         return saleDate;
     }
@@ -45,6 +59,52 @@ public class SaleDTO {
     public void setItems(List<SaleItemDTO> items) {
         this.items = items;
     }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getCashier() {
+        return cashier;
+    }
+
+    public void setCashier(String cashier) {
+        this.cashier = cashier;
+    }
     
-}
 
+    /**
+     * Sets the net total of every line: its share of the total amount, in
+     * proportion to its line total, so a discount on the whole sale is
+     * spread over the lines. Shares are rounded to the cent and the last
+     * line gets what is left, so the net totals add up to the total amount.
+     */
+    public void spreadTotalOverLines() {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        long totalCents = cents(totalAmount);
+        long grossCents = 0;
+        for (SaleItemDTO item : items) {
+            grossCents += cents(item.getTotal());
+        }
+        long leftCents = totalCents;
+        for (int i = 0; i < items.size() - 1; i++) {
+            SaleItemDTO item = items.get(i);
+            long shareCents = grossCents == 0 ? 0 : BigDecimal.valueOf(cents(item.getTotal()))
+                    .multiply(BigDecimal.valueOf(totalCents))
+                    .divide(BigDecimal.valueOf(grossCents), 0, RoundingMode.HALF_UP).longValue();
+            item.setNetTotal(shareCents / 100.0);
+            leftCents -= shareCents;
+        }
+        items.get(items.size() - 1).setNetTotal(leftCents / 100.0);
+    }
+
+    private static long cents(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,14 @@
+package model.dto;
+
+/**
+ * What the sale lines of an ad-hoc sales query are grouped by.
+ *
+ * @author fawad
+ */
+public enum SalesGrouping {
+    Product,
+    Category,
+    Customer,
+    Day,
+    Month
+}
@@ -0,0 +1,80 @@
+package model.dto;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An ad-hoc query over the sale lines: the days to look at, both included,
+ * the products, categories and customers to keep (all of them when a set
+ * is empty) and what to group the lines by. Customer 0 is a sale without a
+ * customer.
+ *
+ * @author fawad
+ */
+public class SalesQueryDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private Set<Integer> productIds = new HashSet<>();
+    private Set<Integer> categoryIds = new HashSet<>();
+    private Set<Integer> customerIds = new HashSet<>();
+    private SalesGrouping grouping = SalesGrouping.Day;
+
+    public SalesQueryDTO() {
+    }
+
+    public SalesQueryDTO(LocalDate from, LocalDate to, SalesGrouping grouping) {
+        this.from = from;
+        this.to = to;
+        this.grouping = grouping;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Set<Integer> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(Set<Integer> productIds) {
+        this.productIds = productIds;
+    }
+
+    public Set<Integer> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public void setCategoryIds(Set<Integer> categoryIds) {
+        this.categoryIds = categoryIds;
+    }
+
+    public Set<Integer> getCustomerIds() {
+        return customerIds;
+    }
+
+    public void setCustomerIds(Set<Integer> customerIds) {
+        this.customerIds = customerIds;
+    }
+
+    public SalesGrouping getGrouping() {
+        return grouping;
+    }
+
+    public void setGrouping(SalesGrouping grouping) {
+        this.grouping = grouping;
+    }
+}
@@ -0,0 +1,34 @@
+package model.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A product added to or removed from the cart screen, timed from the click
+ * to the cart being updated.
+ *
+ * @author fawad
+ */
+@Name("pos.CartChange")
+@Label("Cart Change")
+@Category({"POS", "Checkout"})
+@Description("Product added to or removed from the cart")
+public class CartChangeEvent extends jdk.jfr.Event {
+
+    public static final String ADD = "add";
+    public static final String REMOVE = "remove";
+
+    @Label("Action")
+    public String action;
+
+    @Label("Product Id")
+    public int productId;
+
+    @Label("Quantity")
+    public int quantity;
+
+    @Label("Cart Lines")
+    public int cartLines;
+}
@@ -0,0 +1,63 @@
+package model.jfr;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One statement or batch sent to the database. The SQL id is the verb and
+ * the table, like "INSERT sale_items", so statements group well in JMC.
+ *
+ * @author fawad
+ */
+@Name("pos.DbStatement")
+@Label("Database Statement")
+@Category({"POS", "Database"})
+@Description("Statement or batch executed by the DAL")
+public class DbStatementEvent extends jdk.jfr.Event {
+
+    private static final ConcurrentHashMap<String, String> IDS = new ConcurrentHashMap<>();
+
+    @Label("SQL Id")
+    public String sqlId;
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Rows")
+    @Description("Rows read, or rows changed by an update")
+    public long rows;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    public void set(String sql, long rows, int batchSize) {
+        this.sqlId = sqlId(sql);
+        this.sql = sql;
+        this.rows = rows;
+        this.batchSize = batchSize;
+    }
+
+    public static String sqlId(String sql) {
+        return IDS.computeIfAbsent(sql, DbStatementEvent::parseId);
+    }
+
+    private static String parseId(String sql) {
+        String[] words = sql.trim().split("[\\s(]+");
+        String verb = words.length == 0 ? "" : words[0].toUpperCase(Locale.ROOT);
+        String before = switch (verb) {
+            case "SELECT", "DELETE" -> "FROM";
+            case "INSERT", "REPLACE" -> "INTO";
+            default -> verb;
+        };
+        for (int i = 0; i + 1 < words.length; i++) {
+            if (words[i].equalsIgnoreCase(before)) {
+                return verb + " " + words[i + 1];
+            }
+        }
+        return verb;
+    }
+}
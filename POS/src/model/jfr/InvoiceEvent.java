@@ -0,0 +1,25 @@
+package model.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The invoice text of a sale being put together.
+ *
+ * @author fawad
+ */
+@Name("pos.Invoice")
+@Label("Invoice")
+@Category({"POS", "Checkout"})
+public class InvoiceEvent extends jdk.jfr.Event {
+
+    @Label("Invoice Number")
+    public String number;
+
+    @Label("Lines")
+    public int lines;
+
+    @Label("Total")
+    public double total;
+}
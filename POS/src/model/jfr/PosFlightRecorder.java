@@ -0,0 +1,49 @@
+package model.jfr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Loads the pos.jfc settings bundled with the application and starts a
+ * recording with them.
+ *
+ * @author fawad
+ */
+public final class PosFlightRecorder {
+
+    public static final String SETTINGS = "pos.jfc";
+
+    private PosFlightRecorder() {
+    }
+
+    public static Configuration configuration() throws IOException, ParseException {
+        InputStream in = PosFlightRecorder.class.getResourceAsStream(SETTINGS);
+        if (in == null) {
+            throw new IOException(SETTINGS + " not found next to " + PosFlightRecorder.class.getName());
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    /**
+     * Records to {@code file} until the application exits, when the
+     * recording is written out.
+     */
+    public static Recording start(Path file) throws IOException, ParseException {
+        Recording recording = new Recording(configuration());
+        recording.setName("POS");
+        recording.setToDisk(true);
+        recording.setDumpOnExit(true);
+        recording.setDestination(file);
+        recording.start();
+        return recording;
+    }
+}
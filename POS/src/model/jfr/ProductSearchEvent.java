@@ -0,0 +1,24 @@
+package model.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A product name search answered by the catalog.
+ *
+ * @author fawad
+ */
+@Name("pos.ProductSearch")
+@Label("Product Search")
+@Category({"POS", "Catalog"})
+@Description("Product name search answered from the in-memory catalog")
+public class ProductSearchEvent extends jdk.jfr.Event {
+
+    @Label("Query Length")
+    public int queryLength;
+
+    @Label("Results")
+    public int resultCount;
+}
@@ -0,0 +1,31 @@
+package model.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A sale being validated and saved, to the journal or straight to the
+ * database.
+ *
+ * @author fawad
+ */
+@Name("pos.SaleCommit")
+@Label("Sale Commit")
+@Category({"POS", "Checkout"})
+public class SaleCommitEvent extends jdk.jfr.Event {
+
+    @Label("Lines")
+    public int lines;
+
+    @Label("Total")
+    public double total;
+
+    @Label("Journaled")
+    @Description("Saved to the local journal and copied to the database later")
+    public boolean journaled;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,224 @@
+package model.metrics;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches the Swing event dispatch thread for stalls. A heartbeat is posted
+ * to the event queue every period; when it runs later than the threshold the
+ * EDT was busy with something else for that long, and the delay is recorded
+ * as a stall. While a heartbeat is overdue the EDT stack is captured once,
+ * so each stall is counted against the application method that was
+ * blocking the thread. A site is logged with its stack the first time it
+ * stalls and whenever it stalls longer than before.
+ *
+ * @author fawad
+ */
+public class EdtStallMonitor {
+
+    private static final Logger LOGGER = Logger.getLogger(EdtStallMonitor.class.getName());
+    private static final String[] APPLICATION_PACKAGES = {"ui.", "model.", "dal.", "pos."};
+    private static final String[] JDK_PACKAGES = {"java.", "javax.", "sun.", "jdk.", "com.sun."};
+    private static final String UNSAMPLED = "(not sampled)";
+    private static final StackTraceElement[] NO_STACK = new StackTraceElement[0];
+
+    private final long periodMillis;
+    private final long thresholdNanos;
+    private final MethodMetrics stalls = new MethodMetrics("EDT.stall");
+    private final AtomicReference<Heartbeat> pending = new AtomicReference<>();
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private volatile Thread dispatchThread;
+    private ScheduledExecutorService scheduler;
+
+    public EdtStallMonitor(long periodMillis, long thresholdMillis) {
+        this.periodMillis = periodMillis;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pos-edt-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::beat, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void beat() {
+        // one heartbeat at a time, so a long stall is counted once
+        Heartbeat waiting = pending.get();
+        if (waiting != null) {
+            if (waiting.stack == null && System.nanoTime() - waiting.posted >= thresholdNanos) {
+                Thread edt = dispatchThread();
+                if (edt != null) {
+                    waiting.stack = edt.getStackTrace();
+                }
+            }
+            return;
+        }
+        Heartbeat heartbeat = new Heartbeat(System.nanoTime());
+        pending.set(heartbeat);
+        ScheduledExecutorService monitorThread = scheduler;
+        EventQueue.invokeLater(() -> {
+            dispatchThread = Thread.currentThread();
+            pending.set(null);
+            long delay = System.nanoTime() - heartbeat.posted;
+            if (delay >= thresholdNanos) {
+                // grouped and logged on the monitor thread, not on the EDT
+                try {
+                    monitorThread.execute(() -> stalled(delay, heartbeat.stack));
+                } catch (RejectedExecutionException stopped) {
+                    stalls.record(delay, false);
+                }
+            }
+        });
+    }
+
+    private void stalled(long nanos, StackTraceElement[] stack) {
+        stalls.record(nanos, false);
+        StackTraceElement[] captured = stack == null ? NO_STACK : stack;
+        String frame = topFrame(captured);
+        if (sites.computeIfAbsent(frame, Site::new).record(nanos, captured)) {
+            LOGGER.log(Level.WARNING, "Event dispatch thread blocked for {0} ms in {1}{2}",
+                    new Object[]{TimeUnit.NANOSECONDS.toMillis(nanos), frame, format(captured)});
+        }
+    }
+
+    /**
+     * The EDT seen by the last heartbeat, or found by name before the first
+     * one has run.
+     */
+    private Thread dispatchThread() {
+        Thread edt = dispatchThread;
+        if (edt != null && edt.isAlive()) {
+            return edt;
+        }
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("AWT-EventQueue-")) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Class and method of the first frame in the application's own packages.
+     * Failing that, the first frame outside the JDK, and failing that the top
+     * frame.
+     */
+    private static String topFrame(StackTraceElement[] stack) {
+        StackTraceElement outsideJdk = null;
+        for (StackTraceElement element : stack) {
+            if (startsWithAny(element.getClassName(), APPLICATION_PACKAGES)) {
+                return name(element);
+            }
+            if (outsideJdk == null && !startsWithAny(element.getClassName(), JDK_PACKAGES)) {
+                outsideJdk = element;
+            }
+        }
+        if (outsideJdk != null) {
+            return name(outsideJdk);
+        }
+        return stack.length == 0 ? UNSAMPLED : name(stack[0]);
+    }
+
+    private static boolean startsWithAny(String className, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String name(StackTraceElement element) {
+        return element.getClassName() + "." + element.getMethodName();
+    }
+
+    private static String format(StackTraceElement[] stack) {
+        StringBuilder text = new StringBuilder();
+        for (StackTraceElement element : stack) {
+            text.append("\n\tat ").append(element);
+        }
+        return text.toString();
+    }
+
+    public MethodStatistics getStallStatistics() {
+        return stalls.snapshot();
+    }
+
+    /**
+     * Stall sites, the one that blocked the EDT longest in total first.
+     */
+    public List<StallSite> getStallSites() {
+        List<StallSite> snapshot = new ArrayList<>();
+        for (Site site : sites.values()) {
+            snapshot.add(site.snapshot());
+        }
+        snapshot.sort(Comparator.comparingLong(StallSite::getTotalNanos).reversed()
+                .thenComparing(StallSite::getFrame));
+        return snapshot;
+    }
+
+    private static final class Heartbeat {
+
+        final long posted;
+        volatile StackTraceElement[] stack;
+
+        Heartbeat(long posted) {
+            this.posted = posted;
+        }
+    }
+
+    private static final class Site {
+
+        private final String frame;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private StackTraceElement[] stack = NO_STACK;
+
+        Site(String frame) {
+            this.frame = frame;
+        }
+
+        /**
+         * Returns true when this is the longest stall of the site so far.
+         */
+        synchronized boolean record(long nanos, StackTraceElement[] stack) {
+            count++;
+            totalNanos += nanos;
+            if (nanos <= maxNanos) {
+                return false;
+            }
+            maxNanos = nanos;
+            this.stack = stack;
+            return true;
+        }
+
+        synchronized StallSite snapshot() {
+            return new StallSite(frame, count, totalNanos, maxNanos, stack);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package model.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import model.dto.Response;
+
+/**
+ * Dynamic proxy that times every interface call on the target and records
+ * it in a {@link MetricsRegistry} as "Interface.method", or as
+ * "Interface.method(Type,Type)" when the interface overloads the name, so
+ * overloads are never merged. A call counts as an
+ * error when it throws, returns a failed {@link Response} or leaves a
+ * {@link Response} argument failed that was not failed before.
+ *
+ * @author fawad
+ */
+public class InstrumentedProxy implements InvocationHandler {
+
+    private final Object target;
+    private final String prefix;
+    private final Set<String> overloaded;
+    private final MetricsRegistry registry;
+    private final ConcurrentHashMap<Method, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    private InstrumentedProxy(Object target, String prefix, Set<String> overloaded, MetricsRegistry registry) {
+        this.target = target;
+        this.prefix = prefix;
+        this.overloaded = overloaded;
+        this.registry = registry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T wrap(Class<T> type, T target, MetricsRegistry registry) {
+        Set<String> names = new HashSet<>();
+        Set<String> overloaded = new HashSet<>();
+        for (Method method : type.getMethods()) {
+            if (!names.add(method.getName())) {
+                overloaded.add(method.getName());
+            }
+        }
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new InstrumentedProxy(target, type.getSimpleName() + ".", overloaded, registry));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (!registry.isEnabled() || method.getDeclaringClass() == Object.class) {
+            return call(method, args);
+        }
+        Response argument = responseArgument(args);
+        boolean failedBefore = argument != null && !argument.isSuccessfull();
+        boolean failed = true;
+        long start = System.nanoTime();
+        try {
+            Object result = call(method, args);
+            failed = result instanceof Response response && !response.isSuccessfull()
+                    || argument != null && !failedBefore && !argument.isSuccessfull();
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            metrics.computeIfAbsent(method, m -> registry.metrics(name(m))).record(nanos, failed);
+        }
+    }
+
+    private String name(Method method) {
+        if (!overloaded.contains(method.getName())) {
+            return prefix + method.getName();
+        }
+        StringJoiner parameters = new StringJoiner(",", "(", ")");
+        for (Class<?> parameter : method.getParameterTypes()) {
+            parameters.add(parameter.getSimpleName());
+        }
+        return prefix + method.getName() + parameters;
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static Response responseArgument(Object[] args) {
+        if (args != null) {
+            for (Object arg : args) {
+                if (arg instanceof Response response) {
+                    return response;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,125 @@
+package model.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets: every power
+ * of two is split in 2^subBucketBits buckets, so a percentile is within
+ * 1/2^subBucketBits of the real value. Recording is lock free and does not
+ * allocate; percentiles are read from a {@link Snapshot}.
+ *
+ * @author fawad
+ */
+public class LogLinearHistogram {
+
+    private final int subBucketBits;
+    private final int subBuckets;
+    private final AtomicLongArray counts;
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LogLinearHistogram(int subBucketBits) {
+        this.subBucketBits = subBucketBits;
+        this.subBuckets = 1 << subBucketBits;
+        this.counts = new AtomicLongArray((64 - subBucketBits) * subBuckets + subBuckets);
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        if (value > maxNanos.get()) {
+            maxNanos.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public void reset() {
+        maxNanos.set(0);
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, maxNanos.get());
+    }
+
+    private int bucket(long value) {
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - subBucketBits;
+        return (shift + 1) * subBuckets + (int) (value >>> shift) - subBuckets;
+    }
+
+    private long upperBound(int bucket) {
+        if (bucket < subBuckets) {
+            return bucket;
+        }
+        int shift = bucket / subBuckets - 1;
+        long mantissa = bucket % subBuckets + subBuckets;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * The bucket counts at one moment.
+     */
+    public final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Smallest value that covers the given percent of the recorded
+         * values: the upper bound of its bucket, never above the maximum.
+         */
+        public long percentile(double percent) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percent / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(max, upperBound(i));
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Counts grouped by power of two: element b holds the values in
+         * [2^b, 2^(b+1)), with 0 counted in element 0.
+         */
+        public long[] countsByPowerOfTwo() {
+            long[] ranges = new long[64];
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    ranges[63 - Long.numberOfLeadingZeros(Math.max(1, upperBound(i)))] += counts[i];
+                }
+            }
+            return ranges;
+        }
+    }
+}
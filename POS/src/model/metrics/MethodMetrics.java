@@ -0,0 +1,52 @@
+package model.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, error count and latency histogram of one method. Latencies go
+ * into a {@link LogLinearHistogram} that splits every power of two in 16, so
+ * percentiles are within about 6% of the real value. Recording is lock free.
+ *
+ * @author fawad
+ */
+public class MethodMetrics {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LogLinearHistogram latencies = new LogLinearHistogram(SUB_BUCKET_BITS);
+
+    public MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos, boolean failed) {
+        long value = Math.max(0, nanos);
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        totalNanos.add(value);
+        latencies.record(value);
+    }
+
+    public MethodStatistics snapshot() {
+        LogLinearHistogram.Snapshot snapshot = latencies.snapshot();
+        return new MethodStatistics(name, calls.sum(), errors.sum(), totalNanos.sum(), snapshot.getMax(),
+                snapshot.percentile(50), snapshot.percentile(95), snapshot.percentile(99));
+    }
+
+    void reset() {
+        calls.reset();
+        errors.reset();
+        totalNanos.reset();
+        latencies.reset();
+    }
+}
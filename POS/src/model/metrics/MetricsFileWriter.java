@@ -0,0 +1,107 @@
+package model.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends a snapshot of a {@link MetricsRegistry} to metrics.log at a fixed
+ * period. When the file passes the size limit it is rolled over to
+ * metrics.log.1, the older files move up one number and the oldest is
+ * dropped.
+ *
+ * @author fawad
+ */
+public class MetricsFileWriter {
+
+    public static final String FILE_NAME = "metrics.log";
+
+    private final MetricsRegistry registry;
+    private final File directory;
+    private final long maxFileBytes;
+    private final int maxRolledFiles;
+    private ScheduledExecutorService scheduler;
+
+    public MetricsFileWriter(MetricsRegistry registry, File directory) {
+        this(registry, directory, 1024 * 1024, 5);
+    }
+
+    public MetricsFileWriter(MetricsRegistry registry, File directory, long maxFileBytes, int maxRolledFiles) {
+        this.registry = registry;
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxRolledFiles = maxRolledFiles;
+    }
+
+    public synchronized void start(long periodMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pos-metrics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                write();
+            } catch (IOException ex) {
+                Logger.getLogger(MetricsFileWriter.class.getName()).log(Level.WARNING, "Metrics not written", ex);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Appends the current snapshot, one line per method after a time stamp
+     * line. Nothing is written while no method has been called.
+     */
+    public synchronized void write() throws IOException {
+        List<MethodStatistics> statistics = registry.snapshot();
+        if (statistics.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(directory.toPath());
+        File file = new File(directory, FILE_NAME);
+        if (file.length() >= maxFileBytes) {
+            roll();
+        }
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write("# " + LocalDateTime.now() + System.lineSeparator());
+            for (MethodStatistics method : statistics) {
+                out.write(method + System.lineSeparator());
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        Files.deleteIfExists(new File(directory, FILE_NAME + "." + maxRolledFiles).toPath());
+        for (int i = maxRolledFiles - 1; i >= 1; i--) {
+            File older = new File(directory, FILE_NAME + "." + i);
+            if (older.exists()) {
+                Files.move(older.toPath(), new File(directory, FILE_NAME + "." + (i + 1)).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(new File(directory, FILE_NAME).toPath(), new File(directory, FILE_NAME + ".1").toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,60 @@
+package model.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The metrics of every instrumented method, by name. When disabled the
+ * instrumented objects call straight through and nothing is recorded.
+ *
+ * @author fawad
+ */
+public class MetricsRegistry {
+
+    private final ConcurrentHashMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public MethodMetrics metrics(String name) {
+        return methods.computeIfAbsent(name, MethodMetrics::new);
+    }
+
+    /**
+     * Statistics of every method called at least once, sorted by name.
+     */
+    public List<MethodStatistics> snapshot() {
+        List<MethodStatistics> statistics = new ArrayList<>();
+        for (MethodMetrics method : methods.values()) {
+            MethodStatistics stats = method.snapshot();
+            if (stats.getCalls() > 0) {
+                statistics.add(stats);
+            }
+        }
+        statistics.sort(Comparator.comparing(MethodStatistics::getName));
+        return statistics;
+    }
+
+    public MethodStatistics snapshot(String name) {
+        MethodMetrics method = methods.get(name);
+        return method == null ? null : method.snapshot();
+    }
+
+    public void reset() {
+        for (MethodMetrics method : methods.values()) {
+            method.reset();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package model.metrics;
+
+/**
+ * Something that adds its figures to the metrics page.
+ *
+ * @author fawad
+ */
+public interface MetricsSource {
+
+    void writeTo(PrometheusWriter out);
+}
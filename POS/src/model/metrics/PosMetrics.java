@@ -0,0 +1,149 @@
+package model.metrics;
+
+import dal.db.ConnectionPool;
+import dal.db.PoolStatistics;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import model.ProductCatalog;
+import model.SalesAggregates;
+import model.StartupWarmup;
+import model.WarmupTiming;
+
+/**
+ * The metrics sources of the till, named pos_* and jvm_*.
+ *
+ * @author fawad
+ */
+public final class PosMetrics {
+
+    private static final int MAX_STALL_SITES = 20;
+
+    private PosMetrics() {
+    }
+
+    /**
+     * Latency and errors of every instrumented controller and DAL method.
+     */
+    public static MetricsSource calls(MetricsRegistry registry) {
+        return out -> {
+            List<MethodStatistics> methods = registry.snapshot();
+            for (MethodStatistics stats : methods) {
+                out.summary("pos_call_duration_seconds", "Duration of controller and DAL calls.", stats, labels(stats));
+            }
+            for (MethodStatistics stats : methods) {
+                out.counter("pos_call_errors_total", "Controller and DAL calls that failed.", stats.getErrors(), labels(stats));
+            }
+        };
+    }
+
+    /**
+     * "IDALManager.getProducts" becomes component="IDALManager", method="getProducts".
+     */
+    private static String[] labels(MethodStatistics stats) {
+        String name = stats.getName();
+        int dot = name.indexOf('.');
+        return new String[]{"component", dot < 0 ? "" : name.substring(0, dot), "method", name.substring(dot + 1)};
+    }
+
+    public static MetricsSource connectionPool(ConnectionPool pool) {
+        return out -> {
+            PoolStatistics stats = pool.getStatistics();
+            out.gauge("pos_db_connections_active", "Connections borrowed from the pool.", stats.getActiveConnections());
+            out.gauge("pos_db_connections_idle", "Idle connections in the pool.", stats.getIdleConnections());
+            out.gauge("pos_db_connections_max", "Maximum size of the pool.", stats.getMaxPoolSize());
+            out.gauge("pos_db_connections_waiting", "Threads waiting for a connection.", stats.getThreadsAwaitingConnection());
+            out.counter("pos_db_connection_borrows_total", "Connections borrowed.", stats.getBorrowCount());
+            out.counter("pos_db_connection_wait_seconds_total", "Time spent waiting for a connection.", stats.getTotalWaitMillis() / 1e3);
+            out.counter("pos_db_connection_timeouts_total", "Borrows that timed out.", stats.getBorrowTimeouts());
+            out.counter("pos_db_connections_created_total", "Connections opened.", stats.getCreatedCount());
+            out.counter("pos_db_connection_leaks_total", "Connections held past the leak threshold.", stats.getLeaksDetected());
+            out.counter("pos_db_statement_cache_hits_total", "Prepared statements reused from the cache.", stats.getStatementCacheHits());
+            out.counter("pos_db_statement_cache_misses_total", "Prepared statements that had to be prepared.", stats.getStatementCacheMisses());
+        };
+    }
+
+    public static MetricsSource productCatalog(ProductCatalog catalog) {
+        return out -> {
+            out.gauge("pos_catalog_products", "Products in the in-memory catalog.", catalog.size());
+            out.counter("pos_catalog_hits_total", "Catalog reads answered from memory.", catalog.getHitCount());
+            out.counter("pos_catalog_misses_total", "Catalog reads that loaded from the database.", catalog.getMissCount());
+            out.counter("pos_catalog_refreshes_total", "Background catalog reloads.", catalog.getRefreshCount());
+            out.summary("pos_product_search_duration_seconds", "Duration of product searches.", catalog.getSearchStatistics());
+        };
+    }
+
+    public static MetricsSource sales(SalesAggregates aggregates) {
+        return out -> {
+            SalesAggregates.Snapshot snapshot = aggregates.snapshot();
+            out.counter("pos_sales_committed_total", "Sales committed since the till started.", snapshot.getRecordedCount());
+            out.counter("pos_sales_amount_total", "Amount of the sales committed since the till started.", snapshot.getRecordedMinor() / 100.0);
+        };
+    }
+
+    public static MetricsSource edtStalls(EdtStallMonitor monitor) {
+        return out -> {
+            MethodStatistics stats = monitor.getStallStatistics();
+            out.counter("pos_edt_stalls_total", "Times the Swing event thread was blocked past the threshold.", stats.getCalls());
+            out.summary("pos_edt_stall_duration_seconds", "How long the Swing event thread was blocked.", stats);
+            List<StallSite> sites = monitor.getStallSites();
+            // the sites that blocked longest, so a bad day cannot add unbounded series
+            List<StallSite> top = sites.subList(0, Math.min(MAX_STALL_SITES, sites.size()));
+            for (StallSite site : top) {
+                out.counter("pos_edt_stall_site_total", "Stalls by the application method blocking the Swing event thread.",
+                        site.getCount(), "frame", site.getFrame());
+            }
+            for (StallSite site : top) {
+                out.counter("pos_edt_stall_site_seconds_total", "Time the Swing event thread was blocked, by application method.",
+                        site.getTotalNanos() / 1e9, "frame", site.getFrame());
+            }
+        };
+    }
+
+    /**
+     * Load time and rows of each dataset of the startup warm-up, once it
+     * has finished.
+     */
+    public static MetricsSource warmup(StartupWarmup warmup) {
+        return out -> {
+            if (!warmup.isFinished()) {
+                return;
+            }
+            out.gauge("pos_warmup_duration_seconds", "Wall time of the startup warm-up.", warmup.getTotalNanos() / 1e9);
+            for (WarmupTiming timing : warmup.getTimings()) {
+                out.gauge("pos_warmup_dataset_duration_seconds", "Time to load each dataset at startup.",
+                        timing.getNanos() / 1e9, "dataset", timing.getDataset());
+            }
+            for (WarmupTiming timing : warmup.getTimings()) {
+                out.gauge("pos_warmup_dataset_rows", "Rows loaded for each dataset at startup.",
+                        timing.getRows(), "dataset", timing.getDataset());
+            }
+            for (WarmupTiming timing : warmup.getTimings()) {
+                out.gauge("pos_warmup_dataset_failed", "1 when the dataset could not be loaded at startup.",
+                        timing.isSuccessfull() ? 0 : 1, "dataset", timing.getDataset());
+            }
+        };
+    }
+
+    public static MetricsSource jvm() {
+        return out -> {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            MemoryUsage heap = memory.getHeapMemoryUsage();
+            MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+            out.gauge("jvm_memory_used_bytes", "Memory used.", heap.getUsed(), "area", "heap");
+            out.gauge("jvm_memory_used_bytes", "Memory used.", nonHeap.getUsed(), "area", "nonheap");
+            out.gauge("jvm_memory_committed_bytes", "Memory committed.", heap.getCommitted(), "area", "heap");
+            out.gauge("jvm_memory_committed_bytes", "Memory committed.", nonHeap.getCommitted(), "area", "nonheap");
+            out.gauge("jvm_memory_max_bytes", "Maximum memory, -1 when unbounded.", heap.getMax(), "area", "heap");
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                out.counter("jvm_gc_collections_total", "Garbage collections.", gc.getCollectionCount(), "gc", gc.getName());
+            }
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                out.counter("jvm_gc_collection_seconds_total", "Time spent in garbage collection.", gc.getCollectionTime() / 1e3, "gc", gc.getName());
+            }
+            out.gauge("jvm_threads_live", "Live threads.", ManagementFactory.getThreadMXBean().getThreadCount());
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package model.metrics;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds a page in the Prometheus text exposition format (version 0.0.4).
+ * Each metric family gets its HELP and TYPE lines once, before its first
+ * sample.
+ *
+ * @author fawad
+ */
+public class PrometheusWriter {
+
+    private final StringBuilder out = new StringBuilder(4096);
+    private final Set<String> families = new HashSet<>();
+
+    public PrometheusWriter counter(String name, String help, double value, String... labels) {
+        return sample(name, "counter", help, name, value, labels);
+    }
+
+    public PrometheusWriter gauge(String name, String help, double value, String... labels) {
+        return sample(name, "gauge", help, name, value, labels);
+    }
+
+    /**
+     * A summary with the 0.5, 0.95 and 0.99 quantiles, the sum and the count
+     * of a method's latencies, in seconds.
+     */
+    public PrometheusWriter summary(String name, String help, MethodStatistics stats, String... labels) {
+        sample(name, "summary", help, name, stats.getP50Nanos() / 1e9, with(labels, "quantile", "0.5"));
+        sample(name, "summary", help, name, stats.getP95Nanos() / 1e9, with(labels, "quantile", "0.95"));
+        sample(name, "summary", help, name, stats.getP99Nanos() / 1e9, with(labels, "quantile", "0.99"));
+        sample(name, "summary", help, name + "_sum", stats.getTotalNanos() / 1e9, labels);
+        return sample(name, "summary", help, name + "_count", stats.getCalls(), labels);
+    }
+
+    private PrometheusWriter sample(String family, String type, String help, String name, double value, String... labels) {
+        if (families.add(family)) {
+            out.append("# HELP ").append(family).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(family).append(' ').append(type).append('\n');
+        }
+        out.append(name);
+        if (labels.length > 0) {
+            out.append('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    private static String[] with(String[] labels, String name, String value) {
+        String[] all = new String[labels.length + 2];
+        System.arraycopy(labels, 0, all, 0, labels.length);
+        all[labels.length] = name;
+        all[labels.length + 1] = value;
+        return all;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.9g", value).replaceFirst("\\.?0+(e|$)", "$1");
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
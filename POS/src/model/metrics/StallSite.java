@@ -0,0 +1,57 @@
+package model.metrics;
+
+/**
+ * Event dispatch thread stalls that had the same top application frame,
+ * with the stack of the longest one.
+ *
+ * @author fawad
+ */
+public class StallSite {
+
+    private final String frame;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final StackTraceElement[] stack;
+
+    public StallSite(String frame, long count, long totalNanos, long maxNanos, StackTraceElement[] stack) {
+        this.frame = frame;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.stack = stack;
+    }
+
+    /**
+     * Class and method of the first application frame on the stack, like
+     * "ui.CartUI.populateProductsData".
+     */
+    public String getFrame() {
+        return frame;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * The event dispatch thread's stack while the longest stall was going
+     * on, empty when it was not sampled in time.
+     */
+    public StackTraceElement[] getStack() {
+        return stack.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s count=%d total=%.1fms max=%.1fms", frame, count, totalNanos / 1e6, maxNanos / 1e6);
+    }
+}
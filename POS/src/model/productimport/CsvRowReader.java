@@ -0,0 +1,94 @@
+package model.productimport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a UTF-8 CSV file as it goes. Fields may be quoted, with "" for a
+ * quote and line breaks inside the quotes. The separator is a comma, or a
+ * semicolon when the header has more of those, as spreadsheets in locales
+ * with a decimal comma write it.
+ *
+ * @author fawad
+ */
+public class CsvRowReader implements RowReader {
+
+    private final Path file;
+
+    public CsvRowReader(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void read(RowHandler handler) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null) {
+                return;
+            }
+            if (line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            char separator = count(line, ';') > count(line, ',') ? ';' : ',';
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            long number = 1;
+            long lineNumber = 1;
+            boolean quoted = false;
+            while (line != null) {
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c != '"') {
+                            cell.append(c);
+                        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            cell.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == separator) {
+                        cells.add(cell.toString());
+                        cell.setLength(0);
+                    } else {
+                        cell.append(c);
+                    }
+                }
+                if (quoted) {
+                    // the quoted field goes on in the next line
+                    cell.append('\n');
+                } else {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                    if (cells.size() > 1 || !cells.get(0).isBlank()) {
+                        handler.row(number, cells.toArray(new String[0]));
+                    }
+                    cells.clear();
+                    number = lineNumber + 1;
+                }
+                line = reader.readLine();
+                lineNumber++;
+            }
+            if (quoted) {
+                throw new IOException("Quote opened in row " + number + " is never closed");
+            }
+        }
+    }
+
+    private static int count(String line, char c) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,63 @@
+package model.productimport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How far a product import has got: rows read from the file, products
+ * written and rows rejected so far.
+ *
+ * @author fawad
+ */
+public class ImportProgress {
+
+    private final long rowsRead;
+    private final long rowsWritten;
+    private final long rowsRejected;
+    private final long elapsedNanos;
+    private final boolean finished;
+
+    public ImportProgress(long rowsRead, long rowsWritten, long rowsRejected, long elapsedNanos, boolean finished) {
+        this.rowsRead = rowsRead;
+        this.rowsWritten = rowsWritten;
+        this.rowsRejected = rowsRejected;
+        this.elapsedNanos = elapsedNanos;
+        this.finished = finished;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * True for the last report, after the whole file was read or the import
+     * stopped.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Rows written and rejected per second since the import started.
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : (rowsWritten + rowsRejected) * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d rows read, %,d written, %,d rejected in %,d ms (%,.0f rows/s)", rowsRead, rowsWritten,
+                rowsRejected, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getRowsPerSecond());
+    }
+}
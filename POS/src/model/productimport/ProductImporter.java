@@ -0,0 +1,399 @@
+package model.productimport;
+
+import dal.IDALManager;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import model.dto.CategoryDTO;
+import model.dto.Message;
+import model.dto.MessageType;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import model.dto.SupplierDTO;
+import model.validators.CommonValidator;
+
+/**
+ * Imports a supplier's product list from a .csv or .xlsx file. The file is
+ * read as a stream and cut into chunks; each chunk is checked on a pool of
+ * threads, category and supplier names are looked up in maps read once at
+ * the start, and the chunks are written in file order, each as one batched
+ * upsert by barcode in its own transaction. Only a few chunks are in flight
+ * at a time, so memory does not grow with the file. A rejected row is
+ * skipped and reported; a chunk that fails to write stops the import, and
+ * since rows are matched by barcode the file can simply be imported again.
+ *
+ * @author fawad
+ */
+public class ProductImporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1_000;
+    // rejected rows listed in the response, the rest are only counted
+    static final int REPORTED_ROWS = 20;
+
+    private static final Logger LOGGER = Logger.getLogger(ProductImporter.class.getName());
+
+    private final IDALManager dalManager;
+    private final int chunkSize;
+    private final int validators;
+
+    public ProductImporter(IDALManager dalManager) {
+        this(dalManager, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param chunkSize products per batch and transaction
+     * @param validators threads checking chunks while earlier ones are
+     * written
+     */
+    public ProductImporter(IDALManager dalManager, int chunkSize, int validators) {
+        this.dalManager = dalManager;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.validators = Math.max(1, validators);
+    }
+
+    /**
+     * Imports the file. The first row names the columns: name, barcode,
+     * price, category and supplier, and optionally stock and quantity_type.
+     *
+     * @param progress told on this thread after every chunk written, and
+     * once more when the import ends
+     * @return the progress at the end
+     */
+    public ImportProgress importFile(Path file, Consumer<ImportProgress> progress, Response response) {
+        Run run = new Run(progress, response);
+        RowReader reader;
+        try {
+            reader = RowReader.forFile(file);
+        } catch (IOException ex) {
+            response.messagesList.add(new Message(ex.getMessage(), MessageType.Error));
+            return run.finish(file);
+        }
+        run.categories = byName(dalManager.getCategories(response), CategoryDTO::getName, CategoryDTO::getId);
+        run.suppliers = byName(dalManager.getSuppliers(response), SupplierDTO::getName, SupplierDTO::getId);
+        if (!response.isSuccessfull()) {
+            return run.finish(file);
+        }
+        try (ExecutorService validation = Executors.newFixedThreadPool(validators,
+                Thread.ofPlatform().name("pos-import-", 0).daemon().factory())) {
+            run.validation = validation;
+            try {
+                reader.read(run::row);
+                run.flush();
+                while (!run.pending.isEmpty()) {
+                    run.writeNext();
+                }
+                if (run.columns == null) {
+                    response.messagesList.add(new Message("The file " + file.getFileName() + " is empty.", MessageType.Error));
+                }
+            } catch (IOException ex) {
+                response.messagesList.add(new Message("Could not read " + file.getFileName() + ": " + ex.getMessage(),
+                        MessageType.Exception));
+            } catch (Stopped stopped) {
+                // why is already in the response
+            } finally {
+                for (Future<Chunk> chunk : run.pending) {
+                    chunk.cancel(true);
+                }
+            }
+        }
+        return run.finish(file);
+    }
+
+    private static <T> Map<String, Integer> byName(List<T> list, Function<T, String> name, ToIntFunction<T> id) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (T item : list) {
+            if (name.apply(item) != null) {
+                ids.putIfAbsent(key(name.apply(item)), id.applyAsInt(item));
+            }
+        }
+        return ids;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The state of one import, used only by the thread reading the file.
+     */
+    private final class Run {
+
+        private final Consumer<ImportProgress> progress;
+        private final Response response;
+        private final long start = System.nanoTime();
+        private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        private Map<String, Integer> categories;
+        private Map<String, Integer> suppliers;
+        private ExecutorService validation;
+        private Columns columns;
+        private List<Row> rows = new ArrayList<>();
+        private long read;
+        private long written;
+        private long rejected;
+
+        Run(Consumer<ImportProgress> progress, Response response) {
+            this.progress = progress;
+            this.response = response;
+        }
+
+        void row(long number, String[] cells) {
+            if (columns == null) {
+                columns = Columns.of(cells, response);
+                if (columns == null) {
+                    throw new Stopped();
+                }
+                return;
+            }
+            read++;
+            rows.add(new Row(number, cells));
+            if (rows.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Hands the rows read so far to the validation threads, writing
+         * checked chunks while too many are waiting.
+         */
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            List<Row> chunk = rows;
+            rows = new ArrayList<>(chunkSize);
+            Columns columns = this.columns;
+            Map<String, Integer> categories = this.categories;
+            Map<String, Integer> suppliers = this.suppliers;
+            pending.add(validation.submit(() -> validate(chunk, columns, categories, suppliers)));
+            while (pending.size() > validators) {
+                writeNext();
+            }
+        }
+
+        void writeNext() {
+            Chunk chunk;
+            try {
+                chunk = pending.poll().get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                response.messagesList.add(new Message("Import was interrupted.", MessageType.Error));
+                throw new Stopped();
+            } catch (ExecutionException ex) {
+                LOGGER.log(Level.SEVERE, "Checking imported rows failed", ex.getCause());
+                response.messagesList.add(new Message("Checking rows failed: " + ex.getCause(), MessageType.Exception));
+                throw new Stopped();
+            }
+            for (String reason : chunk.rejected) {
+                if (rejected++ < REPORTED_ROWS) {
+                    response.messagesList.add(new Message(reason, MessageType.Warning));
+                }
+            }
+            if (!chunk.products.isEmpty()) {
+                Response write = new Response();
+                dalManager.upsertProducts(chunk.products, write);
+                if (!write.isSuccessfull()) {
+                    response.messagesList.addAll(write.messagesList);
+                    throw new Stopped();
+                }
+                written += chunk.products.size();
+            }
+            progress.accept(snapshot(false));
+        }
+
+        ImportProgress snapshot(boolean finished) {
+            return new ImportProgress(read, written, rejected, System.nanoTime() - start, finished);
+        }
+
+        ImportProgress finish(Path file) {
+            ImportProgress last = snapshot(true);
+            if (rejected > REPORTED_ROWS) {
+                response.messagesList.add(new Message(String.format("%,d more rows were rejected.", rejected - REPORTED_ROWS),
+                        MessageType.Warning));
+            }
+            if (written > 0) {
+                response.messagesList.add(new Message(String.format("Imported %,d products from %s in %.1f s, %,d rows rejected.",
+                        written, file.getFileName(), last.getElapsedNanos() / 1e9, rejected), MessageType.Information));
+            } else if (response.isSuccessfull()) {
+                response.messagesList.add(new Message("No products were imported from " + file.getFileName() + ".",
+                        MessageType.Error));
+            }
+            LOGGER.log(Level.INFO, "Import of {0}: {1}", new Object[]{file, last});
+            progress.accept(last);
+            return last;
+        }
+    }
+
+    /**
+     * Checks a chunk of rows on a validation thread.
+     */
+    private static Chunk validate(List<Row> rows, Columns columns, Map<String, Integer> categories,
+            Map<String, Integer> suppliers) {
+        Chunk chunk = new Chunk(rows.size());
+        for (Row row : rows) {
+            List<String> problems = new ArrayList<>(0);
+            ProductDTO product = columns.product(row.cells, categories, suppliers, problems);
+            if (problems.isEmpty()) {
+                Response checked = new Response();
+                CommonValidator.validateProduct(product, checked);
+                for (Message message : checked.messagesList) {
+                    problems.add(message.message);
+                }
+            }
+            if (problems.isEmpty()) {
+                chunk.products.add(product);
+            } else {
+                chunk.rejected.add("Row " + row.number + ": " + String.join(" ", problems));
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Where each field is in a row, found by the header's names.
+     */
+    private static final class Columns {
+
+        private static final int NAME = 0;
+        private static final int BARCODE = 1;
+        private static final int PRICE = 2;
+        private static final int STOCK = 3;
+        private static final int CATEGORY = 4;
+        private static final int SUPPLIER = 5;
+        private static final int QUANTITY_TYPE = 6;
+        private static final String[][] NAMES = {
+            {"name", "product", "product_name"},
+            {"barcode", "ean", "gtin"},
+            {"price", "unit_price"},
+            {"stock", "stock_quantity", "quantity"},
+            {"category", "category_name"},
+            {"supplier", "supplier_name"},
+            {"quantity_type", "unit"}};
+        private static final boolean[] REQUIRED = {true, true, true, false, true, true, false};
+        // "1,299" is 1299 with a thousands separator or 1.299 with a decimal comma
+        private static final Pattern AMBIGUOUS_COMMA = Pattern.compile("[+-]?\\d{1,3},\\d{3}");
+
+        private final int[] index;
+
+        private Columns(int[] index) {
+            this.index = index;
+        }
+
+        static Columns of(String[] header, Response response) {
+            int[] index = new int[NAMES.length];
+            List<String> missing = new ArrayList<>();
+            for (int field = 0; field < NAMES.length; field++) {
+                index[field] = -1;
+                for (int column = 0; column < header.length && index[field] < 0; column++) {
+                    String name = key(header[column]).replace(' ', '_');
+                    for (String alias : NAMES[field]) {
+                        if (name.equals(alias)) {
+                            index[field] = column;
+                        }
+                    }
+                }
+                if (index[field] < 0 && REQUIRED[field]) {
+                    missing.add(NAMES[field][0]);
+                }
+            }
+            if (!missing.isEmpty()) {
+                response.messagesList.add(new Message("The first row must name the columns; missing " + String.join(", ", missing)
+                        + ". Expected name, barcode, price, stock, category, supplier and quantity_type.", MessageType.Error));
+                return null;
+            }
+            return new Columns(index);
+        }
+
+        ProductDTO product(String[] cells, Map<String, Integer> categories, Map<String, Integer> suppliers,
+                List<String> problems) {
+            ProductDTO product = new ProductDTO();
+            product.setProductName(cell(cells, NAME));
+            product.setBarcode(cell(cells, BARCODE));
+            product.setPrice(number(cells, PRICE, "Price", problems));
+            product.setStockQuantity(number(cells, STOCK, "Stock", problems));
+            product.setCategoryId(id(cells, CATEGORY, "category", categories, problems));
+            product.setSupplierId(id(cells, SUPPLIER, "supplier", suppliers, problems));
+            String quantityType = cell(cells, QUANTITY_TYPE);
+            product.setQuantityType(quantityType.isEmpty() ? "counted" : quantityType.toLowerCase(Locale.ROOT));
+            return product;
+        }
+
+        private String cell(String[] cells, int field) {
+            int column = index[field];
+            return column < 0 || column >= cells.length || cells[column] == null ? "" : cells[column].trim();
+        }
+
+        /**
+         * The number in the cell, with a decimal point or comma; a missing
+         * stock is zero. A comma followed by exactly three digits could be a
+         * thousands separator, so the row is rejected rather than guessed.
+         */
+        private double number(String[] cells, int field, String label, List<String> problems) {
+            String text = cell(cells, field);
+            if (text.isEmpty()) {
+                if (REQUIRED[field]) {
+                    problems.add(label + " is missing.");
+                }
+                return 0;
+            }
+            if (AMBIGUOUS_COMMA.matcher(text).matches()) {
+                problems.add(label + " '" + text + "' could use the comma for thousands or decimals; write it with a decimal point.");
+                return 0;
+            }
+            try {
+                return Double.parseDouble(text.indexOf('.') < 0 ? text.replace(',', '.') : text);
+            } catch (NumberFormatException ex) {
+                problems.add(label + " '" + text + "' is not a number.");
+                return 0;
+            }
+        }
+
+        private int id(String[] cells, int field, String label, Map<String, Integer> ids, List<String> problems) {
+            String name = cell(cells, field);
+            Integer id = ids.get(key(name));
+            if (id == null) {
+                problems.add(name.isEmpty() ? "The " + label + " is missing." : "Unknown " + label + " '" + name + "'.");
+                return 0;
+            }
+            return id;
+        }
+    }
+
+    private record Row(long number, String[] cells) {
+    }
+
+    private static final class Chunk {
+
+        final List<ProductDTO> products;
+        final List<String> rejected = new ArrayList<>();
+
+        Chunk(int size) {
+            this.products = new ArrayList<>(size);
+        }
+    }
+
+    /**
+     * Stops reading the file; the reason has been added to the response.
+     */
+    private static final class Stopped extends RuntimeException {
+
+        Stopped() {
+            super(null, null, false, false);
+        }
+    }
+}
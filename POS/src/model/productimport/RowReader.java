@@ -0,0 +1,43 @@
+package model.productimport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Reads a spreadsheet one row at a time, without loading the whole file.
+ *
+ * @author fawad
+ */
+public interface RowReader {
+
+    /**
+     * Receives each row, the header included, with its number in the file
+     * counting from 1.
+     */
+    @FunctionalInterface
+    interface RowHandler {
+
+        void row(long number, String[] cells);
+    }
+
+    /**
+     * Calls the handler with every row of the file, in order. A handler that
+     * throws stops the reading.
+     */
+    void read(RowHandler handler) throws IOException;
+
+    /**
+     * The reader for a .csv or .xlsx file.
+     */
+    static RowReader forFile(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv") || name.endsWith(".txt")) {
+            return new CsvRowReader(file);
+        }
+        if (name.endsWith(".xlsx")) {
+            return new XlsxRowReader(file);
+        }
+        throw new IOException("Only .csv and .xlsx files can be imported: " + file.getFileName());
+    }
+}
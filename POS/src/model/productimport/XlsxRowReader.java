@@ -0,0 +1,157 @@
+package model.productimport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads the first sheet of an .xlsx workbook with POI's event API: the
+ * sheet XML is parsed as a stream and only the shared strings are held in
+ * memory, never the workbook. Cells are read as text; numbers are written
+ * out in full, so a barcode typed as a number keeps all its digits.
+ *
+ * @author fawad
+ */
+public class XlsxRowReader implements RowReader {
+
+    private final Path file;
+
+    public XlsxRowReader(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void read(RowHandler handler) throws IOException {
+        OPCPackage workbook;
+        try {
+            workbook = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        } catch (OpenXML4JException | RuntimeException ex) {
+            throw new IOException("Not a readable .xlsx file: " + ex.getMessage(), ex);
+        }
+        try {
+            XSSFReader reader = new XSSFReader(workbook);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(workbook);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = SAXHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(strings, handler));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException ex) {
+            throw new IOException("Not a readable .xlsx file: " + ex.getMessage(), ex);
+        } finally {
+            // a package opened to read is released with revert(); close() would try to save it
+            workbook.revert();
+        }
+    }
+
+    /**
+     * Collects the cells of each row element and hands the row on when it
+     * ends.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable strings;
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private long row;
+        private int column;
+        private String type;
+        private boolean inValue;
+
+        SheetHandler(ReadOnlySharedStringsTable strings, RowHandler handler) {
+            this.strings = strings;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String number = attributes.getValue("r");
+                    row = number == null ? row + 1 : Long.parseLong(number);
+                    cells.clear();
+                }
+                case "c" -> {
+                    String reference = attributes.getValue("r");
+                    column = reference == null ? cells.size() : column(reference);
+                    type = attributes.getValue("t");
+                    text.setLength(0);
+                }
+                case "v", "t" -> inValue = true;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> inValue = false;
+                case "c" -> {
+                    while (cells.size() < column) {
+                        cells.add("");
+                    }
+                    cells.add(value());
+                }
+                case "row" -> {
+                    if (!cells.isEmpty()) {
+                        handler.row(row, cells.toArray(new String[0]));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private String value() {
+            String raw = text.toString();
+            if (type == null || type.equals("n")) {
+                return raw.isEmpty() ? raw : new BigDecimal(raw).stripTrailingZeros().toPlainString();
+            }
+            return switch (type) {
+                case "s" -> strings.getEntryAt(Integer.parseInt(raw));
+                case "b" -> raw.equals("1") ? "TRUE" : "FALSE";
+                default -> raw;
+            };
+        }
+
+        /**
+         * The zero-based column of a cell reference such as "AB12".
+         */
+        private static int column(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length() && Character.isLetter(reference.charAt(i)); i++) {
+                column = column * 26 + (reference.charAt(i) - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
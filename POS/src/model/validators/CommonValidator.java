@@ -4,12 +4,18 @@ import java.util.ArrayList;
 import model.dto.CustomerDTO;
 import model.dto.Message;
 import model.dto.MessageType;
+import model.dto.ProductDTO;
 import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
 import model.dto.SupplierDTO;
 import model.dto.UserDTO;
 
 public class CommonValidator {
 
+    // price and stock are DECIMAL(10,2)
+    private static final double MAX_AMOUNT = 100_000_000;
+
     public static void validateObject(Object obj, Response objResponse) {
         if (obj instanceof UserDTO userDTO) {
             UserDTO objUser = userDTO;
@@ -21,6 +27,20 @@ public class CommonValidator {
         } else if (obj instanceof SupplierDTO supplierDTO) {
             isValidName(supplierDTO.getName(), objResponse);
             isValildPhoneNo(supplierDTO.getPhoneNumber(), objResponse);
+        } else if (obj instanceof SaleDTO sale) {
+            isValidSale(sale, objResponse);
+        }
+    }
+
+    private static void isValidSale(SaleDTO sale, Response response) {
+        if (sale.getItems() == null || sale.getItems().isEmpty()) {
+            response.messagesList.add(new Message("Cart is empty, add at least one product.", MessageType.Error));
+            return;
+        }
+        for (SaleItemDTO item : sale.getItems()) {
+            if (item.getQuantity() <= 0) {
+                response.messagesList.add(new Message("Quantity of " + item.getProductName() + " must be greater than zero.", MessageType.Error));
+            }
         }
     }
 
@@ -44,6 +64,28 @@ public class CommonValidator {
         }
     }
 
+    /**
+     * The rules of a product row about to be written, as a bulk import
+     * checks them before anything reaches the database.
+     */
+    public static void validateProduct(ProductDTO product, Response response) {
+        if (product.getProductName() == null || product.getProductName().isBlank() || product.getProductName().length() > 255) {
+            response.messagesList.add(new Message("Product name is required, at most 255 characters.", MessageType.Error));
+        }
+        if (product.getBarcode() == null || product.getBarcode().isBlank() || product.getBarcode().length() > 50) {
+            response.messagesList.add(new Message("Barcode is required, at most 50 characters.", MessageType.Error));
+        }
+        if (!(product.getPrice() >= 0 && product.getPrice() < MAX_AMOUNT)) {
+            response.messagesList.add(new Message("Price must be between 0 and 99999999.99.", MessageType.Error));
+        }
+        if (!(product.getStockQuantity() >= 0 && product.getStockQuantity() < MAX_AMOUNT)) {
+            response.messagesList.add(new Message("Stock must be between 0 and 99999999.99.", MessageType.Error));
+        }
+        if (!"counted".equals(product.getQuantityType()) && !"weighted".equals(product.getQuantityType())) {
+            response.messagesList.add(new Message("Quantity type must be counted or weighted.", MessageType.Error));
+        }
+    }
+
     private static void isValidName(String name, Response objResponse) {
         if (name == null || name.length() < 6) {
             objResponse.messagesList.add(new Message("Name is not valid, provide valid name with at least 6 characters.", MessageType.Error));
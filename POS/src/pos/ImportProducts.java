@@ -0,0 +1,39 @@
+package pos;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import model.POSFactory;
+import model.dto.Message;
+import model.dto.MessageType;
+import model.dto.Response;
+
+/**
+ * Imports a product file without the screens, for catalogs sent by
+ * suppliers or scheduled jobs:
+ * <pre>java -cp POS.jar pos.ImportProducts catalog.xlsx</pre>
+ * Progress is printed every second. Exits with 1 when the import failed.
+ *
+ * @author fawad
+ */
+public class ImportProducts {
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: java -cp POS.jar pos.ImportProducts <products.csv|products.xlsx>");
+            System.exit(2);
+        }
+        Response response = POSFactory.getInstanceOfResponse();
+        long[] printed = {System.nanoTime()};
+        POSFactory.getInstanceOfProductImporter(POSFactory.getDALManagerInstance()).importFile(Path.of(args[0]), progress -> {
+            if (progress.isFinished() || System.nanoTime() - printed[0] >= TimeUnit.SECONDS.toNanos(1)) {
+                printed[0] = System.nanoTime();
+                System.out.println(progress);
+            }
+        }, response);
+        for (Message message : response.messagesList) {
+            boolean error = message.type == MessageType.Error || message.type == MessageType.Exception;
+            (error ? System.err : System.out).println(message.type + ": " + message.message);
+        }
+        System.exit(response.isSuccessfull() ? 0 : 1);
+    }
+}
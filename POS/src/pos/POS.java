@@ -6,6 +6,7 @@ package pos;
 
 import com.formdev.flatlaf.FlatLightLaf;
 import javax.swing.UIManager;
+import model.POSFactory;
 import ui.LoginUI;
 
 /**
@@ -23,6 +24,11 @@ public class POS {
         } catch (Exception e) {
            
         }
+       POSFactory.getInstanceOfFlightRecording();
+       POSFactory.getInstanceOfEdtStallMonitor();
+       POSFactory.getInstanceOfMetricsServer();
+       // loads the catalog and reference lists while the cashier logs in
+       POSFactory.getInstanceOfStartupWarmup().start();
        new LoginUI().setVisible(true);
       
     }
@@ -6,7 +6,6 @@ import org.junit.After;
 import static org.junit.Assert.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
-import javax.swing.table.DefaultTableModel;
 import model.POSController;
 import model.POSFactory;
 import model.dto.ProductDTO;
@@ -58,11 +57,7 @@ public class CartAcceptanceTest {
             ProductDTO selectedProduct = products.get(0);
             cartUI.quantity.setText("1");
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             ActionEvent event = new ActionEvent(
                 cartUI.addToCartBtn, 
@@ -79,7 +74,7 @@ public class CartAcceptanceTest {
             assertEquals("Então: Preço deve estar correto", 
                 selectedProduct.getPrice(), (Double) cartUI.cartTable.getValueAt(0, 1), 0.01);
             assertEquals("Então: Quantidade deve estar correta", 
-                "1", cartUI.cartTable.getValueAt(0, 2));
+                1, cartUI.cartTable.getValueAt(0, 2));
             assertEquals("Então: Total deve ser calculado corretamente", 
                 selectedProduct.getPrice() * 1, (Double) cartUI.cartTable.getValueAt(0, 3), 0.01);
         }
@@ -102,11 +97,7 @@ public class CartAcceptanceTest {
             cartUI.productsList = products;
             cartUI.populateProductsData();
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Adicionar primeiro item
             cartUI.productsTable.setRowSelectionInterval(0, 0);
@@ -163,11 +154,7 @@ public class CartAcceptanceTest {
             int quantity = 3;
             cartUI.quantity.setText(String.valueOf(quantity));
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             ActionEvent event = new ActionEvent(
                 cartUI.addToCartBtn, 
@@ -178,7 +165,7 @@ public class CartAcceptanceTest {
             
             // Then - Item deve ter a quantidade especificada
             assertEquals("Então: Quantidade deve ser a especificada", 
-                String.valueOf(quantity), cartUI.cartTable.getValueAt(0, 2));
+                quantity, cartUI.cartTable.getValueAt(0, 2));
             
             double expectedTotal = selectedProduct.getPrice() * quantity;
             assertEquals("Então: Total deve considerar a quantidade", 
@@ -199,11 +186,7 @@ public class CartAcceptanceTest {
         cartUI.productsTable.clearSelection();
         cartUI.quantity.setText("1");
         
-        DefaultTableModel cartModel = new DefaultTableModel(
-            null,
-            new String[]{"Name", "Price", "Quantity", "Total"}
-        );
-        cartUI.cartTable.setModel(cartModel);
+        cartUI.initializeCart();
         int initialSize = cartUI.cartTable.getRowCount();
         
         // When - Usuário tenta adicionar
@@ -236,11 +219,7 @@ public class CartAcceptanceTest {
             cartUI.productsList = products;
             cartUI.populateProductsData();
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // When - Usuário adiciona vários produtos
             int itemsToAdd = Math.min(3, products.size());
@@ -136,7 +136,7 @@ public class CartBlackBoxTest {
             
             // Saída esperada
             assertEquals("Cenário 3: Quantidade deve ser 5", 
-                quantity, cartUI.cartTable.getValueAt(0, 2));
+                Integer.valueOf(quantity), cartUI.cartTable.getValueAt(0, 2));
             
             double expectedTotal = selectedProduct.getPrice() * 5;
             assertEquals("Cenário 3: Total deve ser preço * 5", 
@@ -361,11 +361,7 @@ public class CartBlackBoxTest {
     }
     
     private void setupCartTable() {
-        DefaultTableModel cartModel = new DefaultTableModel(
-            null,
-            new String[]{"Name", "Price", "Quantity", "Total"}
-        );
-        cartUI.cartTable.setModel(cartModel);
+        cartUI.initializeCart();
     }
 }
 
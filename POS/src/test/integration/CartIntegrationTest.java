@@ -82,11 +82,7 @@ public class CartIntegrationTest {
                 cartUI.productsTable.setRowSelectionInterval(0, 0);
                 cartUI.quantity.setText("1");
                 
-                DefaultTableModel cartModel = new DefaultTableModel(
-                    null,
-                    new String[]{"Name", "Price", "Quantity", "Total"}
-                );
-                cartUI.cartTable.setModel(cartModel);
+                cartUI.initializeCart();
                 
                 int initialCartSize = cartUI.cartTable.getRowCount();
                 
@@ -172,11 +168,7 @@ public class CartIntegrationTest {
             ProductDTO selectedProduct = products.get(0);
             cartUI.quantity.setText("2");
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Act
             java.awt.event.ActionEvent event = new java.awt.event.ActionEvent(
@@ -0,0 +1,173 @@
+package test.integration;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.After;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.DBReader;
+import dal.db.ConnectionPool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import model.dto.CategoryDTO;
+import model.dto.CustomerDTO;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import model.dto.UserDTO;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Integração dos caminhos de leitura do DALManager
+ * Garante que conexão, statement e resultset são sempre liberados
+ */
+public class DALReadLeakTest {
+
+    private static final int SOAK_QUERIES = 10_000;
+
+    private InMemoryDatabase database;
+    private ConnectionPool pool;
+    private DALManager dalManager;
+
+    @Before
+    public void setUp() {
+        database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insert("users", "admin", "root", "admin");
+        database.insert("customers", 1, "fawad iqbal", "03149972883");
+        database.insert("suppliers", 1, "sup test", "1100");
+        database.insert("employees", 1, "emp test", "111-222");
+        database.insert("category", 1, "grocery");
+        database.insertProduct(1, "xyz", "234567", 12.00, 123, 1);
+        database.insertProduct(2, "oil", "123456", 260.00, 12, 1);
+
+        pool = new ConnectionPool(database, 4, 60_000);
+        dalManager = new DALManager(pool);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private void assertNoOpenHandles() {
+        assertEquals("DBReader não deve manter handles abertos", 0, DBReader.getOpenHandleCount());
+        assertEquals("Só os statements do cache do pool podem ficar abertos",
+                pool.getStatistics().getCachedStatements(), database.getOpenStatements());
+        assertEquals("Nenhum resultset deve ficar aberto", 0, database.getOpenResultSets());
+        assertEquals("Todas as conexões devem voltar ao pool", 0, pool.getStatistics().getActiveConnections());
+    }
+
+    /**
+     * Teste 1: Cada método de leitura mapeia os dados e libera os recursos
+     */
+    @Test
+    public void testEveryReadPathReleasesResources() {
+        Response response = new Response();
+
+        assertEquals(2, dalManager.getProducts(response).size());
+        assertEquals(1, dalManager.getCustomers(response).size());
+        assertEquals(1, dalManager.getCategories(response).size());
+        assertEquals(1, dalManager.getSuppliers(response).size());
+        assertEquals(1, dalManager.getEmployees(response).size());
+        assertEquals(1, dalManager.getUsers(response).size());
+        assertEquals(1, dalManager.searchProductsByName("oi", response).size());
+        assertEquals(1, dalManager.searchCustomersByName("iqbal", response).size());
+        assertEquals(1, dalManager.searchCategoryByName("groc", response).size());
+        assertEquals("oil", dalManager.getProductById(2, response).getProductName());
+        assertEquals("grocery", dalManager.getCategoryByName("grocery").getName());
+        assertEquals("1100", dalManager.getSupplierByName("sup test").getPhoneNumber());
+
+        UserDTO user = new UserDTO("admin", "root", null);
+        dalManager.verifyUser(user, response);
+        assertEquals("admin", user.getRole());
+
+        assertTrue(response.getErrorMessages(), response.isSuccessfull());
+        assertNoOpenHandles();
+    }
+
+    /**
+     * Teste 2: Erro de SQL também libera os recursos
+     */
+    @Test
+    public void testFailedQueryReleasesResources() {
+        Response response = new Response();
+        database.createTable("products", "id");
+        database.insert("products", 1);
+
+        ArrayList<ProductDTO> products = dalManager.getProducts(response);
+
+        assertTrue("Lista vazia em caso de erro", products.isEmpty());
+        assertFalse("Erro deve ser reportado na Response", response.isSuccessfull());
+        assertNoOpenHandles();
+    }
+
+    /**
+     * Teste 3: Banco indisponível reporta erro sem NullPointerException
+     */
+    @Test
+    public void testUnavailableDatabaseReportsError() {
+        database.setAvailable(false);
+        pool.setBorrowTimeoutMillis(50);
+        Response response = new Response();
+
+        ArrayList<CustomerDTO> customers = dalManager.searchCustomersByName("x", response);
+
+        assertNotNull(customers);
+        assertFalse(response.isSuccessfull());
+        assertNoOpenHandles();
+    }
+
+    /**
+     * Teste 4: Texto de busca é tratado como parâmetro, não como SQL
+     */
+    @Test
+    public void testSearchTextIsBoundAsParameter() {
+        Response response = new Response();
+        ArrayList<CategoryDTO> categories = dalManager.searchCategoryByName("' OR '1'='1", response);
+
+        assertTrue(categories.isEmpty());
+        assertNoOpenHandles();
+    }
+
+    /**
+     * Teste 5: Soak de 10 mil consultas concorrentes sem vazamentos
+     */
+    @Test
+    public void testSoakHasZeroLeaks() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int offset = t;
+            futures.add(executor.submit(() -> {
+                int rows = 0;
+                for (int i = offset; i < SOAK_QUERIES; i += 8) {
+                    Response response = new Response();
+                    switch (i % 5) {
+                        case 0 -> rows += dalManager.getProducts(response).size();
+                        case 1 -> rows += dalManager.getCustomers(response).size();
+                        case 2 -> rows += dalManager.searchProductsByName("o", response).size();
+                        case 3 -> rows += dalManager.getCategories(response).size();
+                        default -> rows += dalManager.searchCustomersByName("fawad", response).size();
+                    }
+                    if (!response.isSuccessfull()) {
+                        throw new AssertionError(response.getErrorMessages());
+                    }
+                }
+                return rows;
+            }));
+        }
+        int rows = 0;
+        for (Future<Integer> future : futures) {
+            rows += future.get();
+        }
+        executor.shutdown();
+
+        assertTrue(rows > SOAK_QUERIES);
+        assertNoOpenHandles();
+        assertTrue("Pool deve reutilizar conexões", database.getConnectionsOpened() <= 4);
+        assertEquals(SOAK_QUERIES, pool.getStatistics().getBorrowCount());
+    }
+}
@@ -0,0 +1,144 @@
+package test.integration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.db.ConnectionPool;
+import java.awt.event.ActionEvent;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import model.Cart;
+import model.Invoice;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import model.dto.SaleDTO;
+import model.jfr.PosFlightRecorder;
+import test.util.InMemoryDatabase;
+import test.util.TestReflectionHelper;
+import ui.CartUI;
+
+/**
+ * Testes de Integração dos eventos do Java Flight Recorder (model.jfr)
+ * Grava uma sessão com as configurações de pos.jfc enquanto busca, monta o
+ * carrinho, emite a nota e grava uma venda, e lê os eventos do arquivo
+ */
+public class FlightRecorderEventsTest {
+
+    private ConnectionPool pool;
+    private POSController controller;
+    private Recording recording;
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insertProduct(1, "Arroz Tipo 1", "789001", 10.0, 100, 1);
+        database.insertProduct(2, "Feijão Preto", "789002", 8.5, 100, 1);
+        pool = new ConnectionPool(database, 2, 60_000);
+        DALManager dalManager = new DALManager(pool);
+        controller = new POSController(dalManager, new ProductCatalog(dalManager, 60_000));
+        file = Files.createTempFile("pos", ".jfr");
+        recording = new Recording(PosFlightRecorder.configuration());
+        recording.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        recording.close();
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Teste 1: Busca, carrinho, nota, venda e comandos SQL geram eventos
+     */
+    @Test
+    public void testCheckoutIsRecorded() throws Exception {
+        List<ProductDTO> found = controller.searchProductsByName("arroz", new Response());
+        assertEquals(1, found.size());
+
+        CartUI cartUI = new CartUI(controller);
+        JTable productsTable = TestReflectionHelper.getPrivateField(cartUI, "productsTable");
+        JTextField quantity = TestReflectionHelper.getPrivateField(cartUI, "quantity");
+        JTable cartTable = TestReflectionHelper.getPrivateField(cartUI, "cartTable");
+        for (int row = 0; row < 2; row++) {
+            productsTable.setRowSelectionInterval(row, row);
+            quantity.setText("2");
+            cartUI.addToCartBtnActionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "add"));
+        }
+        cartTable.setRowSelectionInterval(1, 1);
+        Method remove = CartUI.class.getDeclaredMethod("removeItemActionPerformed", ActionEvent.class);
+        remove.setAccessible(true);
+        remove.invoke(cartUI, new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "remove"));
+
+        Cart cart = new Cart();
+        cart.add(found.get(0), 2);
+        SaleDTO sale = new SaleDTO();
+        sale.setSaleDate(LocalDateTime.now());
+        sale.setItems(cart.toSaleItems());
+        sale.setTotalAmount(cart.getTotal().doubleValue());
+        Response saved = controller.saveSale(sale);
+        assertTrue(saved.getErrorMessages(), saved.isSuccessfull());
+        Invoice.format(sale, cart, LocalDateTime.now());
+
+        recording.stop();
+        recording.dump(file);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        RecordedEvent search = only(events, "pos.ProductSearch");
+        assertEquals(5, search.getInt("queryLength"));
+        assertEquals(1, search.getInt("resultCount"));
+
+        List<RecordedEvent> changes = named(events, "pos.CartChange");
+        assertEquals(List.of("add", "add", "remove"),
+                changes.stream().map(event -> event.getString("action")).collect(Collectors.toList()));
+        assertEquals(2, changes.get(1).getInt("cartLines"));
+        assertEquals(2, changes.get(2).getInt("productId"));
+        assertEquals(1, changes.get(2).getInt("cartLines"));
+
+        RecordedEvent commit = only(events, "pos.SaleCommit");
+        assertTrue(commit.getBoolean("succeeded"));
+        assertFalse(commit.getBoolean("journaled"));
+        assertEquals(1, commit.getInt("lines"));
+        assertEquals(20.0, commit.getDouble("total"), 0.001);
+
+        RecordedEvent invoice = only(events, "pos.Invoice");
+        assertEquals(1, invoice.getInt("lines"));
+        assertEquals(Invoice.number(sale), invoice.getString("number"));
+
+        List<RecordedEvent> statements = named(events, "pos.DbStatement");
+        RecordedEvent products = statements.stream()
+                .filter(event -> event.getString("sqlId").equals("SELECT products")).findFirst().orElseThrow();
+        assertEquals(2, products.getLong("rows"));
+        RecordedEvent lines = statements.stream()
+                .filter(event -> event.getString("sqlId").equals("INSERT sale_items")).findFirst().orElseThrow();
+        assertEquals(1, lines.getInt("batchSize"));
+        assertTrue(statements.stream().anyMatch(event -> event.getString("sqlId").equals("UPDATE products")));
+        assertTrue(statements.stream().allMatch(event -> event.getDuration().toNanos() >= 0));
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertEquals("Eventos " + name, 1, matching.size());
+        return matching.get(0);
+    }
+}
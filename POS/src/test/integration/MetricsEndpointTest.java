@@ -0,0 +1,165 @@
+package test.integration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.IDALManager;
+import dal.db.ConnectionPool;
+import java.awt.EventQueue;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import model.IPOSController;
+import model.POSController;
+import model.ProductCatalog;
+import model.SalesAggregates;
+import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import model.metrics.EdtStallMonitor;
+import model.metrics.InstrumentedProxy;
+import model.metrics.MetricsRegistry;
+import model.metrics.MetricsServer;
+import model.metrics.PosMetrics;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Integração do endpoint de métricas (model.metrics.MetricsServer)
+ * Sobe o servidor numa porta livre de localhost e lê /metrics com um
+ * cliente HTTP, como o Prometheus faria
+ */
+public class MetricsEndpointTest {
+
+    private ConnectionPool pool;
+    private MetricsServer server;
+    private EdtStallMonitor edtMonitor;
+    private IPOSController controller;
+    private HttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insertProduct(1, "Arroz Tipo 1", "789001", 10.0, 100, 1);
+        database.insertProduct(2, "Feijão Preto", "789002", 8.5, 100, 1);
+        pool = new ConnectionPool(database, 2, 60_000);
+        MetricsRegistry registry = new MetricsRegistry(true);
+        IDALManager dalManager = InstrumentedProxy.wrap(IDALManager.class, new DALManager(pool), registry);
+        ProductCatalog catalog = new ProductCatalog(dalManager, 60_000);
+        SalesAggregates aggregates = new SalesAggregates();
+        controller = InstrumentedProxy.wrap(IPOSController.class,
+                new POSController(dalManager, catalog, null, aggregates), registry);
+        edtMonitor = new EdtStallMonitor(20, 100);
+        edtMonitor.start();
+
+        server = new MetricsServer()
+                .addSource(PosMetrics.calls(registry))
+                .addSource(PosMetrics.connectionPool(pool))
+                .addSource(PosMetrics.productCatalog(catalog))
+                .addSource(PosMetrics.sales(aggregates))
+                .addSource(PosMetrics.edtStalls(edtMonitor))
+                .addSource(PosMetrics.jvm());
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+        edtMonitor.stop();
+        pool.shutdown();
+    }
+
+    /**
+     * Teste 1: A página traz as métricas do DAL, do pool, do catálogo, das vendas e da JVM
+     */
+    @Test
+    public void testScrapeAfterActivity() throws Exception {
+        controller.searchProductsByName("arroz", new Response());
+        controller.searchProductsByName("feijao", new Response());
+        Response saved = controller.saveSale(sale());
+        assertTrue(saved.getErrorMessages(), saved.isSuccessfull());
+
+        HttpResponse<String> response = get("/metrics");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"));
+        String page = response.body();
+        assertTrue(page.contains("# TYPE pos_call_duration_seconds summary\n"));
+        assertTrue(page.contains("pos_call_duration_seconds_count{component=\"IDALManager\",method=\"saveSale\"} 1\n"));
+        assertTrue(page.contains("pos_call_duration_seconds{component=\"IPOSController\",method=\"saveSale\",quantile=\"0.99\"} "));
+        assertTrue(page.contains("pos_call_errors_total{component=\"IPOSController\",method=\"saveSale\"} 0\n"));
+        assertTrue(page.contains("pos_db_connections_max 2\n"));
+        assertTrue(page.contains("pos_catalog_products 2\n"));
+        assertTrue(page.contains("pos_product_search_duration_seconds_count 2\n"));
+        assertTrue(page.contains("pos_sales_committed_total 1\n"));
+        assertTrue(page.contains("pos_sales_amount_total 18.5\n"));
+        assertTrue(page.contains("# TYPE pos_edt_stalls_total counter\n"));
+        assertTrue(page.contains("jvm_memory_used_bytes{area=\"heap\"} "));
+        assertTrue(page.contains("jvm_gc_collections_total{gc=\""));
+        for (String line : page.split("\n")) {
+            assertTrue("Linha fora do formato: " + line,
+                    line.startsWith("# HELP ") || line.startsWith("# TYPE ") || line.matches("[a-z_]+(\\{.*\\})? \\S+"));
+        }
+    }
+
+    /**
+     * Teste 2: Uma espera longa na thread do Swing aparece como travamento
+     */
+    @Test
+    public void testEdtStallIsCounted() throws Exception {
+        Thread.sleep(100);
+        EventQueue.invokeAndWait(() -> {
+            try {
+                Thread.sleep(400);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(100);
+
+        String page = get("/metrics").body();
+        String stalls = page.lines().filter(line -> line.startsWith("pos_edt_stalls_total ")).findFirst().orElseThrow();
+        assertTrue(stalls, Long.parseLong(stalls.substring(stalls.indexOf(' ') + 1)) >= 1);
+        assertTrue("O travamento aparece pelo método que bloqueou",
+                page.contains("pos_edt_stall_site_total{frame=\"test.integration.MetricsEndpointTest.lambda$testEdtStallIsCounted"));
+    }
+
+    /**
+     * Teste 3: Só leitura, e só em localhost
+     */
+    @Test
+    public void testOnlyGetOnLoopback() throws Exception {
+        HttpRequest post = HttpRequest.newBuilder(uri("/metrics")).POST(HttpRequest.BodyPublishers.ofString("x")).build();
+        assertEquals(405, client.send(post, HttpResponse.BodyHandlers.discarding()).statusCode());
+        assertEquals(404, get("/other").statusCode());
+        assertTrue(server.getPort() > 0);
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+
+    private static SaleDTO sale() {
+        SaleDTO sale = new SaleDTO();
+        sale.setSaleDate(LocalDateTime.now());
+        List<SaleItemDTO> items = new ArrayList<>();
+        items.add(new SaleItemDTO(1, "Arroz Tipo 1", 10.0, 1));
+        items.add(new SaleItemDTO(2, "Feijão Preto", 8.5, 1));
+        sale.setItems(items);
+        sale.setTotalAmount(18.5);
+        return sale;
+    }
+}
@@ -0,0 +1,288 @@
+package test.integration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.db.ConnectionPool;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.Message;
+import model.dto.MessageType;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import model.productimport.ImportProgress;
+import model.productimport.ProductImporter;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Integração da importação de produtos (model.productimport)
+ * Arquivos CSV e XLSX são lidos em fluxo, as linhas inválidas são puladas
+ * e as válidas entram ou atualizam o produto pelo código de barras
+ */
+public class ProductImportTest {
+
+    private InMemoryDatabase database;
+    private ConnectionPool pool;
+    private DALManager dalManager;
+    private POSController controller;
+    private Path folder;
+
+    @Before
+    public void setUp() throws IOException {
+        database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.setUniqueKey("products", "barcode");
+        database.insert("category", 1, "Mercearia");
+        database.insert("category", 2, "Laticínios");
+        database.insert("suppliers", 1, "Camil Alimentos", "1133334444");
+        database.insert("suppliers", 2, "Italac", "1155556666");
+        database.insertProduct(1, "Arroz Camil 1kg", "7896006716112", 5.99, 10, 1);
+        pool = new ConnectionPool(database, 4, 60_000);
+        dalManager = new DALManager(pool);
+        controller = new POSController(dalManager, new ProductCatalog(dalManager, 60_000));
+        folder = Files.createTempDirectory("pos-import");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        try (var files = Files.walk(folder)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Teste 1: CSV com colunas em outra ordem, aspas e linhas inválidas
+     * Resultado esperado: válidas gravadas, a existente atualizada, inválidas relatadas pelo número da linha
+     */
+    @Test
+    public void testCsvImportUpsertsValidRowsAndReportsRejected() throws IOException {
+        Path file = folder.resolve("fornecedor.csv");
+        Files.writeString(file, String.join("\n",
+                "Barcode,Name,Category,Supplier,Price,Stock,Quantity Type",
+                "7896006716112,Arroz Camil 1kg,mercearia,Camil Alimentos,6.49,40,",
+                "7898080640017,\"Leite Italac, integral 1L\",Laticínios,Italac,\"4,79\",120,counted",
+                "7896004000039,\"Queijo \"\"Minas\"\" kg\",Laticínios,Italac,39.90,5.5,weighted",
+                "7890000000001,Boneca,Brinquedos,Italac,59.90,3,",
+                "7890000000002,Feijão,Mercearia,Camil Alimentos,abc,3,",
+                "7890000000003,,Mercearia,Camil Alimentos,1.00,3,",
+                ""), StandardCharsets.UTF_8);
+        List<ImportProgress> reports = new ArrayList<>();
+
+        Response response = controller.importProducts(file, reports::add);
+
+        assertTrue(response.getErrorMessages(), response.isSuccessfull());
+        assertEquals(3, database.rowCount("products"));
+        ProductDTO rice = controller.getProductByBarcode("7896006716112", new Response());
+        assertEquals(6.49, rice.getPrice(), 0.001);
+        assertEquals(40, rice.getStockQuantity(), 0.001);
+        ProductDTO milk = controller.getProductByBarcode("7898080640017", new Response());
+        assertNotNull("O catálogo é relido depois da importação", milk);
+        assertEquals("Leite Italac, integral 1L", milk.getProductName());
+        assertEquals(4.79, milk.getPrice(), 0.001);
+        assertEquals(2, milk.getCategoryId());
+        ProductDTO cheese = dalManager.getProductById(milk.getProductId() + 1, new Response());
+        assertEquals("Queijo \"Minas\" kg", cheese.getProductName());
+        assertEquals("weighted", cheese.getQuantityType());
+        assertEquals(2, cheese.getSupplierId());
+
+        assertEquals(List.of("Row 5: Unknown category 'Brinquedos'.", "Row 6: Price 'abc' is not a number.",
+                "Row 7: Product name is required, at most 255 characters."), messages(response, MessageType.Warning));
+        ImportProgress last = reports.get(reports.size() - 1);
+        assertTrue(last.isFinished());
+        assertEquals(6, last.getRowsRead());
+        assertEquals(3, last.getRowsWritten());
+        assertEquals(3, last.getRowsRejected());
+    }
+
+    /**
+     * Teste 2: A mesma lista numa planilha XLSX, lida pela API de eventos do POI
+     * Resultado esperado: textos compartilhados, números e células vazias lidos como no CSV
+     */
+    @Test
+    public void testXlsxImport() throws IOException {
+        Path file = folder.resolve("fornecedor.xlsx");
+        writeXlsx(file, new String[][]{
+            {"name", "barcode", "price", "stock", "category", "supplier"},
+            {"Leite Italac integral 1L", "7898080640017", "4.79", "120", "Laticínios", "Italac"},
+            {"Café Pilão 500g", "7896089012345", "18.5", null, "Mercearia", "Camil Alimentos"},
+            {"Sem fornecedor", "7890000000009", "1", "1", "Mercearia", "Desconhecido"}});
+
+        Response response = controller.importProducts(file, progress -> {
+        });
+
+        assertTrue(response.getErrorMessages(), response.isSuccessfull());
+        ProductDTO milk = controller.getProductByBarcode("7898080640017", new Response());
+        assertEquals("Leite Italac integral 1L", milk.getProductName());
+        assertEquals(4.79, milk.getPrice(), 0.001);
+        ProductDTO coffee = controller.getProductByBarcode("7896089012345", new Response());
+        assertEquals(18.5, coffee.getPrice(), 0.001);
+        assertEquals(0, coffee.getStockQuantity(), 0.001);
+        assertEquals("counted", dalManager.getProductById(coffee.getProductId(), new Response()).getQuantityType());
+        assertEquals(List.of("Row 4: Unknown supplier 'Desconhecido'."), messages(response, MessageType.Warning));
+        assertEquals(3, database.rowCount("products"));
+    }
+
+    /**
+     * Teste 3: 2.500 linhas em blocos de 1.000
+     * Resultado esperado: um lote por bloco, em ordem, com o progresso depois de cada um
+     */
+    @Test
+    public void testChunksAreBatchedAndReported() throws IOException {
+        Path file = folder.resolve("grande.csv");
+        StringBuilder csv = new StringBuilder("name,barcode,price,stock,category,supplier\n");
+        for (int i = 1; i <= 2_500; i++) {
+            csv.append("Produto ").append(i).append(",789").append(100_000 + i).append(',').append(i % 50 + 0.99)
+                    .append(",10,Mercearia,Italac\n");
+        }
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        long statements = database.getStatementsExecuted();
+        List<ImportProgress> reports = new ArrayList<>();
+
+        ImportProgress last = new ProductImporter(dalManager, 1_000, 4).importFile(file, reports::add, new Response());
+
+        assertEquals(2_500, last.getRowsWritten());
+        assertEquals(2_501, database.rowCount("products"));
+        // categorias e fornecedores, e um executeBatch por bloco
+        assertEquals(2 + 3, database.getStatementsExecuted() - statements);
+        assertEquals(4, reports.size());
+        assertEquals(1_000, reports.get(0).getRowsWritten());
+        assertEquals(2_000, reports.get(1).getRowsWritten());
+        assertEquals(2_500, reports.get(2).getRowsWritten());
+        assertTrue(reports.get(3).isFinished());
+        assertEquals("Produto 2500", database.rows("products").get(2_500)[1]);
+    }
+
+    /**
+     * Teste 4: Cabeçalho sem código de barras e arquivo de outro tipo
+     * Resultado esperado: erro claro e nada gravado
+     */
+    @Test
+    public void testUnusableFilesAreRefused() throws IOException {
+        Path noBarcode = folder.resolve("sem-codigo.csv");
+        Files.writeString(noBarcode, "name,price,category,supplier\nArroz,5.99,Mercearia,Italac\n", StandardCharsets.UTF_8);
+        Response response = controller.importProducts(noBarcode, progress -> {
+        });
+        assertFalse(response.isSuccessfull());
+        assertTrue(response.getErrorMessages(), response.getErrorMessages().contains("missing barcode"));
+
+        Path pdf = folder.resolve("catalogo.pdf");
+        Files.writeString(pdf, "%PDF", StandardCharsets.UTF_8);
+        response = controller.importProducts(pdf, progress -> {
+        });
+        assertFalse(response.isSuccessfull());
+        assertTrue(response.getErrorMessages(), response.getErrorMessages().contains(".csv and .xlsx"));
+        assertEquals(1, database.rowCount("products"));
+    }
+
+    /**
+     * Teste 5: Vírgula que pode ser separador de milhar
+     * Resultado esperado: "1,299" é recusado em vez de virar 1,299; "4,79" e "12,5" são decimais
+     */
+    @Test
+    public void testAmbiguousCommaIsRejected() throws IOException {
+        Path file = folder.resolve("milhar.csv");
+        Files.writeString(file, String.join("\n",
+                "name,barcode,price,stock,category,supplier",
+                "Geladeira,7890000000010,\"1,299\",2,Mercearia,Camil Alimentos",
+                "Leite,7890000000011,\"4,79\",\"12,5\",Laticínios,Italac",
+                "Arroz,7890000000012,5.99,\"2,000\",Mercearia,Camil Alimentos",
+                ""), StandardCharsets.UTF_8);
+
+        Response response = controller.importProducts(file, progress -> {
+        });
+
+        assertTrue(response.getErrorMessages(), response.isSuccessfull());
+        assertNull(controller.getProductByBarcode("7890000000010", new Response()));
+        ProductDTO milk = controller.getProductByBarcode("7890000000011", new Response());
+        assertEquals(4.79, milk.getPrice(), 0.001);
+        assertEquals(12.5, milk.getStockQuantity(), 0.001);
+        assertNull(controller.getProductByBarcode("7890000000012", new Response()));
+        assertEquals(List.of("Row 2: Price '1,299' could use the comma for thousands or decimals; write it with a decimal point.",
+                "Row 4: Stock '2,000' could use the comma for thousands or decimals; write it with a decimal point."),
+                messages(response, MessageType.Warning));
+    }
+
+    private static List<String> messages(Response response, MessageType type) {
+        List<String> messages = new ArrayList<>();
+        for (Message message : response.messagesList) {
+            if (message.type == type) {
+                messages.add(message.message);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Escreve uma planilha mínima à mão: números como células numéricas,
+     * textos na tabela de textos compartilhados e null como célula ausente.
+     */
+    static void writeXlsx(Path file, String[][] rows) throws IOException {
+        List<String> strings = new ArrayList<>();
+        StringBuilder sheet = new StringBuilder("<worksheet xmlns=\"" + MAIN + "\"><sheetData>");
+        for (int r = 0; r < rows.length; r++) {
+            sheet.append("<row r=\"").append(r + 1).append("\">");
+            for (int c = 0; c < rows[r].length; c++) {
+                String value = rows[r][c];
+                if (value == null) {
+                    continue;
+                }
+                String reference = (char) ('A' + c) + String.valueOf(r + 1);
+                if (value.matches("-?\\d+(\\.\\d+)?")) {
+                    sheet.append("<c r=\"").append(reference).append("\"><v>").append(value).append("</v></c>");
+                } else {
+                    sheet.append("<c r=\"").append(reference).append("\" t=\"s\"><v>").append(strings.size()).append("</v></c>");
+                    strings.add(value);
+                }
+            }
+            sheet.append("</row>");
+        }
+        sheet.append("</sheetData></worksheet>");
+        StringBuilder shared = new StringBuilder("<sst xmlns=\"" + MAIN + "\" count=\"" + strings.size() + "\" uniqueCount=\""
+                + strings.size() + "\">");
+        for (String value : strings) {
+            shared.append("<si><t>").append(value.replace("&", "&amp;").replace("<", "&lt;")).append("</t></si>");
+        }
+        shared.append("</sst>");
+
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            entry(zip, "[Content_Types].xml", "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                    + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                    + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                    + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                    + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                    + "<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>"
+                    + "</Types>");
+            entry(zip, "_rels/.rels", "<Relationships xmlns=\"" + RELATIONSHIPS + "\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + OFFICE + "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+            entry(zip, "xl/workbook.xml", "<workbook xmlns=\"" + MAIN + "\" xmlns:r=\"" + OFFICE + "\">"
+                    + "<sheets><sheet name=\"Produtos\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+            entry(zip, "xl/_rels/workbook.xml.rels", "<Relationships xmlns=\"" + RELATIONSHIPS + "\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + OFFICE + "/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                    + "<Relationship Id=\"rId2\" Type=\"" + OFFICE + "/sharedStrings\" Target=\"sharedStrings.xml\"/></Relationships>");
+            entry(zip, "xl/worksheets/sheet1.xml", sheet.toString());
+            entry(zip, "xl/sharedStrings.xml", shared.toString());
+        }
+    }
+
+    private static final String MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String OFFICE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String RELATIONSHIPS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private static void entry(ZipOutputStream zip, String name, String xml) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" + xml).getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,98 @@
+package test.integration;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.DBReader;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Integração das projeções de produtos do DALManager
+ * As listas e a busca leem só as colunas que mostram, achadas pelo nome,
+ * numa tabela de produtos larga e com as colunas em outra ordem
+ */
+public class ProductProjectionTest {
+
+    private static final int PRODUCTS = 500;
+
+    private InMemoryDatabase database;
+    private DALManager dalManager;
+
+    @Before
+    public void setUp() {
+        database = new InMemoryDatabase();
+        database.createPosSchema();
+        // colunas fora da ordem do schema original e com texto longo no meio
+        database.createTable("products", "description", "stock_quantity", "name", "id", "image_url", "price",
+                "quantity_type", "category_id", "barcode", "suppliers_id", "created_at", "updated_at");
+        for (int id = 1; id <= PRODUCTS; id++) {
+            database.insert("products", "Descrição longa do produto " + id + ". ".repeat(200),
+                    BigDecimal.valueOf(10 + id), "Produto " + id, id, "https://cdn.example.com/" + id + ".jpg",
+                    BigDecimal.valueOf(1.5 * id), id % 2 == 0 ? "weighted" : "counted", 1 + id % 3, "789" + id,
+                    7, null, null);
+        }
+        dalManager = new DALManager(database);
+    }
+
+    /**
+     * Teste 1: Lista, página, busca e produto por id trazem os valores certos, lidos pelo nome da coluna
+     */
+    @Test
+    public void testColumnsAreFoundByName() {
+        Response response = new Response();
+
+        ArrayList<ProductDTO> products = dalManager.getProducts(response);
+        assertEquals(PRODUCTS, products.size());
+        assertProduct(42, products.get(41));
+
+        ArrayList<ProductDTO> page = dalManager.getProductsPage(100, 10, response);
+        assertEquals(10, page.size());
+        assertProduct(101, page.get(0));
+
+        ArrayList<ProductDTO> found = dalManager.searchProductsByName("Produto 250", response);
+        assertEquals(1, found.size());
+        assertProduct(250, found.get(0));
+
+        ProductDTO product = dalManager.getProductById(8, response);
+        assertProduct(8, product);
+        assertEquals("weighted", product.getQuantityType());
+        assertEquals(7, product.getSupplierId());
+        assertTrue(response.getErrorMessages().toString(), response.isSuccessfull());
+    }
+
+    /**
+     * Teste 2: A lista de produtos traz do banco uma fração do que SELECT * traria
+     */
+    @Test
+    public void testListReadsOnlyListColumns() {
+        long start = database.getBytesSent();
+        assertEquals(PRODUCTS, dalManager.getProducts(new Response()).size());
+        long narrow = database.getBytesSent() - start;
+
+        start = database.getBytesSent();
+        List<Integer> ids = new DBReader(database).getRecords("SELECT * FROM products", new Response(),
+                (ResultSet resultSet) -> resultSet.getInt("id"));
+        long all = database.getBytesSent() - start;
+
+        assertEquals(PRODUCTS, ids.size());
+        System.out.printf("Lista de %d produtos: %,d bytes com as colunas da lista, %,d com SELECT *%n",
+                PRODUCTS, narrow, all);
+        assertTrue(narrow + " bytes com a projeção contra " + all, narrow * 10 < all);
+    }
+
+    private static void assertProduct(int id, ProductDTO product) {
+        assertEquals(id, product.getProductId());
+        assertEquals("Produto " + id, product.getProductName());
+        assertEquals("789" + id, product.getBarcode());
+        assertEquals(1.5 * id, product.getPrice(), 0.0001);
+        assertEquals(10 + id, product.getStockQuantity(), 0.0001);
+        assertEquals(1 + id % 3, product.getCategoryId());
+    }
+}
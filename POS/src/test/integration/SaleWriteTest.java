@@ -0,0 +1,194 @@
+package test.integration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.db.ConnectionPool;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import model.POSController;
+import model.SalesAggregates;
+import model.ProductCatalog;
+import model.dto.CustomerDTO;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Integração da gravação de vendas (POSController.saveSale e ObjectAdder.addSale)
+ * Verifica a transação única, a baixa de estoque e o rollback por falta de estoque
+ */
+public class SaleWriteTest {
+
+    private InMemoryDatabase database;
+    private ConnectionPool pool;
+    private ProductCatalog catalog;
+    private POSController controller;
+
+    @Before
+    public void setUp() {
+        database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insert("customers", 1, "fawad iqbal", "03149972883");
+        for (int id = 1; id <= 50; id++) {
+            database.insertProduct(id, "product " + id, "B" + id, id, 100, 1);
+        }
+        pool = new ConnectionPool(database, 4, 60_000);
+        DALManager dalManager = new DALManager(pool);
+        catalog = new ProductCatalog(dalManager, 60_000);
+        controller = new POSController(dalManager, catalog);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Teste 1: Venda de 50 itens é gravada com cabeçalho, itens e baixa de estoque
+     */
+    @Test
+    public void testSaleIsPersisted() {
+        SaleDTO sale = sale(50, 2);
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId(1);
+        sale.setCustomer(customer);
+
+        Response response = controller.saveSale(sale);
+
+        assertTrue(response.isSuccessfull());
+        assertTrue("Venda deve receber o id gerado", sale.getSaleId() > 0);
+        assertEquals(1, database.rowCount("sales"));
+        assertEquals(50, database.rowCount("sale_items"));
+        assertEquals(1, database.rows("sales").get(0)[1]);
+        for (Object[] line : database.rows("sale_items")) {
+            assertEquals(sale.getSaleId(), line[1]);
+        }
+        assertStock(1, 98);
+        assertStock(50, 98);
+        assertEquals("Todas as conexões devem voltar ao pool", 0, pool.getStatistics().getActiveConnections());
+    }
+
+    /**
+     * Teste 2: Falta de estoque desfaz a venda inteira
+     * Resultado esperado: nenhuma linha gravada, estoque intacto e mensagem com o produto
+     */
+    @Test
+    public void testInsufficientStockRollsBackEverything() {
+        SaleDTO sale = sale(10, 1);
+        sale.getItems().add(new SaleItemDTO(7, "product 7", 7, 500));
+
+        Response response = controller.saveSale(sale);
+
+        assertFalse(response.isSuccessfull());
+        assertTrue(response.getErrorMessages().contains("Not enough stock for product 7."));
+        assertEquals(0, sale.getSaleId());
+        assertEquals(0, database.rowCount("sales"));
+        assertEquals(0, database.rowCount("sale_items"));
+        for (int id = 1; id <= 10; id++) {
+            assertStock(id, 100);
+        }
+        assertEquals(0, pool.getStatistics().getActiveConnections());
+    }
+
+    /**
+     * Teste 3: Linhas repetidas do mesmo produto somam para a verificação de estoque
+     */
+    @Test
+    public void testRepeatedLinesAreCheckedTogether() {
+        SaleDTO sale = new SaleDTO();
+        List<SaleItemDTO> items = new ArrayList<>();
+        items.add(new SaleItemDTO(3, "product 3", 3, 60));
+        items.add(new SaleItemDTO(3, "product 3", 3, 60));
+        sale.setItems(items);
+
+        assertFalse(controller.saveSale(sale).isSuccessfull());
+        assertStock(3, 100);
+
+        items.remove(1);
+        items.add(new SaleItemDTO(3, "product 3", 3, 40));
+        assertTrue(controller.saveSale(sale).isSuccessfull());
+        assertStock(3, 0);
+        assertEquals(2, database.rowCount("sale_items"));
+    }
+
+    /**
+     * Teste 4: O catálogo em memória acompanha a baixa de estoque sem recarregar
+     */
+    @Test
+    public void testCatalogStockFollowsSale() {
+        Response response = new Response();
+        controller.getProducts(response);
+        long refreshes = catalog.getRefreshCount();
+
+        assertTrue(controller.saveSale(sale(5, 3)).isSuccessfull());
+
+        ProductDTO product = controller.getProductById(2, response);
+        assertEquals(97, product.getStockQuantity(), 0.0001);
+        assertEquals(refreshes, catalog.getRefreshCount());
+    }
+
+    /**
+     * Teste 5: Carrinho vazio e quantidade zero são rejeitados antes do banco
+     */
+    @Test
+    public void testInvalidSalesAreRejected() {
+        SaleDTO empty = new SaleDTO();
+        empty.setItems(new ArrayList<>());
+        Response response = controller.saveSale(empty);
+        assertFalse(response.isSuccessfull());
+        assertTrue(response.getErrorMessages().contains("Cart is empty, add at least one product."));
+
+        SaleDTO zero = sale(1, 0);
+        response = controller.saveSale(zero);
+        assertFalse(response.isSuccessfull());
+        assertTrue(response.getErrorMessages().contains("Quantity of product 1 must be greater than zero."));
+
+        assertEquals("Nada deve chegar ao banco", 0, database.getRoundTrips());
+    }
+
+    /**
+     * Teste 6: Venda gravada entra nos agregados da tela inicial, e venda
+     * recusada não
+     */
+    @Test
+    public void testSaleUpdatesDashboardAggregates() {
+        assertTrue(controller.saveSale(sale(2, 3)).isSuccessfull());
+        assertFalse(controller.saveSale(sale(1, 1_000)).isSuccessfull());
+
+        SalesAggregates.Snapshot snapshot = controller.getSalesAggregates().snapshot();
+        assertEquals(1, snapshot.getSalesCount());
+        assertEquals(900, snapshot.getTotalMinor());
+        assertEquals("Total por categoria dos produtos do catálogo", Long.valueOf(900), snapshot.getCategoryAmountMinor().get(1));
+        assertEquals(1, snapshot.getBasketSizeCount(5));
+    }
+
+    private SaleDTO sale(int lines, int quantity) {
+        SaleDTO sale = new SaleDTO();
+        List<SaleItemDTO> items = new ArrayList<>();
+        double total = 0;
+        for (int id = 1; id <= lines; id++) {
+            SaleItemDTO item = new SaleItemDTO(id, "product " + id, id, quantity);
+            total += item.getTotal();
+            items.add(item);
+        }
+        sale.setItems(items);
+        sale.setTotalAmount(total);
+        return sale;
+    }
+
+    private void assertStock(int productId, int expected) {
+        for (Object[] row : database.rows("products")) {
+            if (((Number) row[0]).intValue() == productId) {
+                assertEquals(0, new BigDecimal(row[4].toString()).compareTo(BigDecimal.valueOf(expected)));
+                return;
+            }
+        }
+        fail("Produto " + productId + " não encontrado");
+    }
+}
@@ -0,0 +1,286 @@
+package test.integration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.journal.SalesJournal;
+import dal.journal.SalesJournalReplayer;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Integração do diário local de vendas (dal.journal.SalesJournal e SalesJournalReplayer)
+ * Garante que nenhuma venda confirmada ao caixa é perdida ou gravada duas vezes
+ */
+public class SalesJournalTest {
+
+    private static final int PRODUCTS = 5;
+    private static final int INITIAL_STOCK = 100_000;
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("pos-journal").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (var files = Files.walk(directory.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Teste 1: Processo morto no meio da gravação no banco
+     * Cenário: 300 vendas no diário, processo encerrado à força enquanto o
+     * replayer grava; o replayer é reiniciado em outro processo
+     * Resultado esperado: cada venda aparece exatamente uma vez no banco e o
+     * estoque é baixado uma única vez por venda
+     */
+    @Test
+    public void testKilledProcessLosesAndDuplicatesNothing() throws Exception {
+        int sales = 300;
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process till = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                Till.class.getName(), directory.getPath(), String.valueOf(sales))
+                .redirectErrorStream(true).start();
+        int drainedWhenKilled = 0;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(till.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.startsWith("DRAINED ")) {
+                    drainedWhenKilled = Integer.parseInt(line.substring(8));
+                    if (drainedWhenKilled >= sales / 4) {
+                        till.destroyForcibly();
+                        break;
+                    }
+                }
+            }
+        }
+        assertTrue("Processo deve terminar", till.waitFor(10, TimeUnit.SECONDS));
+        assertTrue("O processo deve morrer no meio da gravação, gravou " + drainedWhenKilled,
+                drainedWhenKilled > 0 && drainedWhenKilled < sales);
+
+        InMemoryDatabase database = new InMemoryDatabase(new File(directory, "pos.db"));
+        try (SalesJournal journal = SalesJournal.open(directory)) {
+            assertTrue("Vendas não gravadas devem continuar no diário", journal.getPendingCount() > 0);
+            SalesJournalReplayer replayer = new SalesJournalReplayer(journal, new DALManager(database));
+            assertTrue(replayer.drainAll());
+            assertEquals(0, journal.getPendingCount());
+        }
+
+        assertEquals(sales, database.rowCount("sales"));
+        Set<Object> uids = new HashSet<>();
+        for (Object[] row : database.rows("sales")) {
+            uids.add(row[4]);
+        }
+        assertEquals("Cada venda deve ser gravada uma única vez", sales, uids.size());
+        assertEquals(sales * 2, database.rowCount("sale_items"));
+        for (Object[] product : database.rows("products")) {
+            assertEquals("Estoque baixado uma vez por venda", 0,
+                    new BigDecimal(product[4].toString()).compareTo(BigDecimal.valueOf(INITIAL_STOCK - sales * 2 / PRODUCTS * 3)));
+        }
+    }
+
+    /**
+     * Teste 2: Venda repetida pelo replayer não é gravada de novo
+     * Cenário: o banco gravou a venda mas o processo caiu antes de marcar o diário
+     */
+    @Test
+    public void testReplayedSaleIsSavedOnce() throws Exception {
+        InMemoryDatabase database = database(null);
+        DALManager dalManager = new DALManager(database);
+        SaleDTO sale = sale(1);
+        sale.setSaleUid("7d7d2a1c-0f5e-4d52-9a47-1c2f3b4a5d6e");
+
+        Response first = new Response();
+        dalManager.saveSale(sale, first);
+        int saleId = sale.getSaleId();
+        Response second = new Response();
+        dalManager.saveSale(sale, second);
+
+        assertTrue(first.isSuccessfull());
+        assertTrue(second.isSuccessfull());
+        assertEquals(saleId, sale.getSaleId());
+        assertEquals(1, database.rowCount("sales"));
+        assertEquals(2, database.rowCount("sale_items"));
+    }
+
+    /**
+     * Teste 3: Registro cortado no fim do arquivo é ignorado na recuperação
+     */
+    @Test
+    public void testTornTailIsIgnoredOnRecovery() throws Exception {
+        try (SalesJournal journal = SalesJournal.open(directory, 64 * 1024)) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(sale(i));
+            }
+        }
+        // meia escrita depois do último registro: tamanho e geração sem o resto
+        try (RandomAccessFile file = new RandomAccessFile(new File(directory, SalesJournal.FILE_NAME), "rw")) {
+            long end = 64;
+            for (int i = 0; i < 3; i++) {
+                file.seek(end);
+                end += 12 + file.readInt();
+            }
+            file.seek(end);
+            file.writeInt(90);
+            file.writeInt(1);
+        }
+
+        InMemoryDatabase database = database(null);
+        try (SalesJournal journal = SalesJournal.open(directory, 64 * 1024)) {
+            assertEquals(3, journal.getPendingCount());
+            assertTrue(new SalesJournalReplayer(journal, new DALManager(database)).drainAll());
+            journal.append(sale(3));
+            assertEquals(1, journal.getPendingCount());
+        }
+        assertEquals(3, database.rowCount("sales"));
+    }
+
+    /**
+     * Teste 4: Caixa confirma a venda sem o banco e o replayer grava quando ele volta
+     * Resultado esperado: fsync em grupo (menos gravações em disco que vendas)
+     */
+    @Test
+    public void testCheckoutDoesNotWaitForDatabase() throws Exception {
+        InMemoryDatabase database = database(null);
+        DALManager dalManager = new DALManager(database);
+        ProductCatalog catalog = new ProductCatalog(dalManager, 60_000);
+        catalog.getProducts(new Response());
+        database.setAvailable(false);
+
+        try (SalesJournal journal = SalesJournal.open(directory)) {
+            POSController controller = new POSController(dalManager, catalog, journal);
+            ExecutorService tills = Executors.newFixedThreadPool(8);
+            List<Future<Response>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int n = i;
+                results.add(tills.submit(() -> controller.saveSale(sale(n))));
+            }
+            for (Future<Response> result : results) {
+                assertTrue(result.get().isSuccessfull());
+            }
+            tills.shutdown();
+            System.out.printf("Diário: %d vendas, %d fsyncs%n", journal.getAppendCount(), journal.getForceCount());
+            assertTrue("fsync deve ser feito em grupo", journal.getForceCount() < journal.getAppendCount());
+            assertEquals(0, database.rowCount("sales"));
+            assertEquals(INITIAL_STOCK - 400 * 2 / PRODUCTS * 3,
+                    controller.getProductById(1, new Response()).getStockQuantity(), 0.0001);
+
+            SalesJournalReplayer replayer = new SalesJournalReplayer(journal, dalManager);
+            assertFalse("Banco fora do ar: vendas ficam no diário", replayer.drainAll());
+            assertEquals(400, journal.getPendingCount());
+
+            database.setAvailable(true);
+            assertTrue(replayer.drainAll());
+            assertEquals(0, journal.getPendingCount());
+        }
+        assertEquals(400, database.rowCount("sales"));
+    }
+
+    /**
+     * Teste 5: Venda que o banco recusa com erro de SQL, seguida de uma válida
+     * Resultado esperado: a recusada vai para o arquivo de rejeitadas e a fila continua
+     */
+    @Test
+    public void testPoisonSaleDoesNotBlockTheJournal() throws Exception {
+        InMemoryDatabase database = database(null);
+        // uma linha por produto em cada venda: a venda com o produto repetido viola a chave
+        database.setUniqueKey("sale_items", "sale_id", "product_id");
+        SaleDTO poison = sale(0);
+        poison.getItems().add(new SaleItemDTO(1, "product 1", 1, 1));
+        poison.setSaleUid("0b5d7c1e-poison");
+
+        try (SalesJournal journal = SalesJournal.open(directory)) {
+            journal.append(poison);
+            journal.append(sale(1));
+            SalesJournalReplayer replayer = new SalesJournalReplayer(journal, new DALManager(database));
+
+            assertTrue(replayer.drainAll());
+            assertEquals(0, journal.getPendingCount());
+            assertEquals(1, replayer.getReplayedCount());
+            assertEquals(1, replayer.getRejectedCount());
+        }
+        assertEquals(1, database.rowCount("sales"));
+        assertEquals(INITIAL_STOCK, ((Number) database.rows("products").get(0)[4]).doubleValue(), 0.0001);
+        List<String> rejected = Files.readAllLines(new File(directory, SalesJournal.REJECTED_FILE_NAME).toPath());
+        assertEquals(1, rejected.size());
+        assertTrue(rejected.get(0), rejected.get(0).contains("0b5d7c1e-poison") && rejected.get(0).contains("Duplicate entry"));
+    }
+
+    private static InMemoryDatabase database(File storage) {
+        InMemoryDatabase database = storage == null ? new InMemoryDatabase() : new InMemoryDatabase(storage);
+        if (!database.hasTable("products")) {
+            database.createPosSchema();
+            for (int id = 1; id <= PRODUCTS; id++) {
+                database.insertProduct(id, "product " + id, "B" + id, id, INITIAL_STOCK, 1);
+            }
+            database.save();
+        }
+        return database;
+    }
+
+    /**
+     * Duas linhas de 3 unidades, passando pelos produtos em sequência.
+     */
+    private static SaleDTO sale(int n) {
+        SaleDTO sale = new SaleDTO();
+        List<SaleItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            int productId = (n * 2 + i) % PRODUCTS + 1;
+            items.add(new SaleItemDTO(productId, "product " + productId, productId, 3));
+        }
+        sale.setItems(items);
+        sale.setTotalAmount(items.stream().mapToDouble(SaleItemDTO::getTotal).sum());
+        return sale;
+    }
+
+    /**
+     * Caixa em processo separado: grava as vendas no diário e começa a
+     * levá-las a um banco lento, informando o progresso até ser morto.
+     */
+    public static class Till {
+
+        public static void main(String[] args) throws Exception {
+            File directory = new File(args[0]);
+            int sales = Integer.parseInt(args[1]);
+            InMemoryDatabase database = database(new File(directory, "pos.db"));
+            database.setRoundTripLatencyMicros(2_000);
+            SalesJournal journal = SalesJournal.open(directory);
+            for (int i = 0; i < sales; i++) {
+                journal.append(sale(i));
+            }
+            SalesJournalReplayer replayer = new SalesJournalReplayer(journal, new DALManager(database));
+            replayer.start();
+            while (true) {
+                System.out.println("DRAINED " + replayer.getReplayedCount());
+                System.out.flush();
+                Thread.sleep(5);
+            }
+        }
+    }
+}
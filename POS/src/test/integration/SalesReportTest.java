@@ -0,0 +1,340 @@
+package test.integration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.db.ConnectionPool;
+import dal.journal.SalesJournal;
+import dal.journal.SalesJournalReplayer;
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import model.ApplicationSession;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.CustomerDTO;
+import model.dto.ReportDimension;
+import model.dto.ReportPeriod;
+import model.dto.ReportRowDTO;
+import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import model.dto.SalesGrouping;
+import model.dto.SalesQueryDTO;
+import model.dto.UserDTO;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Integração dos relatórios de vendas (POSController.getRevenueReport, getSalesBreakdown e getSalesAnalysis)
+ * Verifica os totais por hora gravados junto com a venda e os relatórios
+ * somados a partir deles
+ */
+public class SalesReportTest {
+
+    private InMemoryDatabase database;
+    private ConnectionPool pool;
+    private DALManager dalManager;
+    private ProductCatalog catalog;
+    private POSController controller;
+
+    @Before
+    public void setUp() {
+        database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insert("category", 1, "drinks");
+        database.insert("category", 2, "cleaning");
+        database.insertProduct(1, "tea", "B1", 1.50, 100, 1);
+        database.insertProduct(2, "milk", "B2", 2.00, 100, 1);
+        database.insertProduct(3, "soap", "B3", 3.25, 100, 2);
+        pool = new ConnectionPool(database, 4, 60_000);
+        dalManager = new DALManager(pool);
+        catalog = new ProductCatalog(dalManager, 60_000);
+        controller = new POSController(dalManager, catalog);
+    }
+
+    @After
+    public void tearDown() {
+        POSController.objApplicationSession = null;
+        pool.shutdown();
+    }
+
+    /**
+     * Teste 1: Cada venda soma nos totais da sua hora por produto, categoria e caixa
+     * Cenário: duas vendas do mesmo caixa na mesma hora caem na mesma linha
+     */
+    @Test
+    public void testSalesAreRolledUpByHour() {
+        saveSampleSales();
+
+        assertEquals(4, database.rowCount("sales_hourly_cashier"));
+        assertEquals(6, database.rowCount("sales_hourly_product"));
+        assertEquals(6, database.rowCount("sales_hourly_category"));
+        Object[] morning = database.rows("sales_hourly_cashier").get(0);
+        assertEquals(java.sql.Timestamp.valueOf(LocalDateTime.of(2026, 3, 2, 9, 0)), morning[0]);
+        assertEquals("ali", morning[1]);
+        assertEquals(2, ((Number) morning[2]).intValue());
+        assertEquals(4, ((Number) morning[3]).intValue());
+        assertAmount("7.75", new BigDecimal(morning[4].toString()));
+    }
+
+    /**
+     * Teste 2: Venda desfeita por falta de estoque não deixa totais
+     */
+    @Test
+    public void testRolledBackSaleLeavesNoRollups() {
+        Response response = controller.saveSale(sale(LocalDateTime.of(2026, 3, 2, 9, 15), "ali",
+                new SaleItemDTO(1, "tea", 1.50, 2), new SaleItemDTO(3, "soap", 3.25, 500)));
+
+        assertFalse(response.isSuccessfull());
+        assertEquals(0, database.rowCount("sales_hourly_cashier"));
+        assertEquals(0, database.rowCount("sales_hourly_product"));
+        assertEquals(0, database.rowCount("sales_hourly_category"));
+    }
+
+    /**
+     * Teste 3: Faturamento por dia, semana e mês, com zero nos períodos sem venda
+     */
+    @Test
+    public void testRevenueByPeriod() {
+        saveSampleSales();
+        Response response = new Response();
+
+        List<ReportRowDTO> days = controller.getRevenueReport(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4), ReportPeriod.Day, response);
+        assertTrue(response.isSuccessfull());
+        assertEquals(4, days.size());
+        assertEquals("2026-03-01", days.get(0).getKey());
+        assertAmount("0", days.get(0).getRevenue());
+        assertAmount("7.75", days.get(1).getRevenue());
+        assertEquals(2, days.get(1).getCount());
+        assertAmount("0", days.get(2).getRevenue());
+        assertAmount("12.50", days.get(3).getRevenue());
+
+        List<ReportRowDTO> weeks = controller.getRevenueReport(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31), ReportPeriod.Week, response);
+        assertEquals("Semanas começam na segunda-feira", 6, weeks.size());
+        assertEquals("2026-02-23", weeks.get(0).getKey());
+        assertEquals("Week of 2026-03-02", weeks.get(1).getLabel());
+        assertAmount("20.25", weeks.get(1).getRevenue());
+        assertEquals(3, weeks.get(1).getCount());
+        assertAmount("6.00", weeks.get(2).getRevenue());
+
+        List<ReportRowDTO> months = controller.getRevenueReport(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30), ReportPeriod.Month, response);
+        assertEquals(2, months.size());
+        assertAmount("26.25", months.get(0).getRevenue());
+        assertEquals(4, months.get(0).getCount());
+        assertEquals(13, months.get(0).getQuantity());
+        assertEquals("2026-04-01", months.get(1).getKey());
+        assertAmount("2.00", months.get(1).getRevenue());
+        assertTrue(response.isSuccessfull());
+    }
+
+    /**
+     * Teste 4: Totais por produto, categoria e caixa, do maior para o menor
+     */
+    @Test
+    public void testBreakdowns() {
+        saveSampleSales();
+        Response response = new Response();
+        LocalDate from = LocalDate.of(2026, 3, 1);
+        LocalDate to = LocalDate.of(2026, 3, 31);
+
+        List<ReportRowDTO> products = controller.getSalesBreakdown(ReportDimension.Product, from, to, response);
+        assertEquals(3, products.size());
+        assertEquals("tea", products.get(0).getLabel());
+        assertAmount("10.50", products.get(0).getRevenue());
+        assertEquals(7, products.get(0).getQuantity());
+        assertEquals(3, products.get(0).getCount());
+        assertEquals("soap", products.get(1).getLabel());
+        assertEquals("milk", products.get(2).getLabel());
+
+        List<ReportRowDTO> categories = controller.getSalesBreakdown(ReportDimension.Category, from, to, response);
+        assertEquals(2, categories.size());
+        assertEquals("drinks", categories.get(0).getLabel());
+        assertAmount("16.50", categories.get(0).getRevenue());
+        assertEquals("cleaning", categories.get(1).getLabel());
+        assertAmount("9.75", categories.get(1).getRevenue());
+
+        List<ReportRowDTO> cashiers = controller.getSalesBreakdown(ReportDimension.Cashier, from, to, response);
+        assertEquals(2, cashiers.size());
+        assertEquals("sara", cashiers.get(0).getLabel());
+        assertAmount("18.50", cashiers.get(0).getRevenue());
+        assertEquals(2, cashiers.get(0).getCount());
+        assertEquals("ali", cashiers.get(1).getLabel());
+
+        List<ReportRowDTO> april = controller.getSalesBreakdown(ReportDimension.Cashier, LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 1), response);
+        assertEquals(1, april.size());
+        assertEquals("Venda sem caixa conhecido", "Unknown", april.get(0).getLabel());
+        assertTrue(response.isSuccessfull());
+    }
+
+    /**
+     * Teste 5: Intervalo de datas inválido é recusado antes do banco
+     */
+    @Test
+    public void testInvalidRangeIsRejected() {
+        long roundTrips = database.getRoundTrips();
+
+        Response response = new Response();
+        assertTrue(controller.getRevenueReport(LocalDate.of(2026, 3, 5), LocalDate.of(2026, 3, 4), ReportPeriod.Day, response).isEmpty());
+        assertTrue(response.getErrorMessages().contains("The first day of the report must not be after the last day."));
+
+        response = new Response();
+        assertTrue(controller.getSalesBreakdown(ReportDimension.Product, null, LocalDate.of(2026, 3, 4), response).isEmpty());
+        assertTrue(response.getErrorMessages().contains("Select the first and last day of the report."));
+
+        assertEquals(roundTrips, database.getRoundTrips());
+    }
+
+    /**
+     * Teste 6: O caixa da venda vem do usuário logado
+     */
+    @Test
+    public void testCashierComesFromSession() {
+        POSController.objApplicationSession = new ApplicationSession();
+        POSController.objApplicationSession.setUser(new UserDTO("maria", "secret", "cashier"));
+
+        SaleDTO sale = sale(LocalDateTime.of(2026, 3, 2, 10, 0), null, new SaleItemDTO(2, "milk", 2.00, 1));
+        assertTrue(controller.saveSale(sale).isSuccessfull());
+
+        assertEquals("maria", sale.getCashier());
+        assertEquals("maria", database.rows("sales_hourly_cashier").get(0)[1]);
+    }
+
+    /**
+     * Teste 7: Caixa e categoria passam pelo diário local até os totais do banco
+     */
+    @Test
+    public void testJournalKeepsCashierAndCategory() throws Exception {
+        File directory = Files.createTempDirectory("pos-report-journal").toFile();
+        try (SalesJournal journal = SalesJournal.open(directory)) {
+            POSController journaled = new POSController(dalManager, catalog, journal);
+            assertTrue(journaled.saveSale(sale(LocalDateTime.of(2026, 3, 2, 9, 15), "ali",
+                    new SaleItemDTO(3, "soap", 3.25, 2))).isSuccessfull());
+            assertTrue(new SalesJournalReplayer(journal, dalManager).drainAll());
+        } finally {
+            try (var files = Files.walk(directory.toPath())) {
+                files.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+            }
+        }
+
+        assertEquals("ali", database.rows("sales_hourly_cashier").get(0)[1]);
+        assertEquals(2, database.rows("sales_hourly_category").get(0)[1]);
+    }
+
+    /**
+     * Teste 8: Consulta livre sobre as linhas em memória, com filtro de
+     * categoria e nomes de clientes
+     */
+    @Test
+    public void testSalesAnalysisInMemory() {
+        database.insert("customers", 1, "fawad iqbal", "03149972883");
+        saveSampleSales();
+        SaleDTO withCustomer = sale(LocalDateTime.of(2026, 3, 20, 10, 0), "ali", new SaleItemDTO(3, "soap", 3.25, 4));
+        withCustomer.setCustomer(new CustomerDTO(1, "fawad iqbal", "03149972883"));
+        save(withCustomer);
+        Response response = new Response();
+
+        SalesQueryDTO query = new SalesQueryDTO(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31), SalesGrouping.Customer);
+        query.setCategoryIds(Set.of(2));
+        List<ReportRowDTO> customers = controller.getSalesAnalysis(query, response);
+
+        assertTrue(response.isSuccessfull());
+        assertEquals(2, customers.size());
+        assertEquals("fawad iqbal", customers.get(0).getLabel());
+        assertAmount("13.00", customers.get(0).getRevenue());
+        assertEquals("Walk-in", customers.get(1).getLabel());
+        assertAmount("9.75", customers.get(1).getRevenue());
+
+        List<ReportRowDTO> months = controller.getSalesAnalysis(
+                new SalesQueryDTO(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31), SalesGrouping.Month), response);
+        assertEquals(2, months.size());
+        assertAmount("39.25", months.get(0).getRevenue());
+        assertAmount("2.00", months.get(1).getRevenue());
+
+        assertTrue(controller.getSalesAnalysis(new SalesQueryDTO(null, null, SalesGrouping.Day), response).isEmpty());
+        assertFalse(response.isSuccessfull());
+    }
+
+    /**
+     * Teste 9: Venda com desconto no total
+     * Resultado esperado: caixa, produto, categoria e dia somam o valor cobrado, com o
+     * desconto dividido entre as linhas na proporção do total de cada uma
+     */
+    @Test
+    public void testBreakdownsAgreeWhenSaleTotalDiffers() {
+        SaleDTO discounted = sale(LocalDateTime.of(2026, 3, 2, 9, 15), "ali",
+                new SaleItemDTO(1, "tea", 1.50, 2), new SaleItemDTO(3, "soap", 3.25, 1));
+        discounted.setTotalAmount(5.75);
+        save(discounted);
+        LocalDate day = LocalDate.of(2026, 3, 2);
+        Response response = new Response();
+
+        BigDecimal byCashier = revenue(controller.getSalesBreakdown(ReportDimension.Cashier, day, day, response));
+        BigDecimal byProduct = revenue(controller.getSalesBreakdown(ReportDimension.Product, day, day, response));
+        BigDecimal byCategory = revenue(controller.getSalesBreakdown(ReportDimension.Category, day, day, response));
+        BigDecimal byDay = revenue(controller.getRevenueReport(day, day, ReportPeriod.Day, response));
+        List<ReportRowDTO> products = controller.getSalesBreakdown(ReportDimension.Product, day, day, response);
+        products.sort(Comparator.comparing(ReportRowDTO::getKey));
+        BigDecimal analysed = revenue(controller.getSalesAnalysis(new SalesQueryDTO(day, day, SalesGrouping.Day), response));
+
+        assertTrue(response.isSuccessfull());
+        assertAmount("5.75", byProduct);
+        assertAmount("5.75", byCategory);
+        assertAmount("5.75", byCashier);
+        assertAmount("5.75", byDay);
+        assertAmount("5.75", analysed);
+        // 3,00 e 3,25 de 6,25: o chá fica com 2,76 e o sabonete com o resto
+        assertAmount("2.76", products.get(0).getRevenue());
+        assertAmount("2.99", products.get(1).getRevenue());
+    }
+
+    private static BigDecimal revenue(List<ReportRowDTO> rows) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (ReportRowDTO row : rows) {
+            total = total.add(row.getRevenue());
+        }
+        return total;
+    }
+
+    /**
+     * Vendas de exemplo: março tem 26,25 em 4 vendas de 2 caixas e abril
+     * tem uma venda de 2,00 sem caixa.
+     */
+    private void saveSampleSales() {
+        save(sale(LocalDateTime.of(2026, 3, 2, 9, 15), "ali", new SaleItemDTO(1, "tea", 1.50, 2), new SaleItemDTO(3, "soap", 3.25, 1)));
+        save(sale(LocalDateTime.of(2026, 3, 2, 9, 40), "ali", new SaleItemDTO(1, "tea", 1.50, 1)));
+        save(sale(LocalDateTime.of(2026, 3, 4, 18, 5), "sara", new SaleItemDTO(2, "milk", 2.00, 3), new SaleItemDTO(3, "soap", 3.25, 2)));
+        save(sale(LocalDateTime.of(2026, 3, 10, 11, 0), "sara", new SaleItemDTO(1, "tea", 1.50, 4)));
+        save(sale(LocalDateTime.of(2026, 4, 1, 8, 0), null, new SaleItemDTO(2, "milk", 2.00, 1)));
+    }
+
+    private void save(SaleDTO sale) {
+        Response response = controller.saveSale(sale);
+        assertTrue(response.getErrorMessages().toString(), response.isSuccessfull());
+    }
+
+    private static SaleDTO sale(LocalDateTime date, String cashier, SaleItemDTO... items) {
+        SaleDTO sale = new SaleDTO();
+        List<SaleItemDTO> lines = new ArrayList<>(List.of(items));
+        double total = 0;
+        for (SaleItemDTO item : lines) {
+            total += item.getTotal();
+        }
+        sale.setItems(lines);
+        sale.setTotalAmount(total);
+        sale.setSaleDate(date);
+        sale.setCashier(cashier);
+        return sale;
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals("Esperado " + expected + ", obtido " + actual, 0, new BigDecimal(expected).compareTo(actual));
+    }
+}
@@ -0,0 +1,125 @@
+package test.integration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.IDALManager;
+import dal.db.ConnectionPool;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import model.POSController;
+import model.ProductCatalog;
+import model.ReferenceData;
+import model.SalesAggregates;
+import model.SalesColumnStore;
+import model.StartupWarmup;
+import model.WarmupTiming;
+import model.dto.CustomerDTO;
+import model.dto.Response;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Integração do aquecimento na abertura (model.StartupWarmup)
+ * Com um banco que demora em cada leitura, o catálogo e as listas de apoio
+ * são carregados ao mesmo tempo, e depois as telas leem da memória
+ */
+public class StartupWarmupTest {
+
+    private static final long SLOW_READ_MILLIS = 200;
+
+    private ConnectionPool pool;
+    private final Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+    private ProductCatalog catalog;
+    private ReferenceData referenceData;
+    private POSController controller;
+
+    @Before
+    public void setUp() throws Exception {
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        for (int id = 1; id <= 50; id++) {
+            database.insertProduct(id, "Produto " + id, "789" + id, 1 + id % 10, 100, 1);
+        }
+        pool = new ConnectionPool(database, 5, 60_000);
+        IDALManager dal = new DALManager(pool);
+        Response saved = new Response();
+        dal.saveCustomer(new CustomerDTO(0, "Maria Souza", "11987654321"), saved);
+        assertTrue(saved.getErrorMessages(), saved.isSuccessfull());
+        // cada leitura demora, como um banco remoto ocupado
+        IDALManager slowDal = (IDALManager) Proxy.newProxyInstance(IDALManager.class.getClassLoader(),
+                new Class<?>[]{IDALManager.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("get")) {
+                        reads.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+                        Thread.sleep(SLOW_READ_MILLIS);
+                    }
+                    try {
+                        return method.invoke(dal, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+        catalog = new ProductCatalog(slowDal, 60_000);
+        referenceData = new ReferenceData(slowDal, 60_000);
+        controller = new POSController(slowDal, catalog, null, new SalesAggregates(), new SalesColumnStore(), referenceData);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Teste 1: Os cinco conjuntos são lidos em paralelo e cada um tem seu tempo
+     */
+    @Test
+    public void testDatasetsLoadInParallel() throws Exception {
+        StartupWarmup warmup = new StartupWarmup(catalog, referenceData);
+        warmup.start();
+        warmup.start();
+        assertTrue(warmup.await(10_000));
+
+        List<WarmupTiming> timings = warmup.getTimings();
+        assertEquals(List.of("products", "customers", "categories", "suppliers", "employees"),
+                timings.stream().map(WarmupTiming::getDataset).collect(Collectors.toList()));
+        assertTrue(timings.toString(), timings.stream().allMatch(WarmupTiming::isSuccessfull));
+        assertEquals(50, timings.get(0).getRows());
+        assertEquals(1, timings.get(1).getRows());
+        long sum = timings.stream().mapToLong(WarmupTiming::getNanos).sum();
+        assertTrue("Total " + warmup.getTotalNanos() / 1_000_000 + " ms, soma " + sum / 1_000_000 + " ms",
+                warmup.getTotalNanos() < sum - 3 * SLOW_READ_MILLIS * 1_000_000);
+        assertEquals(1, reads.get("getCustomers").get());
+    }
+
+    /**
+     * Teste 2: Depois do aquecimento as listas vêm da memória, e gravar recarrega
+     */
+    @Test
+    public void testControllerReadsWarmLists() throws Exception {
+        StartupWarmup warmup = new StartupWarmup(catalog, referenceData);
+        warmup.start();
+        assertTrue(warmup.await(10_000));
+        Map<String, Integer> before = reads.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get()));
+
+        long start = System.nanoTime();
+        assertEquals(1, controller.getCustomers(new Response()).size());
+        controller.getCategories(new Response());
+        controller.getSuppliers(new Response());
+        controller.getEmployees(new Response());
+        assertEquals(50, controller.searchProductsByName("produto", new Response()).size());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < SLOW_READ_MILLIS);
+        assertEquals(before, reads.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get())));
+
+        assertTrue(controller.saveCustomer(new CustomerDTO(0, "João Lima", "11912345678")).isSuccessfull());
+        assertEquals(2, controller.getCustomers(new Response()).size());
+        assertEquals(2, reads.get("getCustomers").get());
+    }
+}
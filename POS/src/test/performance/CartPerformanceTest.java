@@ -6,7 +6,6 @@ import org.junit.After;
 import static org.junit.Assert.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
-import javax.swing.table.DefaultTableModel;
 import model.POSController;
 import model.POSFactory;
 import model.dto.ProductDTO;
@@ -53,11 +52,7 @@ public class CartPerformanceTest {
             cartUI.productsTable.setRowSelectionInterval(0, 0);
             cartUI.quantity.setText("1");
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Act - Medir tempo
             long startTime = System.currentTimeMillis();
@@ -97,11 +92,7 @@ public class CartPerformanceTest {
             cartUI.productsList = products;
             cartUI.populateProductsData();
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             int itemsToAdd = 10;
             
@@ -182,11 +173,7 @@ public class CartPerformanceTest {
             cartUI.productsList = products;
             cartUI.populateProductsData();
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Adicionar vários itens primeiro
             int itemsToAdd = Math.min(5, products.size());
@@ -270,11 +257,7 @@ public class CartPerformanceTest {
             cartUI.productsList = products;
             cartUI.populateProductsData();
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             int itemsToAdd = Math.min(20, products.size());
             
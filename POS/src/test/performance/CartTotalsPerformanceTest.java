@@ -0,0 +1,61 @@
+package test.performance;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import model.Cart;
+import ui.components.CartTableModel;
+
+/**
+ * Testes de Desempenho dos totais do carrinho (model.Cart)
+ * Cada alteração custa o mesmo com 10 ou 1.000 linhas no carrinho
+ */
+public class CartTotalsPerformanceTest {
+
+    private static final int SAMPLES = 20_000;
+
+    /**
+     * Teste de Desempenho 1: Ler de novo um produto e mudar o desconto
+     * Resultado esperado: custo por alteração independente do tamanho do carrinho
+     */
+    @Test
+    public void testUpdatesAreConstantTime() {
+        // aquecimento
+        measure(1_000);
+        measure(10);
+
+        double small = measure(10);
+        double large = measure(1_000);
+        System.out.printf("Atualização do carrinho: %.0f ns com 10 linhas, %.0f ns com 1.000 linhas%n", small, large);
+
+        assertTrue(String.format("Atualização com 1.000 linhas levou %.0f ns", large), large < 50_000);
+        assertTrue("Custo não deve crescer com o número de linhas", large < small * 3 + 500);
+    }
+
+    /**
+     * Mediana em ns de uma leitura repetida mais uma troca de desconto, com
+     * a tabela ligada ao carrinho.
+     */
+    private static double measure(int lines) {
+        Cart cart = new Cart();
+        CartTableModel model = new CartTableModel(cart);
+        model.addTableModelListener(e -> {
+        });
+        for (int id = 1; id <= lines; id++) {
+            cart.add(id, "product " + id, id % 97 + 0.99, 1);
+        }
+        BigDecimal[] discounts = {new BigDecimal("1.00"), new BigDecimal("2.50")};
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            int productId = i % lines + 1;
+            long start = System.nanoTime();
+            cart.add(productId, "product " + productId, productId % 97 + 0.99, 1);
+            cart.setDiscount(discounts[i & 1]);
+            cart.getTotal();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,196 @@
+package test.performance;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.DBReader;
+import dal.db.IConnection;
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import model.dto.ProductDTO;
+import model.dto.Response;
+
+/**
+ * Testes de Desempenho da leitura em fluxo do DAL (DBReader.forEachRecord)
+ * Uma tabela sintética de 1.000.000 produtos é lida numa JVM com 32 MB de
+ * heap: linha a linha ela cabe, numa lista não
+ */
+public class DALStreamingTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final String HEAP = "-Xmx32m";
+
+    /**
+     * Teste de Desempenho 1: 1.000.000 de produtos lidos um a um com 32 MB de heap
+     * Resultado esperado: todas as linhas chegam ao consumidor, sem faltar memória
+     */
+    @Test
+    public void testStreamingUsesConstantMemory() throws Exception {
+        Result result = runInSmallHeap("stream");
+        System.out.printf("forEachProduct de %,d linhas com %s: %s%n", ROWS, HEAP, result.output);
+
+        assertEquals(result.output, 0, result.exitCode);
+        assertEquals("rows=" + ROWS + " sum=" + (long) ROWS * (ROWS + 1) / 2, result.output);
+    }
+
+    /**
+     * Teste de Desempenho 2: A mesma tabela numa lista não cabe no mesmo heap
+     * Resultado esperado: getProducts termina com OutOfMemoryError
+     */
+    @Test
+    public void testListDoesNotFitTheSameHeap() throws Exception {
+        Result result = runInSmallHeap("list");
+
+        assertEquals(result.output, "out of memory", result.output);
+    }
+
+    /**
+     * Teste 3: O comando é só de avanço, com o fetch size de fluxo do MySQL, e
+     * tudo é fechado, mesmo quando o consumidor falha
+     */
+    @Test
+    public void testStatementIsStreamingAndClosed() {
+        SyntheticProducts table = new SyntheticProducts(1_000);
+        DALManager dal = new DALManager(table);
+        Response response = new Response();
+        List<ProductDTO> seen = new ArrayList<>();
+
+        assertEquals(1_000, dal.forEachProduct(seen::add, response));
+        assertTrue(response.isSuccessfull());
+        assertEquals(1_000, seen.size());
+        assertEquals(1_000, seen.get(999).getProductId());
+        assertEquals(Integer.MIN_VALUE, table.fetchSize.get());
+        assertEquals(ResultSet.TYPE_FORWARD_ONLY, table.resultSetType.get());
+        assertEquals(0, table.open.get());
+
+        Response failed = new Response();
+        long read = dal.forEachProduct(product -> {
+            if (product.getProductId() == 10) {
+                throw new IllegalStateException("disco cheio");
+            }
+        }, failed);
+        assertEquals(9, read);
+        assertFalse(failed.isSuccessfull());
+        assertTrue(failed.getErrorMessages().contains("disco cheio"));
+        assertEquals(0, table.open.get());
+        assertEquals(0, DBReader.getOpenHandleCount());
+    }
+
+    /**
+     * Executado na JVM filha: "stream" ou "list".
+     */
+    public static void main(String[] args) {
+        DALManager dal = new DALManager(new SyntheticProducts(ROWS));
+        Response response = new Response();
+        try {
+            if (args[0].equals("stream")) {
+                AtomicLong sum = new AtomicLong();
+                long rows = dal.forEachProduct(product -> sum.addAndGet(product.getProductId()), response);
+                System.out.print("rows=" + rows + " sum=" + sum.get());
+            } else {
+                System.out.print("rows=" + dal.getProducts(response).size());
+            }
+        } catch (OutOfMemoryError ex) {
+            System.out.print("out of memory");
+        }
+        if (!response.isSuccessfull()) {
+            System.out.print(" " + response.getErrorMessages());
+        }
+    }
+
+    private static Result runInSmallHeap(String mode) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, HEAP, "-cp", System.getProperty("java.class.path"),
+                DALStreamingTest.class.getName(), mode).redirectErrorStream(false).start();
+        process.getErrorStream().close();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertTrue("A JVM filha não terminou", process.waitFor(120, TimeUnit.SECONDS));
+        return new Result(process.exitValue(), output);
+    }
+
+    private record Result(int exitCode, String output) {
+    }
+
+    /**
+     * Tabela de produtos gerada enquanto é lida, sem nada guardado na memória.
+     */
+    private static final class SyntheticProducts implements IConnection {
+
+        private static final List<String> COLUMNS = List.of("id", "name", "barcode", "price", "stock_quantity",
+                "category_id", "quantity_type", "suppliers_id");
+
+        private final int rows;
+        final AtomicInteger fetchSize = new AtomicInteger();
+        final AtomicInteger resultSetType = new AtomicInteger();
+        final AtomicInteger open = new AtomicInteger();
+
+        SyntheticProducts(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Connection getConnection() {
+            open.incrementAndGet();
+            return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+                case "prepareStatement" -> {
+                    open.incrementAndGet();
+                    resultSetType.set(args.length == 3 ? (Integer) args[1] : ResultSet.TYPE_SCROLL_INSENSITIVE);
+                    yield statement();
+                }
+                case "close" -> {
+                    open.decrementAndGet();
+                    yield null;
+                }
+                default -> null;
+            });
+        }
+
+        private PreparedStatement statement() {
+            return proxy(PreparedStatement.class, (proxy, method, args) -> switch (method.getName()) {
+                case "setFetchSize" -> {
+                    fetchSize.set((Integer) args[0]);
+                    yield null;
+                }
+                case "executeQuery" -> {
+                    open.incrementAndGet();
+                    yield resultSet();
+                }
+                case "close" -> {
+                    open.decrementAndGet();
+                    yield null;
+                }
+                default -> null;
+            });
+        }
+
+        private ResultSet resultSet() {
+            int[] row = {0};
+            return proxy(ResultSet.class, (proxy, method, args) -> switch (method.getName()) {
+                case "next" -> ++row[0] <= rows;
+                case "findColumn" -> COLUMNS.indexOf((String) args[0]) + 1;
+                case "getInt" -> (Integer) args[0] == 1 ? row[0] : 1;
+                case "getString" -> (Integer) args[0] == 2 ? "Produto " + row[0] : (Integer) args[0] == 3 ? "789" + row[0] : "counted";
+                case "getDouble" -> (Integer) args[0] == 4 ? 1.0 + row[0] % 50 : 100.0;
+                case "close" -> {
+                    open.decrementAndGet();
+                    yield null;
+                }
+                default -> null;
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+    }
+}
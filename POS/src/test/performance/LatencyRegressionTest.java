@@ -0,0 +1,222 @@
+package test.performance;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import dal.DALManager;
+import dal.db.ConnectionPool;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import model.Cart;
+import model.Invoice;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.CustomerDTO;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import model.dto.SaleDTO;
+import test.util.InMemoryDatabase;
+import test.util.LatencyHistogram;
+
+/**
+ * Testes de Desempenho de regressão: cada cenário roda milhares de vezes
+ * depois do aquecimento, e os percentis p50, p95 e p99 são comparados com
+ * os de uma execução anterior na mesma máquina. O teste falha se um
+ * percentil passar da referência mais a tolerância.
+ *
+ * Não faz parte da suíte padrão: latências absolutas só se comparam no
+ * mesmo hardware. Roda com -Dpos.perf.latency=true (ant perf-test). A
+ * primeira execução numa máquina grava a referência e não compara nada.
+ *
+ * Propriedades do sistema:
+ * pos.perf.latency         liga o teste (padrão false)
+ * pos.perf.baseline        arquivo de referência desta máquina (padrão
+ *                          ~/.pos/latency-baseline.properties)
+ * pos.perf.updateBaseline  regrava a referência com os valores medidos
+ * pos.perf.iterations      execuções medidas por cenário (padrão 2000)
+ * pos.perf.tolerance       aumento aceito sobre a referência (padrão 0.5, ou 50%)
+ * pos.perf.slackMicros     diferença ignorada em valores muito pequenos (padrão 50 µs)
+ *
+ * Roda sem tela (java.awt.headless) e usa o banco em memória.
+ */
+public class LatencyRegressionTest {
+
+    private static final double[] PERCENTILES = {50, 95, 99};
+    private static final int PRODUCTS = 500;
+    private static final int WARMUP_DIVISOR = 4;
+
+    private static int iterations;
+    private static double tolerance;
+    private static long slackMicros;
+    private static Path baselineFile;
+    // vazia quando esta máquina ainda não tem referência
+    private static Properties baseline;
+    private static boolean recordBaseline;
+    private static final TreeMap<String, String> measured = new TreeMap<>();
+    // resultados guardados para a JIT não eliminar a operação medida
+    private static volatile long sink;
+
+    private static ConnectionPool pool;
+    private static DALManager dalManager;
+    private static POSController controller;
+    private static List<ProductDTO> products;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        assumeTrue("Regressão de latência desligada; use -Dpos.perf.latency=true", Boolean.getBoolean("pos.perf.latency"));
+        System.setProperty("java.awt.headless", "true");
+        iterations = Integer.getInteger("pos.perf.iterations", 2_000);
+        tolerance = Double.parseDouble(System.getProperty("pos.perf.tolerance", "0.5"));
+        slackMicros = Long.getLong("pos.perf.slackMicros", 50);
+        baselineFile = Path.of(System.getProperty("pos.perf.baseline",
+                Path.of(System.getProperty("user.home"), ".pos", "latency-baseline.properties").toString()));
+        baseline = new Properties();
+        recordBaseline = Boolean.getBoolean("pos.perf.updateBaseline") || !Files.exists(baselineFile);
+        if (recordBaseline) {
+            System.out.println("Gravando a referência desta máquina em " + baselineFile);
+        } else {
+            try (InputStream in = Files.newInputStream(baselineFile)) {
+                baseline.load(in);
+            }
+        }
+
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        for (int id = 1; id <= PRODUCTS; id++) {
+            database.insertProduct(id, "Produto " + id + (id % 2 == 0 ? " integral" : " light"), "789" + id,
+                    1 + id % 50, 1_000_000_000, 1 + id % 10);
+        }
+        pool = new ConnectionPool(database, 4, 60_000);
+        dalManager = new DALManager(pool);
+        controller = new POSController(dalManager, new ProductCatalog(dalManager, 60_000));
+        products = controller.getProducts(new Response());
+    }
+
+    @AfterClass
+    public static void tearDown() throws IOException {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (recordBaseline && !measured.isEmpty()) {
+            Properties properties = new Properties();
+            properties.putAll(measured);
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            try (OutputStream stream = Files.newOutputStream(baselineFile)) {
+                properties.store(stream, "Latências de referência em microssegundos, medidas nesta máquina");
+            }
+        }
+    }
+
+    /**
+     * Teste de Desempenho 1: Carregar todos os produtos do banco
+     */
+    @Test
+    public void testLoadProducts() {
+        measure("loadProducts", iterations / 4, () -> dalManager.getProducts(new Response()).size());
+    }
+
+    /**
+     * Teste de Desempenho 2: Buscar produtos pelo nome
+     */
+    @Test
+    public void testSearch() {
+        String[] texts = {"produto 1", "integral", "light", "to 4"};
+        int[] next = {0};
+        measure("search", iterations,
+                () -> controller.searchProductsByName(texts[next[0]++ % texts.length], new Response()).size());
+    }
+
+    /**
+     * Teste de Desempenho 3: Adicionar 100 itens ao carrinho e ler o total
+     */
+    @Test
+    public void testAddHundredItems() {
+        measure("addHundredItems", iterations, () -> fullCart(100).getTotalMinor());
+    }
+
+    /**
+     * Teste de Desempenho 4: Gravar uma venda de 10 itens
+     */
+    @Test
+    public void testCommitSale() {
+        measure("commitSale", iterations, () -> {
+            Response response = controller.saveSale(sale(fullCart(10)));
+            assertTrue(response.getErrorMessages(), response.isSuccessfull());
+            return 1;
+        });
+    }
+
+    /**
+     * Teste de Desempenho 5: Montar a nota de uma venda de 20 itens
+     */
+    @Test
+    public void testRenderInvoice() {
+        Cart cart = fullCart(20);
+        SaleDTO sale = sale(cart);
+        sale.setSaleId(12_345);
+        sale.setCustomer(new CustomerDTO(7, "Maria Souza", "11987654321"));
+        LocalDateTime printedAt = LocalDateTime.of(2026, 3, 2, 10, 30);
+        measure("renderInvoice", iterations, () -> Invoice.format(sale, cart, printedAt).length());
+    }
+
+    private static Cart fullCart(int lines) {
+        Cart cart = new Cart();
+        for (int i = 0; i < lines; i++) {
+            cart.add(products.get(i % products.size()), 1 + i % 3);
+        }
+        return cart;
+    }
+
+    private static SaleDTO sale(Cart cart) {
+        SaleDTO sale = new SaleDTO();
+        sale.setItems(new ArrayList<>(cart.toSaleItems()));
+        sale.setTotalAmount(cart.getTotal().doubleValue());
+        return sale;
+    }
+
+    /**
+     * Aquece, mede cada execução e compara os percentis com a referência.
+     */
+    private static void measure(String scenario, int runs, LongSupplier operation) {
+        long blackhole = 0;
+        for (int i = 0; i < Math.max(1, runs / WARMUP_DIVISOR); i++) {
+            blackhole += operation.getAsLong();
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            blackhole += operation.getAsLong();
+            histogram.record(System.nanoTime() - start);
+        }
+        sink = blackhole;
+        histogram.print(scenario, System.out);
+
+        List<String> regressions = new ArrayList<>();
+        for (double percentile : PERCENTILES) {
+            String key = scenario + ".p" + (int) percentile;
+            long micros = histogram.percentile(percentile) / 1_000;
+            measured.put(key, Long.toString(micros));
+            if (recordBaseline) {
+                continue;
+            }
+            String reference = baseline.getProperty(key);
+            assertNotNull("Sem referência para " + key + " em " + baselineFile + "; use -Dpos.perf.updateBaseline=true", reference);
+            long limit = (long) (Long.parseLong(reference.trim()) * (1 + tolerance)) + slackMicros;
+            if (micros > limit) {
+                regressions.add(String.format("%s = %d µs (referência %s µs, limite %d µs)", key, micros, reference, limit));
+            }
+        }
+        assertTrue("Regressão de desempenho: " + regressions, regressions.isEmpty());
+    }
+}
@@ -0,0 +1,88 @@
+package test.performance;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import model.dto.Response;
+import model.productimport.ImportProgress;
+import model.productimport.ProductImporter;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Desempenho da importação de produtos (model.productimport.ProductImporter)
+ * Um catálogo de 200 mil linhas é importado e depois reimportado (só
+ * atualizações) no banco em memória, em blocos de 1.000. A vazão é só
+ * impressa: a do banco em memória não diz nada sobre a do MySQL, que se
+ * mede com o benchmark.ProductImportBenchmark (ver o javadoc dele)
+ */
+public class ProductImportPerformanceTest {
+
+    private static final int ROWS = 200_000;
+
+    private InMemoryDatabase database;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        database = catalog();
+        file = Files.createTempFile("pos-import", ".csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("name,barcode,price,stock,category,supplier,quantity_type\n");
+            for (int i = 1; i <= ROWS; i++) {
+                out.write("Produto " + i + ",789" + (1_000_000_000L + i) + "," + (i % 500 + 0.99) + "," + i % 80
+                        + ",Categoria " + (i % 20 + 1) + ",Fornecedor " + (i % 7 + 1) + "," + (i % 10 == 0 ? "weighted" : "counted") + "\n");
+            }
+        }
+    }
+
+    private static InMemoryDatabase catalog() {
+        InMemoryDatabase db = new InMemoryDatabase();
+        db.createPosSchema();
+        db.setUniqueKey("products", "barcode");
+        for (int i = 1; i <= 20; i++) {
+            db.insert("category", i, "Categoria " + i);
+            db.insert("suppliers", i, "Fornecedor " + i, "11" + (90_000_000 + i));
+        }
+        return db;
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Teste de Desempenho 1: 200 mil produtos novos e depois os mesmos atualizados
+     * Resultado esperado: todas as linhas gravadas nas duas passadas, sem
+     * duplicar produtos
+     */
+    @Test
+    public void testImportAtScale() {
+        ProductImporter importer = new ProductImporter(new DALManager(database), ProductImporter.DEFAULT_CHUNK_SIZE,
+                Runtime.getRuntime().availableProcessors());
+
+        ImportProgress inserted = run(importer, "inserindo");
+        assertEquals(ROWS, inserted.getRowsWritten());
+        assertEquals(ROWS, database.rowCount("products"));
+
+        ImportProgress updated = run(importer, "atualizando");
+        assertEquals(ROWS, updated.getRowsWritten());
+        assertEquals("Os códigos de barras já existentes são atualizados", ROWS, database.rowCount("products"));
+    }
+
+    private ImportProgress run(ProductImporter importer, String label) {
+        Response response = new Response();
+        ImportProgress progress = importer.importFile(file, report -> {
+        }, response);
+        System.out.printf("Importação de %,d linhas %s: %s%n", ROWS, label, progress);
+        assertTrue(response.getErrorMessages(), response.isSuccessfull());
+        return progress;
+    }
+}
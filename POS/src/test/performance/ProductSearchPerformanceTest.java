@@ -0,0 +1,91 @@
+package test.performance;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import model.ProductSearchIndex;
+import model.dto.ProductDTO;
+
+/**
+ * Testes de Desempenho da busca de produtos por nome (model.ProductSearchIndex)
+ * Mede a latência da busca com 100 mil e 1 milhão de produtos
+ */
+public class ProductSearchPerformanceTest {
+
+    private static final String[] WORDS = {
+        "oil", "rice", "sugar", "milk", "bread", "butter", "cheese", "tea", "coffee", "salt",
+        "flour", "juice", "water", "soap", "shampoo", "biscuit", "chocolate", "honey", "jam", "yogurt",
+        "chicken", "beef", "fish", "apple", "banana", "mango", "orange", "tomato", "potato", "onion",
+        "garlic", "ginger", "pepper", "chilli", "lentil", "bean", "pasta", "noodle", "sauce", "vinegar"
+    };
+    private static final String[] QUERIES = {
+        "o", "ri", "oil", "sug", "chocolate", "mango ju", "xyz", "ee", "pasta sauce", "p-12"
+    };
+    private static final int LIMIT = 200;
+    private static final double MAX_ACCEPTABLE_P99_MS = 100;
+
+    /**
+     * Teste de Desempenho 1: Busca com 100 mil produtos
+     */
+    @Test
+    public void testSearchLatency100k() {
+        measure(100_000);
+    }
+
+    /**
+     * Teste de Desempenho 2: Busca com 1 milhão de produtos
+     */
+    @Test
+    public void testSearchLatency1M() {
+        measure(1_000_000);
+    }
+
+    private void measure(int productCount) {
+        ArrayList<ProductDTO> products = generate(productCount);
+
+        long start = System.nanoTime();
+        ProductSearchIndex index = new ProductSearchIndex(products);
+        double buildMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        for (int i = 0; i < 2_000; i++) {
+            index.search(QUERIES[i % QUERIES.length], LIMIT);
+        }
+
+        System.out.printf("Busca em %,d produtos (índice criado em %.0f ms)%n", productCount, buildMs);
+        double worstP99 = 0;
+        for (String query : QUERIES) {
+            long[] samples = new long[500];
+            int found = 0;
+            for (int i = 0; i < samples.length; i++) {
+                long t = System.nanoTime();
+                found = index.search(query, LIMIT).size();
+                samples[i] = System.nanoTime() - t;
+            }
+            Arrays.sort(samples);
+            double p50 = samples[samples.length / 2] / 1_000_000.0;
+            double p99 = samples[samples.length * 99 / 100] / 1_000_000.0;
+            worstP99 = Math.max(worstP99, p99);
+            System.out.printf("  %-12s resultados=%3d  p50=%.3f ms  p99=%.3f ms%n", "\"" + query + "\"", found, p50, p99);
+        }
+
+        assertTrue(String.format("p99 da busca deve ficar abaixo de %.0f ms, mas foi %.3f ms",
+                MAX_ACCEPTABLE_P99_MS, worstP99), worstP99 < MAX_ACCEPTABLE_P99_MS);
+    }
+
+    private static ArrayList<ProductDTO> generate(int count) {
+        Random random = new Random(42);
+        ArrayList<ProductDTO> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setProductId(i);
+            product.setProductName(WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " P-" + i);
+            product.setBarcode(String.valueOf(1_000_000_000L + i));
+            product.setPrice(1 + random.nextInt(500));
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,130 @@
+package test.performance;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Desempenho da gravação de vendas (dal.ObjectAdder.addSale)
+ * Com latência de rede simulada, o tempo de uma venda depende do número de
+ * idas e voltas ao banco e não do número de itens
+ */
+public class SaleCommitPerformanceTest {
+
+    private static final long RTT_MICROS = 2_000;
+    // as 6 da venda mais 3 lotes para os totais por hora dos relatórios
+    private static final int MAX_ROUND_TRIPS = 9;
+
+    /**
+     * Teste de Desempenho 1: Idas e voltas constantes para 1, 10 e 50 itens
+     */
+    @Test
+    public void testRoundTripsDoNotGrowWithLines() {
+        for (int lines : new int[]{1, 10, 50}) {
+            InMemoryDatabase database = database();
+            DALManager dalManager = new DALManager(database);
+            Response response = new Response();
+
+            dalManager.saveSale(sale(lines), response);
+
+            assertTrue(response.isSuccessfull());
+            assertTrue("Venda de " + lines + " itens usou " + database.getRoundTrips() + " idas e voltas",
+                    database.getRoundTrips() <= MAX_ROUND_TRIPS);
+        }
+    }
+
+    /**
+     * Teste de Desempenho 2: Venda de 50 itens com 2 ms de latência
+     * Resultado esperado: tempo próximo de (idas e voltas x latência) e muito
+     * menor que gravar item por item
+     */
+    @Test
+    public void testFiftyLineSaleLatency() throws Exception {
+        InMemoryDatabase database = database();
+        database.setRoundTripLatencyMicros(RTT_MICROS);
+        DALManager dalManager = new DALManager(database);
+        for (int i = 0; i < 30; i++) {
+            dalManager.saveSale(sale(50), new Response());
+        }
+
+        long[] samples = new long[10];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            dalManager.saveSale(sale(50), new Response());
+            samples[i] = System.nanoTime() - start;
+        }
+        java.util.Arrays.sort(samples);
+        double batchedMs = samples[samples.length / 2] / 1_000_000.0;
+
+        InMemoryDatabase naiveDatabase = database();
+        naiveDatabase.setRoundTripLatencyMicros(RTT_MICROS);
+        long start = System.nanoTime();
+        saveRowByRow(naiveDatabase, sale(50));
+        double naiveMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        double expectedMs = MAX_ROUND_TRIPS * RTT_MICROS / 1_000.0;
+        System.out.printf("Venda de 50 itens: em lote %.1f ms, item por item %.1f ms (%d idas e voltas)%n",
+                batchedMs, naiveMs, naiveDatabase.getRoundTrips());
+
+        assertTrue(String.format("Venda em lote levou %.1f ms", batchedMs), batchedMs < expectedMs * 3);
+        assertTrue("Gravação em lote deve ser ao menos 5x mais rápida", batchedMs * 5 < naiveMs);
+    }
+
+    private static void saveRowByRow(InMemoryDatabase database, SaleDTO sale) throws Exception {
+        try (Connection connection = database.getConnection()) {
+            try (PreparedStatement header = connection.prepareStatement(
+                    "INSERT INTO sales (customer_id, sale_date, total_amount) VALUES (?, ?, ?)")) {
+                header.setNull(1, java.sql.Types.INTEGER);
+                header.setTimestamp(2, new java.sql.Timestamp(System.currentTimeMillis()));
+                header.setDouble(3, sale.getTotalAmount());
+                header.executeUpdate();
+            }
+            for (SaleItemDTO item : sale.getItems()) {
+                try (PreparedStatement stock = connection.prepareStatement(
+                        "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ?")) {
+                    stock.setInt(1, item.getQuantity());
+                    stock.setInt(2, item.getProductId());
+                    stock.executeUpdate();
+                }
+                try (PreparedStatement line = connection.prepareStatement(
+                        "INSERT INTO sale_items (sale_id, product_id, product_name, quantity, unit_price, total_price) VALUES (?, ?, ?, ?, ?, ?)")) {
+                    line.setInt(1, 1);
+                    line.setInt(2, item.getProductId());
+                    line.setString(3, item.getProductName());
+                    line.setInt(4, item.getQuantity());
+                    line.setDouble(5, item.getPrice());
+                    line.setDouble(6, item.getTotal());
+                    line.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private static InMemoryDatabase database() {
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        for (int id = 1; id <= 50; id++) {
+            database.insertProduct(id, "product " + id, "B" + id, id, 1_000_000, 1);
+        }
+        return database;
+    }
+
+    private static SaleDTO sale(int lines) {
+        SaleDTO sale = new SaleDTO();
+        List<SaleItemDTO> items = new ArrayList<>();
+        for (int id = 1; id <= lines; id++) {
+            items.add(new SaleItemDTO(id, "product " + id, id, 1));
+        }
+        sale.setItems(items);
+        sale.setTotalAmount(items.stream().mapToDouble(SaleItemDTO::getTotal).sum());
+        return sale;
+    }
+}
@@ -0,0 +1,103 @@
+package test.performance;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import model.SalesColumnStore;
+import model.dto.ReportRowDTO;
+import model.dto.SalesGrouping;
+import model.dto.SalesQueryDTO;
+
+/**
+ * Testes de Desempenho das consultas livres sobre as linhas de venda (model.SalesColumnStore)
+ * Agrupar 20 milhões de linhas leva menos de 200 ms numa máquina de 8 núcleos;
+ * com menos núcleos o limite cresce na mesma proporção
+ */
+public class SalesColumnStorePerformanceTest {
+
+    private static final int LINES = 20_000_000;
+    private static final int PRODUCTS = 5_000;
+    private static final int CATEGORIES = 20;
+    private static final int CUSTOMERS = 2_000;
+    private static final int TARGET_CORES = 8;
+    private static final long TARGET_MILLIS = 200;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    private static SalesColumnStore store;
+
+    @BeforeClass
+    public static void fillStore() {
+        store = new SalesColumnStore(LINES);
+        LocalDateTime start = FIRST_DAY.atStartOfDay();
+        long minutes = 365L * 24 * 60;
+        // um ano de linhas, cerca de 38 por minuto
+        for (int i = 0; i < LINES; i++) {
+            store.appendLine(start.plusMinutes(i * minutes / LINES), i % PRODUCTS, i % CATEGORIES, (i * 31) % CUSTOMERS,
+                    1 + i % 4, 100 + (i * 7L) % 2_000);
+        }
+    }
+
+    @AfterClass
+    public static void releaseStore() {
+        store = null;
+    }
+
+    /**
+     * Teste de Desempenho 1: Agrupar o ano inteiro por categoria
+     */
+    @Test
+    public void testGroupByCategory() {
+        List<ReportRowDTO> rows = measure("por categoria", new SalesQueryDTO(null, null, SalesGrouping.Category));
+        assertEquals(CATEGORIES, rows.size());
+        assertEquals(LINES, rows.stream().mapToLong(ReportRowDTO::getCount).sum());
+    }
+
+    /**
+     * Teste de Desempenho 2: Filtrar meio ano e 5 categorias, agrupando por produto
+     */
+    @Test
+    public void testFilteredGroupByProduct() {
+        SalesQueryDTO query = new SalesQueryDTO(FIRST_DAY, FIRST_DAY.plusMonths(6).minusDays(1), SalesGrouping.Product);
+        query.setCategoryIds(Set.of(1, 3, 5, 7, 9));
+        List<ReportRowDTO> rows = measure("por produto com filtro", query);
+        assertEquals("Produtos das 5 categorias", PRODUCTS / 4, rows.size());
+    }
+
+    /**
+     * Teste de Desempenho 3: Agrupar o ano inteiro por dia
+     */
+    @Test
+    public void testGroupByDay() {
+        List<ReportRowDTO> rows = measure("por dia", new SalesQueryDTO(null, null, SalesGrouping.Day));
+        assertEquals(365, rows.size());
+    }
+
+    private static List<ReportRowDTO> measure(String name, SalesQueryDTO query) {
+        List<ReportRowDTO> rows = null;
+        // aquecimento
+        for (int i = 0; i < 5; i++) {
+            rows = store.query(query);
+        }
+        long[] samples = new long[9];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            rows = store.query(query);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        long median = samples[samples.length / 2];
+        int cores = Math.min(TARGET_CORES, ForkJoinPool.getCommonPoolParallelism());
+        long limit = TARGET_MILLIS * TARGET_CORES / Math.max(1, cores);
+        System.out.printf("Agrupamento %s de %d linhas: %d ms (%d núcleos, limite %d ms)%n",
+                name, LINES, median, cores, limit);
+        assertTrue("Agrupamento " + name + " levou " + median + " ms", median < limit);
+        return rows;
+    }
+}
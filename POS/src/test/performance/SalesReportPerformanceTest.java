@@ -0,0 +1,262 @@
+package test.performance;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.DBReader;
+import dal.db.ConnectionPool;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.ReportDimension;
+import model.dto.ReportPeriod;
+import model.dto.ReportRowDTO;
+import model.dto.Response;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Desempenho dos relatórios de vendas (POSController.getRevenueReport e getSalesBreakdown)
+ * Testes 1 e 2: só a consulta do relatório, sobre os totais por hora de um
+ * ano de 50 milhões de linhas de venda, somados aqui em memória e carregados
+ * prontos. Teste 3: o caminho completo, com vendas gravadas pelo DAL, que
+ * soma cada uma nos totais (ObjectAdder.addToRollups), e o relatório
+ * comparado com a soma das próprias linhas de venda
+ */
+public class SalesReportPerformanceTest {
+
+    private static final int YEAR = 2025;
+    private static final int HOURS = 365 * 24;
+    private static final int SALES = 10_000_000;
+    private static final int LINES_PER_SALE = 5;
+    private static final int CASHIERS = 3;
+    private static final int CATEGORIES = 20;
+    private static final long MAX_REPORT_MILLIS = 1_000;
+    private static final int MAINTAINED_SALES = 20_000;
+    private static final int MAINTAINED_PRODUCTS = 50;
+
+    private static long[][] cashierSales;
+    private static long[][] cashierUnits;
+    private static long[][] cashierMinor;
+    private static long[][] categoryLines;
+    private static long[][] categoryUnits;
+    private static long[][] categoryMinor;
+
+    private InMemoryDatabase database;
+    private ConnectionPool pool;
+    private POSController controller;
+
+    /**
+     * Gera as vendas do ano uma linha por vez e soma cada linha no total da
+     * sua hora, como a gravação da venda faria.
+     */
+    @BeforeClass
+    public static void generateSales() {
+        cashierSales = new long[HOURS][CASHIERS];
+        cashierUnits = new long[HOURS][CASHIERS];
+        cashierMinor = new long[HOURS][CASHIERS];
+        categoryLines = new long[HOURS][CATEGORIES];
+        categoryUnits = new long[HOURS][CATEGORIES];
+        categoryMinor = new long[HOURS][CATEGORIES];
+        for (int sale = 0; sale < SALES; sale++) {
+            int hour = sale % HOURS;
+            int cashier = sale % CASHIERS;
+            cashierSales[hour][cashier]++;
+            for (int line = 0; line < LINES_PER_SALE; line++) {
+                int category = (sale * LINES_PER_SALE + line) % CATEGORIES;
+                int units = 1 + (sale + line) % 3;
+                long minor = units * (100L + (sale * 7L + line * 13L) % 900);
+                cashierUnits[hour][cashier] += units;
+                cashierMinor[hour][cashier] += minor;
+                categoryLines[hour][category]++;
+                categoryUnits[hour][category] += units;
+                categoryMinor[hour][category] += minor;
+            }
+        }
+    }
+
+    @Before
+    public void setUp() {
+        database = new InMemoryDatabase();
+        database.createPosSchema();
+        LocalDateTime start = LocalDate.of(YEAR, 1, 1).atStartOfDay();
+        for (int hour = 0; hour < HOURS; hour++) {
+            Timestamp bucket = Timestamp.valueOf(start.plusHours(hour));
+            for (int cashier = 0; cashier < CASHIERS; cashier++) {
+                database.insert("sales_hourly_cashier", bucket, "cashier" + cashier, cashierSales[hour][cashier],
+                        cashierUnits[hour][cashier], BigDecimal.valueOf(cashierMinor[hour][cashier], 2));
+            }
+            for (int category = 0; category < CATEGORIES; category++) {
+                database.insert("sales_hourly_category", bucket, category + 1, categoryUnits[hour][category],
+                        BigDecimal.valueOf(categoryMinor[hour][category], 2), categoryLines[hour][category]);
+            }
+        }
+        pool = new ConnectionPool(database, 4, 60_000);
+        DALManager dalManager = new DALManager(pool);
+        controller = new POSController(dalManager, new ProductCatalog(dalManager, 60_000));
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Teste de Desempenho 1: Faturamento mês a mês de um ano inteiro, lido dos totais por hora
+     * Resultado esperado: menos de 1 s e total igual à soma das 50 milhões de linhas
+     */
+    @Test
+    public void testYearlyRevenueByMonthFromHourlyTotals() {
+        LocalDate from = LocalDate.of(YEAR, 1, 1);
+        LocalDate to = LocalDate.of(YEAR, 12, 31);
+        // aquecimento
+        controller.getRevenueReport(from, to, ReportPeriod.Month, new Response());
+
+        Response response = new Response();
+        long start = System.nanoTime();
+        List<ReportRowDTO> months = controller.getRevenueReport(from, to, ReportPeriod.Month, response);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("Faturamento mensal de %d linhas de venda: %d ms (%d linhas de totais por hora)%n",
+                (long) SALES * LINES_PER_SALE, millis, database.rowCount("sales_hourly_cashier"));
+
+        assertTrue(response.isSuccessfull());
+        assertEquals(12, months.size());
+        long sales = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (ReportRowDTO month : months) {
+            sales += month.getCount();
+            revenue = revenue.add(month.getRevenue());
+        }
+        assertEquals(SALES, sales);
+        assertEquals(0, BigDecimal.valueOf(sum(cashierMinor), 2).compareTo(revenue));
+        assertTrue("Relatório do ano levou " + millis + " ms", millis < MAX_REPORT_MILLIS);
+    }
+
+    /**
+     * Teste de Desempenho 2: Totais por categoria de um ano inteiro, lidos dos totais por hora
+     * Resultado esperado: menos de 1 s e uma linha por categoria com as 50 milhões de linhas somadas
+     */
+    @Test
+    public void testYearlyBreakdownByCategoryFromHourlyTotals() {
+        LocalDate from = LocalDate.of(YEAR, 1, 1);
+        LocalDate to = LocalDate.of(YEAR, 12, 31);
+        controller.getSalesBreakdown(ReportDimension.Category, from, to, new Response());
+
+        Response response = new Response();
+        long start = System.nanoTime();
+        List<ReportRowDTO> categories = controller.getSalesBreakdown(ReportDimension.Category, from, to, response);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("Totais por categoria de %d linhas de venda: %d ms (%d linhas de totais por hora)%n",
+                (long) SALES * LINES_PER_SALE, millis, database.rowCount("sales_hourly_category"));
+
+        assertTrue(response.isSuccessfull());
+        assertEquals(CATEGORIES, categories.size());
+        long lines = 0;
+        long units = 0;
+        for (ReportRowDTO category : categories) {
+            lines += category.getCount();
+            units += category.getQuantity();
+        }
+        assertEquals((long) SALES * LINES_PER_SALE, lines);
+        assertEquals(sum(categoryUnits), units);
+        assertTrue("Relatório do ano levou " + millis + " ms", millis < MAX_REPORT_MILLIS);
+    }
+
+    /**
+     * Teste de Desempenho 3: 20 mil vendas de 5 linhas gravadas pelo DAL, cada
+     * uma somada nos totais por hora na mesma transação
+     * Resultado esperado: totais por produto iguais ao GROUP BY das linhas de
+     * venda, lendo muito menos linhas
+     */
+    @Test
+    public void testRollupsMaintainedBySaveSaleMatchTheSaleLines() {
+        InMemoryDatabase lines = new InMemoryDatabase();
+        lines.createPosSchema();
+        for (int id = 1; id <= MAINTAINED_PRODUCTS; id++) {
+            lines.insertProduct(id, "product " + id, "B" + id, 1 + id % 9 * 0.25, 1_000_000_000, 1 + id % CATEGORIES);
+        }
+        DALManager dal = new DALManager(lines);
+        LocalDateTime start = LocalDate.of(YEAR, 3, 1).atStartOfDay();
+        long statements = lines.getStatementsExecuted();
+        long begin = System.nanoTime();
+        for (int n = 0; n < MAINTAINED_SALES; n++) {
+            Response saved = new Response();
+            dal.saveSale(maintainedSale(n, start), saved);
+            assertTrue(saved.getErrorMessages(), saved.isSuccessfull());
+        }
+        double perSaleMicros = (System.nanoTime() - begin) / 1_000.0 / MAINTAINED_SALES;
+        double statementsPerSale = (lines.getStatementsExecuted() - statements) / (double) MAINTAINED_SALES;
+
+        Response response = new Response();
+        LocalDateTime from = start;
+        LocalDateTime to = start.plusMonths(1);
+        begin = System.nanoTime();
+        List<ReportRowDTO> fromRollups = dal.getSalesBreakdown(ReportDimension.Product, from, to, response);
+        double rollupMillis = (System.nanoTime() - begin) / 1_000_000.0;
+        begin = System.nanoTime();
+        Map<Integer, Object[]> fromLines = new HashMap<>();
+        ArrayList<Object[]> grouped = new DBReader(lines).getRecords(
+                "SELECT product_id, COUNT(*) AS row_count, SUM(quantity) AS quantity, SUM(total_price) AS revenue FROM sale_items GROUP BY product_id",
+                response, (ResultSet resultSet) -> new Object[]{resultSet.getInt(1), resultSet.getLong(2), resultSet.getLong(3),
+                    resultSet.getBigDecimal(4)});
+        double linesMillis = (System.nanoTime() - begin) / 1_000_000.0;
+        for (Object[] row : grouped) {
+            fromLines.put((Integer) row[0], row);
+        }
+        System.out.printf("Gravação de %,d vendas com os totais por hora: %.0f µs e %.1f comandos por venda%n",
+                MAINTAINED_SALES, perSaleMicros, statementsPerSale);
+        System.out.printf("Totais por produto: %.1f ms sobre %,d totais por hora, %.1f ms sobre %,d linhas de venda%n",
+                rollupMillis, lines.rowCount("sales_hourly_product"), linesMillis, lines.rowCount("sale_items"));
+
+        assertTrue(response.getErrorMessages(), response.isSuccessfull());
+        assertEquals(MAINTAINED_PRODUCTS, fromRollups.size());
+        for (ReportRowDTO product : fromRollups) {
+            Object[] line = fromLines.get(Integer.valueOf(product.getKey()));
+            assertEquals(((Long) line[1]).longValue(), product.getCount());
+            assertEquals(((Long) line[2]).longValue(), product.getQuantity());
+            assertEquals(0, ((BigDecimal) line[3]).setScale(2, RoundingMode.HALF_UP).compareTo(product.getRevenue()));
+        }
+        assertTrue(lines.rowCount("sales_hourly_product") * 10 < lines.rowCount("sale_items"));
+    }
+
+    /**
+     * Venda n: 5 linhas de produtos seguidos, uma venda a cada 20 segundos,
+     * por um de 3 caixas.
+     */
+    private static SaleDTO maintainedSale(int n, LocalDateTime start) {
+        List<SaleItemDTO> items = new ArrayList<>();
+        for (int line = 0; line < LINES_PER_SALE; line++) {
+            int productId = (n * LINES_PER_SALE + line) % MAINTAINED_PRODUCTS + 1;
+            items.add(new SaleItemDTO(productId, "product " + productId, 1 + productId % 9 * 0.25, 1 + (n + line) % 3));
+        }
+        SaleDTO sale = new SaleDTO();
+        sale.setItems(items);
+        sale.setTotalAmount(items.stream().mapToDouble(SaleItemDTO::getTotal).sum());
+        sale.setSaleDate(start.plusSeconds(n * 20L));
+        sale.setCashier("cashier" + n % CASHIERS);
+        return sale;
+    }
+
+    private static long sum(long[][] values) {
+        long total = 0;
+        for (long[] hour : values) {
+            for (long value : hour) {
+                total += value;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,84 @@
+package test.performance;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.db.ConnectionPool;
+import dal.db.PoolStatistics;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes de Desempenho do cache de prepared statements (dal.db.StatementCache)
+ * 100.000 chamadas a updateProduct com e sem cache, com custo de análise do
+ * SQL simulado no banco em memória
+ */
+public class StatementCachePerformanceTest {
+
+    private static final int CALLS = 100_000;
+    private static final long PREPARE_COST_MICROS = 5;
+
+    /**
+     * Teste de Desempenho 1: 100.000 updateProduct com e sem cache
+     * Resultado esperado: com cache o SQL é preparado uma vez e as chamadas
+     * ficam mais rápidas
+     */
+    @Test
+    public void testUpdateProductWithAndWithoutCache() {
+        // aquecimento
+        run(0, 10_000);
+        run(64, 10_000);
+
+        Result uncached = run(0, CALLS);
+        Result cached = run(64, CALLS);
+        System.out.printf("%,d updateProduct: sem cache %.0f ms (%,d prepares), com cache %.0f ms (%,d prepares, acertos %.4f)%n",
+                CALLS, uncached.millis, uncached.prepared, cached.millis, cached.prepared,
+                cached.statistics.getStatementCacheHitRatio());
+
+        assertEquals(CALLS, uncached.prepared);
+        assertEquals("Com cache o SQL deve ser preparado uma vez", 1, cached.prepared);
+        assertEquals(CALLS - 1, cached.statistics.getStatementCacheHits());
+        assertEquals("Statements sem cache devem ser fechados", 0, uncached.openStatements);
+        assertTrue(String.format("Com cache levou %.0f ms, sem cache %.0f ms", cached.millis, uncached.millis),
+                cached.millis * 1.5 < uncached.millis);
+    }
+
+    private static Result run(int cacheSize, int calls) {
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insertProduct(1, "oil", "111", 260.0, 1_000, 1);
+        database.setPrepareCostMicros(PREPARE_COST_MICROS);
+        ConnectionPool pool = new ConnectionPool(database, 2, 60_000);
+        pool.setStatementCacheSize(cacheSize);
+        DALManager dalManager = new DALManager(pool);
+        ProductDTO product = new ProductDTO();
+        product.setProductId(1);
+        product.setProductName("oil");
+        product.setBarcode("111");
+        Response response = new Response();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            product.setPrice(200 + i % 100);
+            product.setStockQuantity(i % 1_000);
+            dalManager.updateProduct(product, response);
+            response.messagesList.clear();
+        }
+        Result result = new Result();
+        result.millis = (System.nanoTime() - start) / 1_000_000.0;
+        result.prepared = database.getStatementsPrepared();
+        result.openStatements = cacheSize == 0 ? database.getOpenStatements() : 0;
+        result.statistics = pool.getStatistics();
+        pool.shutdown();
+        return result;
+    }
+
+    private static class Result {
+
+        double millis;
+        int prepared;
+        int openStatements;
+        PoolStatistics statistics;
+    }
+}
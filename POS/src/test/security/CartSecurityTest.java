@@ -6,7 +6,6 @@ import org.junit.After;
 import static org.junit.Assert.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
-import javax.swing.table.DefaultTableModel;
 import model.POSController;
 import model.POSFactory;
 import model.dto.ProductDTO;
@@ -86,11 +85,7 @@ public class CartSecurityTest {
             cartUI.populateProductsData();
             cartUI.productsTable.setRowSelectionInterval(0, 0);
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Entradas maliciosas
             String[] maliciousInputs = {
@@ -143,11 +138,7 @@ public class CartSecurityTest {
             cartUI.productsList = products;
             cartUI.populateProductsData();
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Tentar selecionar índice inválido
             int invalidIndex = products.size() + 100;
@@ -189,11 +180,7 @@ public class CartSecurityTest {
             cartUI.populateProductsData();
             cartUI.productsTable.setRowSelectionInterval(0, 0);
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Valores extremos
             String[] extremeValues = {
@@ -236,11 +223,7 @@ public class CartSecurityTest {
         cartUI.productsTable.clearSelection();
         cartUI.quantity.setText("1");
         
-        DefaultTableModel cartModel = new DefaultTableModel(
-            null,
-            new String[]{"Name", "Price", "Quantity", "Total"}
-        );
-        cartUI.cartTable.setModel(cartModel);
+        cartUI.initializeCart();
         int initialCartSize = cartUI.cartTable.getRowCount();
         
         // Act - Tentar adicionar sem seleção válida
@@ -272,11 +255,7 @@ public class CartSecurityTest {
             cartUI.populateProductsData();
             cartUI.productsTable.setRowSelectionInterval(0, 0);
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Tipos incorretos
             String[] invalidTypes = {
@@ -327,11 +306,7 @@ public class CartSecurityTest {
             cartUI.populateProductsData();
             cartUI.productsTable.setRowSelectionInterval(0, 0);
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // String muito longa
             StringBuilder longString = new StringBuilder();
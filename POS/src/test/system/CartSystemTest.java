@@ -6,7 +6,6 @@ import org.junit.After;
 import static org.junit.Assert.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
-import javax.swing.table.DefaultTableModel;
 import model.POSController;
 import model.POSFactory;
 import model.dto.ProductDTO;
@@ -62,11 +61,7 @@ public class CartSystemTest {
             cartUI.quantity.setText("1");
             
             // Verificar estado antes da ação
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             int initialCartSize = cartUI.cartTable.getRowCount();
             
             // Act - Simular ação do usuário (clicar em adicionar)
@@ -107,11 +102,7 @@ public class CartSystemTest {
             cartUI.productsList = products;
             cartUI.populateProductsData();
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Act - Adicionar primeiro item
             cartUI.productsTable.setRowSelectionInterval(0, 0);
@@ -178,11 +169,7 @@ public class CartSystemTest {
                 cartUI.productsTable.setRowSelectionInterval(0, 0);
                 cartUI.quantity.setText("1");
                 
-                DefaultTableModel cartModel = new DefaultTableModel(
-                    null,
-                    new String[]{"Name", "Price", "Quantity", "Total"}
-                );
-                cartUI.cartTable.setModel(cartModel);
+                cartUI.initializeCart();
                 
                 // Act
                 ActionEvent event = new ActionEvent(
@@ -210,11 +197,7 @@ public class CartSystemTest {
         cartUI.productsTable.clearSelection();
         cartUI.quantity.setText("1");
         
-        DefaultTableModel cartModel = new DefaultTableModel(
-            null,
-            new String[]{"Name", "Price", "Quantity", "Total"}
-        );
-        cartUI.cartTable.setModel(cartModel);
+        cartUI.initializeCart();
         int initialSize = cartUI.cartTable.getRowCount();
         
         // Act
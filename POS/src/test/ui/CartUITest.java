@@ -6,7 +6,7 @@ import org.junit.After;
 import static org.junit.Assert.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import model.POSController;
 import model.POSFactory;
 import model.dto.ProductDTO;
@@ -103,7 +103,7 @@ public class CartUITest {
             cartUI.populateProductsData();
             
             // Assert
-            DefaultTableModel model = (DefaultTableModel) cartUI.productsTable.getModel();
+            TableModel model = cartUI.productsTable.getModel();
             assertEquals("Tabela de produtos deve ter 3 colunas", 
                 3, model.getColumnCount());
             assertEquals("Primeira coluna deve ser 'Name'", 
@@ -126,7 +126,7 @@ public class CartUITest {
         cartUI.initializeCart();
         
         // Assert
-        DefaultTableModel model = (DefaultTableModel) cartUI.cartTable.getModel();
+        TableModel model = cartUI.cartTable.getModel();
         assertEquals("Tabela do carrinho deve ter 4 colunas", 
             4, model.getColumnCount());
         assertEquals("Primeira coluna deve ser 'Name'", 
@@ -156,11 +156,7 @@ public class CartUITest {
             cartUI.productsTable.setRowSelectionInterval(0, 0);
             cartUI.quantity.setText("1");
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             int initialRowCount = cartUI.cartTable.getRowCount();
             String initialTotal = cartUI.totalofcart.getText();
@@ -198,11 +194,7 @@ public class CartUITest {
             cartUI.productsTable.setRowSelectionInterval(0, 0);
             cartUI.quantity.setText("1");
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Act
             ActionEvent event = new ActionEvent(
@@ -235,11 +227,7 @@ public class CartUITest {
             cartUI.productsTable.setRowSelectionInterval(0, 0);
             cartUI.quantity.setText("1");
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartUI.cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             // Act
             ActionEvent event = new ActionEvent(
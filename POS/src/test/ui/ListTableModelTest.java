@@ -0,0 +1,250 @@
+package test.ui;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import model.dto.CustomerDTO;
+import model.dto.ProductDTO;
+import ui.components.CustomerTableModel;
+import ui.components.ProductTableModel;
+
+/**
+ * Testes de Interface dos modelos de tabela baseados em lista
+ * (ui.components.ListTableModel, ProductTableModel e CustomerTableModel)
+ */
+public class ListTableModelTest {
+
+    private static final int LARGE = 500_000;
+
+    private AtomicInteger cellReads;
+    private ProductTableModel model;
+    private JTable table;
+    private final BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+
+    @Before
+    public void setUp() throws Exception {
+        cellReads = new AtomicInteger();
+        model = new ProductTableModel(ProductTableModel.Column.ID, ProductTableModel.Column.NAME,
+                ProductTableModel.Column.PRICE, ProductTableModel.Column.STOCK) {
+            @Override
+            protected Object valueOf(ProductDTO product, int column) {
+                cellReads.incrementAndGet();
+                return super.valueOf(product, column);
+            }
+        };
+        SwingUtilities.invokeAndWait(() -> {
+            table = new JTable(model);
+            JScrollPane scrollPane = new JScrollPane(table);
+            scrollPane.setSize(800, 600);
+            scrollPane.doLayout();
+            scrollPane.getViewport().doLayout();
+        });
+    }
+
+    /**
+     * Teste 1: Trocar a lista dispara um único evento e não copia os dados
+     */
+    @Test
+    public void testSetRowsFiresSingleEvent() {
+        ArrayList<ProductDTO> products = products(10);
+        AtomicInteger events = new AtomicInteger();
+        model.addTableModelListener(e -> events.incrementAndGet());
+
+        model.setRows(products);
+
+        assertEquals(1, events.get());
+        assertSame("A lista não deve ser copiada", products, model.getRows());
+        assertEquals(10, model.getRowCount());
+        assertEquals("Id", model.getColumnName(0));
+        assertEquals("Product 3", model.getValueAt(2, 1));
+        assertEquals("Células são lidas sob demanda", 1, cellReads.get());
+    }
+
+    /**
+     * Teste 2: Seleção acompanha o produto pelo id quando a lista muda
+     */
+    @Test
+    public void testSelectionIsKeptById() throws Exception {
+        ArrayList<ProductDTO> products = products(100);
+        SwingUtilities.invokeAndWait(() -> {
+            model.setRows(products, table);
+            table.setRowSelectionInterval(41, 41);
+
+            ArrayList<ProductDTO> reversed = new ArrayList<>(products);
+            Collections.reverse(reversed);
+            model.setRows(reversed, table);
+            assertEquals(42, model.getRow(table.getSelectedRow()).getProductId());
+
+            ArrayList<ProductDTO> without = new ArrayList<>(products.subList(0, 10));
+            model.setRows(without, table);
+            assertEquals("Produto fora da lista não fica selecionado", -1, table.getSelectedRow());
+        });
+    }
+
+    /**
+     * Teste 3: Células são lidas somente para as linhas visíveis
+     * Cenário: 500 mil linhas, tabela desenhada em uma janela de 600 px
+     */
+    @Test
+    public void testOnlyVisibleCellsAreRead() throws Exception {
+        model.setRows(products(LARGE));
+        cellReads.set(0);
+
+        SwingUtilities.invokeAndWait(() -> paintAt(LARGE / 2));
+
+        int visibleRows = 600 / table.getRowHeight() + 2;
+        assertTrue("Leu " + cellReads.get() + " células",
+                cellReads.get() <= visibleRows * model.getColumnCount());
+    }
+
+    /**
+     * Teste 4: Rolagem suave com 500 mil linhas
+     * Resultado esperado: desenhar uma posição custa o mesmo que numa tabela
+     * de mil linhas e fica abaixo de um quadro (16 ms)
+     */
+    @Test
+    public void testScrollingLargeTableIsSmooth() throws Exception {
+        double smallMedian = medianPaintMillis(products(1_000));
+        double largeMedian = medianPaintMillis(products(LARGE));
+        System.out.printf("Rolagem: mediana %.3f ms com 1.000 linhas, %.3f ms com %,d linhas%n",
+                smallMedian, largeMedian, LARGE);
+
+        assertTrue(String.format("Desenho deve ficar abaixo de 16 ms, foi %.3f ms", largeMedian), largeMedian < 16);
+        assertTrue("Custo do desenho não deve crescer com o número de linhas",
+                largeMedian < smallMedian * 3 + 1);
+    }
+
+    /**
+     * Teste 5: Cada busca (troca de lista) aloca memória constante
+     * Cenário: alternar entre listas de 500 mil e 10 linhas com a tabela ligada ao modelo
+     */
+    @Test
+    public void testSwappingRowsAllocatesConstantMemory() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ArrayList<ProductDTO> large = products(LARGE);
+        ArrayList<ProductDTO> small = products(10);
+        long[] allocated = new long[2];
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 100; i++) {
+                model.setRows(i % 2 == 0 ? large : small, table);
+            }
+            long threadId = Thread.currentThread().threadId();
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 1_000; i++) {
+                model.setRows(i % 2 == 0 ? large : small, table);
+            }
+            allocated[0] = threads.getThreadAllocatedBytes(threadId) - before;
+        });
+
+        long perSwap = allocated[0] / 1_000;
+        assertTrue("Alocou " + perSwap + " bytes por troca", perSwap < 4_096);
+    }
+
+    /**
+     * Teste 6: Modelo de clientes mostra as colunas pedidas
+     */
+    @Test
+    public void testCustomerColumns() {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId(7);
+        customer.setName("Ana");
+        customer.setPhoneNumber("555-0100");
+        CustomerTableModel customers = new CustomerTableModel(CustomerTableModel.Column.NAME,
+                CustomerTableModel.Column.PHONE_NUMBER);
+
+        customers.setRows(new ArrayList<>(Arrays.asList(customer)));
+
+        assertEquals(2, customers.getColumnCount());
+        assertEquals("Phone No", customers.getColumnName(1));
+        assertEquals("Ana", customers.getValueAt(0, 0));
+        assertEquals(0, customers.indexOfId(7));
+        assertFalse(customers.isCellEditable(0, 0));
+    }
+
+    /**
+     * Teste 7: Recarregar a mesma lista só repinta as linhas que mudaram
+     */
+    @Test
+    public void testUpdateRowsFiresOnlyChangedRows() throws Exception {
+        ArrayList<ProductDTO> products = products(100);
+        model.setRows(products, table);
+        SwingUtilities.invokeAndWait(() -> table.setRowSelectionInterval(40, 40));
+        ArrayList<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        ArrayList<ProductDTO> reloaded = products(100);
+        reloaded.get(10).setStockQuantity(1_000);
+        reloaded.get(11).setPrice(999);
+        reloaded.get(70).setProductName("Renomeado");
+        model.updateRows(reloaded, table);
+
+        assertEquals(2, events.size());
+        assertEquals(10, events.get(0).getFirstRow());
+        assertEquals(11, events.get(0).getLastRow());
+        assertEquals(70, events.get(1).getFirstRow());
+        assertEquals(70, events.get(1).getLastRow());
+        assertSame(reloaded, model.getRows());
+        assertEquals("A seleção não é perdida", 40, table.getSelectedRow());
+
+        events.clear();
+        model.updateRows(products(101), table);
+        assertEquals("Linhas novas trocam a lista inteira", 1, events.size());
+        assertEquals(Integer.MAX_VALUE, events.get(0).getLastRow());
+        assertEquals(101, model.getRowCount());
+        assertEquals(40, table.getSelectedRow());
+    }
+
+    private double medianPaintMillis(ArrayList<ProductDTO> products) throws Exception {
+        model.setRows(products);
+        long[] samples = new long[200];
+        int lastRow = products.size() - 40;
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 50; i++) {
+                paintAt(i * 997 % lastRow);
+            }
+            for (int i = 0; i < samples.length; i++) {
+                long start = System.nanoTime();
+                paintAt((int) ((long) i * lastRow / samples.length));
+                samples[i] = System.nanoTime() - start;
+            }
+        });
+        Arrays.sort(samples);
+        return samples[samples.length / 2] / 1_000_000.0;
+    }
+
+    private void paintAt(int firstRow) {
+        Rectangle cell = table.getCellRect(firstRow, 0, true);
+        Rectangle visible = new Rectangle(0, cell.y, 800, 600);
+        table.setSize(800, table.getPreferredSize().height);
+        Graphics2D g = image.createGraphics();
+        g.translate(0, -visible.y);
+        g.setClip(visible);
+        table.paint(g);
+        g.dispose();
+    }
+
+    private static ArrayList<ProductDTO> products(int count) {
+        ArrayList<ProductDTO> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setProductId(i);
+            product.setProductName("Product " + i);
+            product.setPrice(i % 500);
+            product.setStockQuantity(i % 90);
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,184 @@
+package test.ui;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.IDALManager;
+import dal.db.ConnectionPool;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import test.util.InMemoryDatabase;
+import test.util.TestReflectionHelper;
+import ui.ProductUI;
+import ui.components.PagedTableModel;
+import ui.components.ProductTableModel;
+
+/**
+ * Testes de Interface da tabela paginada (ui.components.PagedTableModel)
+ * A tabela lê uma página por vez pelo último id visto, lê a próxima
+ * enquanto o usuário rola e guarda só as páginas vistas por último
+ */
+public class PagedTableModelTest {
+
+    private static final int PRODUCTS = 3_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int CACHED_PAGES = 5;
+
+    private ConnectionPool pool;
+    private POSController controller;
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private PagedTableModel<ProductDTO> model;
+
+    @Before
+    public void setUp() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        for (int id = 1; id <= PRODUCTS; id++) {
+            database.insertProduct(id, "Produto " + id, "789" + id, 1 + id % 50, 100, 1);
+        }
+        pool = new ConnectionPool(database, 4, 60_000);
+        IDALManager dal = new DALManager(pool);
+        IDALManager countingDal = (IDALManager) Proxy.newProxyInstance(IDALManager.class.getClassLoader(),
+                new Class<?>[]{IDALManager.class}, (proxy, method, args) -> {
+                    calls.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+                    try {
+                        return method.invoke(dal, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+        controller = new POSController(countingDal, new ProductCatalog(countingDal, 60_000));
+        model = new PagedTableModel<>(new ProductTableModel(ProductTableModel.Column.ID, ProductTableModel.Column.NAME),
+                controller::getProductsPage, PAGE_SIZE, CACHED_PAGES);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Teste 1: A tela de Produtos abre com uma página só, sem ler o catálogo inteiro
+     */
+    @Test
+    public void testFirstPaintReadsOnePage() throws Exception {
+        ProductUI products = onEdt(() -> new ProductUI(controller, false));
+        Runnable show = products.loadData();
+        SwingUtilities.invokeAndWait(show);
+
+        JTable table = TestReflectionHelper.getPrivateField(products, "rSTableMetro1");
+        assertEquals(PagedTableModel.DEFAULT_PAGE_SIZE, (int) onEdt(table::getRowCount));
+        assertEquals(1, (int) onEdt(() -> table.getValueAt(0, 0)));
+        assertEquals(1, calls.get("getProductsPage").get());
+        assertNull("A lista completa não é lida", calls.get("getProducts"));
+    }
+
+    /**
+     * Teste 2: Rolando até o fim, cada página é lida uma vez, em ordem, e poucas ficam na memória
+     */
+    @Test
+    public void testScrollingReadsNextPagesAndKeepsFew() throws Exception {
+        SwingUtilities.invokeAndWait(() -> model.refresh(controller.getProductsPage(0, PAGE_SIZE, new Response())));
+
+        List<Integer> ids = new ArrayList<>();
+        for (int row = 0; row < PRODUCTS; row++) {
+            ids.add(idAt(row));
+        }
+        awaitIdle();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            assertEquals(i + 1, (int) ids.get(i));
+        }
+        assertEquals(PRODUCTS, (int) onEdt(model::getRowCount));
+        assertTrue(onEdt(model::isComplete));
+        assertEquals(PRODUCTS / PAGE_SIZE + 1, (long) onEdt(model::getPagesRead));
+        assertTrue(onEdt(model::getCachedPageCount) <= CACHED_PAGES);
+
+        // a primeira página saiu da memória e é lida de novo ao voltar
+        assertNull(onEdt(() -> model.getValueAt(0, 0)));
+        assertEquals(1, idAt(0));
+    }
+
+    /**
+     * Teste 3: Depois de excluir um produto, atualizar não repete nem pula linhas
+     */
+    @Test
+    public void testRefreshAfterDeleteKeepsPagesContiguous() throws Exception {
+        SwingUtilities.invokeAndWait(() -> model.refresh(controller.getProductsPage(0, PAGE_SIZE, new Response())));
+        for (int row = 0; row < 3 * PAGE_SIZE; row++) {
+            idAt(row);
+        }
+        awaitIdle();
+        int found = onEdt(model::getRowCount);
+
+        ProductDTO deleted = new ProductDTO();
+        deleted.setProductId(50);
+        assertTrue(controller.deleteProduct(deleted).isSuccessfull());
+        SwingUtilities.invokeAndWait(() -> model.refresh(controller.getProductsPage(0, PAGE_SIZE, new Response())));
+        assertEquals(found, (int) onEdt(model::getRowCount));
+
+        List<Integer> ids = new ArrayList<>();
+        for (int row = 0; row < PRODUCTS - 1; row++) {
+            ids.add(idAt(row));
+        }
+        awaitIdle();
+        assertEquals(PRODUCTS - 1, (int) onEdt(model::getRowCount));
+        assertFalse(ids.contains(50));
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue("Linhas fora de ordem em " + i, ids.get(i) > ids.get(i - 1));
+        }
+    }
+
+    private int idAt(int row) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            Object id = onEdt(() -> model.getValueAt(row, 0));
+            if (id != null) {
+                return (Integer) id;
+            }
+            assertTrue("Linha " + row + " não foi lida", System.currentTimeMillis() < deadline);
+            Thread.sleep(2);
+        }
+    }
+
+    private void awaitIdle() throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (onEdt(model::isLoading)) {
+            assertTrue("Páginas não terminaram de carregar", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static <T> T onEdt(Callable<T> action) throws Exception {
+        Object[] result = new Object[1];
+        Exception[] error = new Exception[1];
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result[0] = action.call();
+            } catch (Exception ex) {
+                error[0] = ex;
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+}
@@ -0,0 +1,173 @@
+package test.ui;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.IDALManager;
+import dal.db.ConnectionPool;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import javax.swing.JPanel;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.CustomerDTO;
+import model.dto.Response;
+import test.util.InMemoryDatabase;
+import test.util.TestReflectionHelper;
+import ui.CartUI;
+import ui.CustomersUI;
+import ui.ProductUI;
+import ui.components.PanelManager;
+
+/**
+ * Testes de Interface da navegação do Dashboard (ui.components.PanelManager)
+ * As telas de Venda, Produtos e Clientes são criadas uma vez e os dados são
+ * carregados fora da thread do Swing; voltar a uma tela só atualiza o que mudou
+ */
+public class PanelManagerTest {
+
+    private static final int PRODUCTS = 2_000;
+    private static final long SLOW_CUSTOMERS_MILLIS = 300;
+
+    private ConnectionPool pool;
+    private POSController controller;
+    private PanelManager panels;
+    private volatile boolean slowCustomers;
+
+    @Before
+    public void setUp() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        for (int id = 1; id <= PRODUCTS; id++) {
+            database.insertProduct(id, "Produto " + id, "789" + id, 1 + id % 50, 100, 1);
+        }
+        pool = new ConnectionPool(database, 4, 60_000);
+        IDALManager dal = new DALManager(pool);
+        // getCustomers pode ficar lento, como um banco remoto ocupado
+        IDALManager slowDal = (IDALManager) Proxy.newProxyInstance(IDALManager.class.getClassLoader(),
+                new Class<?>[]{IDALManager.class}, (proxy, method, args) -> {
+                    if (slowCustomers && method.getName().startsWith("getCustomers")) {
+                        Thread.sleep(SLOW_CUSTOMERS_MILLIS);
+                    }
+                    try {
+                        return method.invoke(dal, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+        controller = new POSController(slowDal, new ProductCatalog(slowDal, 60_000));
+        assertTrue(controller.saveCustomer(new CustomerDTO(0, "Maria Souza", "11987654321")).isSuccessfull());
+        SwingUtilities.invokeAndWait(() -> {
+            JPanel container = new JPanel();
+            container.setSize(1200, 800);
+            panels = new PanelManager(container);
+        });
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Teste 1: Depois da primeira carga, trocar entre Venda e Produtos leva menos de 50 ms
+     */
+    @Test
+    public void testSwitchingIsFastAfterFirstLoad() throws Exception {
+        CartUI sale = onEdt(() -> panels.show("sale", () -> new CartUI(controller, false)));
+        awaitLoaded("sale");
+        ProductUI products = onEdt(() -> panels.show("products", () -> new ProductUI(controller, false)));
+        awaitLoaded("products");
+
+        JTable productsTable = TestReflectionHelper.getPrivateField(sale, "productsTable");
+        assertEquals(PRODUCTS, productsTable.getRowCount());
+
+        long slowest = 0;
+        for (int i = 0; i < 20; i++) {
+            for (String key : new String[]{"sale", "products"}) {
+                long start = System.nanoTime();
+                Object shown = onEdt(() -> panels.show(key, () -> {
+                    throw new AssertionError("A tela " + key + " deveria estar guardada");
+                }));
+                slowest = Math.max(slowest, System.nanoTime() - start);
+                assertSame(key.equals("sale") ? sale : products, shown);
+                awaitLoaded(key);
+            }
+        }
+        assertTrue("Troca mais lenta: " + slowest / 1_000_000 + " ms", slowest < 50_000_000L);
+        assertEquals(42, panels.getSwitchStatistics().getCalls());
+    }
+
+    /**
+     * Teste 2: A tela aparece sem esperar o banco e mostra os dados quando chegam
+     */
+    @Test
+    public void testLoadingDoesNotBlockTheEdt() throws Exception {
+        onEdt(() -> panels.show("customers", () -> new CustomersUI(controller, false)));
+        awaitLoaded("customers");
+        slowCustomers = true;
+
+        long start = System.nanoTime();
+        CustomersUI customers = onEdt(() -> panels.show("customers", () -> null));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue("A troca esperou o banco: " + millis + " ms", millis < SLOW_CUSTOMERS_MILLIS);
+        assertTrue(onEdt(() -> panels.isLoading("customers")));
+
+        awaitLoaded("customers");
+        JTable table = TestReflectionHelper.getPrivateField(customers, "rSTableMetro1");
+        assertEquals(1, (int) onEdt(table::getRowCount));
+        assertEquals(2, panels.getLoadStatistics().getCalls());
+    }
+
+    /**
+     * Teste 3: Voltar para Clientes mostra o cliente cadastrado enquanto estava em outra tela
+     */
+    @Test
+    public void testReturningShowsChanges() throws Exception {
+        CustomersUI customers = onEdt(() -> panels.show("customers", () -> new CustomersUI(controller, false)));
+        awaitLoaded("customers");
+        JTable table = TestReflectionHelper.getPrivateField(customers, "rSTableMetro1");
+        assertEquals(1, (int) onEdt(table::getRowCount));
+
+        onEdt(() -> panels.show("products", () -> new ProductUI(controller, false)));
+        awaitLoaded("products");
+        assertTrue(controller.saveCustomer(new CustomerDTO(0, "João Lima", "11912345678")).isSuccessfull());
+        onEdt(() -> panels.show("customers", () -> null));
+        awaitLoaded("customers");
+
+        assertEquals(2, (int) onEdt(table::getRowCount));
+        assertEquals(2, controller.getCustomers(new Response()).size());
+    }
+
+    private void awaitLoaded(String key) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (onEdt(() -> panels.isLoading(key))) {
+            assertTrue("Tela " + key + " não terminou de carregar", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static <T> T onEdt(Callable<T> action) throws Exception {
+        Object[] result = new Object[1];
+        Exception[] error = new Exception[1];
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result[0] = action.call();
+            } catch (Exception ex) {
+                error[0] = ex;
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+}
@@ -0,0 +1,113 @@
+package test.ui;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import model.SalesAggregates;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import ui.components.SalesChartsModel;
+
+/**
+ * Testes de Interface dos gráficos da tela inicial (ui.components.SalesChartsModel)
+ * Muitas vendas seguidas geram poucas atualizações dos gráficos
+ */
+public class SalesChartsModelTest {
+
+    private static final int INTERVAL_MS = 100;
+
+    private SalesAggregates aggregates;
+    private SalesChartsModel model;
+    private AtomicInteger pieEvents;
+
+    @Before
+    public void setUp() throws Exception {
+        aggregates = new SalesAggregates();
+        pieEvents = new AtomicInteger();
+        SwingUtilities.invokeAndWait(() -> {
+            model = new SalesChartsModel(aggregates, INTERVAL_MS);
+            model.getCategoryDataset().addChangeListener(e -> pieEvents.incrementAndGet());
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        SwingUtilities.invokeAndWait(model::dispose);
+    }
+
+    /**
+     * Teste 1: 2.000 vendas de várias threads viram poucas atualizações
+     * Resultado esperado: no máximo algumas atualizações por segundo, cada uma
+     * com um único evento por gráfico, e os valores finais corretos
+     */
+    @Test
+    public void testUpdatesAreCoalesced() throws Exception {
+        long start = System.nanoTime();
+        Thread[] tills = new Thread[4];
+        for (int t = 0; t < tills.length; t++) {
+            tills[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    aggregates.record(sale(item(1, 1.50, 2)), productId -> 3);
+                }
+            });
+            tills[t].start();
+        }
+        for (Thread till : tills) {
+            till.join();
+        }
+        Thread.sleep(INTERVAL_MS * 3);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        int[] pushes = new int[1];
+        Number[] categoryTotal = new Number[1];
+        Number[] basketOfTwo = new Number[1];
+        SwingUtilities.invokeAndWait(() -> {
+            pushes[0] = model.getPushCount() - 1;
+            categoryTotal[0] = model.getCategoryDataset().getValue("Category 3");
+            basketOfTwo[0] = model.getBasketDataset().getValue("Sales", "2");
+        });
+        System.out.printf("2.000 vendas em %d ms geraram %d atualizações dos gráficos%n", elapsedMs, pushes[0]);
+
+        assertTrue("Deve haver ao menos uma atualização", pushes[0] >= 1);
+        assertTrue("Atualizações devem ser agrupadas: " + pushes[0], pushes[0] <= elapsedMs / INTERVAL_MS + 1);
+        assertEquals("Um evento por atualização", pushes[0], pieEvents.get());
+        assertEquals(6_000.0, categoryTotal[0].doubleValue(), 0.001);
+        assertEquals(2_000, basketOfTwo[0].intValue());
+    }
+
+    /**
+     * Teste 2: Nomes das categorias substituem os números
+     */
+    @Test
+    public void testCategoryNames() throws Exception {
+        aggregates.record(sale(item(1, 4.00, 1)), productId -> 3);
+        SwingUtilities.invokeAndWait(() -> model.setCategoryNames(Map.of(3, "grocery")));
+        Thread.sleep(INTERVAL_MS * 3);
+
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(1, model.getCategoryDataset().getItemCount());
+            assertEquals(4.0, model.getCategoryDataset().getValue("grocery").doubleValue(), 0.001);
+            assertEquals(24, model.getHourDataset().getColumnCount());
+        });
+    }
+
+    private static SaleItemDTO item(int productId, double price, int quantity) {
+        return new SaleItemDTO(productId, "product " + productId, price, quantity);
+    }
+
+    private static SaleDTO sale(SaleItemDTO... items) {
+        SaleDTO sale = new SaleDTO();
+        sale.setSaleDate(LocalDateTime.now());
+        sale.setItems(List.of(items));
+        sale.setTotalAmount(Arrays.stream(items).mapToDouble(SaleItemDTO::getTotal).sum());
+        sale.spreadTotalOverLines();
+        return sale;
+    }
+}
@@ -0,0 +1,167 @@
+package test.ui;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.After;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import ui.components.SearchPipeline;
+
+/**
+ * Testes de Interface do pipeline de busca assíncrona (ui.components.SearchPipeline)
+ * Simula digitação rápida e verifica que a thread de eventos (EDT) não trava
+ */
+public class SearchPipelineTest {
+
+    private static final int DEBOUNCE_MS = 40;
+    private static final long QUERY_MS = 30;
+    private static final long MAX_EDT_BLOCK_MS = 16; // um quadro a 60 Hz
+
+    private JTextField field;
+    private SearchPipeline<String> pipeline;
+    private List<String> executedQueries;
+    private List<String> published;
+    private AtomicReference<String> shown;
+    private AtomicBoolean queryRanOnEdt;
+    private List<String> stalePublications;
+
+    @Before
+    public void setUp() throws Exception {
+        executedQueries = Collections.synchronizedList(new ArrayList<>());
+        published = Collections.synchronizedList(new ArrayList<>());
+        stalePublications = Collections.synchronizedList(new ArrayList<>());
+        shown = new AtomicReference<>();
+        queryRanOnEdt = new AtomicBoolean();
+        SwingUtilities.invokeAndWait(() -> field = new JTextField());
+
+        pipeline = new SearchPipeline<>(text -> {
+            if (SwingUtilities.isEventDispatchThread()) {
+                queryRanOnEdt.set(true);
+            }
+            executedQueries.add(text);
+            sleep(QUERY_MS);
+            return "result:" + text;
+        }, result -> {
+            if (!result.equals("result:" + field.getText())) {
+                stalePublications.add(result);
+            }
+            published.add(result);
+            shown.set(result);
+        }, DEBOUNCE_MS);
+        pipeline.attachTo(field);
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.cancel();
+    }
+
+    /**
+     * Teste 1: Digitar 50 caracteres em rajadas
+     * Resultado esperado: apenas o resultado da última consulta fica na tela,
+     * nenhum resultado desatualizado é publicado e a EDT nunca fica bloqueada
+     */
+    @Test
+    public void testBurstTypingShowsOnlyLatestResult() throws Exception {
+        String typed = "the quick brown fox jumps over the lazy dog 0123456";
+        assertEquals(50, typed.length() - 1);
+        long[] maxEdtNanos = new long[1];
+        // aquecimento: a primeira edição carrega classes do Swing
+        for (int i = 0; i < 200; i++) {
+            SwingUtilities.invokeAndWait(() -> field.replaceSelection("x"));
+        }
+        SwingUtilities.invokeAndWait(() -> field.setText(""));
+        pipeline.cancel();
+
+        for (int i = 0; i < 50; i++) {
+            String next = typed.substring(i, i + 1);
+            SwingUtilities.invokeAndWait(() -> {
+                long start = System.nanoTime();
+                field.replaceSelection(next);
+                maxEdtNanos[0] = Math.max(maxEdtNanos[0], System.nanoTime() - start);
+            });
+            // rajadas de 10 teclas a 5 ms; pausa maior que o debounce entre elas
+            Thread.sleep(i % 10 == 9 ? DEBOUNCE_MS + QUERY_MS / 2 : 5);
+        }
+        String finalText = typed.substring(0, 50);
+
+        long deadline = System.currentTimeMillis() + 3_000;
+        while (!("result:" + finalText).equals(shown.get()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(DEBOUNCE_MS + QUERY_MS * 3);
+
+        assertEquals("Deve exibir o resultado da última consulta", "result:" + finalText, shown.get());
+        assertEquals("Última publicação deve ser a da consulta final",
+                "result:" + finalText, published.get(published.size() - 1));
+        assertTrue("Nenhum resultado desatualizado deve ser publicado: " + stalePublications,
+                stalePublications.isEmpty());
+        assertFalse("Consultas não devem rodar na EDT", queryRanOnEdt.get());
+        assertTrue("Debounce deve evitar uma consulta por tecla, executou " + executedQueries.size(),
+                executedQueries.size() <= 10);
+        assertTrue(String.format("EDT não deve bloquear mais de %d ms ao digitar, bloqueou %.3f ms",
+                MAX_EDT_BLOCK_MS, maxEdtNanos[0] / 1_000_000.0),
+                maxEdtNanos[0] < MAX_EDT_BLOCK_MS * 1_000_000);
+    }
+
+    /**
+     * Teste 2: Resultado de consulta lenta é descartado quando o texto muda
+     */
+    @Test
+    public void testSupersededResultIsDropped() throws Exception {
+        SwingUtilities.invokeAndWait(() -> field.setText("abc"));
+        while (executedQueries.isEmpty()) {
+            Thread.sleep(2);
+        }
+        SwingUtilities.invokeAndWait(() -> field.setText("abcd"));
+
+        long deadline = System.currentTimeMillis() + 3_000;
+        while (!"result:abcd".equals(shown.get()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals("result:abcd", shown.get());
+        assertFalse("Resultado de \"abc\" não deve ser publicado", published.contains("result:abc"));
+        assertTrue(pipeline.getSupersededCount() >= 1);
+    }
+
+    /**
+     * Teste 3: Falha na consulta não derruba o pipeline
+     */
+    @Test
+    public void testFailedQueryIsReported() throws Exception {
+        pipeline.cancel();
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        SearchPipeline<String> failing = new SearchPipeline<>(text -> {
+            if (text.equals("boom")) {
+                throw new IllegalStateException("boom");
+            }
+            return text;
+        }, results::add, 10);
+
+        failing.submit("boom");
+        Thread.sleep(100);
+        failing.submit("ok");
+        long deadline = System.currentTimeMillis() + 3_000;
+        while (results.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Collections.singletonList("ok"), results);
+        assertEquals(1, failing.getFailedCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
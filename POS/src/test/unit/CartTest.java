@@ -0,0 +1,143 @@
+package test.unit;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.TableModelEvent;
+import model.Cart;
+import model.dto.SaleItemDTO;
+import ui.components.CartTableModel;
+
+/**
+ * Testes Unitários do carrinho (model.Cart e ui.components.CartTableModel)
+ * Verifica totais exatos, junção de itens repetidos e desconto
+ */
+public class CartTest {
+
+    private Cart cart;
+
+    @Before
+    public void setUp() {
+        cart = new Cart();
+    }
+
+    /**
+     * Teste 1: Ler o mesmo produto de novo soma na linha existente
+     */
+    @Test
+    public void testRepeatedScanMergesLine() {
+        cart.add(1, "oil", 260.00, 1);
+        cart.add(2, "xyz", 12.00, 2);
+        cart.add(1, "oil", 260.00, 2);
+
+        assertEquals(2, cart.size());
+        assertEquals(3, cart.getLine(0).getQuantity());
+        assertEquals(new BigDecimal("780.00"), cart.getLine(0).getLineTotal());
+        assertEquals(new BigDecimal("804.00"), cart.getTotal());
+    }
+
+    /**
+     * Teste 2: Totais em centavos não acumulam erro de ponto flutuante
+     * Cenário: 1.000 itens de 0,10 (em double a soma daria 99,9999...)
+     */
+    @Test
+    public void testTotalsAreExact() {
+        for (int id = 1; id <= 1_000; id++) {
+            cart.add(id, "item " + id, 0.10, 1);
+        }
+        cart.add(1_001, "item", 10.99, 3);
+
+        assertEquals(new BigDecimal("132.97"), cart.getTotal());
+        assertEquals(13_297, cart.getTotalMinor());
+    }
+
+    /**
+     * Teste 3: Remover linha e limpar o carrinho atualizam os totais
+     */
+    @Test
+    public void testRemoveAndClear() {
+        cart.add(1, "a", 1.25, 4);
+        cart.add(2, "b", 2.50, 1);
+        cart.add(3, "c", 3.75, 2);
+
+        cart.remove(1);
+        assertEquals(new BigDecimal("12.50"), cart.getTotal());
+        assertEquals(3, cart.getLine(1).getProductId());
+
+        cart.add(3, "c", 3.75, 1);
+        assertEquals("Índice da linha deve acompanhar a remoção", 3, cart.getLine(1).getQuantity());
+
+        cart.clear();
+        assertTrue(cart.isEmpty());
+        assertEquals(new BigDecimal("0.00"), cart.getTotal());
+    }
+
+    /**
+     * Teste 4: Desconto no total nunca passa do subtotal
+     */
+    @Test
+    public void testDiscountInTotal() {
+        cart.add(1, "a", 100.00, 1);
+
+        cart.setDiscount(new BigDecimal("15.5"));
+        assertEquals(new BigDecimal("100.00"), cart.getSubtotal());
+        assertEquals(new BigDecimal("15.50"), cart.getDiscount());
+        assertEquals(new BigDecimal("84.50"), cart.getTotal());
+
+        cart.setDiscount(new BigDecimal("500"));
+        assertEquals(new BigDecimal("0.00"), cart.getTotal());
+
+        cart.setDiscount(new BigDecimal("-5"));
+        assertEquals(new BigDecimal("100.00"), cart.getTotal());
+    }
+
+    /**
+     * Teste 5: Quantidade zero ou negativa é recusada
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveQuantityIsRejected() {
+        cart.add(1, "a", 1.00, 0);
+    }
+
+    /**
+     * Teste 6: A tabela recebe um evento só para a linha alterada
+     */
+    @Test
+    public void testTableModelFiresRowEvents() {
+        CartTableModel model = new CartTableModel(cart);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        cart.add(1, "a", 10.50, 2);
+        cart.add(2, "b", 1.00, 1);
+        cart.add(1, "a", 10.50, 1);
+        cart.remove(0);
+
+        assertEquals(4, events.size());
+        assertEquals(TableModelEvent.INSERT, events.get(1).getType());
+        assertEquals(1, events.get(1).getFirstRow());
+        assertEquals(TableModelEvent.UPDATE, events.get(2).getType());
+        assertEquals(0, events.get(2).getFirstRow());
+        assertEquals(TableModelEvent.DELETE, events.get(3).getType());
+        assertEquals("b", model.getValueAt(0, 0));
+        assertEquals(1.00, (Double) model.getValueAt(0, 3), 0.0001);
+    }
+
+    /**
+     * Teste 7: Itens da venda saem do carrinho com valores exatos
+     */
+    @Test
+    public void testSaleItems() {
+        cart.add(7, "tea", 3.33, 3);
+
+        List<SaleItemDTO> items = cart.toSaleItems();
+
+        assertEquals(1, items.size());
+        assertEquals(7, items.get(0).getProductId());
+        assertEquals(3, items.get(0).getQuantity());
+        assertEquals(9.99, items.get(0).getTotal(), 0);
+    }
+}
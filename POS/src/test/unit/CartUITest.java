@@ -96,11 +96,7 @@ public class CartUITest {
             productsTable.setRowSelectionInterval(0, 0);
             quantity.setText("2");
             
-            DefaultTableModel cartModel = new DefaultTableModel(
-                null,
-                new String[]{"Name", "Price", "Quantity", "Total"}
-            );
-            cartTable.setModel(cartModel);
+            cartUI.initializeCart();
             
             int initialRowCount = cartTable.getRowCount();
             
@@ -112,7 +108,7 @@ public class CartUITest {
             assertEquals("O carrinho deve ter 1 item", initialRowCount + 1, cartTable.getRowCount());
             assertEquals("Nome do produto deve ser correto", "Produto Teste 1", cartTable.getValueAt(0, 0));
             assertEquals("Preço deve ser correto", 10.50, (Double) cartTable.getValueAt(0, 1), 0.01);
-            assertEquals("Quantidade deve ser correta", "2", cartTable.getValueAt(0, 2));
+            assertEquals("Quantidade deve ser correta", 2, cartTable.getValueAt(0, 2));
             assertEquals("Total deve ser calculado corretamente", 21.0, (Double) cartTable.getValueAt(0, 3), 0.01);
         } catch (Exception e) {
             fail("Erro ao acessar campos privados: " + e.getMessage());
@@ -131,11 +127,7 @@ public class CartUITest {
         cartUI.productsTable.clearSelection();
         cartUI.quantity.setText("1");
         
-        DefaultTableModel cartModel = new DefaultTableModel(
-            null,
-            new String[]{"Name", "Price", "Quantity", "Total"}
-        );
-        cartUI.cartTable.setModel(cartModel);
+        cartUI.initializeCart();
         
         int initialRowCount = cartUI.cartTable.getRowCount();
         
@@ -192,11 +184,7 @@ public class CartUITest {
         cartUI.productsTable.setRowSelectionInterval(0, 0);
         cartUI.quantity.setText("0");
         
-        DefaultTableModel cartModel = new DefaultTableModel(
-            null,
-            new String[]{"Name", "Price", "Quantity", "Total"}
-        );
-        cartUI.cartTable.setModel(cartModel);
+        cartUI.initializeCart();
         
         // Act
         try {
@@ -225,11 +213,7 @@ public class CartUITest {
         cartUI.productsTable.setRowSelectionInterval(0, 0);
         cartUI.quantity.setText("-1");
         
-        DefaultTableModel cartModel = new DefaultTableModel(
-            null,
-            new String[]{"Name", "Price", "Quantity", "Total"}
-        );
-        cartUI.cartTable.setModel(cartModel);
+        cartUI.initializeCart();
         
         // Act
         try {
@@ -259,11 +243,7 @@ public class CartUITest {
         cartUI.productsTable.setRowSelectionInterval(0, 0);
         cartUI.quantity.setText("abc");
         
-        DefaultTableModel cartModel = new DefaultTableModel(
-            null,
-            new String[]{"Name", "Price", "Quantity", "Total"}
-        );
-        cartUI.cartTable.setModel(cartModel);
+        cartUI.initializeCart();
         
         // Act
         ActionEvent event = new ActionEvent(cartUI.addToCartBtn, ActionEvent.ACTION_PERFORMED, "");
@@ -289,11 +269,7 @@ public class CartUITest {
         cartUI.productsTable.setModel(productsModel);
         cartUI.quantity.setText("1");
         
-        DefaultTableModel cartModel = new DefaultTableModel(
-            null,
-            new String[]{"Name", "Price", "Quantity", "Total"}
-        );
-        cartUI.cartTable.setModel(cartModel);
+        cartUI.initializeCart();
         
         // Act - Adicionar primeiro item
         cartUI.productsTable.setRowSelectionInterval(0, 0);
@@ -0,0 +1,214 @@
+package test.unit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.After;
+import static org.junit.Assert.*;
+import dal.db.ConnectionPool;
+import dal.db.PoolStatistics;
+import java.sql.Connection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes Unitários do pool de conexões (dal.db.ConnectionPool)
+ * Usa o banco em memória no lugar do MySQL
+ */
+public class ConnectionPoolTest {
+
+    private InMemoryDatabase database;
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        database = new InMemoryDatabase();
+        pool = new ConnectionPool(database, 2, 60_000);
+        pool.setBorrowTimeoutMillis(200);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Teste 1: Conexão devolvida é reutilizada
+     * Resultado esperado: apenas uma conexão física é aberta
+     */
+    @Test
+    public void testReturnedConnectionIsReused() throws Exception {
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        second.close();
+
+        assertEquals("Deve abrir apenas uma conexão física", 1, database.getConnectionsOpened());
+        assertEquals(1, pool.getStatistics().getIdleConnections());
+        assertEquals(0, pool.getStatistics().getActiveConnections());
+    }
+
+    /**
+     * Teste 2: Pool esgotado respeita o limite e o tempo de espera
+     * Resultado esperado: a terceira requisição retorna null após o timeout
+     */
+    @Test
+    public void testPoolIsBounded() throws Exception {
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+
+        long start = System.nanoTime();
+        Connection third = pool.getConnection();
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertNull("Pool esgotado não deve entregar conexão", third);
+        assertTrue("Deve esperar pelo timeout configurado", waitedMs >= 150);
+        assertEquals(2, database.getOpenConnections());
+        assertEquals(1, pool.getStatistics().getBorrowTimeouts());
+
+        first.close();
+        second.close();
+    }
+
+    /**
+     * Teste 3: Thread em espera recebe a conexão devolvida por outra
+     */
+    @Test
+    public void testWaitingThreadReceivesReturnedConnection() throws Exception {
+        pool.setBorrowTimeoutMillis(5_000);
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+
+        AtomicReference<Connection> received = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            received.set(pool.getConnection());
+            done.countDown();
+        });
+        waiter.start();
+
+        while (pool.getStatistics().getThreadsAwaitingConnection() == 0) {
+            Thread.sleep(5);
+        }
+        first.close();
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertNotNull(received.get());
+        assertEquals("Não deve abrir conexão além do limite", 2, database.getConnectionsOpened());
+        assertTrue(pool.getStatistics().getMaxWaitMillis() > 0);
+
+        received.get().close();
+        second.close();
+    }
+
+    /**
+     * Teste 4: Conexão inválida é descartada no empréstimo
+     */
+    @Test
+    public void testInvalidConnectionIsReplacedOnBorrow() throws Exception {
+        pool.setValidationBypassMillis(0);
+        pool.getConnection().close();
+        database.setConnectionsValid(false);
+
+        Connection connection = pool.getConnection();
+        database.setConnectionsValid(true);
+
+        assertNotNull(connection);
+        assertEquals("Deve abrir uma nova conexão física", 2, database.getConnectionsOpened());
+        assertEquals(1, pool.getStatistics().getValidationFailures());
+        assertEquals(1, database.getOpenConnections());
+        connection.close();
+    }
+
+    /**
+     * Teste 5: Conexões ociosas além do tempo limite são fechadas
+     */
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        pool.setIdleTimeoutMillis(20);
+        pool.getConnection().close();
+        Thread.sleep(50);
+
+        pool.runHousekeeping();
+
+        PoolStatistics stats = pool.getStatistics();
+        assertEquals(0, stats.getIdleConnections());
+        assertEquals(0, stats.getTotalConnections());
+        assertEquals(0, database.getOpenConnections());
+    }
+
+    /**
+     * Teste 6: Conexão que excede o tempo de vida máximo não é reutilizada
+     */
+    @Test
+    public void testMaxLifetimeRetiresConnection() throws Exception {
+        pool.setMaxLifetimeMillis(20);
+        Connection connection = pool.getConnection();
+        Thread.sleep(50);
+        connection.close();
+
+        assertEquals(0, database.getOpenConnections());
+        assertEquals(1, pool.getStatistics().getDestroyedCount());
+    }
+
+    /**
+     * Teste 7: Vazamento de conexão é detectado
+     */
+    @Test
+    public void testLeakIsDetected() throws Exception {
+        pool.setLeakDetectionThresholdMillis(10);
+        Connection leaked = pool.getConnection();
+        Thread.sleep(40);
+
+        pool.runHousekeeping();
+        pool.runHousekeeping();
+
+        assertEquals("Vazamento deve ser reportado uma única vez", 1, pool.getStatistics().getLeaksDetected());
+        leaked.close();
+    }
+
+    /**
+     * Teste 8: Fechar a mesma conexão duas vezes não a devolve duas vezes
+     * (DALManager fecha a conexão mesmo quando ObjectAdder já a fechou)
+     */
+    @Test
+    public void testDoubleCloseReturnsOnce() throws Exception {
+        Connection connection = pool.getConnection();
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertEquals(1, pool.getStatistics().getIdleConnections());
+        assertEquals(1, pool.getStatistics().getTotalConnections());
+    }
+
+    /**
+     * Teste 9: Transação deixada aberta é desfeita ao devolver a conexão
+     */
+    @Test
+    public void testAutoCommitIsRestoredOnReturn() throws Exception {
+        Connection connection = pool.getConnection();
+        connection.setAutoCommit(false);
+        connection.close();
+
+        Connection next = pool.getConnection();
+        assertTrue(next.getAutoCommit());
+        next.close();
+    }
+
+    /**
+     * Teste 10: Banco indisponível não consome vagas do pool
+     */
+    @Test
+    public void testUnavailableDatabaseDoesNotConsumeSlots() {
+        database.setAvailable(false);
+        assertNull(pool.getConnection());
+        assertNull(pool.getConnection());
+        assertNull(pool.getConnection());
+
+        assertEquals(0, pool.getStatistics().getTotalConnections());
+        database.setAvailable(true);
+        assertNotNull(pool.getConnection());
+    }
+}
@@ -0,0 +1,106 @@
+package test.unit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import model.metrics.EdtStallMonitor;
+import model.metrics.StallSite;
+
+/**
+ * Testes Unitários do vigia da thread do Swing (model.metrics.EdtStallMonitor)
+ * Bloqueia a thread de eventos de propósito e verifica que o travamento é
+ * agrupado pelo método que bloqueou, com a pilha capturada e registrada no log
+ */
+public class EdtStallMonitorTest {
+
+    private EdtStallMonitor monitor;
+    private Logger logger;
+    private final List<LogRecord> logged = new ArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            logged.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        logger = Logger.getLogger(EdtStallMonitor.class.getName());
+        logger.addHandler(handler);
+        monitor = new EdtStallMonitor(20, 100);
+        monitor.start();
+        // o primeiro batimento apresenta a thread de eventos ao vigia
+        Thread.sleep(100);
+    }
+
+    @After
+    public void tearDown() {
+        monitor.stop();
+        logger.removeHandler(handler);
+    }
+
+    /**
+     * Teste 1: O travamento é contado no método da aplicação que bloqueou a thread
+     */
+    @Test
+    public void testStallIsGroupedByBlockingMethod() throws Exception {
+        EventQueue.invokeAndWait(EdtStallMonitorTest::loadScreen);
+        EventQueue.invokeAndWait(EdtStallMonitorTest::loadScreen);
+        Thread.sleep(100);
+
+        List<StallSite> sites = monitor.getStallSites();
+        StallSite site = sites.stream().filter(s -> s.getFrame().equals("test.unit.EdtStallMonitorTest.loadScreen"))
+                .findFirst().orElse(null);
+        assertNotNull("Sítios: " + sites, site);
+        assertEquals(2, site.getCount());
+        assertTrue(site.getMaxNanos() >= 100_000_000L);
+        assertTrue(site.getTotalNanos() >= site.getMaxNanos());
+        assertEquals(2, monitor.getStallStatistics().getCalls());
+        StackTraceElement[] stack = site.getStack();
+        assertTrue("A pilha é a da thread de eventos no momento do travamento",
+                stack.length > 0 && stack[0].getClassName().equals(Thread.class.getName()));
+        assertTrue(List.of(stack).stream().anyMatch(element -> element.getMethodName().equals("loadScreen")));
+
+        assertFalse(logged.isEmpty());
+        assertTrue(logged.get(0).getMessage().contains("{1}"));
+        assertEquals("test.unit.EdtStallMonitorTest.loadScreen", logged.get(0).getParameters()[1]);
+    }
+
+    /**
+     * Teste 2: Eventos curtos não contam como travamento
+     */
+    @Test
+    public void testShortEventsAreIgnored() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            EventQueue.invokeAndWait(() -> {
+            });
+            Thread.sleep(10);
+        }
+        assertEquals(0, monitor.getStallStatistics().getCalls());
+        assertTrue(monitor.getStallSites().isEmpty());
+    }
+
+    private static void loadScreen() {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
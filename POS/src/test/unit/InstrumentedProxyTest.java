@@ -0,0 +1,199 @@
+package test.unit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import dal.IDALManager;
+import dal.db.ConnectionPool;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import model.IPOSController;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.CustomerDTO;
+import model.dto.Response;
+import model.metrics.InstrumentedProxy;
+import model.metrics.LogLinearHistogram;
+import model.metrics.MethodStatistics;
+import model.metrics.MetricsFileWriter;
+import model.metrics.MetricsRegistry;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes Unitários da instrumentação do controlador e do DAL (model.metrics)
+ * Verifica contagem de chamadas, de erros, percentis, o modo desligado, os
+ * métodos sobrecarregados e o arquivo de métricas com rotação
+ */
+public class InstrumentedProxyTest {
+
+    private MetricsRegistry registry;
+    private ConnectionPool pool;
+    private IPOSController controller;
+
+    @Before
+    public void setUp() {
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insertProduct(1, "Arroz", "789001", 10.0, 100, 1);
+        pool = new ConnectionPool(database, 2, 60_000);
+        registry = new MetricsRegistry(true);
+        IDALManager dalManager = InstrumentedProxy.wrap(IDALManager.class, new DALManager(pool), registry);
+        controller = InstrumentedProxy.wrap(IPOSController.class,
+                new POSController(dalManager, new ProductCatalog(dalManager, 60_000)), registry);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Teste 1: Cada método do controlador e do DAL tem sua contagem e latência
+     */
+    @Test
+    public void testCountsCallsPerMethod() {
+        for (int i = 0; i < 3; i++) {
+            controller.getCustomers(new Response());
+        }
+        controller.getProducts(new Response());
+
+        MethodStatistics customers = registry.snapshot("IPOSController.getCustomers");
+        assertEquals(3, customers.getCalls());
+        assertEquals(0, customers.getErrors());
+        assertTrue(customers.getP50Nanos() > 0);
+        assertTrue(customers.getP50Nanos() <= customers.getP99Nanos());
+        assertTrue(customers.getP99Nanos() <= customers.getMaxNanos());
+        assertEquals("O controlador chama o DAL", 3, registry.snapshot("IDALManager.getCustomers").getCalls());
+        assertEquals(1, registry.snapshot("IPOSController.getProducts").getCalls());
+    }
+
+    /**
+     * Teste 2: Resposta com erro e exceção contam como erro
+     */
+    @Test
+    public void testCountsErrors() {
+        Response response = controller.saveCustomer(new CustomerDTO(0, "", "abc"));
+        assertFalse(response.isSuccessfull());
+        assertEquals(1, registry.snapshot("IPOSController.saveCustomer").getErrors());
+
+        Runnable failing = InstrumentedProxy.wrap(Runnable.class, () -> {
+            throw new IllegalStateException("falhou");
+        }, registry);
+        try {
+            failing.run();
+            fail("A exceção deve passar pelo proxy");
+        } catch (IllegalStateException expected) {
+            assertEquals("falhou", expected.getMessage());
+        }
+        MethodStatistics run = registry.snapshot("Runnable.run");
+        assertEquals(1, run.getCalls());
+        assertEquals(1, run.getErrors());
+    }
+
+    /**
+     * Teste 3: Desligado, o proxy só repassa a chamada
+     */
+    @Test
+    public void testDisabledRecordsNothing() {
+        registry.setEnabled(false);
+        assertNotNull(controller.getCustomers(new Response()));
+        assertTrue(registry.snapshot().isEmpty());
+
+        registry.setEnabled(true);
+        controller.getCustomers(new Response());
+        assertEquals(1, registry.snapshot("IPOSController.getCustomers").getCalls());
+    }
+
+    /**
+     * Teste 4: O arquivo de métricas passa para metrics.log.1 ao atingir o limite
+     */
+    @Test
+    public void testFileRollsOver() throws Exception {
+        File directory = Files.createTempDirectory("pos-metrics").toFile();
+        MetricsFileWriter writer = new MetricsFileWriter(registry, directory, 200, 2);
+        controller.getCustomers(new Response());
+        for (int i = 0; i < 6; i++) {
+            writer.write();
+        }
+
+        File current = new File(directory, MetricsFileWriter.FILE_NAME);
+        List<String> lines = Files.readAllLines(current.toPath());
+        assertTrue(lines.get(0).startsWith("# "));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("IPOSController.getCustomers calls=1 errors=0")));
+        assertTrue(new File(directory, MetricsFileWriter.FILE_NAME + ".1").exists());
+        assertTrue(new File(directory, MetricsFileWriter.FILE_NAME + ".2").exists());
+        assertFalse("Só 2 arquivos antigos são mantidos", new File(directory, MetricsFileWriter.FILE_NAME + ".3").exists());
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    /**
+     * Teste 5: Métodos sobrecarregados têm métricas separadas
+     */
+    @Test
+    public void testOverloadsAreKeptApart() {
+        Lookup lookup = InstrumentedProxy.wrap(Lookup.class, new Lookup() {
+            @Override
+            public int find(int id) {
+                return id;
+            }
+
+            @Override
+            public int find(String name) {
+                return name.length();
+            }
+
+            @Override
+            public int count() {
+                return 0;
+            }
+        }, registry);
+        lookup.find(1);
+        lookup.find(2);
+        lookup.find("arroz");
+        lookup.count();
+
+        assertEquals(2, registry.snapshot("Lookup.find(int)").getCalls());
+        assertEquals(1, registry.snapshot("Lookup.find(String)").getCalls());
+        assertEquals("Nomes sem sobrecarga não mudam", 1, registry.snapshot("Lookup.count").getCalls());
+        assertNull(registry.snapshot("Lookup.find"));
+    }
+
+    /**
+     * Teste 6: Percentis do histograma ficam dentro do erro dos baldes
+     * Cenário: valores de 1 a 100.000 ns, um de cada
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        LogLinearHistogram histogram = new LogLinearHistogram(4);
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+        LogLinearHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000, snapshot.getMax());
+        for (double percent : new double[]{50, 95, 99}) {
+            long exact = (long) (percent * 1_000);
+            long measured = snapshot.percentile(percent);
+            assertTrue("p" + percent + " = " + measured, measured >= exact && measured <= exact * 17 / 16);
+        }
+        assertEquals("O maior valor fica no último balde", 100_000, snapshot.percentile(100));
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+    }
+
+    public interface Lookup {
+
+        int find(int id);
+
+        int find(String name);
+
+        int count();
+    }
+}
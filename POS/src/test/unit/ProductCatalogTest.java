@@ -0,0 +1,249 @@
+package test.unit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.After;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import model.POSController;
+import model.ProductCatalog;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes Unitários do cache de catálogo de produtos (model.ProductCatalog)
+ * Verifica que leituras repetidas não acessam o banco
+ */
+public class ProductCatalogTest {
+
+    private InMemoryDatabase database;
+    private ProductCatalog catalog;
+    private POSController controller;
+
+    @Before
+    public void setUp() {
+        database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insertProduct(1, "xyz", "234567", 12.00, 123, 1);
+        database.insertProduct(2, "oil", "123456", 260.00, 12, 1);
+
+        DALManager dalManager = new DALManager(database);
+        catalog = new ProductCatalog(dalManager, 60_000);
+        controller = new POSController(dalManager, catalog);
+    }
+
+    @After
+    public void tearDown() {
+        catalog = null;
+        controller = null;
+    }
+
+    /**
+     * Teste 1: Apenas a primeira leitura acessa o banco
+     */
+    @Test
+    public void testRepeatedReadsAreServedFromMemory() {
+        Response response = new Response();
+        assertEquals(2, controller.getProducts(response).size());
+        long executed = database.getStatementsExecuted();
+
+        for (int i = 0; i < 100; i++) {
+            controller.getProducts(response);
+        }
+
+        assertEquals("Leituras seguintes não devem acessar o banco", executed, database.getStatementsExecuted());
+        assertEquals(1, catalog.getMissCount());
+        assertEquals(100, catalog.getHitCount());
+        assertEquals(1, catalog.getRefreshCount());
+    }
+
+    /**
+     * Teste 2: Busca por código de barras e por id sem acessar o banco
+     */
+    @Test
+    public void testLookupByBarcodeAndId() {
+        Response response = new Response();
+        controller.getProducts(response);
+        long executed = database.getStatementsExecuted();
+
+        assertEquals("oil", controller.getProductByBarcode("123456", response).getProductName());
+        assertEquals("oil", controller.getProductByBarcode(" 123456 ", response).getProductName());
+        assertEquals("xyz", controller.getProductById(1, response).getProductName());
+        assertNull(controller.getProductByBarcode("000000", response));
+        assertNull(controller.getProductById(99, response));
+
+        assertEquals(executed, database.getStatementsExecuted());
+    }
+
+    /**
+     * Teste 3: Atualização é refletida no cache sem recarregar
+     */
+    @Test
+    public void testUpdateIsWrittenThrough() {
+        Response response = new Response();
+        ProductDTO oil = new ProductDTO(controller.getProductById(2, response));
+        oil.setPrice(275.50);
+        oil.setBarcode("999999");
+
+        assertTrue(controller.updateProduct(oil).isSuccessfull());
+
+        assertEquals(275.50, controller.getProductById(2, response).getPrice(), 0.001);
+        assertEquals(2, controller.getProductByBarcode("999999", response).getProductId());
+        assertNull("Código antigo não deve mais ser encontrado", controller.getProductByBarcode("123456", response));
+        assertEquals(1, catalog.getRefreshCount());
+    }
+
+    /**
+     * Teste 4: Produto removido some do cache
+     */
+    @Test
+    public void testDeleteIsWrittenThrough() {
+        Response response = new Response();
+        controller.getProducts(response);
+
+        assertTrue(controller.deleteProduct(controller.getProductById(1, response)).isSuccessfull());
+
+        assertNull(controller.getProductById(1, response));
+        assertNull(controller.getProductByBarcode("234567", response));
+        assertEquals(1, controller.getProducts(response).size());
+    }
+
+    /**
+     * Teste 5: Produto adicionado aparece na próxima leitura
+     */
+    @Test
+    public void testAddInvalidatesCatalog() {
+        Response response = new Response();
+        controller.getProducts(response);
+
+        ProductDTO product = new ProductDTO(0, "sugar", "555555", 4.5, 10, 1, "counted");
+        assertTrue(controller.addProduct(product).isSuccessfull());
+
+        ProductDTO loaded = controller.getProductByBarcode("555555", response);
+        assertNotNull(loaded);
+        assertEquals(3, loaded.getProductId());
+        assertEquals(2, catalog.getRefreshCount());
+    }
+
+    /**
+     * Teste 6: Catálogo vencido é recarregado em segundo plano
+     */
+    @Test
+    public void testStaleCatalogRefreshesInBackground() throws Exception {
+        Response response = new Response();
+        controller.getProducts(response);
+        catalog.setRefreshIntervalMillis(0);
+        database.insertProduct(3, "rice", "777777", 3.0, 50, 1);
+        Thread.sleep(5);
+
+        ArrayList<ProductDTO> stale = controller.getProducts(response);
+        assertEquals("Leitura não espera o recarregamento", 2, stale.size());
+
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (catalog.getRefreshCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        catalog.setRefreshIntervalMillis(60_000);
+        assertEquals(3, controller.getProducts(response).size());
+    }
+
+    /**
+     * Teste 7: Falha ao carregar não guarda catálogo vazio
+     */
+    @Test
+    public void testFailedLoadIsNotCached() {
+        database.setAvailable(false);
+        Response response = new Response();
+
+        assertTrue(controller.getProducts(response).isEmpty());
+        assertFalse(response.isSuccessfull());
+
+        database.setAvailable(true);
+        assertEquals(2, controller.getProducts(new Response()).size());
+        assertEquals(1, catalog.getRefreshFailureCount());
+    }
+
+    /**
+     * Teste 8: Alteração gravada enquanto o catálogo é recarregado
+     * Resultado esperado: a leitura antiga é descartada e o novo preço não se perde
+     */
+    @Test
+    public void testWriteDuringRefreshIsNotLost() throws Exception {
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        boolean[] pause = {false};
+        DALManager slow = new DALManager(database) {
+            @Override
+            public ArrayList<ProductDTO> getProducts(Response response) {
+                ArrayList<ProductDTO> products = super.getProducts(response);
+                if (pause[0]) {
+                    pause[0] = false;
+                    read.countDown();
+                    try {
+                        written.await(2, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return products;
+            }
+        };
+        ProductCatalog slowCatalog = new ProductCatalog(slow, 60_000);
+        assertEquals(2, slowCatalog.getProducts(new Response()).size());
+
+        pause[0] = true;
+        Thread refresh = new Thread(() -> slowCatalog.refresh(new Response()));
+        refresh.start();
+        assertTrue(read.await(2, TimeUnit.SECONDS));
+        ProductDTO oil = new ProductDTO(slowCatalog.getProductById(2, new Response()));
+        oil.setPrice(275.00);
+        Response response = new Response();
+        slow.updateProduct(oil, response);
+        assertTrue(response.getErrorMessages(), response.isSuccessfull());
+        slowCatalog.put(oil);
+        written.countDown();
+        refresh.join(2_000);
+
+        assertEquals(275.00, slowCatalog.getProductById(2, new Response()).getPrice(), 0.001);
+        assertEquals(2, slowCatalog.getRefreshCount());
+    }
+
+    /**
+     * Teste 9: Baixa de estoque não altera o produto já entregue a quem leu
+     * Resultado esperado: o catálogo passa a ter outra cópia com o novo estoque
+     */
+    @Test
+    public void testAdjustStockCopiesTheProduct() {
+        ProductDTO held = catalog.getProductById(1, new Response());
+
+        catalog.adjustStock(1, -3);
+
+        assertEquals(123, held.getStockQuantity(), 0.001);
+        ProductDTO current = catalog.getProductById(1, new Response());
+        assertNotSame(held, current);
+        assertEquals(120, current.getStockQuantity(), 0.001);
+        assertEquals(120, catalog.getProductByBarcode("234567", new Response()).getStockQuantity(), 0.001);
+        assertEquals(120, catalog.searchProductsByName("xyz", 10, new Response()).get(0).getStockQuantity(), 0.001);
+    }
+
+    /**
+     * Teste 10: Editar um produto lido do catálogo sem salvá-lo
+     * Resultado esperado: o catálogo continua com os valores e o código de barras antigos
+     */
+    @Test
+    public void testEditingReadProductLeavesCatalogUnchanged() {
+        ProductDTO found = catalog.searchProductsByName("xyz", 10, new Response()).get(0);
+
+        found.setBarcode("999999");
+        found.setPrice(1);
+
+        assertEquals(12.00, catalog.getProductById(1, new Response()).getPrice(), 0.001);
+        assertNotNull(catalog.getProductByBarcode("234567", new Response()));
+        assertNull(catalog.getProductByBarcode("999999", new Response()));
+        assertEquals(12.00, catalog.searchProductsByName("xyz", 10, new Response()).get(0).getPrice(), 0.001);
+    }
+}
@@ -0,0 +1,146 @@
+package test.unit;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.DALManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import model.POSController;
+import model.ProductCatalog;
+import model.ProductSearchIndex;
+import model.dto.ProductDTO;
+import model.dto.Response;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes Unitários do índice de busca por nome de produto (model.ProductSearchIndex)
+ */
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new ProductSearchIndex(Arrays.asList(
+                product(1, "Sunflower Oil"),
+                product(2, "Olive Oil"),
+                product(3, "Oil Filter"),
+                product(4, "Boiled Eggs"),
+                product(5, "Açúcar Refinado"),
+                product(6, "Rice")));
+    }
+
+    /**
+     * Teste 1: Busca por substring encontra todos os produtos
+     * Resultado esperado: prefixo do nome primeiro, depois início de palavra, depois o resto
+     */
+    @Test
+    public void testSubstringMatchesAreRanked() {
+        ArrayList<ProductDTO> results = index.search("oil", 10);
+
+        assertEquals(Arrays.asList(3, 1, 2, 4), ids(results));
+    }
+
+    /**
+     * Teste 2: Busca ignora maiúsculas e acentos
+     */
+    @Test
+    public void testSearchIgnoresCaseAndAccents() {
+        assertEquals(Arrays.asList(5), ids(index.search("ACUCAR", 10)));
+        assertEquals(Arrays.asList(5), ids(index.search("çúc", 10)));
+    }
+
+    /**
+     * Teste 3: Consultas curtas (menos de 3 caracteres) também funcionam
+     */
+    @Test
+    public void testShortQueries() {
+        assertEquals(Arrays.asList(2, 3), ids(index.search("o", 2)));
+        assertEquals(Arrays.asList(6), ids(index.search("ri", 10)));
+        assertTrue(index.search("", 10).isEmpty());
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    /**
+     * Teste 4: Trigramas fora de ordem não geram falso positivo
+     */
+    @Test
+    public void testTrigramsMustBeContiguous() {
+        index.update(product(7, "abcxbcd"));
+
+        assertTrue(index.search("abcd", 10).isEmpty());
+        assertEquals(Arrays.asList(7), ids(index.search("xbcd", 10)));
+    }
+
+    /**
+     * Teste 5: Resultado é limitado
+     */
+    @Test
+    public void testResultsAreCapped() {
+        assertEquals(2, index.search("oil", 2).size());
+        assertEquals(Arrays.asList(3, 1), ids(index.search("oil", 2)));
+    }
+
+    /**
+     * Teste 6: Atualizações e remoções mantêm o índice correto
+     */
+    @Test
+    public void testIncrementalUpdates() {
+        index.update(product(6, "Rice Bran Oil"));
+        index.remove(3);
+
+        assertEquals(Arrays.asList(1, 2, 6, 4), ids(index.search("oil", 10)));
+        assertTrue(index.search("filter", 10).isEmpty());
+        assertEquals(5, index.size());
+
+        for (int i = 100; i < 300; i++) {
+            index.update(product(i, "Temp " + i));
+            index.remove(i);
+        }
+        assertEquals(5, index.size());
+        assertEquals(Arrays.asList(1, 2, 6, 4), ids(index.search("oil", 10)));
+    }
+
+    /**
+     * Teste 7: POSController busca pelo índice sem acessar o banco
+     */
+    @Test
+    public void testControllerSearchUsesIndex() {
+        InMemoryDatabase database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insertProduct(1, "xyz", "234567", 12.00, 123, 1);
+        database.insertProduct(2, "oil", "123456", 260.00, 12, 1);
+        DALManager dalManager = new DALManager(database);
+        POSController controller = new POSController(dalManager, new ProductCatalog(dalManager, 60_000));
+
+        Response response = new Response();
+        assertEquals(1, controller.searchProductsByName("oi", response).size());
+        long executed = database.getStatementsExecuted();
+
+        assertEquals(1, controller.searchProductsByName("xyz", response).size());
+        assertEquals(0, controller.searchProductsByName("nothing", response).size());
+        assertEquals("Buscas seguintes não devem acessar o banco", executed, database.getStatementsExecuted());
+
+        ProductDTO renamed = controller.getProductById(1, response);
+        renamed.setProductName("olive");
+        controller.updateProduct(renamed);
+        assertEquals(2, controller.searchProductsByName("o", response).size());
+    }
+
+    private static ProductDTO product(int id, String name) {
+        ProductDTO product = new ProductDTO();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setBarcode("B" + id);
+        return product;
+    }
+
+    private static ArrayList<Integer> ids(ArrayList<ProductDTO> products) {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (ProductDTO product : products) {
+            ids.add(product.getProductId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,171 @@
+package test.unit;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.SalesAggregates;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+
+/**
+ * Testes Unitários dos agregados de vendas da tela inicial (model.SalesAggregates)
+ * Cada venda gravada atualiza hora, categoria, mês e tamanho da cesta
+ */
+public class SalesAggregatesTest {
+
+    private SalesAggregates aggregates;
+
+    @Before
+    public void setUp() {
+        aggregates = new SalesAggregates();
+    }
+
+    /**
+     * Teste 1: Uma venda entra em todos os agregados com valores exatos
+     */
+    @Test
+    public void testSaleIsAddedToEveryFigure() {
+        aggregates.record(sale(LocalDateTime.of(2026, 10, 17, 9, 30), item(1, 0.10, 3), item(2, 2.25, 2)),
+                productId -> productId == 1 ? 7 : 8);
+        aggregates.record(sale(LocalDateTime.of(2026, 10, 17, 9, 45), item(1, 0.10, 1)),
+                productId -> 7);
+
+        SalesAggregates.Snapshot snapshot = aggregates.snapshot();
+        assertEquals(2, snapshot.getSalesCount());
+        assertEquals(490, snapshot.getTotalMinor());
+        assertEquals(490, snapshot.getHourAmountMinor(9));
+        assertEquals(2, snapshot.getHourSales(9));
+        assertEquals(Long.valueOf(40), snapshot.getCategoryAmountMinor().get(7));
+        assertEquals(Long.valueOf(450), snapshot.getCategoryAmountMinor().get(8));
+        assertEquals(Long.valueOf(490), snapshot.getMonthAmountMinor().get(YearMonth.of(2026, 10)));
+        assertEquals("Cesta de 5 unidades", 1, snapshot.getBasketSizeCount(4));
+        assertEquals("Cesta de 1 unidade", 1, snapshot.getBasketSizeCount(0));
+    }
+
+    /**
+     * Teste 2: Horas recomeçam no primeiro dia novo; meses continuam
+     */
+    @Test
+    public void testHoursStartAgainOnNewDay() {
+        aggregates.record(sale(LocalDateTime.of(2026, 10, 17, 22, 0), item(1, 5.00, 1)), productId -> 0);
+        aggregates.record(sale(LocalDateTime.of(2026, 10, 18, 8, 0), item(1, 1.00, 1)), productId -> 0);
+        // venda atrasada do dia anterior não mexe nas horas de hoje
+        aggregates.record(sale(LocalDateTime.of(2026, 10, 17, 23, 0), item(1, 2.00, 1)), productId -> 0);
+
+        SalesAggregates.Snapshot snapshot = aggregates.snapshot();
+        assertEquals(0, snapshot.getHourAmountMinor(22));
+        assertEquals(0, snapshot.getHourAmountMinor(23));
+        assertEquals(100, snapshot.getHourAmountMinor(8));
+        assertEquals(Long.valueOf(800), snapshot.getMonthAmountMinor().get(YearMonth.of(2026, 10)));
+    }
+
+    /**
+     * Teste 3: Cestas de 10 unidades ou mais ficam no último intervalo
+     */
+    @Test
+    public void testLargeBasketsShareLastBucket() {
+        aggregates.record(sale(LocalDateTime.now(), item(1, 1.00, 10)), productId -> 0);
+        aggregates.record(sale(LocalDateTime.now(), item(1, 1.00, 250)), productId -> 0);
+
+        assertEquals(2, aggregates.snapshot().getBasketSizeCount(SalesAggregates.BASKET_BUCKETS - 1));
+    }
+
+    /**
+     * Teste 4: Ouvintes são avisados a cada venda e a cópia não muda depois
+     */
+    @Test
+    public void testListenersAndSnapshotIsolation() {
+        AtomicInteger notified = new AtomicInteger();
+        aggregates.addListener(notified::incrementAndGet);
+        aggregates.record(sale(LocalDateTime.now(), item(1, 1.00, 1)), productId -> 0);
+        SalesAggregates.Snapshot before = aggregates.snapshot();
+        aggregates.record(sale(LocalDateTime.now(), item(1, 1.00, 1)), productId -> 0);
+
+        assertEquals(2, notified.get());
+        assertEquals(1, before.getSalesCount());
+        assertEquals(100, before.getTotalMinor());
+    }
+
+    /**
+     * Teste 5: Venda com desconto no total
+     * Resultado esperado: os valores somam o que foi cobrado e o desconto sai das categorias
+     */
+    @Test
+    public void testDiscountedSaleCountsAmountCharged() {
+        SaleDTO discounted = sale(LocalDateTime.of(2026, 10, 17, 9, 30), item(1, 1.50, 2), item(2, 3.25, 1));
+        discounted.setTotalAmount(5.75);
+        discounted.spreadTotalOverLines();
+
+        aggregates.record(discounted, productId -> productId == 1 ? 7 : 8);
+
+        SalesAggregates.Snapshot snapshot = aggregates.snapshot();
+        assertEquals(575, snapshot.getTotalMinor());
+        assertEquals(575, snapshot.getHourAmountMinor(9));
+        assertEquals(Long.valueOf(276), snapshot.getCategoryAmountMinor().get(7));
+        assertEquals(Long.valueOf(299), snapshot.getCategoryAmountMinor().get(8));
+        assertEquals(Long.valueOf(575), snapshot.getMonthAmountMinor().get(YearMonth.of(2026, 10)));
+    }
+
+    /**
+     * Teste 6: Histórico lido do banco com vendas gravadas durante a leitura
+     * Resultado esperado: cada venda conta uma vez e só as gravadas agora contam como registradas
+     */
+    @Test
+    public void testHistoryLoadSeedsFiguresOnce() {
+        SaleDTO before = saved(1, sale(LocalDateTime.of(2026, 8, 3, 10, 0), item(1, 2.00, 1)));
+        aggregates.record(before, productId -> 7);
+        SalesAggregates.HistoryLoad load = aggregates.beginHistoryLoad(productId -> 7);
+        SaleDTO old = saved(2, sale(LocalDateTime.of(2026, 9, 1, 12, 0), item(1, 1.00, 2), item(2, 3.00, 1)));
+        SaleDTO during = saved(3, sale(LocalDateTime.now(), item(1, 4.00, 1)));
+        SaleDTO after = saved(4, sale(LocalDateTime.now(), item(2, 6.00, 1)));
+
+        for (SaleDTO sale : List.of(before, old, during)) {
+            load.sale(sale);
+        }
+        aggregates.record(during, productId -> 7);
+        aggregates.record(after, productId -> 7);
+        assertEquals("Vendas ficam retidas até o fim da leitura", 1, aggregates.snapshot().getSalesCount());
+        for (SaleDTO sale : List.of(before, old, during)) {
+            for (SaleItemDTO item : sale.getItems()) {
+                load.line(item);
+            }
+        }
+        load.finish();
+
+        SalesAggregates.Snapshot snapshot = aggregates.snapshot();
+        assertEquals(4, snapshot.getSalesCount());
+        assertEquals(1700, snapshot.getTotalMinor());
+        assertEquals(Long.valueOf(500), snapshot.getMonthAmountMinor().get(YearMonth.of(2026, 9)));
+        assertEquals(Long.valueOf(1700), snapshot.getCategoryAmountMinor().get(7));
+        assertEquals("Cesta de 3 unidades", 1, snapshot.getBasketSizeCount(2));
+        assertEquals(3, snapshot.getRecordedCount());
+        assertEquals(1200, snapshot.getRecordedMinor());
+    }
+
+    private static SaleDTO saved(int id, SaleDTO sale) {
+        sale.setSaleId(id);
+        for (SaleItemDTO item : sale.getItems()) {
+            item.setSaleId(id);
+        }
+        return sale;
+    }
+
+    private static SaleItemDTO item(int productId, double price, int quantity) {
+        return new SaleItemDTO(productId, "product " + productId, price, quantity);
+    }
+
+    private static SaleDTO sale(LocalDateTime date, SaleItemDTO... items) {
+        SaleDTO sale = new SaleDTO();
+        sale.setSaleDate(date);
+        List<SaleItemDTO> list = new ArrayList<>(List.of(items));
+        sale.setItems(list);
+        sale.setTotalAmount(list.stream().mapToDouble(SaleItemDTO::getTotal).sum());
+        sale.spreadTotalOverLines();
+        return sale;
+    }
+}
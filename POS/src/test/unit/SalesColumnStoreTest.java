@@ -0,0 +1,233 @@
+package test.unit;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import model.SalesColumnStore;
+import model.dto.CustomerDTO;
+import model.dto.ReportRowDTO;
+import model.dto.SaleDTO;
+import model.dto.SaleItemDTO;
+import model.dto.SalesGrouping;
+import model.dto.SalesQueryDTO;
+
+/**
+ * Testes Unitários do armazenamento de vendas em colunas (model.SalesColumnStore)
+ * Verifica filtros, agrupamentos, a carga do histórico e a execução em paralelo
+ */
+public class SalesColumnStoreTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2026, 3, 1);
+    private static final LocalDate MARCH_31 = LocalDate.of(2026, 3, 31);
+
+    private SalesColumnStore store;
+
+    @Before
+    public void setUp() {
+        store = new SalesColumnStore();
+        // produto, categoria, cliente, unidades, valor em centavos
+        store.appendLine(LocalDateTime.of(2026, 3, 2, 9, 15), 10, 1, 7, 2, 300);
+        store.appendLine(LocalDateTime.of(2026, 3, 2, 23, 59), 20, 2, 7, 1, 325);
+        store.appendLine(LocalDateTime.of(2026, 3, 3, 0, 0), 10, 1, 0, 4, 600);
+        store.appendLine(LocalDateTime.of(2026, 3, 31, 12, 0), 30, 1, 8, 1, 199);
+        store.appendLine(LocalDateTime.of(2026, 4, 1, 0, 0), 30, 1, 8, 5, 995);
+    }
+
+    /**
+     * Teste 1: Agrupar por produto, categoria e cliente soma linhas, unidades e valores
+     */
+    @Test
+    public void testGroupByIds() {
+        List<ReportRowDTO> products = store.query(new SalesQueryDTO(MARCH_1, MARCH_31, SalesGrouping.Product));
+        assertEquals(3, products.size());
+        assertRow(products.get(0), "10", 2, 6, "9.00");
+        assertRow(products.get(1), "20", 1, 1, "3.25");
+        assertRow(products.get(2), "30", 1, 1, "1.99");
+
+        List<ReportRowDTO> categories = store.query(new SalesQueryDTO(MARCH_1, MARCH_31, SalesGrouping.Category));
+        assertEquals(2, categories.size());
+        assertRow(categories.get(0), "1", 3, 7, "10.99");
+
+        List<ReportRowDTO> customers = store.query(new SalesQueryDTO(null, null, SalesGrouping.Customer));
+        assertEquals(3, customers.size());
+        assertRow(customers.get(2), "8", 2, 6, "11.94");
+    }
+
+    /**
+     * Teste 2: Dias e meses saem em ordem de data, só os que têm vendas
+     * Cenário: linhas às 23:59 e à 00:00 caem em dias diferentes
+     */
+    @Test
+    public void testGroupByDate() {
+        List<ReportRowDTO> days = store.query(new SalesQueryDTO(MARCH_1, LocalDate.of(2026, 4, 30), SalesGrouping.Day));
+        assertEquals(4, days.size());
+        assertRow(days.get(0), "2026-03-02", 2, 3, "6.25");
+        assertRow(days.get(1), "2026-03-03", 1, 4, "6.00");
+        assertEquals("2026-04-01", days.get(3).getKey());
+
+        List<ReportRowDTO> months = store.query(new SalesQueryDTO(null, null, SalesGrouping.Month));
+        assertEquals(2, months.size());
+        assertRow(months.get(0), "2026-03-01", 4, 8, "14.24");
+        assertRow(months.get(1), "2026-04-01", 1, 5, "9.95");
+    }
+
+    /**
+     * Teste 3: Filtros por categoria, cliente e produto se combinam
+     */
+    @Test
+    public void testFilters() {
+        SalesQueryDTO query = new SalesQueryDTO(MARCH_1, MARCH_31, SalesGrouping.Product);
+        query.setCategoryIds(Set.of(1));
+        query.setCustomerIds(Set.of(7, 8));
+        List<ReportRowDTO> rows = store.query(query);
+        assertEquals(2, rows.size());
+        assertRow(rows.get(0), "10", 1, 2, "3.00");
+        assertRow(rows.get(1), "30", 1, 1, "1.99");
+
+        query.setProductIds(Set.of(99));
+        assertTrue("Produto desconhecido não tem linhas", store.query(query).isEmpty());
+
+        query = new SalesQueryDTO(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), SalesGrouping.Day);
+        assertTrue("Período sem vendas", store.query(query).isEmpty());
+    }
+
+    /**
+     * Teste 4: A carga do histórico não repete vendas já acrescentadas
+     * Cenário: venda gravada antes da carga aparece também no banco
+     */
+    @Test
+    public void testHistoryDoesNotRepeatLiveSales() {
+        SalesColumnStore live = new SalesColumnStore();
+        live.append(sale(5, "uid-5", 10, 2));
+
+        load(live, sale(4, "uid-4", 20, 1), sale(5, "uid-5", 10, 2)).finish();
+
+        assertTrue(live.isHistoryLoaded());
+        assertEquals(2, live.size());
+        List<ReportRowDTO> categories = live.query(new SalesQueryDTO(null, null, SalesGrouping.Category));
+        assertEquals("Categoria do histórico vem do catálogo", "2", categories.get(1).getKey());
+        List<ReportRowDTO> customers = live.query(new SalesQueryDTO(null, null, SalesGrouping.Customer));
+        assertRow(customers.get(0), "3", 2, 3, "3.00");
+    }
+
+    /**
+     * Teste 5: Resultado em paralelo igual à soma linha a linha
+     * Cenário: 1 milhão de linhas, divididas em vários pedaços
+     */
+    @Test
+    public void testParallelMatchesSequential() {
+        SalesColumnStore big = new SalesColumnStore(1_000_000);
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        long[] expectedMinor = new long[50];
+        long[] expectedLines = new long[50];
+        for (int i = 0; i < 1_000_000; i++) {
+            int product = i % 50;
+            big.appendLine(start.plusMinutes(i % 100_000), product, i % 7, i % 13, 1 + i % 3, 100 + i % 1000);
+            if (i % 7 == 3) {
+                expectedMinor[product] += 100 + i % 1000;
+                expectedLines[product]++;
+            }
+        }
+        SalesQueryDTO query = new SalesQueryDTO(null, null, SalesGrouping.Product);
+        query.setCategoryIds(Set.of(3));
+
+        List<ReportRowDTO> rows = big.query(query);
+
+        assertEquals(50, rows.size());
+        for (ReportRowDTO row : rows) {
+            int product = Integer.parseInt(row.getKey());
+            assertEquals(expectedLines[product], row.getCount());
+            assertEquals(BigDecimal.valueOf(expectedMinor[product], 2), row.getRevenue());
+        }
+    }
+
+    /**
+     * Teste 6: Vendas gravadas durante a carga entram uma vez só, no fim
+     * Cenário: uma venda cujo cabeçalho já foi lido e outra posterior à leitura
+     */
+    @Test
+    public void testSalesAppendedDuringTheLoadAreAddedOnce() {
+        SalesColumnStore live = new SalesColumnStore();
+        SalesColumnStore.HistoryLoad load = live.beginHistoryLoad(productId -> productId / 10);
+        SaleDTO read = sale(4, "uid-4", 20, 1);
+        load.sale(read);
+        live.append(read);
+        SaleDTO after = sale(6, "uid-6", 30, 3);
+        live.append(after);
+        load.sale(after);
+        line(load, read);
+        line(load, after);
+
+        assertEquals("Nada aparece antes do fim da carga", 0, live.size());
+        load.finish();
+
+        assertEquals(2, live.size());
+        List<ReportRowDTO> products = live.query(new SalesQueryDTO(null, null, SalesGrouping.Product));
+        assertRow(products.get(0), "20", 1, 1, "1.00");
+        assertRow(products.get(1), "30", 1, 3, "3.00");
+    }
+
+    /**
+     * Teste 7: Carga que falha não deixa histórico pela metade
+     * Resultado esperado: só as vendas acrescentadas ficam no armazenamento
+     */
+    @Test
+    public void testAbandonedLoadKeepsOnlyLiveSales() {
+        SalesColumnStore live = new SalesColumnStore();
+        SalesColumnStore.HistoryLoad load = load(live, sale(4, "uid-4", 20, 1));
+        live.append(sale(6, "uid-6", 30, 3));
+
+        load.abandon();
+
+        assertFalse(live.isHistoryLoaded());
+        assertEquals(1, live.size());
+        assertRow(live.query(new SalesQueryDTO(null, null, SalesGrouping.Product)).get(0), "30", 1, 3, "3.00");
+    }
+
+    private static SalesColumnStore.HistoryLoad load(SalesColumnStore store, SaleDTO... history) {
+        SalesColumnStore.HistoryLoad load = store.beginHistoryLoad(productId -> productId / 10);
+        for (SaleDTO sale : history) {
+            load.sale(sale);
+        }
+        for (SaleDTO sale : history) {
+            line(load, sale);
+        }
+        return load;
+    }
+
+    private static void line(SalesColumnStore.HistoryLoad load, SaleDTO sale) {
+        for (SaleItemDTO item : sale.getItems()) {
+            SaleItemDTO saved = new SaleItemDTO(item.getProductId(), item.getProductName(), item.getPrice(), item.getQuantity());
+            saved.setSaleId(sale.getSaleId());
+            saved.setNetTotal(item.getNetTotal());
+            load.line(saved);
+        }
+    }
+
+    private static SaleDTO sale(int id, String uid, int productId, int quantity) {
+        SaleDTO sale = new SaleDTO();
+        sale.setSaleId(id);
+        sale.setSaleUid(uid);
+        sale.setSaleDate(LocalDateTime.of(2026, 3, 2, 10, 0));
+        sale.setCustomer(new CustomerDTO(3, "customer", "123"));
+        List<SaleItemDTO> items = new ArrayList<>();
+        items.add(new SaleItemDTO(productId, "product " + productId, 1.00, quantity));
+        sale.setItems(items);
+        sale.setTotalAmount(quantity);
+        sale.spreadTotalOverLines();
+        return sale;
+    }
+
+    private static void assertRow(ReportRowDTO row, String key, long lines, long units, String revenue) {
+        assertEquals(key, row.getKey());
+        assertEquals("linhas de " + key, lines, row.getCount());
+        assertEquals("unidades de " + key, units, row.getQuantity());
+        assertEquals("valor de " + key, new BigDecimal(revenue), row.getRevenue());
+    }
+}
@@ -0,0 +1,164 @@
+package test.unit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import dal.db.ConnectionPool;
+import dal.db.PoolStatistics;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import test.util.InMemoryDatabase;
+
+/**
+ * Testes Unitários do cache de prepared statements (dal.db.StatementCache)
+ * Usa o pool sobre o banco em memória no lugar do MySQL
+ */
+public class StatementCacheTest {
+
+    private static final String UPDATE = "UPDATE products SET price = ? WHERE id = ?";
+    private static final String SELECT = "SELECT * FROM products WHERE id = ?";
+
+    private InMemoryDatabase database;
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        database = new InMemoryDatabase();
+        database.createPosSchema();
+        database.insertProduct(1, "oil", "111", 260.0, 10, 1);
+        database.insertProduct(2, "tea", "222", 3.5, 10, 1);
+        pool = new ConnectionPool(database, 2, 60_000);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Teste 1: O mesmo SQL é preparado uma só vez, mesmo entre empréstimos
+     * Resultado esperado: um prepare no banco e os demais contados como acertos
+     */
+    @Test
+    public void testStatementIsReusedAcrossBorrows() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            try (Connection connection = pool.getConnection();
+                    PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+                statement.setDouble(1, 100 + i);
+                statement.setInt(2, 1);
+                assertEquals(1, statement.executeUpdate());
+                assertSame(connection, statement.getConnection());
+            }
+        }
+
+        PoolStatistics statistics = pool.getStatistics();
+        assertEquals(1, database.getStatementsPrepared());
+        assertEquals(4, statistics.getStatementCacheHits());
+        assertEquals(1, statistics.getStatementCacheMisses());
+        assertEquals(0.8, statistics.getStatementCacheHitRatio(), 0.0001);
+        assertEquals(1, statistics.getCachedStatements());
+        assertEquals("Statement fica aberto no cache", 1, database.getOpenStatements());
+    }
+
+    /**
+     * Teste 2: Statement devolvido volta sem parâmetros e o handle antigo
+     * deixa de funcionar
+     */
+    @Test
+    public void testClosedHandleIsReset() throws Exception {
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement first = connection.prepareStatement(SELECT);
+            first.setInt(1, 2);
+            first.close();
+            assertTrue(first.isClosed());
+            try {
+                first.executeQuery();
+                fail("Handle fechado não deve executar");
+            } catch (SQLException expected) {
+            }
+
+            PreparedStatement second = connection.prepareStatement(SELECT);
+            second.setInt(1, 1);
+            try (ResultSet resultSet = second.executeQuery()) {
+                assertTrue(resultSet.next());
+                assertEquals("oil", resultSet.getString("name"));
+            }
+            second.close();
+        }
+        assertEquals(1, database.getStatementsPrepared());
+    }
+
+    /**
+     * Teste 3: Cache cheio fecha o statement usado há mais tempo
+     */
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        pool.shutdown();
+        pool = new ConnectionPool(database, 1, 60_000);
+        pool.setStatementCacheSize(2);
+        String[] queries = {SELECT, UPDATE, "DELETE FROM products WHERE id = ?"};
+        try (Connection connection = pool.getConnection()) {
+            connection.prepareStatement(queries[0]).close();
+            connection.prepareStatement(queries[1]).close();
+            connection.prepareStatement(queries[0]).close();
+            connection.prepareStatement(queries[2]).close();
+            // UPDATE foi o menos usado e saiu; SELECT continua no cache
+            connection.prepareStatement(queries[0]).close();
+        }
+
+        PoolStatistics statistics = pool.getStatistics();
+        assertEquals(1, statistics.getStatementCacheEvictions());
+        assertEquals(2, statistics.getStatementCacheHits());
+        assertEquals(3, database.getStatementsPrepared());
+        assertEquals(2, database.getOpenStatements());
+    }
+
+    /**
+     * Teste 4: Statement esquecido aberto é recuperado quando a conexão volta
+     * ao pool, e o mesmo SQL aberto duas vezes não compartilha o statement
+     */
+    @Test
+    public void testHeldStatementsAreReclaimed() throws Exception {
+        Connection connection = pool.getConnection();
+        PreparedStatement forgotten = connection.prepareStatement(UPDATE);
+        PreparedStatement second = connection.prepareStatement(UPDATE);
+        assertNotSame(forgotten, second);
+        second.close();
+        connection.close();
+
+        try {
+            forgotten.executeUpdate();
+            fail("Handle de conexão devolvida não deve executar");
+        } catch (SQLException expected) {
+        }
+        assertEquals("Só o statement em cache continua aberto", 1, database.getOpenStatements());
+
+        try (Connection again = pool.getConnection();
+                PreparedStatement statement = again.prepareStatement(UPDATE)) {
+            statement.setDouble(1, 1.0);
+            statement.setInt(2, 2);
+            assertEquals(1, statement.executeUpdate());
+        }
+        assertEquals(2, database.getStatementsPrepared());
+    }
+
+    /**
+     * Teste 5: Encerrar o pool fecha os statements em cache
+     */
+    @Test
+    public void testShutdownClosesCachedStatements() throws Exception {
+        try (Connection connection = pool.getConnection()) {
+            connection.prepareStatement(SELECT).close();
+            connection.prepareStatement(UPDATE).close();
+        }
+        assertEquals(2, database.getOpenStatements());
+
+        pool.shutdown();
+
+        assertEquals(0, database.getOpenStatements());
+        assertEquals(0, database.getOpenConnections());
+    }
+}
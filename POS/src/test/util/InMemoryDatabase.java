@@ -0,0 +1,1045 @@
+package test.util;
+
+import dal.db.IConnection;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Banco de dados substituto para testes sem MySQL: entrega conexões JDBC
+ * falsas (proxies) sobre tabelas em memória e contabiliza quantas conexões,
+ * statements e resultsets estão abertos.
+ *
+ * Entende apenas o SQL simples usado pelo DAL: SELECT com WHERE (=, LIKE,
+ * &gt;, &lt;, &gt;=, &lt;=) ligado por AND, GROUP BY de uma coluna, ORDER BY
+ * e LIMIT, com colunas ou SUM/COUNT renomeados por AS; INSERT com lista de
+ * colunas e ON DUPLICATE KEY UPDATE col = VALUES(col) ou col = col +
+ * VALUES(col) nas tabelas com chave única; UPDATE ... SET ... WHERE;
+ * DELETE ... WHERE.
+ *
+ * Com autoCommit desligado as escritas podem ser desfeitas com rollback().
+ * Cada execute, executeBatch, commit, rollback e troca de autoCommit conta
+ * como uma ida e volta ao servidor e pode receber uma latência simulada.
+ * Preparar um statement pode receber um custo próprio, o de analisar e
+ * planejar o SQL no servidor.
+ *
+ * Criado com um arquivo, o banco grava todas as tabelas a cada commit (troca
+ * atômica do arquivo) e as recarrega ao abrir, sobrevivendo ao fim do processo.
+ */
+public class InMemoryDatabase implements IConnection {
+
+    private static final Pattern SELECT = Pattern.compile(
+            "SELECT\\s+(.+?)\\s+FROM\\s+(\\w+)(?:\\s+WHERE\\s+(.+?))?(?:\\s+GROUP\\s+BY\\s+(\\w+))?(?:\\s+ORDER\\s+BY\\s+(\\w+)(?:\\s+(ASC|DESC))?)?(?:\\s+LIMIT\\s+(\\?|\\d+))?\\s*;?",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern INSERT = Pattern.compile(
+            "INSERT\\s+INTO\\s+(\\w+)\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(([^)]*)\\)(?:\\s+ON\\s+DUPLICATE\\s+KEY\\s+UPDATE\\s+(.+?))?\\s*;?",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern UPDATE = Pattern.compile(
+            "UPDATE\\s+(\\w+)\\s+SET\\s+(.+?)\\s+WHERE\\s+(.+?)\\s*;?",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern DELETE = Pattern.compile(
+            "DELETE\\s+FROM\\s+(\\w+)(?:\\s+WHERE\\s+(.+?))?\\s*;?",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern CONDITION = Pattern.compile(
+            "(\\w+)\\s*(=|LIKE|>=|<=|>|<)\\s*(\\?|'[^']*'|-?\\d+(?:\\.\\d+)?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SELECTED = Pattern.compile(
+            "(?:(SUM|COUNT)\\s*\\(\\s*(\\w+|\\*)\\s*\\)|(\\w+))(?:\\s+AS\\s+(\\w+))?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern UPSERT = Pattern.compile(
+            "(\\w+)\\s*=\\s*(?:(\\w+)\\s*\\+\\s*)?VALUES\\s*\\(\\s*(\\w+)\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+    private final Map<String, Table> tables = new HashMap<>();
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger connectionsOpened = new AtomicInteger();
+    private final AtomicInteger openStatements = new AtomicInteger();
+    private final AtomicInteger openResultSets = new AtomicInteger();
+    private final AtomicInteger statementsPrepared = new AtomicInteger();
+    private final AtomicLong statementsExecuted = new AtomicLong();
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private volatile long roundTripLatencyNanos;
+    private volatile long prepareCostNanos;
+    private volatile boolean available = true;
+    private volatile boolean connectionsValid = true;
+    private final File storage;
+
+    public InMemoryDatabase() {
+        this.storage = null;
+    }
+
+    /**
+     * Banco persistido em arquivo: carrega as tabelas se o arquivo existir.
+     */
+    @SuppressWarnings("unchecked")
+    public InMemoryDatabase(File storage) {
+        this.storage = storage;
+        if (storage.exists()) {
+            try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(storage.toPath()))) {
+                tables.putAll((Map<String, Table>) in.readObject());
+            } catch (IOException | ClassNotFoundException ex) {
+                throw new IllegalStateException("Não foi possível carregar " + storage, ex);
+            }
+        }
+    }
+
+    /**
+     * Grava todas as tabelas no arquivo, se houver; o arquivo anterior só é
+     * substituído depois que o novo foi escrito por completo.
+     */
+    public synchronized void save() {
+        if (storage == null) {
+            return;
+        }
+        File temp = new File(storage.getPath() + ".tmp");
+        try {
+            try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(temp.toPath()))) {
+                out.writeObject(new HashMap<>(tables));
+            }
+            Files.move(temp.toPath(), storage.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public synchronized boolean hasTable(String name) {
+        return tables.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public Connection getConnection() {
+        if (!available) {
+            return null;
+        }
+        openConnections.incrementAndGet();
+        connectionsOpened.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(InMemoryDatabase.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new FakeConnection());
+    }
+
+    /**
+     * Cria uma tabela; a primeira coluna é tratada como chave auto incremento.
+     */
+    public synchronized void createTable(String name, String... columns) {
+        tables.put(name.toLowerCase(Locale.ROOT), new Table(columns));
+    }
+
+    /**
+     * Declara a chave única da tabela, usada pelo ON DUPLICATE KEY UPDATE; um
+     * INSERT sem ele que repete a chave falha como no MySQL (SQLState 23000).
+     */
+    public synchronized void setUniqueKey(String table, String... columns) {
+        Table t = table(table);
+        t.keyIndex = null;
+        t.uniqueKey = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            t.uniqueKey[i] = Arrays.asList(t.columns).indexOf(columns[i]);
+        }
+    }
+
+    public synchronized void insert(String table, Object... values) {
+        Table t = table(table);
+        t.keyIndex = null;
+        t.rows.add(values.clone());
+        if (values[0] instanceof Number n) {
+            t.nextId = Math.max(t.nextId, n.longValue() + 1);
+        }
+    }
+
+    public synchronized List<Object[]> rows(String table) {
+        return new ArrayList<>(table(table).rows);
+    }
+
+    public synchronized int rowCount(String table) {
+        return table(table).rows.size();
+    }
+
+    /**
+     * Cria as tabelas do DBScripts/pos.sql usadas pelo DAL.
+     */
+    public void createPosSchema() {
+        createTable("users", "username", "password", "role");
+        createTable("customers", "id", "name", "phoneNumber");
+        createTable("suppliers", "id", "name", "phoneNumber");
+        createTable("employees", "id", "name", "phoneNumber");
+        createTable("category", "id", "name");
+        createTable("products", "id", "name", "barcode", "price", "stock_quantity", "category_id",
+                "created_at", "updated_at", "quantity_type", "suppliers_id");
+        createTable("sales", "id", "customer_id", "sale_date", "total_amount", "sale_uid");
+        createTable("sale_items", "id", "sale_id", "product_id", "product_name", "quantity", "unit_price", "total_price", "net_total");
+        createTable("sales_hourly_product", "bucket_hour", "product_id", "quantity", "revenue", "line_count");
+        createTable("sales_hourly_category", "bucket_hour", "category_id", "quantity", "revenue", "line_count");
+        createTable("sales_hourly_cashier", "bucket_hour", "cashier", "sale_count", "quantity", "revenue");
+        setUniqueKey("sales_hourly_product", "bucket_hour", "product_id");
+        setUniqueKey("sales_hourly_category", "bucket_hour", "category_id");
+        setUniqueKey("sales_hourly_cashier", "bucket_hour", "cashier");
+    }
+
+    public void insertProduct(int id, String name, String barcode, double price, double stock, int categoryId) {
+        insert("products", id, name, barcode, BigDecimal.valueOf(price), BigDecimal.valueOf(stock), categoryId,
+                null, null, "counted", 1);
+    }
+
+    /**
+     * Simula o banco fora do ar: novas conexões passam a retornar null.
+     */
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    /**
+     * Faz com que Connection.isValid() retorne o valor informado.
+     */
+    public void setConnectionsValid(boolean connectionsValid) {
+        this.connectionsValid = connectionsValid;
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public int getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    public int getOpenStatements() {
+        return openStatements.get();
+    }
+
+    public int getOpenResultSets() {
+        return openResultSets.get();
+    }
+
+    public int getStatementsPrepared() {
+        return statementsPrepared.get();
+    }
+
+    public long getStatementsExecuted() {
+        return statementsExecuted.get();
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    /**
+     * Bytes das linhas devolvidas pelos SELECTs, contados como o MySQL os
+     * mandaria: texto e decimais em UTF-8, inteiros com 4 ou 8 bytes e datas
+     * com 8. Serve para comparar o quanto cada consulta traz do servidor.
+     */
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    private static long wireSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Integer || value instanceof Float) {
+            return 4;
+        }
+        if (value instanceof Long || value instanceof Double || value instanceof Timestamp) {
+            return 8;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString().length();
+        }
+        return value.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Simula a latência de rede: cada ida e volta ao servidor espera esse tempo.
+     */
+    public void setRoundTripLatencyMicros(long micros) {
+        this.roundTripLatencyNanos = micros * 1000;
+    }
+
+    /**
+     * Simula o custo de analisar e planejar o SQL a cada prepareStatement.
+     * Espera ocupada, para que custos de poucos microssegundos sejam exatos.
+     */
+    public void setPrepareCostMicros(long micros) {
+        this.prepareCostNanos = micros * 1000;
+    }
+
+    private void prepare() {
+        statementsPrepared.incrementAndGet();
+        long nanos = prepareCostNanos;
+        if (nanos > 0) {
+            long deadline = System.nanoTime() + nanos;
+            while (System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void roundTrip() {
+        roundTrips.incrementAndGet();
+        long nanos = roundTripLatencyNanos;
+        if (nanos > 0) {
+            long deadline = System.nanoTime() + nanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+        }
+    }
+
+    private Table table(String name) {
+        Table t = tables.get(name.toLowerCase(Locale.ROOT));
+        if (t == null) {
+            throw new IllegalArgumentException("Tabela inexistente: " + name);
+        }
+        return t;
+    }
+
+    private static Object proxy(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(InMemoryDatabase.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object objectMethod(Object proxy, Method method, Object[] args, String label) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return label + "@" + Integer.toHexString(System.identityHashCode(proxy));
+        }
+    }
+
+    private static boolean isObjectMethod(Method method) {
+        return method.getDeclaringClass() == Object.class;
+    }
+
+    private static class Table implements Serializable {
+
+        final String[] columns;
+        final List<Object[]> rows = new ArrayList<>();
+        long nextId = 1;
+        int[] uniqueKey;
+        // linha de cada chave única, montado na primeira busca e descartado quando as linhas mudam
+        transient Map<List<Object>, Object[]> keyIndex;
+
+        Table(String[] columns) {
+            this.columns = columns;
+        }
+
+        int column(String name) throws SQLException {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            throw new SQLException("Coluna inexistente: " + name);
+        }
+
+        Object[] findByKey(Object[] row) {
+            List<Object> key = key(row);
+            if (key == null) {
+                return null;
+            }
+            if (keyIndex == null) {
+                keyIndex = new HashMap<>();
+                for (Object[] existing : rows) {
+                    added(existing);
+                }
+            }
+            return keyIndex.get(key);
+        }
+
+        void added(Object[] row) {
+            List<Object> key = keyIndex == null ? null : key(row);
+            if (key != null) {
+                keyIndex.putIfAbsent(key, row);
+            }
+        }
+
+        boolean isKey(int column) {
+            if (uniqueKey != null) {
+                for (int key : uniqueKey) {
+                    if (key == column) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * A chave única da linha, com números comparados pelo valor, ou null
+         * se a tabela não tem chave ou a linha tem parte dela nula.
+         */
+        private List<Object> key(Object[] row) {
+            if (uniqueKey == null) {
+                return null;
+            }
+            List<Object> key = new ArrayList<>(uniqueKey.length);
+            for (int column : uniqueKey) {
+                Object value = row[column];
+                if (value == null) {
+                    return null;
+                }
+                key.add(value instanceof Number n ? new BigDecimal(n.toString()).stripTrailingZeros() : value);
+            }
+            return key;
+        }
+    }
+
+    /**
+     * Uma coluna do SELECT: coluna simples ou SUM/COUNT, com o nome dado por AS.
+     */
+    private static class Selected {
+
+        final String label;
+        final String function;
+        final int column;
+
+        Selected(String label, String function, int column) {
+            this.label = label;
+            this.function = function == null ? null : function.toUpperCase(Locale.ROOT);
+            this.column = column;
+        }
+
+        Object value(List<Object[]> group) {
+            if (function == null) {
+                return group.isEmpty() ? null : group.get(0)[column];
+            }
+            if (function.equals("COUNT")) {
+                return (long) group.size();
+            }
+            BigDecimal sum = null;
+            for (Object[] row : group) {
+                if (row[column] != null) {
+                    BigDecimal value = new BigDecimal(row[column].toString());
+                    sum = sum == null ? value : sum.add(value);
+                }
+            }
+            return sum;
+        }
+    }
+
+    private static class Condition {
+
+        final int column;
+        final String operator;
+        final Object value;
+
+        Condition(int column, String operator, Object value) {
+            this.column = column;
+            this.operator = operator.toUpperCase(Locale.ROOT);
+            this.value = value;
+        }
+
+        boolean matches(Object[] row) {
+            Object cell = row[column];
+            if (cell == null || value == null) {
+                return false;
+            }
+            if (operator.equals("LIKE")) {
+                String regex = Pattern.quote(value.toString()).replace("%", "\\E.*\\Q").replace("_", "\\E.\\Q");
+                return Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.DOTALL).matcher(cell.toString()).matches();
+            }
+            int cmp = compare(cell, value);
+            switch (operator) {
+                case "=":
+                    return cmp == 0;
+                case ">":
+                    return cmp > 0;
+                case "<":
+                    return cmp < 0;
+                case ">=":
+                    return cmp >= 0;
+                default:
+                    return cmp <= 0;
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b) {
+        if (a instanceof Number x && b instanceof Number y) {
+            return new BigDecimal(x.toString()).compareTo(new BigDecimal(y.toString()));
+        }
+        if (a instanceof Comparable ca && a.getClass() == b.getClass()) {
+            return ca.compareTo(b);
+        }
+        return a.toString().compareToIgnoreCase(b.toString());
+    }
+
+    private class FakeConnection implements InvocationHandler {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private boolean autoCommit = true;
+        private final List<Runnable> undo = new ArrayList<>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isObjectMethod(method)) {
+                return objectMethod(proxy, method, args, "InMemoryConnection");
+            }
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        openConnections.decrementAndGet();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get();
+                case "isValid":
+                    return !closed.get() && connectionsValid;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    if (autoCommit != (Boolean) args[0]) {
+                        roundTrip();
+                        autoCommit = (Boolean) args[0];
+                        if (autoCommit) {
+                            save();
+                        }
+                        undo.clear();
+                    }
+                    return null;
+                case "commit":
+                    roundTrip();
+                    save();
+                    undo.clear();
+                    return null;
+                case "rollback":
+                    roundTrip();
+                    synchronized (InMemoryDatabase.this) {
+                        for (int i = undo.size() - 1; i >= 0; i--) {
+                            undo.get(i).run();
+                        }
+                        for (Table t : tables.values()) {
+                            t.keyIndex = null;
+                        }
+                    }
+                    undo.clear();
+                    return null;
+                case "prepareStatement":
+                    if (closed.get()) {
+                        throw new SQLException("Conexão fechada");
+                    }
+                    openStatements.incrementAndGet();
+                    prepare();
+                    return proxy(PreparedStatement.class, new FakeStatement((String) args[0], this));
+                default:
+                    throw new SQLException("Operação não suportada pelo banco em memória: " + method.getName());
+            }
+        }
+    }
+
+    private class FakeStatement implements InvocationHandler {
+
+        private final String sql;
+        private final Map<Integer, Object> parameters = new HashMap<>();
+        private final List<Map<Integer, Object>> batch = new ArrayList<>();
+        private final List<Long> generatedKeys = new ArrayList<>();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final FakeConnection connection;
+        /** O INSERT é analisado uma vez por comando, não a cada linha de um lote. */
+        private MatchResult insert;
+        private List<MatchResult> upserts;
+        private boolean parsed;
+
+        FakeStatement(String sql, FakeConnection connection) {
+            this.sql = sql.trim();
+            this.connection = connection;
+        }
+
+        private void recordUndo(Runnable action) {
+            if (!connection.autoCommit) {
+                connection.undo.add(action);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isObjectMethod(method)) {
+                return objectMethod(proxy, method, args, "InMemoryStatement");
+            }
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                if (name.equals("setNull")) {
+                    parameters.put(index, null);
+                } else if (name.equals("setFetchSize") || name.equals("setMaxRows") || name.equals("setQueryTimeout")) {
+                    return null;
+                } else {
+                    parameters.put(index, args[1]);
+                }
+                return null;
+            }
+            switch (name) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        openStatements.decrementAndGet();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get();
+                case "clearParameters":
+                    parameters.clear();
+                    return null;
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setQueryTimeout":
+                case "setFetchDirection":
+                case "setPoolable":
+                case "setEscapeProcessing":
+                case "setLargeMaxRows":
+                    return null;
+                case "executeQuery":
+                    checkOpen();
+                    roundTrip();
+                    statementsExecuted.incrementAndGet();
+                    return executeQuery();
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                    checkOpen();
+                    roundTrip();
+                    statementsExecuted.incrementAndGet();
+                    int updated = executeUpdate(parameters);
+                    if (connection.autoCommit) {
+                        save();
+                    }
+                    return updated;
+                case "addBatch":
+                    batch.add(new HashMap<>(parameters));
+                    return null;
+                case "clearBatch":
+                    batch.clear();
+                    return null;
+                case "executeBatch":
+                    checkOpen();
+                    roundTrip();
+                    statementsExecuted.incrementAndGet();
+                    int[] counts = new int[batch.size()];
+                    for (int i = 0; i < counts.length; i++) {
+                        counts[i] = executeUpdate(batch.get(i));
+                    }
+                    batch.clear();
+                    if (connection.autoCommit) {
+                        save();
+                    }
+                    return counts;
+                case "getGeneratedKeys":
+                    List<Object[]> keys = new ArrayList<>();
+                    for (Long key : generatedKeys) {
+                        keys.add(new Object[]{key});
+                    }
+                    generatedKeys.clear();
+                    openResultSets.incrementAndGet();
+                    return proxy(ResultSet.class, new FakeResultSet(new String[]{"GENERATED_KEY"}, keys));
+                case "getUpdateCount":
+                    return -1;
+                default:
+                    throw new SQLException("Operação não suportada pelo banco em memória: " + name);
+            }
+        }
+
+        private void checkOpen() throws SQLException {
+            if (closed.get()) {
+                throw new SQLException("Statement fechado");
+            }
+        }
+
+        private Object parameterValue(String token, Map<Integer, Object> params, int[] position) {
+            if (token.equals("?")) {
+                return params.get(++position[0]);
+            }
+            if (token.startsWith("'")) {
+                return token.substring(1, token.length() - 1);
+            }
+            return token.contains(".") ? new BigDecimal(token) : Long.valueOf(token);
+        }
+
+        private List<Condition> conditions(Table t, String where, Map<Integer, Object> params, int[] position) throws SQLException {
+            List<Condition> result = new ArrayList<>();
+            if (where == null) {
+                return result;
+            }
+            for (String part : where.split("(?i)\\s+AND\\s+")) {
+                Matcher m = CONDITION.matcher(part.trim());
+                if (!m.matches()) {
+                    throw new SQLException("Condição não suportada: " + part);
+                }
+                result.add(new Condition(t.column(m.group(1)), m.group(2), parameterValue(m.group(3), params, position)));
+            }
+            return result;
+        }
+
+        private Object executeQuery() throws SQLException {
+            Matcher m = SELECT.matcher(sql);
+            if (!m.matches()) {
+                throw new SQLException("SELECT não suportado: " + sql);
+            }
+            List<Object[]> result = new ArrayList<>();
+            String[] columns;
+            synchronized (InMemoryDatabase.this) {
+                Table t = table(m.group(2));
+                int[] position = {0};
+                List<Condition> where = conditions(t, m.group(3), parameters, position);
+                List<Selected> selected = new ArrayList<>();
+                boolean aggregate = m.group(4) != null;
+                if (m.group(1).trim().equals("*")) {
+                    for (int i = 0; i < t.columns.length; i++) {
+                        selected.add(new Selected(t.columns[i], null, i));
+                    }
+                } else {
+                    for (String item : m.group(1).split(",")) {
+                        Matcher s = SELECTED.matcher(item.trim());
+                        if (!s.matches()) {
+                            throw new SQLException("Coluna não suportada: " + item);
+                        }
+                        String source = s.group(1) != null ? s.group(2) : s.group(3);
+                        int column = source.equals("*") ? 0 : t.column(source);
+                        String label = s.group(4) != null ? s.group(4) : s.group(1) != null ? item.trim() : source;
+                        selected.add(new Selected(label, s.group(1), column));
+                        aggregate |= s.group(1) != null;
+                    }
+                }
+                columns = selected.stream().map(c -> c.label).toArray(String[]::new);
+                List<Object[]> matched = new ArrayList<>();
+                for (Object[] row : t.rows) {
+                    boolean ok = true;
+                    for (Condition c : where) {
+                        ok &= c.matches(row);
+                    }
+                    if (ok) {
+                        matched.add(row);
+                    }
+                }
+                List<Object[]> rows = new ArrayList<>();
+                if (aggregate) {
+                    Map<Object, List<Object[]>> groups = new LinkedHashMap<>();
+                    if (m.group(4) == null) {
+                        groups.put("", matched);
+                    } else {
+                        int groupBy = t.column(m.group(4));
+                        for (Object[] row : matched) {
+                            groups.computeIfAbsent(row[groupBy], k -> new ArrayList<>()).add(row);
+                        }
+                    }
+                    for (List<Object[]> group : groups.values()) {
+                        Object[] out = new Object[selected.size()];
+                        for (int i = 0; i < out.length; i++) {
+                            out[i] = selected.get(i).value(group);
+                        }
+                        rows.add(out);
+                    }
+                    if (m.group(5) != null) {
+                        int order = Arrays.asList(columns).indexOf(m.group(5));
+                        if (order < 0) {
+                            throw new SQLException("ORDER BY deve usar uma coluna do SELECT: " + m.group(5));
+                        }
+                        boolean desc = "DESC".equalsIgnoreCase(m.group(6));
+                        rows.sort((a, b) -> (desc ? -1 : 1) * compare(a[order], b[order]));
+                    }
+                } else {
+                    if (m.group(5) != null) {
+                        int order = t.column(m.group(5));
+                        boolean desc = "DESC".equalsIgnoreCase(m.group(6));
+                        matched.sort((a, b) -> (desc ? -1 : 1) * compare(a[order], b[order]));
+                    }
+                    for (Object[] row : matched) {
+                        Object[] out = new Object[selected.size()];
+                        for (int i = 0; i < out.length; i++) {
+                            out[i] = row[selected.get(i).column];
+                        }
+                        rows.add(out);
+                    }
+                }
+                long limit = Long.MAX_VALUE;
+                if (m.group(7) != null) {
+                    Object l = m.group(7).equals("?") ? parameters.get(++position[0]) : Long.valueOf(m.group(7));
+                    limit = ((Number) l).longValue();
+                }
+                for (Object[] row : rows) {
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                    result.add(row);
+                    for (Object value : row) {
+                        bytesSent.addAndGet(wireSize(value));
+                    }
+                }
+            }
+            openResultSets.incrementAndGet();
+            return proxy(ResultSet.class, new FakeResultSet(columns, result));
+        }
+
+        /**
+         * Aplica o ON DUPLICATE KEY UPDATE à linha que já tem a mesma chave.
+         */
+        private void upsert(Table t, Object[] existing, Object[] inserted) throws SQLException {
+            if (upserts == null) {
+                upserts = new ArrayList<>();
+                for (String assignment : insert.group(4).split(",")) {
+                    Matcher a = UPSERT.matcher(assignment.trim());
+                    if (!a.matches()) {
+                        throw new SQLException("Atualização não suportada: " + assignment);
+                    }
+                    upserts.add(a.toMatchResult());
+                }
+            }
+            Object[] before = existing.clone();
+            recordUndo(() -> System.arraycopy(before, 0, existing, 0, before.length));
+            for (MatchResult a : upserts) {
+                int column = t.column(a.group(1));
+                if (t.isKey(column)) {
+                    t.keyIndex = null;
+                }
+                Object value = inserted[t.column(a.group(3))];
+                if (a.group(2) != null) {
+                    value = new BigDecimal(existing[t.column(a.group(2))].toString()).add(new BigDecimal(value.toString()));
+                }
+                existing[column] = value;
+            }
+        }
+
+        private int executeUpdate(Map<Integer, Object> params) throws SQLException {
+            synchronized (InMemoryDatabase.this) {
+                if (!parsed) {
+                    Matcher m = INSERT.matcher(sql);
+                    insert = m.matches() ? m.toMatchResult() : null;
+                    parsed = true;
+                }
+                if (insert != null) {
+                    Table t = table(insert.group(1));
+                    String[] columns = insert.group(2).split(",");
+                    String[] values = insert.group(3).split(",");
+                    Object[] row = new Object[t.columns.length];
+                    int[] position = {0};
+                    for (int i = 0; i < columns.length; i++) {
+                        row[t.column(columns[i].trim())] = parameterValue(values[i].trim(), params, position);
+                    }
+                    Object[] existing = t.findByKey(row);
+                    if (existing != null) {
+                        if (insert.group(4) == null) {
+                            throw new SQLIntegrityConstraintViolationException("Duplicate entry " + t.key(row)
+                                    + " for key in " + insert.group(1), "23000", 1062);
+                        }
+                        upsert(t, existing, row);
+                        return 2;
+                    }
+                    if (row[0] == null) {
+                        row[0] = (int) t.nextId;
+                    }
+                    if (row[0] instanceof Number n) {
+                        t.nextId = Math.max(t.nextId, n.longValue() + 1);
+                        generatedKeys.add(n.longValue());
+                    }
+                    t.rows.add(row);
+                    t.added(row);
+                    recordUndo(() -> t.rows.remove(row));
+                    return 1;
+                }
+                Matcher m;
+                if ((m = UPDATE.matcher(sql)).matches()) {
+                    Table t = table(m.group(1));
+                    t.keyIndex = null;
+                    int[] position = {0};
+                    Map<Integer, Object> assignments = new LinkedHashMap<>();
+                    Map<Integer, String> increments = new LinkedHashMap<>();
+                    for (String assignment : m.group(2).split(",")) {
+                        String[] parts = assignment.split("=", 2);
+                        int column = t.column(parts[0].trim());
+                        String expression = parts[1].trim();
+                        if (expression.equals("?")) {
+                            assignments.put(column, params.get(++position[0]));
+                        } else {
+                            increments.put(column, expression);
+                            position[0]++;
+                            assignments.put(column, params.get(position[0]));
+                        }
+                    }
+                    List<Condition> where = conditions(t, m.group(3), params, position);
+                    int updated = 0;
+                    for (Object[] row : t.rows) {
+                        boolean ok = true;
+                        for (Condition c : where) {
+                            ok &= c.matches(row);
+                        }
+                        if (!ok) {
+                            continue;
+                        }
+                        Object[] before = row.clone();
+                        recordUndo(() -> System.arraycopy(before, 0, row, 0, before.length));
+                        for (Map.Entry<Integer, Object> e : assignments.entrySet()) {
+                            String expression = increments.get(e.getKey());
+                            if (expression == null) {
+                                row[e.getKey()] = e.getValue();
+                            } else {
+                                BigDecimal current = new BigDecimal(row[e.getKey()].toString());
+                                BigDecimal delta = new BigDecimal(e.getValue().toString());
+                                row[e.getKey()] = expression.contains("-") ? current.subtract(delta) : current.add(delta);
+                            }
+                        }
+                        updated++;
+                    }
+                    return updated;
+                }
+                if ((m = DELETE.matcher(sql)).matches()) {
+                    Table t = table(m.group(1));
+                    t.keyIndex = null;
+                    List<Condition> where = conditions(t, m.group(2), params, new int[]{0});
+                    List<Object[]> removed = new ArrayList<>();
+                    t.rows.removeIf(row -> {
+                        for (Condition c : where) {
+                            if (!c.matches(row)) {
+                                return false;
+                            }
+                        }
+                        return removed.add(row);
+                    });
+                    recordUndo(() -> t.rows.addAll(removed));
+                    return removed.size();
+                }
+                throw new SQLException("Comando não suportado: " + sql);
+            }
+        }
+    }
+
+    private class FakeResultSet implements InvocationHandler {
+
+        private final String[] columns;
+        private final List<Object[]> rows;
+        private int cursor = -1;
+        private boolean wasNull;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        FakeResultSet(String[] columns, List<Object[]> rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isObjectMethod(method)) {
+                return objectMethod(proxy, method, args, "InMemoryResultSet");
+            }
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        openResultSets.decrementAndGet();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get();
+                case "next":
+                    if (closed.get()) {
+                        throw new SQLException("ResultSet fechado");
+                    }
+                    cursor++;
+                    return cursor < rows.size();
+                case "wasNull":
+                    return wasNull;
+                case "findColumn":
+                    return findColumn((String) args[0]);
+                case "setFetchSize":
+                case "setFetchDirection":
+                    return null;
+                case "getMetaData":
+                    return proxy(ResultSetMetaData.class, (p, m, a) -> {
+                        switch (m.getName()) {
+                            case "getColumnCount":
+                                return columns.length;
+                            case "getColumnLabel":
+                            case "getColumnName":
+                                return columns[(Integer) a[0] - 1];
+                            default:
+                                throw new SQLException("Operação não suportada: " + m.getName());
+                        }
+                    });
+                default:
+                    if (name.startsWith("get") && args != null && args.length >= 1) {
+                        int index = args[0] instanceof Integer i ? i : findColumn((String) args[0]);
+                        return convert(value(index), method.getReturnType());
+                    }
+                    throw new SQLException("Operação não suportada pelo banco em memória: " + name);
+            }
+        }
+
+        private int findColumn(String label) throws SQLException {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].equalsIgnoreCase(label)) {
+                    return i + 1;
+                }
+            }
+            throw new SQLException("Coluna inexistente: " + label);
+        }
+
+        private Object value(int index) throws SQLException {
+            if (closed.get() || cursor < 0 || cursor >= rows.size()) {
+                throw new SQLException("ResultSet sem linha corrente");
+            }
+            Object[] row = rows.get(cursor);
+            if (index < 1 || index > row.length) {
+                throw new SQLException("Índice de coluna inválido: " + index);
+            }
+            Object value = row[index - 1];
+            wasNull = value == null;
+            return value;
+        }
+
+        private Object convert(Object value, Class<?> type) {
+            if (type == String.class) {
+                return value == null ? null : value.toString();
+            }
+            if (type == int.class) {
+                return value == null ? 0 : ((Number) numeric(value)).intValue();
+            }
+            if (type == long.class) {
+                return value == null ? 0L : ((Number) numeric(value)).longValue();
+            }
+            if (type == double.class) {
+                return value == null ? 0.0 : ((Number) numeric(value)).doubleValue();
+            }
+            if (type == BigDecimal.class) {
+                return value == null ? null : new BigDecimal(value.toString());
+            }
+            if (type == Timestamp.class) {
+                return value instanceof java.time.LocalDateTime ldt ? Timestamp.valueOf(ldt) : (Timestamp) value;
+            }
+            if (type == boolean.class) {
+                return value != null && (value instanceof Boolean b ? b : ((Number) numeric(value)).intValue() != 0);
+            }
+            return value;
+        }
+
+        private Object numeric(Object value) {
+            return value instanceof Number ? value : new BigDecimal(value.toString());
+        }
+    }
+}
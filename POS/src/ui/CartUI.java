@@ -5,41 +5,65 @@
 package ui;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import javax.swing.JOptionPane;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
-import javax.swing.table.DefaultTableModel;
-import model.POSController;
+import model.Cart;
+import model.CartLine;
+import model.Invoice;
+import model.IPOSController;
 import model.POSFactory;
 import model.dto.CustomerDTO;
 import model.dto.ProductDTO;
 import model.dto.Response;
 import model.dto.SaleDTO;
+import model.jfr.CartChangeEvent;
+import ui.components.CartTableModel;
+import ui.components.CommonHandler;
+import ui.components.CustomerTableModel;
+import ui.components.LoadablePanel;
+import ui.components.ProductTableModel;
+import ui.components.SearchPipeline;
 
 /**
  *
  * @author fawad
  */
-public class CartUI extends javax.swing.JPanel {
+public class CartUI extends javax.swing.JPanel implements LoadablePanel {
 
-    private POSController controller;
+    private IPOSController controller;
     public ArrayList<ProductDTO> productsList;
     private ArrayList<CustomerDTO> customersList;
+    private SearchPipeline<ArrayList<ProductDTO>> productSearch;
+    private SearchPipeline<ArrayList<CustomerDTO>> customerSearch;
+    private final ProductTableModel productsTableModel
+            = new ProductTableModel(ProductTableModel.Column.NAME, ProductTableModel.Column.PRICE, ProductTableModel.Column.STOCK);
+    private final CustomerTableModel customersTableModel
+            = new CustomerTableModel(CustomerTableModel.Column.NAME, CustomerTableModel.Column.PHONE_NUMBER);
     SaleDTO sale;
+    private final Cart cart = new Cart();
+    private final CartTableModel cartTableModel = new CartTableModel(cart);
     /**
      * Creates new form SalesUI
      * @param controller
      */
-    public CartUI(POSController controller) {
+    public CartUI(IPOSController controller) {
+        this(controller, true);
+    }
+
+    /**
+     * @param loadData false to leave the tables empty until
+     * {@link #loadData()} is run, as the Dashboard does
+     */
+    public CartUI(IPOSController controller, boolean loadData) {
         this.controller = controller;
         initComponents();
-        populateProductsData();
-        customersList = this.controller.getCustomers(new Response());
-        updateTableDataIntoCustomers(customersList);
+        productsTable.setModel(productsTableModel);
+        customerTable.setModel(customersTableModel);
         
         sale=new SaleDTO();
         productsTable.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
@@ -50,94 +74,112 @@ public class CartUI extends javax.swing.JPanel {
                 }
             }
         });
-        initializeCart();
-        populateDataIntoCustomers();
-        searchHandlerProducts();
-        searchHandlerCustomers();
-    }
-    
-    private void searchHandlerCustomers(){
-        searchCustomerByName.getDocument().addDocumentListener(new DocumentListener() {
+        cart.addListener(new Cart.Listener() {
+            @Override
+            public void totalsChanged() {
+                totalofcart.setText(cart.getTotal().toPlainString());
+            }
+        });
+        discountInTotal.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void insertUpdate(DocumentEvent e) {
-                // Handle text insertion
-                customersList=controller.searchCustomersByName(searchCustomerByName.getText(),new Response());
-        updateTableDataIntoCustomers(customersList);
-        
+                applyDiscount();
             }
 
             @Override
             public void removeUpdate(DocumentEvent e) {
-                // Handle text removal
-                 customersList=controller.searchCustomersByName(searchCustomerByName.getText(),new Response());
-        updateTableDataIntoCustomers(customersList);
-        
+                applyDiscount();
             }
 
             @Override
             public void changedUpdate(DocumentEvent e) {
-                // Handle change in attributes (unlikely for text fields)
+                applyDiscount();
             }
         });
+        initializeCart();
+        if (loadData) {
+            populateProductsData();
+            populateDataIntoCustomers();
+        }
+        searchHandlerProducts();
+        searchHandlerCustomers();
     }
-    private void searchHandlerProducts(){
-        searchByname.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent e) {
-                // Handle text insertion
-                handleSearchTextChanged();
-            }
 
-            @Override
-            public void removeUpdate(DocumentEvent e) {
-                // Handle text removal
-                handleSearchTextChanged();
+    /**
+     * Reloads products and customers off the EDT. A table being searched
+     * runs its search again instead.
+     */
+    @Override
+    public Runnable loadData() {
+        ArrayList<ProductDTO> products = controller.getProducts(POSFactory.getInstanceOfResponse());
+        ArrayList<CustomerDTO> customers = controller.getCustomers(POSFactory.getInstanceOfResponse());
+        return () -> {
+            if (searchByname.getText().isEmpty()) {
+                productsList = products;
+                productsTableModel.updateRows(productsList, productsTable);
+            } else {
+                productSearch.submit(searchByname.getText());
             }
-
-            @Override
-            public void changedUpdate(DocumentEvent e) {
-                // Handle change in attributes (unlikely for text fields)
+            if (searchCustomerByName.getText().isEmpty()) {
+                customersList = customers;
+                customersTableModel.updateRows(customersList, customerTable);
+            } else {
+                customerSearch.submit(searchCustomerByName.getText());
             }
+        };
+    }
+    
+    private void searchHandlerCustomers(){
+        customerSearch = new SearchPipeline<>(
+                text -> controller.searchCustomersByName(text, new Response()),
+                results -> {
+                    customersList = results;
+                    updateTableDataIntoCustomers(customersList);
+                });
+        customerSearch.attachTo(searchCustomerByName);
+    }
+    private void searchHandlerProducts(){
+        productSearch = new SearchPipeline<>(this::findProducts, results -> {
+            productsList = results;
+            updateProductsTableData(productsList);
         });
+        productSearch.attachTo(searchByname);
     }
 
-    private void handleSearchTextChanged() {
-        String searchText = searchByname.getText();
+    private ArrayList<ProductDTO> findProducts(String searchText) {
+        Response res = POSFactory.getInstanceOfResponse();
         if (!searchText.isEmpty()) {
-            Response res = POSFactory.getInstanceOfResponse();
-            productsList = controller.searchProductsByName(searchText, res);
-             updateProductsTableData(productsList);
-        } else {
-            // If search field is empty, show all categories
-            populateProductsData();
+            return controller.searchProductsByName(searchText, res);
         }
+        // If search field is empty, show all products
+        return controller.getProducts(res);
     }
 
     public void initializeCart() {
-        String[] columnNames = {"Name", "Price", "Quantity", "Total"};
-        DefaultTableModel defaultTableModel = new DefaultTableModel(null, columnNames);
-        cartTable.setModel(defaultTableModel);
+        cart.clear();
+        cartTable.setModel(cartTableModel);
     }
 
-    public void updateProductsTableData(ArrayList<ProductDTO> searchResults) {
-        String[] columnNames = {"Name", "Price", "Stock"};
-        DefaultTableModel defaultTableModel = new DefaultTableModel(null, columnNames);
-        for (ProductDTO product : searchResults) {
-            Object[] rowData = {product.getProductName(),
-                product.getPrice(), product.getStockQuantity()};
-            defaultTableModel.addRow(rowData);
+    private void applyDiscount() {
+        String text = discountInTotal.getText().trim();
+        BigDecimal discount = BigDecimal.ZERO;
+        if (!text.isEmpty()) {
+            try {
+                discount = new BigDecimal(text);
+            } catch (NumberFormatException ex) {
+                // keeps the last valid discount until the text is a number again
+                return;
+            }
         }
-        productsTable.setModel(defaultTableModel);
+        cart.setDiscount(discount);
+    }
+
+    public void updateProductsTableData(ArrayList<ProductDTO> searchResults) {
+        productsTableModel.setRows(searchResults, productsTable);
     }
 
     private void updateTableDataIntoCustomers(ArrayList<CustomerDTO> searchResults) {
-        String[] columnNames =  {"Name","Phone No"};
-        DefaultTableModel defaultTableModel = new DefaultTableModel(null, columnNames);
-        for (CustomerDTO customer : searchResults) {
-            Object[] rowData = { customer.getName(),customer.getPhoneNumber()};
-            defaultTableModel.addRow(rowData);
-        }
-        customerTable.setModel(defaultTableModel);
+        customersTableModel.setRows(searchResults, customerTable);
     }
 
     private void handleRowSelection() {
@@ -147,14 +189,7 @@ public class CartUI extends javax.swing.JPanel {
     public void populateProductsData() {
         Response res = POSFactory.getInstanceOfResponse();
         productsList = controller.getProducts(res);
-
-        String[] columnNames = {"Name", "Price", "Stock"};
-        DefaultTableModel defaultTableModel = new DefaultTableModel(null, columnNames);
-        for (ProductDTO product : productsList) {
-            Object[] rowData = {product.getProductName(), product.getPrice(), product.getStockQuantity()};
-            defaultTableModel.addRow(rowData);
-        }
-        productsTable.setModel(defaultTableModel);
+        productsTableModel.setRows(productsList, productsTable);
     }
     @SuppressWarnings("unchecked")
     // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
@@ -651,14 +686,21 @@ public class CartUI extends javax.swing.JPanel {
     public void addToCartBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_addToCartBtnActionPerformed
         int selectedRowIndex = productsTable.getSelectedRow();
         if (selectedRowIndex != -1) {
+            CartChangeEvent event = new CartChangeEvent();
+            event.begin();
             ProductDTO selectedProduct = productsList.get(selectedRowIndex);
-            DefaultTableModel cartTableModel = (DefaultTableModel) cartTable.getModel();
-            Object[] rowData = {selectedProduct.getProductName(), selectedProduct.getPrice(), quantity.getText(), selectedProduct.getPrice() * Integer.parseInt(quantity.getText())};
-            cartTableModel.addRow(rowData);
+            int qty = Integer.parseInt(quantity.getText().trim());
+            if (qty <= 0) {
+                java.awt.Toolkit.getDefaultToolkit().beep();
+                quantity.requestFocusInWindow();
+                return;
+            }
+            // scanning the same product again adds to its line
+            cart.add(selectedProduct, qty);
+            commitCartChange(event, CartChangeEvent.ADD, selectedProduct.getProductId(), qty);
         } else {
             JOptionPane.showMessageDialog(this, "Please select a product to add to the cart.", "Error", JOptionPane.ERROR_MESSAGE);
         }
-        calculateTotal();
         productsTable.clearSelection();
     }//GEN-LAST:event_addToCartBtnActionPerformed
 
@@ -666,15 +708,6 @@ public class CartUI extends javax.swing.JPanel {
         // TODO add your handling code here:
 
     }//GEN-LAST:event_quantityActionPerformed
-    private void calculateTotal() {
-        double total = 0.0;
-        for (int i = 0; i < cartTable.getRowCount(); i++) {
-            // Extract price and quantity of each item
-            double totalPrice = Double.parseDouble(cartTable.getValueAt(i, 3).toString());
-            total += totalPrice;
-        }
-        totalofcart.setText(String.valueOf(total));
-    }
     private void create_invoiceActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_create_invoiceActionPerformed
         // TODO add your handling code here:
         int rowIndex=customerTable.getSelectedRow();
@@ -682,39 +715,21 @@ public class CartUI extends javax.swing.JPanel {
             CustomerDTO customer=customersList.get(rowIndex);
             sale.setCustomer(customer);
         }
-        StringBuilder invoice = new StringBuilder();
-        invoice.append("--------------------------------------------------------------\n");
-        invoice.append("|                          INVOICE                           |\n");
-        invoice.append("--------------------------------------------------------------\n\n");
-
-        // Add invoice details
-        invoice.append("Invoice Number: ").append(generateInvoiceNumber()).append("\n");
-        invoice.append("Date: ").append(getCurrentDateTime()).append("\n");
-        invoice.append("Customer: "+sale.getCustomer().getName()+"\n\n"); // You can replace [Customer Name] with actual customer name
-
-        // Add table header
-        invoice.append(String.format("| %-30s | %-10s | %-10s | %-10s |\n", "Product Name", "Quantity", "Unit Price", "Total Price"));
-        invoice.append("--------------------------------------------------------------\n");
-
-        // Iterate over each row in the cart table to add product details to the invoice
-        for (int i = 0; i < cartTable.getRowCount(); i++) {
-            String productName = cartTable.getValueAt(i, 0).toString();
-            String quantity = cartTable.getValueAt(i, 2).toString();
-            String unitPrice = cartTable.getValueAt(i, 1).toString();
-            double totalUnitPrice = Double.parseDouble(unitPrice) * Double.parseDouble(quantity);
-            invoice.append(String.format("| %-30s | %-10s | %-10s | %-10s |\n", productName, quantity, unitPrice, totalUnitPrice));
+        sale.setItems(cart.toSaleItems());
+        sale.setTotalAmount(cart.getTotal().doubleValue());
+        Response response = controller.saveSale(sale);
+        if (!response.isSuccessfull()) {
+            CommonHandler.handleResponse(response);
+            return;
         }
-
-        // Add total to the invoice
-        invoice.append("--------------------------------------------------------------\n");
-        invoice.append(String.format("| %-50s | %-10s |\n", "Total:", totalofcart.getText()));
-        invoice.append("--------------------------------------------------------------\n");
+        String invoice = Invoice.format(sale, cart, LocalDateTime.now());
 
         // Display the invoice
-        JOptionPane.showMessageDialog(this, "<html><pre>" + invoice.toString() + "</pre></html>", "Invoice", JOptionPane.INFORMATION_MESSAGE);
+        JOptionPane.showMessageDialog(this, "<html><pre>" + invoice + "</pre></html>", "Invoice", JOptionPane.INFORMATION_MESSAGE);
 
         // Optionally, you can reset the cart after creating the invoice
         resetCart();
+        sale = new SaleDTO();
         customerTable.clearSelection();
     }//GEN-LAST:event_create_invoiceActionPerformed
 
@@ -723,52 +738,43 @@ public class CartUI extends javax.swing.JPanel {
         int selectedRowIndex = cartTable.getSelectedRow();
         // Check if a row is selected
         if (selectedRowIndex != -1) {
-            DefaultTableModel cartTableModel = (DefaultTableModel) cartTable.getModel();
-            cartTableModel.removeRow(selectedRowIndex);
-            calculateTotal();
+            CartChangeEvent event = new CartChangeEvent();
+            event.begin();
+            int index = cartTable.convertRowIndexToModel(selectedRowIndex);
+            CartLine line = cart.getLine(index);
+            cart.remove(index);
+            commitCartChange(event, CartChangeEvent.REMOVE, line.getProductId(), line.getQuantity());
         }
     }//GEN-LAST:event_removeItemActionPerformed
 
+    private void commitCartChange(CartChangeEvent event, String action, int productId, int quantity) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.productId = productId;
+            event.quantity = quantity;
+            event.cartLines = cart.size();
+            event.commit();
+        }
+    }
+
     private void searchCustomerByNameKeyPressed(java.awt.event.KeyEvent evt) {//GEN-FIRST:event_searchCustomerByNameKeyPressed
-        // TODO add your handling code here:
-        customersList=this.controller.searchCustomersByName(searchCustomerByName.getText(),new Response());
-        this.updateTableDataIntoCustomers(customersList);
-        
+        // Searching is done by customerSearch when the text changes
     }//GEN-LAST:event_searchCustomerByNameKeyPressed
 
     private void searchCustomerByNameKeyTyped(java.awt.event.KeyEvent evt) {//GEN-FIRST:event_searchCustomerByNameKeyTyped
         // TODO add your handling code here:
          
     }//GEN-LAST:event_searchCustomerByNameKeyTyped
-    private String generateInvoiceNumber() {
-        // Generate a random invoice number or use a sequence generator
-        return "INV-" + Math.round(Math.random() * 10000);
-    }
-
-    private String getCurrentDateTime() {
-        // Get the current date and time in a desired format
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd  HH:mm:ss");
-        return now.format(formatter);
-    }
-
     private void resetCart() {
-        DefaultTableModel cartTableModel = (DefaultTableModel) cartTable.getModel();
-        cartTableModel.setRowCount(0); // Clear cart table
-        totalofcart.setText("0"); // Reset total
+        cart.clear();
+        discountInTotal.setText("");
     }
 
     private void populateDataIntoCustomers() {
         Response res = POSFactory.getInstanceOfResponse();
-
-        String[] columnNames = {"Name", "Phone No"};
-        DefaultTableModel defaultTableModel = new DefaultTableModel(null, columnNames);
         customersList=controller.getCustomers(res);
-        for (CustomerDTO customer : customersList) {
-            Object[] rowData = {customer.getName(), customer.getPhoneNumber()};
-            defaultTableModel.addRow(rowData);
-        }
-        customerTable.setModel(defaultTableModel);
+        customersTableModel.setRows(customersList, customerTable);
     }
     // Variables declaration - do not modify//GEN-BEGIN:variables
     public ui.components.Button addToCartBtn;
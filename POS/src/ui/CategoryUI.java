@@ -5,10 +5,9 @@
 package ui;
 
 import ui.components.CommonHandler;
+import ui.components.SearchPipeline;
 import model.IPOSController;
 import java.util.ArrayList;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.DefaultTableModel;
@@ -25,6 +24,7 @@ public class CategoryUI extends javax.swing.JPanel {
 
     private IPOSController controller;
     private ArrayList<CategoryDTO> catList;
+    private SearchPipeline<ArrayList<CategoryDTO>> categorySearch;
 
     /**
      *
@@ -43,36 +43,20 @@ public class CategoryUI extends javax.swing.JPanel {
             }
         });
 
-        searchByName.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent e) {
-                // Handle text insertion
-                handleSearchTextChanged();
-            }
-
-            @Override
-            public void removeUpdate(DocumentEvent e) {
-                // Handle text removal
-                handleSearchTextChanged();
-            }
-
-            @Override
-            public void changedUpdate(DocumentEvent e) {
-                // Handle change in attributes (unlikely for text fields)
-            }
+        categorySearch = new SearchPipeline<>(this::findCategories, results -> {
+            catList = results;
+            updateTableData(catList);
         });
+        categorySearch.attachTo(searchByName);
     }
 
-    private void handleSearchTextChanged() {
-        String searchText = searchByName.getText();
+    private ArrayList<CategoryDTO> findCategories(String searchText) {
+        Response res = POSFactory.getInstanceOfResponse();
         if (!searchText.isEmpty()) {
-            Response res = POSFactory.getInstanceOfResponse();
-             catList= controller.searchCategoryByName(searchText, res);
-            updateTableData(catList);
-        } else {
-            // If search field is empty, show all categories
-            populateData();
+            return controller.searchCategoryByName(searchText, res);
         }
+        // If search field is empty, show all categories
+        return controller.getCategories(res);
     }
 
     private void updateTableData(ArrayList<CategoryDTO> categories) {
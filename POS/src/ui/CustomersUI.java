@@ -10,30 +10,56 @@ import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
-import javax.swing.table.DefaultTableModel;
-import model.POSController;
+import model.IPOSController;
 import model.POSFactory;
 import model.dto.CustomerDTO;
 import model.dto.Response;
 import ui.components.AddUpdateCustomerDialog;
+import ui.components.CustomerTableModel;
+import ui.components.LoadablePanel;
+import ui.components.PagedTableModel;
+import ui.components.SearchPipeline;
 
 /**
  *
  * @author fawad
  */
-public class CustomersUI extends javax.swing.JPanel {
+public class CustomersUI extends javax.swing.JPanel implements LoadablePanel {
 
-    private POSController controller;
-    private ArrayList<CustomerDTO> customersList;
+    private IPOSController controller;
+    private SearchPipeline<ArrayList<CustomerDTO>> customerSearch;
+    private final CustomerTableModel customersTableModel = new CustomerTableModel(CustomerTableModel.Column.ID,
+            CustomerTableModel.Column.NAME, CustomerTableModel.Column.PHONE_NUMBER);
+    // all customers, read a page at a time; search results use customersTableModel
+    private final PagedTableModel<CustomerDTO> customerPages;
 
     /**
      *
      * @param controller
      */
-    public CustomersUI(POSController controller) {
+    public CustomersUI(IPOSController controller) {
+        this(controller, true);
+    }
+
+    /**
+     * @param loadData false to leave the table empty until
+     * {@link #loadData()} is run, as the Dashboard does
+     */
+    public CustomersUI(IPOSController controller, boolean loadData) {
         initComponents();
         this.controller = controller;
-        populateData();
+        customerPages = new PagedTableModel<>(customersTableModel, controller::getCustomersPage);
+        rSTableMetro1.setModel(customerPages);
+        if (loadData) {
+            populateData();
+        }
+        customerSearch = new SearchPipeline<>(this::findCustomers, results -> {
+            if (searchByName.getText().isEmpty()) {
+                showAllCustomers(results);
+            } else {
+                updateTableData(results);
+            }
+        });
         rSTableMetro1.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
             @Override
             public void valueChanged(ListSelectionEvent e) {
@@ -45,15 +71,50 @@ public class CustomersUI extends javax.swing.JPanel {
         });
     }
 
+    /**
+     * Reloads the first page of customers off the EDT, or runs the search
+     * again when the table is being searched.
+     */
+    @Override
+    public Runnable loadData() {
+        ArrayList<CustomerDTO> customers = firstPage(POSFactory.getInstanceOfResponse());
+        return () -> {
+            if (searchByName.getText().isEmpty()) {
+                showAllCustomers(customers);
+            } else {
+                customerSearch.submit(searchByName.getText());
+            }
+        };
+    }
+
     private void updateTableData(ArrayList<CustomerDTO> customers) {
-        DefaultTableModel model = (DefaultTableModel) rSTableMetro1.getModel();
-        model.setRowCount(0); // Clear the existing table data
+        if (rSTableMetro1.getModel() != customersTableModel) {
+            rSTableMetro1.setModel(customersTableModel);
+        }
+        customersTableModel.setRows(customers, rSTableMetro1);
+    }
+
+    /**
+     * Shows all customers again, starting from the given first page.
+     */
+    private void showAllCustomers(ArrayList<CustomerDTO> firstPage) {
+        if (rSTableMetro1.getModel() != customerPages) {
+            rSTableMetro1.setModel(customerPages);
+        }
+        customerPages.refresh(firstPage);
+    }
 
-        for (CustomerDTO customer : customers) {
-            Object[] rowData = {customer.getId(), customer.getName(), customer.getPhoneNumber()};
-            model.addRow(rowData);
+    private CustomerDTO selectedCustomer() {
+        int row = rSTableMetro1.getSelectedRow();
+        if (row == -1) {
+            return null;
         }
-        rSTableMetro1.setModel(model);
+        int modelRow = rSTableMetro1.convertRowIndexToModel(row);
+        return rSTableMetro1.getModel() == customerPages ? customerPages.getRow(modelRow) : customersTableModel.getRow(modelRow);
+    }
+
+    private ArrayList<CustomerDTO> firstPage(Response res) {
+        return controller.getCustomersPage(0, customerPages.getPageSize(), res);
     }
 
     @SuppressWarnings("unchecked")
@@ -212,10 +273,9 @@ public class CustomersUI extends javax.swing.JPanel {
 
     private void deleteActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_deleteActionPerformed
         // TODO add your handling code here:
-        int rowIndex = rSTableMetro1.getSelectedRow();
-        CustomerDTO c = new CustomerDTO();
-        if (rowIndex != -1) {
-            c = this.customersList.get(rowIndex);
+        CustomerDTO c = selectedCustomer();
+        if (c == null) {
+            c = new CustomerDTO();
         }
 
         Response res = this.controller.deleteCustomer(c);
@@ -232,10 +292,10 @@ public class CustomersUI extends javax.swing.JPanel {
     private void updateActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_updateActionPerformed
         // TODO add your handling code here:
         CustomerDTO customer = new CustomerDTO();
-        int rowIndex = rSTableMetro1.getSelectedRow();
+        CustomerDTO selected = selectedCustomer();
 
-        if (rowIndex != -1) {
-            customer.setId(this.customersList.get(rowIndex).getId());
+        if (selected != null) {
+            customer.setId(selected.getId());
         }
 //        customer.setName(nameField.getText());
 //        customer.setPhoneNumber(phoneNoField.getText());
@@ -255,24 +315,24 @@ public class CustomersUI extends javax.swing.JPanel {
     }
     private void searchByNameKeyReleased(java.awt.event.KeyEvent evt) {//GEN-FIRST:event_searchByNameKeyReleased
         // TODO add your handling code here:
-          updateSearchResults();
+          customerSearch.submit(searchByName.getText());
     }//GEN-LAST:event_searchByNameKeyReleased
 
     private void searchByNameActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_searchByNameActionPerformed
         // TODO add your handling code here:
     }//GEN-LAST:event_searchByNameActionPerformed
-    private void updateSearchResults() {
-        String searchText = searchByName.getText();
+    private ArrayList<CustomerDTO> findCustomers(String searchText) {
         Response res = POSFactory.getInstanceOfResponse();
-        customersList = controller.searchCustomersByName(searchText, res);
-        updateTableData(customersList);
+        if (searchText.isEmpty()) {
+            return firstPage(res);
+        }
+        return controller.searchCustomersByName(searchText, res);
     }
 
     private void handleRowSelection() {
-        int rowIndex = rSTableMetro1.getSelectedRow();
+        CustomerDTO c = selectedCustomer();
 
-        if (rowIndex != -1) {
-            CustomerDTO c = this.customersList.get(rowIndex);
+        if (c != null) {
 //            nameField.setText(c.getName());
 //            phoneNoField.setText(c.getPhoneNumber());
         } else {
@@ -283,15 +343,7 @@ public class CustomersUI extends javax.swing.JPanel {
 
     private void populateData() {
         Response res = POSFactory.getInstanceOfResponse();
-       customersList = controller.getCustomers(res);
-        
-        String[] columnNames = {"Id", "Name", "Phone No"};
-        DefaultTableModel defaultTableModel = new DefaultTableModel(null, columnNames);
-        for (CustomerDTO customer : customersList) {
-            Object[] rowData = {customer.getId(), customer.getName(), customer.getPhoneNumber()};
-            defaultTableModel.addRow(rowData);
-        }
-        rSTableMetro1.setModel(defaultTableModel);
+        showAllCustomers(firstPage(res));
     }
 
 
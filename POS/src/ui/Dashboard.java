@@ -1,10 +1,11 @@
 package ui;
 
+import model.IPOSController;
 import model.POSController;
-import java.awt.BorderLayout;
 import javax.swing.JFrame;
 
 import raven.glasspanepopup.GlassPanePopup;
+import ui.components.PanelManager;
 
 /**
  *
@@ -12,17 +13,17 @@ import raven.glasspanepopup.GlassPanePopup;
  */
 public class Dashboard extends javax.swing.JFrame {
 
-    private POSController controller;
+    private IPOSController controller;
+    private final PanelManager panels;
 
-    public Dashboard(POSController controller) {
+    public Dashboard(IPOSController controller) {
         this.controller = controller;
         initComponents();
          
         setExtendedState(JFrame.MAXIMIZED_BOTH); // Set the JFrame to full size
         setResizable(false); // Make the JFrame non-resizable
-        mainPanel.removeAll();
-        mainPanel.add(new CustomersUI(this.controller), BorderLayout.CENTER);
-        mainPanel.validate();
+        panels = new PanelManager(mainPanel);
+        showCustomers();
         username.setText(POSController.objApplicationSession.getUser().getUsername());
         GlassPanePopup.install(this);
        this.setMinimumSize(this.getSize());
@@ -294,55 +295,41 @@ public class Dashboard extends javax.swing.JFrame {
         pack();
     }// </editor-fold>//GEN-END:initComponents
 
-    private void customerBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_customerBtnActionPerformed
-        // TODO add your handling code here:
-        mainPanel.removeAll();
-        mainPanel.add(new CustomersUI(controller), BorderLayout.CENTER);
-        mainPanel.validate();
+    /**
+     * Sale, Products and Customers are built once and kept, with their data
+     * loaded in the background, so switching between them does not wait for
+     * the database. The other screens are still built on every visit.
+     */
+    private void showCustomers() {
+        panels.show("customers", () -> new CustomersUI(this.controller, false));
+    }
 
+    private void customerBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_customerBtnActionPerformed
+        showCustomers();
     }//GEN-LAST:event_customerBtnActionPerformed
     
     private void supplierBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_supplierBtnActionPerformed
-        // TODO add your handling code here:
-        mainPanel.removeAll();
-        mainPanel.add(new SupplierUI(this.controller), BorderLayout.CENTER);
-        mainPanel.validate();
+        panels.showNew("suppliers", () -> new SupplierUI(this.controller));
     }//GEN-LAST:event_supplierBtnActionPerformed
 
     private void employeeBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_employeeBtnActionPerformed
-        // TODO add your handling code here:
-        mainPanel.removeAll();
-        mainPanel.add(new EmployeeUI(this.controller), BorderLayout.CENTER);
-        mainPanel.validate();
+        panels.showNew("employees", () -> new EmployeeUI(this.controller));
     }//GEN-LAST:event_employeeBtnActionPerformed
 
     private void productBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_productBtnActionPerformed
-        // TODO add your handling code here:
-        mainPanel.removeAll();
-        mainPanel.add(new ProductUI(this.controller), BorderLayout.CENTER);
-        mainPanel.validate();
+        panels.show("products", () -> new ProductUI(this.controller, false));
     }//GEN-LAST:event_productBtnActionPerformed
 
     private void saleBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_saleBtnActionPerformed
-        // TODO add your handling code here:
-        mainPanel.removeAll();
-        mainPanel.add(new CartUI(this.controller), BorderLayout.CENTER);
-        mainPanel.validate();
-        
+        panels.show("sale", () -> new CartUI(this.controller, false));
     }//GEN-LAST:event_saleBtnActionPerformed
 
     private void invoiceBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_invoiceBtnActionPerformed
-        // TODO add your handling code here:
-        mainPanel.removeAll();
-        mainPanel.add(new InvoiceUI(), BorderLayout.CENTER);
-        mainPanel.validate();
+        panels.showNew("invoice", () -> new InvoiceUI());
     }//GEN-LAST:event_invoiceBtnActionPerformed
 
     private void reportsBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_reportsBtnActionPerformed
-        // TODO add your handling code here:
-        mainPanel.removeAll();
-        mainPanel.add(new ReportsUI(), BorderLayout.CENTER);
-        mainPanel.validate();
+        panels.showNew("reports", () -> new ReportsUI(this.controller));
     }//GEN-LAST:event_reportsBtnActionPerformed
 
     private void customerBtnFocusGained(java.awt.event.FocusEvent evt) {//GEN-FIRST:event_customerBtnFocusGained
@@ -358,10 +345,7 @@ public class Dashboard extends javax.swing.JFrame {
     }//GEN-LAST:event_customerBtnFocusLost
 
     private void categoryBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_categoryBtnActionPerformed
-        // TODO add your handling code here:
-        mainPanel.removeAll();
-        mainPanel.add(new CategoryUI(this.controller), BorderLayout.CENTER);
-        mainPanel.validate();
+        panels.showNew("categories", () -> new CategoryUI(this.controller));
     }//GEN-LAST:event_categoryBtnActionPerformed
 
     private void button1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_button1ActionPerformed
@@ -372,7 +356,7 @@ public class Dashboard extends javax.swing.JFrame {
 
     private void closeMouseClicked(java.awt.event.MouseEvent evt) {//GEN-FIRST:event_closeMouseClicked
         // TODO add your handling code here:
-        controller.expireSession();
+        POSController.expireSession();
         
     }//GEN-LAST:event_closeMouseClicked
 
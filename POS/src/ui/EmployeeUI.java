@@ -6,7 +6,6 @@ package ui;
 
 import ui.components.CommonHandler;
 import model.IPOSController;
-import model.POSController;
 import java.util.ArrayList;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
@@ -22,13 +21,13 @@ import model.dto.Response;
  */
 public class EmployeeUI extends javax.swing.JPanel {
     
-    private POSController controller;
+    private IPOSController controller;
 
     /**
      * 
      * @param controller
      */
-    public EmployeeUI(POSController controller) {
+    public EmployeeUI(IPOSController controller) {
         initComponents();
         this.controller = controller;
         populateData();
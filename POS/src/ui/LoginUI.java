@@ -4,6 +4,7 @@
  */
 package ui;
 
+import model.IPOSController;
 import model.POSController;
 import javax.swing.JFrame;
 import model.POSFactory;
@@ -17,12 +18,12 @@ import raven.glasspanepopup.GlassPanePopup;
  * @author fawad
  */
 public class LoginUI extends javax.swing.JFrame {
-    private POSController controller;
+    private IPOSController controller;
     /**
      * Creates new form LoginUI
      */
     public LoginUI() {
-    this.controller=POSFactory.getInstanceOfPOSController();
+    this.controller=POSFactory.getInstanceOfController();
         initComponents();
         this.setLocationRelativeTo(null);
         GlassPanePopup.install(this);
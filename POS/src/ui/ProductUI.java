@@ -6,84 +6,85 @@ package ui;
 
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import model.POSController;
+import java.nio.file.Path;
+import model.IPOSController;
 import java.util.ArrayList;
 import javax.swing.ComboBoxModel;
 import javax.swing.DefaultComboBoxModel;
+import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
 import javax.swing.JTable;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ListDataListener;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import model.POSFactory;
 import model.dto.CategoryDTO;
 import model.dto.EmployeeDTO;
+import model.dto.Message;
+import model.dto.MessageType;
 import model.dto.ProductDTO;
 import model.dto.Response;
 import model.dto.SupplierDTO;
 import ui.components.CommonHandler;
+import ui.components.LoadablePanel;
+import ui.components.PagedTableModel;
+import ui.components.ProductTableModel;
+import ui.components.SearchPipeline;
 
 /**
  *
  * @author fawad
  */
-public class ProductUI extends javax.swing.JPanel {
-
-    private POSController controller;
-    ArrayList<ProductDTO> productsList;
+public class ProductUI extends javax.swing.JPanel implements LoadablePanel {
+
+    private IPOSController controller;
+    private SearchPipeline<ArrayList<ProductDTO>> productSearch;
+    private final ProductTableModel productsTableModel = new ProductTableModel(ProductTableModel.Column.ID,
+            ProductTableModel.Column.NAME, ProductTableModel.Column.BARCODE, ProductTableModel.Column.PRICE,
+            ProductTableModel.Column.STOCK);
+    // all products, read a page at a time; search results use productsTableModel
+    private final PagedTableModel<ProductDTO> productPages;
+
+    public ProductUI(IPOSController controller) {
+        this(controller, true);
+    }
 
-    public ProductUI(POSController controller) {
+    /**
+     * @param loadData false to leave the table and lists empty until
+     * {@link #loadData()} is run, as the Dashboard does
+     */
+    public ProductUI(IPOSController controller, boolean loadData) {
         initComponents();
         this.controller = controller;
-        loadDataIntoSupplierCheckBox();
-        loadDataIntoCategoryCheckBox();
+        productPages = new PagedTableModel<>(productsTableModel, controller::getProductsPage);
+        rSTableMetro1.setModel(productPages);
         loadDataIntojComboBox1();
-        populateData();
-        // Add document listener to search field
-        searchByNameField.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent e) {
-                performSearch();
-            }
-
-            @Override
-            public void removeUpdate(DocumentEvent e) {
-                performSearch();
-            }
-
-            @Override
-            public void changedUpdate(DocumentEvent e) {
-                // Plain text components don't fire these events
-            }
-
-            private void performSearch() {
-                String searchName = searchByNameField.getText();
-                if (!searchName.isEmpty()) {
-                    Response res = POSFactory.getInstanceOfResponse();
-                    productsList= controller.searchProductsByName(searchName, res);
-                    updateTableData(productsList);
-                } else {
-                    // If search field is empty, show all products
-                    populateData();
-                }
+        if (loadData) {
+            loadDataIntoSupplierCheckBox();
+            loadDataIntoCategoryCheckBox();
+            populateData();
+        }
+        productSearch = new SearchPipeline<>(this::findProducts, results -> {
+            if (searchByNameField.getText().isEmpty()) {
+                showAllProducts(results);
+            } else {
+                updateTableData(results);
             }
         });
+        productSearch.attachTo(searchByNameField);
 
         rSTableMetro1.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 JTable table = (JTable) e.getSource();
                 int row = table.getSelectedRow();
-                int id = Integer.parseInt(table.getValueAt(row, 0).toString());
-
-                for (ProductDTO p : productsList) {
-                    if (id == p.getProductId()) {
-                        name.setText(p.getProductName());
-                        stock.setText(String.valueOf(p.getStockQuantity()));
-                        price.setText(String.valueOf(p.getPrice()));
-                        barcode.setText(p.getBarcode());
-                    }
+                ProductDTO p = selectedProduct();
+                if (p != null) {
+                    name.setText(p.getProductName());
+                    stock.setText(String.valueOf(p.getStockQuantity()));
+                    price.setText(String.valueOf(p.getPrice()));
+                    barcode.setText(p.getBarcode());
                 }
 
             }
@@ -121,6 +122,7 @@ public class ProductUI extends javax.swing.JPanel {
         update = new ui.components.Button();
         add = new ui.components.Button();
         delete = new ui.components.Button();
+        importProducts = new ui.components.Button();
 
         setLayout(new java.awt.BorderLayout());
 
@@ -426,6 +428,26 @@ public class ProductUI extends javax.swing.JPanel {
         gridBagConstraints.insets = new java.awt.Insets(17, 11, 2, 0);
         headerPanel.add(delete, gridBagConstraints);
 
+        importProducts.setBackground(new java.awt.Color(255, 0, 51));
+        importProducts.setForeground(new java.awt.Color(255, 255, 255));
+        importProducts.setIcon(new javax.swing.ImageIcon(getClass().getResource("/icons/search_26px.png"))); // NOI18N
+        importProducts.setText("Import");
+        importProducts.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                importProductsActionPerformed(evt);
+            }
+        });
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 40;
+        gridBagConstraints.gridy = 5;
+        gridBagConstraints.gridwidth = 11;
+        gridBagConstraints.gridheight = 3;
+        gridBagConstraints.ipadx = 8;
+        gridBagConstraints.ipady = -8;
+        gridBagConstraints.anchor = java.awt.GridBagConstraints.NORTHWEST;
+        gridBagConstraints.insets = new java.awt.Insets(17, 18, 2, 0);
+        headerPanel.add(importProducts, gridBagConstraints);
+
         jPanel2.add(headerPanel, java.awt.BorderLayout.CENTER);
 
         add(jPanel2, java.awt.BorderLayout.PAGE_START);
@@ -464,25 +486,37 @@ public class ProductUI extends javax.swing.JPanel {
 
     private void updateActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_updateActionPerformed
         // TODO add your handling code here:                                    
-        int selectedRow = rSTableMetro1.getSelectedRow();
-        if (selectedRow == -1) {
+        ProductDTO selectedProduct = selectedProduct();
+        if (selectedProduct == null) {
             // No row selected, show error message or handle appropriately
             return;
         }
 
-        ProductDTO selectedProduct = productsList.get(selectedRow); // Get the selected ProductDTO from the list
+        // Read every field before changing anything, so a bad number leaves the product as it was
+        double newPrice;
+        double newStock;
+        try {
+            newPrice = Double.parseDouble(price.getText());
+            newStock = Double.parseDouble(stock.getText());
+        } catch (NumberFormatException ex) {
+            Response invalid = POSFactory.getInstanceOfResponse();
+            invalid.messagesList.add(new Message("Price and stock must be numbers.", MessageType.Error));
+            CommonHandler.handleResponse(invalid);
+            return;
+        }
 
-        // Update the selected product with the new values from the input fields
-        selectedProduct.setCategoryId(controller.getCategoryByName((String) categoryDD.getSelectedItem()).getId());
-        selectedProduct.setSupplierId(controller.getSupplierByName((String) supplierDD.getSelectedItem()).getId());
-        selectedProduct.setBarcode(barcode.getText());
-        selectedProduct.setPrice(Double.parseDouble(price.getText()));
-        selectedProduct.setQuantityType((String) quantitytype.getSelectedItem());
-        selectedProduct.setProductName(name.getText());
-        selectedProduct.setStockQuantity(Double.parseDouble(stock.getText()));
+        // Update a copy of the selected product with the new values from the input fields
+        ProductDTO product = new ProductDTO(selectedProduct);
+        product.setCategoryId(controller.getCategoryByName((String) categoryDD.getSelectedItem()).getId());
+        product.setSupplierId(controller.getSupplierByName((String) supplierDD.getSelectedItem()).getId());
+        product.setBarcode(barcode.getText());
+        product.setPrice(newPrice);
+        product.setQuantityType((String) quantitytype.getSelectedItem());
+        product.setProductName(name.getText());
+        product.setStockQuantity(newStock);
 
         // Call the controller to update the product in the database
-        Response res = controller.updateProduct(selectedProduct);
+        Response res = controller.updateProduct(product);
         CommonHandler.handleResponse(res);
         if (res.isSuccessfull()) {
             // Update the table data to reflect the changes
@@ -513,78 +547,148 @@ public class ProductUI extends javax.swing.JPanel {
 
     private void deleteActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_deleteActionPerformed
         // TODO add your handling code here:
-        // Get the selected row index from the table
-        int selectedRowIndex = rSTableMetro1.getSelectedRow();
-
-        // Check if a row is selected
-        if (selectedRowIndex != -1) {
-            // Get the product ID from the selected row
-            int productId = Integer.parseInt(rSTableMetro1.getValueAt(selectedRowIndex, 0).toString());
+        // A row of a page that is still loading has no product yet
+        ProductDTO selected = selectedProduct();
+        if (selected == null) {
+            return;
+        }
 
-            // Call the method to delete the product
-            ProductDTO p = new ProductDTO();
-            p.setProductId(productId);
-            Response response = controller.deleteProduct(p);
+        // Call the method to delete the product
+        ProductDTO p = new ProductDTO();
+        p.setProductId(selected.getProductId());
+        Response response = controller.deleteProduct(p);
 
-            CommonHandler.handleResponse(response);
-            // Check if the deletion was successful
-            if (response.isSuccessfull()) {
+        CommonHandler.handleResponse(response);
+        // Check if the deletion was successful
+        if (response.isSuccessfull()) {
 
-                // Refresh the table data
-                populateData();
-            }
+            // Refresh the table data
+            populateData();
         }
     }//GEN-LAST:event_deleteActionPerformed
 
+    /**
+     * Imports a supplier's .csv or .xlsx product list on a virtual thread;
+     * the button counts the products written until it is done.
+     */
+    private void importProductsActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_importProductsActionPerformed
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("Product lists (.csv, .xlsx)", "csv", "xlsx"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        importProducts.setEnabled(false);
+        Thread.ofVirtual().name("pos-import").start(() -> {
+            Response res = controller.importProducts(file, progress -> SwingUtilities.invokeLater(
+                    () -> importProducts.setText(String.format("%,d", progress.getRowsWritten()))));
+            SwingUtilities.invokeLater(() -> {
+                importProducts.setText("Import");
+                importProducts.setEnabled(true);
+                CommonHandler.handleResponse(res);
+                populateData();
+            });
+        });
+    }//GEN-LAST:event_importProductsActionPerformed
+
     private void updateTableData(ArrayList<ProductDTO> searchResults) {
-        String[] columnNames = {"Id", "Name", "Bar Code", "Price", "Stock"};
-        DefaultTableModel defaultTableModel = new DefaultTableModel(null, columnNames);
-        for (ProductDTO product : searchResults) {
-            Object[] rowData = {product.getProductId(), product.getProductName(), product.getBarcode(),
-                product.getPrice(), product.getStockQuantity()};
-            defaultTableModel.addRow(rowData);
+        if (rSTableMetro1.getModel() != productsTableModel) {
+            rSTableMetro1.setModel(productsTableModel);
         }
-        rSTableMetro1.setModel(defaultTableModel);
+        productsTableModel.setRows(searchResults, rSTableMetro1);
     }
 
-    private void populateData() {
+    /**
+     * Shows all products again, starting from the given first page.
+     */
+    private void showAllProducts(ArrayList<ProductDTO> firstPage) {
+        if (rSTableMetro1.getModel() != productPages) {
+            rSTableMetro1.setModel(productPages);
+        }
+        productPages.refresh(firstPage);
+    }
+
+    private ProductDTO selectedProduct() {
+        int row = rSTableMetro1.getSelectedRow();
+        if (row == -1) {
+            return null;
+        }
+        int modelRow = rSTableMetro1.convertRowIndexToModel(row);
+        return rSTableMetro1.getModel() == productPages ? productPages.getRow(modelRow) : productsTableModel.getRow(modelRow);
+    }
+
+    private ArrayList<ProductDTO> findProducts(String searchName) {
         Response res = POSFactory.getInstanceOfResponse();
-        productsList = controller.getProducts(res);
-        String[] columnNames = {"Id", "Name", "Bar Code", "Price", "Stock"};
-        DefaultTableModel defaultTableModel = new DefaultTableModel(null, columnNames);
-        for (ProductDTO product : productsList) {
-            Object[] rowData = {product.getProductId(), product.getProductName(), product.getBarcode(), product.getPrice(), product.getStockQuantity()};
-            defaultTableModel.addRow(rowData);
+        if (!searchName.isEmpty()) {
+            return controller.searchProductsByName(searchName, res);
         }
-        rSTableMetro1.setModel(defaultTableModel);
+        // If search field is empty, show all products
+        return firstPage(res);
+    }
+
+    private ArrayList<ProductDTO> firstPage(Response res) {
+        return controller.getProductsPage(0, productPages.getPageSize(), res);
+    }
+
+    private void populateData() {
+        Response res = POSFactory.getInstanceOfResponse();
+        showAllProducts(firstPage(res));
+    }
+
+    /**
+     * Reloads the first page of products, suppliers and categories off the
+     * EDT. The table runs its search again when it is being searched.
+     */
+    @Override
+    public Runnable loadData() {
+        ArrayList<ProductDTO> products = firstPage(POSFactory.getInstanceOfResponse());
+        ArrayList<SupplierDTO> suppliers = controller.getSuppliers(new Response());
+        ArrayList<CategoryDTO> categories = controller.getCategories(new Response());
+        return () -> {
+            showSuppliers(suppliers);
+            showCategories(categories);
+            if (searchByNameField.getText().isEmpty()) {
+                showAllProducts(products);
+            } else {
+                productSearch.submit(searchByNameField.getText());
+            }
+        };
     }
 
     private void loadDataIntoSupplierCheckBox() {
-        Response r = new Response();
-        ArrayList<SupplierDTO> lis = this.controller.getSuppliers(r);
+        showSuppliers(this.controller.getSuppliers(new Response()));
+    }
 
+    private void showSuppliers(ArrayList<SupplierDTO> lis) {
         ArrayList<String> names = new ArrayList<>();
         for (SupplierDTO supplier : lis) {
             names.add(supplier.getName());
         }
-
-        ComboBoxModel<String> model = new DefaultComboBoxModel<>(names.toArray(new String[0]));
-
-        supplierDD.setModel(model);
+        setNames(supplierDD, names);
     }
 
     private void loadDataIntoCategoryCheckBox() {
-        Response r = new Response();
-        ArrayList<CategoryDTO> lis = this.controller.getCategories(r);
+        showCategories(this.controller.getCategories(new Response()));
+    }
 
+    private void showCategories(ArrayList<CategoryDTO> lis) {
         ArrayList<String> names = new ArrayList<>();
         for (CategoryDTO cat : lis) {
             names.add(cat.getName());
         }
+        setNames(categoryDD, names);
+    }
 
+    /**
+     * Replaces the choices, keeping the selected one if it is still there.
+     */
+    private static void setNames(JComboBox<String> comboBox, ArrayList<String> names) {
+        Object selected = comboBox.getSelectedItem();
         ComboBoxModel<String> model = new DefaultComboBoxModel<>(names.toArray(new String[0]));
-
-        categoryDD.setModel(model);
+        comboBox.setModel(model);
+        if (selected != null && names.contains(selected)) {
+            comboBox.setSelectedItem(selected);
+        }
     }
 
     private void loadDataIntojComboBox1() {
@@ -605,6 +709,7 @@ public class ProductUI extends javax.swing.JPanel {
     private ui.components.Button clear;
     private ui.components.Button delete;
     private javax.swing.JPanel headerPanel;
+    private ui.components.Button importProducts;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel10;
     private javax.swing.JLabel jLabel2;
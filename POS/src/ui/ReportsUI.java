@@ -4,22 +4,233 @@
  */
 package ui;
 
-import javax.swing.ImageIcon;
-import ui.components.SearchOptinEvent;
-import ui.components.SearchOption;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import model.IPOSController;
+import model.POSFactory;
+import model.dto.CategoryDTO;
+import model.dto.CustomerDTO;
+import model.dto.Message;
+import model.dto.MessageType;
+import model.dto.ReportDimension;
+import model.dto.ReportPeriod;
+import model.dto.ReportRowDTO;
+import model.dto.Response;
+import model.dto.SalesGrouping;
+import model.dto.SalesQueryDTO;
+import ui.components.CommonHandler;
+import ui.components.ReportTableModel;
 
 /**
+ * Sales reports: revenue per day, week or month, or totals per product,
+ * category or cashier, between two dates, read from the hourly rollups; and
+ * sale lines filtered by category and customer and grouped by any column,
+ * read from the in-memory sales store. Reports run on a background thread.
  *
  * @author fawad
  */
 public class ReportsUI extends javax.swing.JPanel {
 
+    private enum ReportType {
+        RevenueByDay("Revenue by day", "Day"),
+        RevenueByWeek("Revenue by week", "Week"),
+        RevenueByMonth("Revenue by month", "Month"),
+        ByProduct("Sales by product", "Product"),
+        ByCategory("Sales by category", "Category"),
+        ByCashier("Sales by cashier", "Cashier"),
+        LinesByDay("Filtered lines by day", "Day", SalesGrouping.Day),
+        LinesByMonth("Filtered lines by month", "Month", SalesGrouping.Month),
+        LinesByProduct("Filtered lines by product", "Product", SalesGrouping.Product),
+        LinesByCategory("Filtered lines by category", "Category", SalesGrouping.Category),
+        LinesByCustomer("Filtered lines by customer", "Customer", SalesGrouping.Customer);
+
+        private final String title;
+        private final String rowTitle;
+        // set for the reports that use the category and customer filters
+        private final SalesGrouping grouping;
+
+        ReportType(String title, String rowTitle) {
+            this(title, rowTitle, null);
+        }
+
+        ReportType(String title, String rowTitle, SalesGrouping grouping) {
+            this.title = title;
+            this.rowTitle = rowTitle;
+            this.grouping = grouping;
+        }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+
+    private final IPOSController controller;
+    private final ReportTableModel reportModel = new ReportTableModel();
+    private final JComboBox<ReportType> reportType = new JComboBox<>(ReportType.values());
+    private final JTextField fromField = new JTextField(10);
+    private final JTextField toField = new JTextField(10);
+    private final JButton runButton = new JButton("Run");
+    private final JLabel totalsLabel = new JLabel(" ");
+    private final JComboBox<String> categoryFilter = new JComboBox<>(new String[]{"All categories"});
+    private final JComboBox<String> customerFilter = new JComboBox<>(new String[]{"All customers", "Walk-in"});
+    // ids of the filter entries; null is "all"
+    private final List<Integer> categoryFilterIds = new ArrayList<>(Arrays.asList((Integer) null));
+    private final List<Integer> customerFilterIds = new ArrayList<>(Arrays.asList(null, 0));
+
     /**
      * Creates new form ReportsUI
      */
-    public ReportsUI() {
+    public ReportsUI(IPOSController controller) {
         initComponents();
-//        textFieldSearchOption2.addOption(new SearchOption("Search",new ImageIcon()));
+        this.controller = controller;
+        buildReportPanel();
+        loadFilters();
+    }
+
+    private void buildReportPanel() {
+        removeAll();
+        setLayout(new BorderLayout(0, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        LocalDate today = LocalDate.now();
+        fromField.setText(today.withDayOfMonth(1).toString());
+        toField.setText(today.toString());
+        runButton.addActionListener(e -> runReport());
+        reportType.addActionListener(e -> updateFilters());
+        updateFilters();
+
+        JPanel options = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        options.add(reportType);
+        options.add(new JLabel("From (yyyy-mm-dd)"));
+        options.add(fromField);
+        options.add(new JLabel("To"));
+        options.add(toField);
+        options.add(categoryFilter);
+        options.add(customerFilter);
+        options.add(runButton);
+
+        jLabel1.setText("Reports");
+        jLabel1.setFont(jLabel1.getFont().deriveFont(24f));
+        JPanel top = new JPanel(new BorderLayout());
+        top.add(jLabel1, BorderLayout.NORTH);
+        top.add(options, BorderLayout.CENTER);
+
+        JTable table = new JTable(reportModel);
+        table.setAutoCreateRowSorter(true);
+        add(top, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(totalsLabel, BorderLayout.SOUTH);
+    }
+
+    private void loadFilters() {
+        Thread.ofVirtual().name("pos-report-filters").start(() -> {
+            ArrayList<CategoryDTO> categories = controller.getCategories(POSFactory.getInstanceOfResponse());
+            ArrayList<CustomerDTO> customers = controller.getCustomers(POSFactory.getInstanceOfResponse());
+            SwingUtilities.invokeLater(() -> {
+                for (CategoryDTO category : categories) {
+                    categoryFilter.addItem(category.getName());
+                    categoryFilterIds.add(category.getId());
+                }
+                for (CustomerDTO customer : customers) {
+                    customerFilter.addItem(customer.getName());
+                    customerFilterIds.add(customer.getId());
+                }
+            });
+        });
+    }
+
+    private void updateFilters() {
+        boolean filtered = ((ReportType) reportType.getSelectedItem()).grouping != null;
+        categoryFilter.setEnabled(filtered);
+        customerFilter.setEnabled(filtered);
+    }
+
+    private SalesQueryDTO salesQuery(ReportType type, LocalDate from, LocalDate to) {
+        SalesQueryDTO query = new SalesQueryDTO(from, to, type.grouping);
+        Integer categoryId = categoryFilterIds.get(Math.max(0, categoryFilter.getSelectedIndex()));
+        if (categoryId != null) {
+            query.getCategoryIds().add(categoryId);
+        }
+        Integer customerId = customerFilterIds.get(Math.max(0, customerFilter.getSelectedIndex()));
+        if (customerId != null) {
+            query.getCustomerIds().add(customerId);
+        }
+        return query;
+    }
+
+    private void runReport() {
+        Response res = POSFactory.getInstanceOfResponse();
+        LocalDate from = parseDate(fromField.getText(), res);
+        LocalDate to = parseDate(toField.getText(), res);
+        if (!res.isSuccessfull()) {
+            CommonHandler.handleResponse(res);
+            return;
+        }
+        ReportType type = (ReportType) reportType.getSelectedItem();
+        SalesQueryDTO query = type.grouping == null ? null : salesQuery(type, from, to);
+        runButton.setEnabled(false);
+        Thread.ofVirtual().name("pos-report").start(() -> {
+            ArrayList<ReportRowDTO> rows;
+            try {
+                rows = query != null ? controller.getSalesAnalysis(query, res) : switch (type) {
+                    case RevenueByDay -> controller.getRevenueReport(from, to, ReportPeriod.Day, res);
+                    case RevenueByWeek -> controller.getRevenueReport(from, to, ReportPeriod.Week, res);
+                    case RevenueByMonth -> controller.getRevenueReport(from, to, ReportPeriod.Month, res);
+                    case ByProduct -> controller.getSalesBreakdown(ReportDimension.Product, from, to, res);
+                    case ByCategory -> controller.getSalesBreakdown(ReportDimension.Category, from, to, res);
+                    case ByCashier -> controller.getSalesBreakdown(ReportDimension.Cashier, from, to, res);
+                    default -> throw new IllegalStateException("No query for " + type);
+                };
+            } catch (RuntimeException ex) {
+                // reported like any failed query, so the Run button comes back
+                res.messagesList.add(new Message("Report failed: " + ex, MessageType.Exception, ex));
+                rows = new ArrayList<>();
+            }
+            ArrayList<ReportRowDTO> result = rows;
+            SwingUtilities.invokeLater(() -> showReport(type, result, res));
+        });
+    }
+
+    private void showReport(ReportType type, ArrayList<ReportRowDTO> rows, Response res) {
+        runButton.setEnabled(true);
+        if (!res.isSuccessfull()) {
+            CommonHandler.handleResponse(res);
+            return;
+        }
+        reportModel.setFirstColumnTitle(type.rowTitle);
+        reportModel.setRows(rows);
+        BigDecimal revenue = BigDecimal.ZERO;
+        long units = 0;
+        for (ReportRowDTO row : rows) {
+            revenue = revenue.add(row.getRevenue());
+            units += row.getQuantity();
+        }
+        totalsLabel.setText("Total revenue: " + revenue + "    Units: " + units);
+    }
+
+    private static LocalDate parseDate(String text, Response res) {
+        try {
+            return LocalDate.parse(text.trim());
+        } catch (DateTimeParseException ex) {
+            res.messagesList.add(new Message("Enter dates as yyyy-mm-dd: " + text.trim(), MessageType.Error));
+            return null;
+        }
     }
 
     /**
@@ -0,0 +1,83 @@
+package ui.components;
+
+import javax.swing.table.AbstractTableModel;
+import model.Cart;
+import model.CartLine;
+
+/**
+ * Shows a {@link Cart} in a table. Cells are read from the cart lines when
+ * painted, and each change to the cart repaints only the row it touched.
+ *
+ * @author fawad
+ */
+public class CartTableModel extends AbstractTableModel implements Cart.Listener {
+
+    private static final String[] COLUMNS = {"Name", "Price", "Quantity", "Total"};
+
+    private final Cart cart;
+
+    public CartTableModel(Cart cart) {
+        this.cart = cart;
+        cart.addListener(this);
+    }
+
+    @Override
+    public int getRowCount() {
+        return cart.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return switch (column) {
+            case 0 -> String.class;
+            case 2 -> Integer.class;
+            default -> Double.class;
+        };
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        CartLine line = cart.getLine(rowIndex);
+        return switch (columnIndex) {
+            case 0 -> line.getProductName();
+            case 1 -> line.getUnitPriceMinor() / 100.0;
+            case 2 -> line.getQuantity();
+            default -> line.getLineTotalMinor() / 100.0;
+        };
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    @Override
+    public void lineInserted(int index) {
+        fireTableRowsInserted(index, index);
+    }
+
+    @Override
+    public void lineUpdated(int index) {
+        fireTableRowsUpdated(index, index);
+    }
+
+    @Override
+    public void lineRemoved(int index) {
+        fireTableRowsDeleted(index, index);
+    }
+
+    @Override
+    public void cartCleared() {
+        fireTableDataChanged();
+    }
+}
@@ -0,0 +1,51 @@
+package ui.components;
+
+import model.dto.CustomerDTO;
+
+/**
+ * Customers table showing the chosen columns.
+ *
+ * @author fawad
+ */
+public class CustomerTableModel extends ListTableModel<CustomerDTO> {
+
+    public enum Column {
+        ID("Id"), NAME("Name"), PHONE_NUMBER("Phone No");
+
+        private final String title;
+
+        Column(String title) {
+            this.title = title;
+        }
+    }
+
+    private final Column[] columns;
+
+    public CustomerTableModel(Column... columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].title;
+    }
+
+    @Override
+    protected int idOf(CustomerDTO customer) {
+        return customer.getId();
+    }
+
+    @Override
+    protected Object valueOf(CustomerDTO customer, int column) {
+        return switch (columns[column]) {
+            case ID -> customer.getId();
+            case NAME -> customer.getName();
+            case PHONE_NUMBER -> customer.getPhoneNumber();
+        };
+    }
+}
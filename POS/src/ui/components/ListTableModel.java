@@ -0,0 +1,136 @@
+package ui.components;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model that shows a list of DTOs as it is. Cells are read from the
+ * row object when the table asks for them, so only visible rows cost
+ * anything, and a new result list is swapped in without copying it and with
+ * a single table-changed event. Subclasses name the columns and say how to
+ * read a cell and the row's id.
+ *
+ * @author fawad
+ */
+public abstract class ListTableModel<T> extends AbstractTableModel {
+
+    private List<T> rows = Collections.emptyList();
+
+    protected abstract int idOf(T row);
+
+    protected abstract Object valueOf(T row, int column);
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return valueOf(rows.get(rowIndex), columnIndex);
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    public T getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * Shows the given list. The list is used directly, not copied, so it
+     * must not be modified afterwards except through this model.
+     */
+    public void setRows(List<T> newRows) {
+        rows = newRows == null ? Collections.emptyList() : newRows;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Shows the given list and keeps the table's selected row selected if
+     * it is still in the list, wherever it moved to.
+     */
+    public void setRows(List<T> newRows, JTable table) {
+        int viewRow = table.getSelectedRow();
+        boolean hadSelection = viewRow >= 0 && table.getModel() == this;
+        int selectedId = hadSelection ? idOf(rows.get(table.convertRowIndexToModel(viewRow))) : 0;
+
+        setRows(newRows);
+
+        if (hadSelection) {
+            int modelRow = indexOfId(selectedId);
+            if (modelRow >= 0) {
+                int newViewRow = table.convertRowIndexToView(modelRow);
+                table.setRowSelectionInterval(newViewRow, newViewRow);
+            }
+        }
+    }
+
+    /**
+     * Shows a reloaded list, repainting only the rows whose cells changed
+     * when the list has the same rows in the same order. Any other change
+     * falls back to {@link #setRows(List, JTable)}.
+     */
+    public void updateRows(List<T> newRows, JTable table) {
+        List<T> updated = newRows == null ? Collections.<T>emptyList() : newRows;
+        if (!sameIds(updated)) {
+            setRows(updated, table);
+            return;
+        }
+        List<T> old = rows;
+        rows = updated;
+        int firstChanged = -1;
+        for (int i = 0; i <= updated.size(); i++) {
+            boolean changed = i < updated.size() && !sameCells(old.get(i), updated.get(i));
+            if (changed && firstChanged < 0) {
+                firstChanged = i;
+            } else if (!changed && firstChanged >= 0) {
+                fireTableRowsUpdated(firstChanged, i - 1);
+                firstChanged = -1;
+            }
+        }
+    }
+
+    private boolean sameIds(List<T> newRows) {
+        if (newRows.size() != rows.size()) {
+            return false;
+        }
+        for (int i = 0; i < newRows.size(); i++) {
+            if (idOf(newRows.get(i)) != idOf(rows.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameCells(T oldRow, T newRow) {
+        if (oldRow == newRow) {
+            // rows are not edited in place (the catalog hands out copies), so the same object shows the same cells
+            return true;
+        }
+        for (int column = 0; column < getColumnCount(); column++) {
+            if (!Objects.equals(valueOf(oldRow, column), valueOf(newRow, column))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int indexOfId(int id) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (idOf(rows.get(i)) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,16 @@
+package ui.components;
+
+/**
+ * A screen whose data is loaded off the event dispatch thread by
+ * {@link PanelManager}.
+ *
+ * @author fawad
+ */
+public interface LoadablePanel {
+
+    /**
+     * Fetches the screen's data. Runs on a background thread and must not
+     * touch Swing; the returned step runs on the EDT and shows the data.
+     */
+    Runnable loadData();
+}
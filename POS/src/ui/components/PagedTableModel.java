@@ -0,0 +1,230 @@
+package ui.components;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import model.POSFactory;
+import model.dto.Response;
+
+/**
+ * Table model over a list too long to read at once, like the products of a
+ * large store. Rows are read a page at a time by id (each page is the rows
+ * after the last id of the one before), on a virtual thread, and the next
+ * page is read as soon as the table shows rows near the end of what has
+ * been read. Only the most recently shown pages are kept; a page dropped
+ * earlier is read again when it is scrolled back into view, so memory stays
+ * the same however far the user scrolls. The columns are those of a
+ * {@link ListTableModel}. Must be used from the EDT.
+ *
+ * @author fawad
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int DEFAULT_CACHED_PAGES = 10;
+
+    private static final Logger LOGGER = Logger.getLogger(PagedTableModel.class.getName());
+    private static final ExecutorService LOADER
+            = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pos-page-", 0).factory());
+
+    /**
+     * Reads up to pageSize rows with an id above afterId, in id order.
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+
+        ArrayList<T> load(int afterId, int pageSize, Response response);
+    }
+
+    private final ListTableModel<T> columns;
+    private final PageLoader<T> loader;
+    private final int pageSize;
+    private final Map<Integer, List<T>> pages;
+    // the id each page starts after, for the pages found so far
+    private final List<Integer> pageKeys = new ArrayList<>();
+    private final Set<Integer> loading = new HashSet<>();
+    private int countedPages;
+    private int rowCount;
+    private boolean complete;
+    private boolean failed;
+    private long generation;
+    private long pagesRead;
+
+    public PagedTableModel(ListTableModel<T> columns, PageLoader<T> loader) {
+        this(columns, loader, DEFAULT_PAGE_SIZE, DEFAULT_CACHED_PAGES);
+    }
+
+    public PagedTableModel(ListTableModel<T> columns, PageLoader<T> loader, int pageSize, int cachedPages) {
+        this.columns = columns;
+        this.loader = loader;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > cachedPages;
+            }
+        };
+        pageKeys.add(0);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.getColumnName(column);
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    /**
+     * The cell, or null while its page is being read.
+     */
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        T row = getRow(rowIndex);
+        return row == null ? null : columns.valueOf(row, columnIndex);
+    }
+
+    /**
+     * The row, or null while its page is being read. Asking for a row
+     * starts reading its page if it is not kept, and the next page if the
+     * row is near the end.
+     */
+    public T getRow(int rowIndex) {
+        if (!complete && rowIndex >= rowCount - pageSize / 2) {
+            read(countedPages);
+        }
+        int page = rowIndex / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            read(page);
+            return null;
+        }
+        int index = rowIndex % pageSize;
+        return index < rows.size() ? rows.get(index) : null;
+    }
+
+    /**
+     * Shows a first page read off the EDT. The rows already found are kept,
+     * so the table stays where it was scrolled; the other pages are read
+     * again when they are shown.
+     */
+    public void refresh(List<T> firstPage) {
+        generation++;
+        pages.clear();
+        loading.clear();
+        failed = false;
+        if (rowCount > 0) {
+            fireTableRowsUpdated(0, rowCount - 1);
+        }
+        pageRead(0, firstPage);
+    }
+
+    private void read(int page) {
+        if (failed || page >= pageKeys.size() || !loading.add(page)) {
+            return;
+        }
+        long ticket = generation;
+        int afterId = pageKeys.get(page);
+        LOADER.execute(() -> {
+            Response response = POSFactory.getInstanceOfResponse();
+            ArrayList<T> rows = null;
+            try {
+                rows = loader.load(afterId, pageSize, response);
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Reading a page after id " + afterId + " failed", ex);
+            }
+            ArrayList<T> read = response.isSuccessfull() ? rows : null;
+            if (rows != null && read == null) {
+                LOGGER.log(Level.WARNING, "Reading a page after id {0} failed: {1}",
+                        new Object[]{afterId, response.getErrorMessages()});
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (ticket == generation) {
+                    loading.remove(page);
+                    pageRead(page, read);
+                }
+            });
+        });
+    }
+
+    private void pageRead(int page, List<T> rows) {
+        if (rows == null) {
+            // stop asking until the next refresh instead of retrying on every paint
+            failed = true;
+            return;
+        }
+        pagesRead++;
+        pages.put(page, rows);
+        int first = page * pageSize;
+        if (rows.size() == pageSize && page < countedPages - 1) {
+            // the page after now starts where this one ends, even if rows were deleted
+            pageKeys.set(page + 1, columns.idOf(rows.get(rows.size() - 1)));
+            fireTableRowsUpdated(first, first + pageSize - 1);
+            return;
+        }
+        // the last page found so far, or a page that came back short
+        int oldCount = rowCount;
+        rowCount = first + rows.size();
+        countedPages = page + 1;
+        complete = rows.size() < pageSize;
+        pageKeys.subList(page + 1, pageKeys.size()).clear();
+        if (!complete) {
+            pageKeys.add(columns.idOf(rows.get(rows.size() - 1)));
+        }
+        pages.keySet().removeIf(kept -> kept > page);
+        if (rowCount < oldCount) {
+            fireTableRowsDeleted(rowCount, oldCount - 1);
+        }
+        int updatedEnd = Math.min(rowCount, oldCount);
+        if (updatedEnd > first) {
+            fireTableRowsUpdated(first, updatedEnd - 1);
+        }
+        if (rowCount > oldCount) {
+            fireTableRowsInserted(oldCount, rowCount - 1);
+        }
+    }
+
+    public boolean isLoading() {
+        return !loading.isEmpty();
+    }
+
+    /**
+     * True once the last row has been read.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    public long getPagesRead() {
+        return pagesRead;
+    }
+}
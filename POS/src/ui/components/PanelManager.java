@@ -0,0 +1,162 @@
+package ui.components;
+
+import java.awt.BorderLayout;
+import java.awt.CardLayout;
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.BorderFactory;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import model.metrics.MethodMetrics;
+import model.metrics.MethodStatistics;
+
+/**
+ * Shows one screen at a time in a container, building each screen once and
+ * keeping it as a card. Switching to a screen only flips the card; its data
+ * is then reloaded on a virtual thread while a loading strip is shown above
+ * it, and handed back to the screen on the EDT. A screen still loading is
+ * not loaded again. Must be used from the EDT.
+ *
+ * @author fawad
+ */
+public class PanelManager {
+
+    private static final ExecutorService LOADER
+            = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pos-panel-", 0).factory());
+
+    private final JPanel container;
+    private final CardLayout cards = new CardLayout();
+    private final Map<String, Card> panels = new HashMap<>();
+    private final MethodMetrics switches = new MethodMetrics("PanelManager.show");
+    private final MethodMetrics loads = new MethodMetrics("PanelManager.load");
+
+    public PanelManager(JPanel container) {
+        this.container = container;
+        container.removeAll();
+        container.setLayout(cards);
+    }
+
+    /**
+     * Shows the screen kept under the key, building it with the factory the
+     * first time, and starts reloading its data.
+     */
+    @SuppressWarnings("unchecked")
+    public <P extends JComponent> P show(String key, Supplier<P> factory) {
+        long start = System.nanoTime();
+        Card card = panels.get(key);
+        if (card == null) {
+            card = new Card(factory.get());
+            panels.put(key, card);
+            container.add(card, key);
+        }
+        cards.show(container, key);
+        container.revalidate();
+        container.repaint();
+        reload(card);
+        switches.record(System.nanoTime() - start, false);
+        return (P) card.panel;
+    }
+
+    /**
+     * Shows a newly built screen under the key, dropping the one kept
+     * before, for screens that load their data when they are built.
+     */
+    public <P extends JComponent> P showNew(String key, Supplier<P> factory) {
+        Card old = panels.remove(key);
+        if (old != null) {
+            container.remove(old);
+        }
+        return show(key, factory);
+    }
+
+    /**
+     * The screen kept under the key, or null when it was not shown yet.
+     */
+    @SuppressWarnings("unchecked")
+    public <P extends JComponent> P get(String key) {
+        Card card = panels.get(key);
+        return card == null ? null : (P) card.panel;
+    }
+
+    public boolean isLoading(String key) {
+        Card card = panels.get(key);
+        return card != null && card.loading;
+    }
+
+    /**
+     * Time taken by {@link #show} on the EDT, building included.
+     */
+    public MethodStatistics getSwitchStatistics() {
+        return switches.snapshot();
+    }
+
+    /**
+     * Time from starting a reload to the data being shown.
+     */
+    public MethodStatistics getLoadStatistics() {
+        return loads.snapshot();
+    }
+
+    private void reload(Card card) {
+        if (!(card.panel instanceof LoadablePanel) || card.loading) {
+            return;
+        }
+        LoadablePanel loadable = (LoadablePanel) card.panel;
+        card.setLoading(true);
+        long start = System.nanoTime();
+        LOADER.execute(() -> {
+            Runnable show = null;
+            boolean failed = false;
+            try {
+                show = loadable.loadData();
+            } catch (RuntimeException ex) {
+                failed = true;
+                Logger.getLogger(PanelManager.class.getName()).log(Level.WARNING, "Loading " + card.panel.getClass().getSimpleName() + " failed", ex);
+            }
+            Runnable loaded = show;
+            boolean loadFailed = failed;
+            SwingUtilities.invokeLater(() -> {
+                try {
+                    if (loaded != null) {
+                        loaded.run();
+                    }
+                } finally {
+                    card.setLoading(false);
+                    loads.record(System.nanoTime() - start, loadFailed);
+                }
+            });
+        });
+    }
+
+    private static final class Card extends JPanel {
+
+        private final JComponent panel;
+        private final JLabel loadingStrip = new JLabel("Loading...", SwingConstants.CENTER);
+        private boolean loading;
+
+        Card(JComponent panel) {
+            super(new BorderLayout());
+            this.panel = panel;
+            loadingStrip.setOpaque(true);
+            loadingStrip.setBackground(new Color(255, 248, 220));
+            loadingStrip.setBorder(BorderFactory.createEmptyBorder(2, 0, 2, 0));
+            loadingStrip.setVisible(false);
+            add(loadingStrip, BorderLayout.NORTH);
+            add(panel, BorderLayout.CENTER);
+        }
+
+        void setLoading(boolean loading) {
+            this.loading = loading;
+            loadingStrip.setVisible(loading);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ui.components;
+
+import model.dto.ProductDTO;
+
+/**
+ * Products table showing the chosen columns.
+ *
+ * @author fawad
+ */
+public class ProductTableModel extends ListTableModel<ProductDTO> {
+
+    public enum Column {
+        ID("Id"), NAME("Name"), BARCODE("Bar Code"), PRICE("Price"), STOCK("Stock");
+
+        private final String title;
+
+        Column(String title) {
+            this.title = title;
+        }
+    }
+
+    private final Column[] columns;
+
+    public ProductTableModel(Column... columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].title;
+    }
+
+    @Override
+    protected int idOf(ProductDTO product) {
+        return product.getProductId();
+    }
+
+    @Override
+    protected Object valueOf(ProductDTO product, int column) {
+        return switch (columns[column]) {
+            case ID -> product.getProductId();
+            case NAME -> product.getProductName();
+            case BARCODE -> product.getBarcode();
+            case PRICE -> product.getPrice();
+            case STOCK -> product.getStockQuantity();
+        };
+    }
+}
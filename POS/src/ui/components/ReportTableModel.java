@@ -0,0 +1,61 @@
+package ui.components;
+
+import java.math.BigDecimal;
+import model.dto.ReportRowDTO;
+
+/**
+ * Rows of a sales report: what the row is about, number of sales or lines,
+ * units sold and revenue.
+ *
+ * @author fawad
+ */
+public class ReportTableModel extends ListTableModel<ReportRowDTO> {
+
+    private static final String[] COLUMNS = {"Period", "Sales", "Units", "Revenue"};
+
+    private String firstColumnTitle = COLUMNS[0];
+
+    /**
+     * Names the first column after the report shown, e.g. Period or Cashier.
+     */
+    public void setFirstColumnTitle(String title) {
+        if (!title.equals(firstColumnTitle)) {
+            firstColumnTitle = title;
+            fireTableStructureChanged();
+        }
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column == 0 ? firstColumnTitle : COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return switch (column) {
+            case 0 -> String.class;
+            case 3 -> BigDecimal.class;
+            default -> Long.class;
+        };
+    }
+
+    @Override
+    protected int idOf(ReportRowDTO row) {
+        return row.getKey().hashCode();
+    }
+
+    @Override
+    protected Object valueOf(ReportRowDTO row, int column) {
+        return switch (column) {
+            case 0 -> row.getLabel();
+            case 1 -> row.getCount();
+            case 2 -> row.getQuantity();
+            default -> row.getRevenue();
+        };
+    }
+}
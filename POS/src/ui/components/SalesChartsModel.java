@@ -0,0 +1,140 @@
+package ui.components;
+
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import model.SalesAggregates;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+
+/**
+ * Chart datasets of the home screen, fed from {@link SalesAggregates}.
+ * A sale only marks the charts as stale; the datasets are rebuilt from a
+ * snapshot on the Swing thread at most once per interval, however many
+ * sales were saved in between, and each dataset fires a single change event
+ * per rebuild.
+ *
+ * @author fawad
+ */
+public class SalesChartsModel implements SalesAggregates.Listener {
+
+    public static final int MONTHS_SHOWN = 6;
+
+    private final SalesAggregates aggregates;
+    private final DefaultPieDataset<String> categoryDataset = new DefaultPieDataset<>();
+    private final DefaultCategoryDataset monthDataset = new DefaultCategoryDataset();
+    private final DefaultCategoryDataset hourDataset = new DefaultCategoryDataset();
+    private final DefaultCategoryDataset basketDataset = new DefaultCategoryDataset();
+    private final AtomicBoolean pushPending = new AtomicBoolean();
+    private final Timer pushTimer;
+    private Map<Integer, String> categoryNames = new HashMap<>();
+    private int pushCount;
+
+    /**
+     * @param intervalMillis shortest time between two updates of the charts
+     */
+    public SalesChartsModel(SalesAggregates aggregates, int intervalMillis) {
+        this.aggregates = aggregates;
+        this.pushTimer = new Timer(intervalMillis, e -> push());
+        this.pushTimer.setRepeats(false);
+        push();
+        aggregates.addListener(this);
+    }
+
+    /**
+     * Stops following the aggregates, for when the screen is closed.
+     */
+    public void dispose() {
+        aggregates.removeListener(this);
+        pushTimer.stop();
+    }
+
+    @Override
+    public void aggregatesChanged() {
+        if (pushPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(pushTimer::start);
+        }
+    }
+
+    /**
+     * Names shown for category ids; ids without a name are shown by number.
+     * Call on the Swing thread.
+     */
+    public void setCategoryNames(Map<Integer, String> categoryNames) {
+        this.categoryNames = new HashMap<>(categoryNames);
+        aggregatesChanged();
+    }
+
+    private void push() {
+        pushPending.set(false);
+        SalesAggregates.Snapshot snapshot = aggregates.snapshot();
+        pushCount++;
+
+        categoryDataset.setNotify(false);
+        categoryDataset.clear();
+        for (Map.Entry<Integer, Long> entry : snapshot.getCategoryAmountMinor().entrySet()) {
+            categoryDataset.setValue(categoryName(entry.getKey()), entry.getValue() / 100.0);
+        }
+        categoryDataset.setNotify(true);
+
+        monthDataset.setNotify(false);
+        monthDataset.clear();
+        YearMonth month = YearMonth.now().minusMonths(MONTHS_SHOWN - 1);
+        for (int i = 0; i < MONTHS_SHOWN; i++, month = month.plusMonths(1)) {
+            long amount = snapshot.getMonthAmountMinor().getOrDefault(month, 0L);
+            monthDataset.setValue(amount / 100.0, "Amount", month.getMonth().getDisplayName(TextStyle.SHORT, Locale.getDefault()));
+        }
+        monthDataset.setNotify(true);
+
+        hourDataset.setNotify(false);
+        hourDataset.clear();
+        for (int hour = 0; hour < 24; hour++) {
+            hourDataset.setValue(snapshot.getHourAmountMinor(hour) / 100.0, "Amount", String.format("%02d", hour));
+        }
+        hourDataset.setNotify(true);
+
+        basketDataset.setNotify(false);
+        basketDataset.clear();
+        for (int bucket = 0; bucket < SalesAggregates.BASKET_BUCKETS; bucket++) {
+            String label = bucket == SalesAggregates.BASKET_BUCKETS - 1 ? (bucket + 1) + "+" : String.valueOf(bucket + 1);
+            basketDataset.setValue(snapshot.getBasketSizeCount(bucket), "Sales", label);
+        }
+        basketDataset.setNotify(true);
+    }
+
+    private String categoryName(int categoryId) {
+        String name = categoryNames.get(categoryId);
+        if (name != null) {
+            return name;
+        }
+        return categoryId == 0 ? "Other" : "Category " + categoryId;
+    }
+
+    public DefaultPieDataset<String> getCategoryDataset() {
+        return categoryDataset;
+    }
+
+    public DefaultCategoryDataset getMonthDataset() {
+        return monthDataset;
+    }
+
+    public DefaultCategoryDataset getHourDataset() {
+        return hourDataset;
+    }
+
+    public DefaultCategoryDataset getBasketDataset() {
+        return basketDataset;
+    }
+
+    /**
+     * Number of times the datasets were rebuilt. Call on the Swing thread.
+     */
+    public int getPushCount() {
+        return pushCount;
+    }
+}
@@ -0,0 +1,160 @@
+package ui.components;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+
+/**
+ * Runs search-as-you-type queries off the event dispatch thread. Keystrokes
+ * only restart a debounce timer; once typing pauses the query runs on a
+ * virtual thread and its result is handed to the publisher on the EDT, but
+ * only if no newer text was submitted in the meantime. A query that has not
+ * started yet when newer text arrives is cancelled; one already running is
+ * left to finish (interrupting a JDBC call would break the pooled
+ * connection) and its result is dropped.
+ *
+ * @author fawad
+ */
+public class SearchPipeline<T> {
+
+    public static final int DEFAULT_DEBOUNCE_MILLIS = 150;
+
+    private static final Logger LOGGER = Logger.getLogger(SearchPipeline.class.getName());
+
+    private static final ExecutorService EXECUTOR
+            = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pos-search-", 0).factory());
+
+    private final Function<String, T> query;
+    private final Consumer<T> publisher;
+    private final Timer debounceTimer;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile String pendingText;
+    private volatile Future<?> running;
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public SearchPipeline(Function<String, T> query, Consumer<T> publisher) {
+        this(query, publisher, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * @param query runs on a background thread and must not touch Swing
+     * @param publisher runs on the EDT with the result of the latest query
+     */
+    public SearchPipeline(Function<String, T> query, Consumer<T> publisher, int debounceMillis) {
+        this.query = query;
+        this.publisher = publisher;
+        this.debounceTimer = new Timer(debounceMillis, e -> fire());
+        this.debounceTimer.setRepeats(false);
+    }
+
+    /**
+     * Submits the field's text on every insert or removal.
+     */
+    public SearchPipeline<T> attachTo(JTextComponent field) {
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                submit(field.getText());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                submit(field.getText());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Plain text components don't fire these events
+            }
+        });
+        return this;
+    }
+
+    public void submit(String text) {
+        generation.incrementAndGet();
+        pendingText = text == null ? "" : text;
+        cancelPending();
+        debounceTimer.restart();
+    }
+
+    /**
+     * Drops whatever is pending or running; nothing more is published until
+     * the next submit.
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+        debounceTimer.stop();
+        cancelPending();
+    }
+
+    private void cancelPending() {
+        Future<?> task = running;
+        if (task != null && task.cancel(false)) {
+            superseded.incrementAndGet();
+        }
+    }
+
+    private void fire() {
+        long ticket = generation.get();
+        String text = pendingText;
+        running = EXECUTOR.submit(() -> run(ticket, text));
+    }
+
+    private void run(long ticket, String text) {
+        if (ticket != generation.get()) {
+            superseded.incrementAndGet();
+            return;
+        }
+        T result;
+        try {
+            executed.incrementAndGet();
+            result = query.apply(text);
+        } catch (RuntimeException ex) {
+            failed.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Search for \"" + text + "\" failed", ex);
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (ticket == generation.get()) {
+                published.incrementAndGet();
+                publisher.accept(result);
+            } else {
+                superseded.incrementAndGet();
+            }
+        });
+    }
+
+    public long getExecutedCount() {
+        return executed.get();
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Queries cancelled before they ran plus results dropped because newer
+     * text had been submitted.
+     */
+    public long getSupersededCount() {
+        return superseded.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+}
@@ -5,33 +5,40 @@
 package ui.extra;
 
 import com.formdev.flatlaf.FlatLightLaf;
-import model.POSController;
+import model.IPOSController;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.GridLayout;
 import java.awt.Graphics2D;
+import java.awt.Paint;
 import java.awt.RenderingHints;
 import java.awt.geom.RoundRectangle2D;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.DefaultTableModel;
 import model.POSFactory;
+import model.dto.CategoryDTO;
 import model.dto.Response;
 import model.dto.UserDTO;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.DefaultDrawingSupplier;
 import org.jfree.chart.plot.PiePlot;
 import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.category.BarRenderer;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
-import org.jfree.data.statistics.HistogramDataset;
 import raven.glasspanepopup.GlassPanePopup;
+import ui.components.SalesChartsModel;
 
 /**
  *
@@ -39,20 +46,31 @@ import raven.glasspanepopup.GlassPanePopup;
  */
 public final class HomeUI extends javax.swing.JFrame {
 
-    POSController controller;
+    private static final int CHART_REFRESH_MILLIS = 250;
+
+    IPOSController controller;
+    // charts follow the sales saved in this application, without querying the database
+    private final SalesChartsModel salesCharts;
 
     /**
      * Creates new form HomeUI
      */
     public HomeUI() {
         GlassPanePopup.install(this);
-        controller = POSFactory.getInstanceOfPOSController();
+        controller = POSFactory.getInstanceOfController();
+        salesCharts = new SalesChartsModel(POSFactory.getInstanceOfSalesAggregates(), CHART_REFRESH_MILLIS);
         initComponents();
         showHistogram();
         showPieChart();
         showBarChart();
          paintComponent( this.getGraphics());
         getData();
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                salesCharts.dispose();
+            }
+        });
         rSTableMetro1.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
             @Override
             public void valueChanged(ListSelectionEvent e) {
@@ -89,10 +107,26 @@ public final class HomeUI extends javax.swing.JFrame {
                
     }
 
+    /**
+     * Loads the users and the category names on a background thread so the
+     * screen shows straight away.
+     */
     public void getData() {
-        Response res = POSFactory.getInstanceOfResponse();
-        ArrayList<UserDTO> users = controller.getUsers(res);
+        Thread.ofVirtual().name("pos-home-loader").start(() -> {
+            Response res = POSFactory.getInstanceOfResponse();
+            ArrayList<UserDTO> users = controller.getUsers(res);
+            Map<Integer, String> categoryNames = new HashMap<>();
+            for (CategoryDTO category : controller.getCategories(POSFactory.getInstanceOfResponse())) {
+                categoryNames.put(category.getId(), category.getName());
+            }
+            SwingUtilities.invokeLater(() -> {
+                showUsers(users);
+                salesCharts.setCategoryNames(categoryNames);
+            });
+        });
+    }
 
+    private void showUsers(ArrayList<UserDTO> users) {
         // Define column names
         String[] columnNames = {"Username", "Role"};
 
@@ -335,22 +369,20 @@ public final class HomeUI extends javax.swing.JFrame {
     public void showPieChart() {
 
         //create dataset
-        DefaultPieDataset barDataset = new DefaultPieDataset();
-        barDataset.setValue("Ghee", new Double(20));
-        barDataset.setValue("Chawal", new Double(20));
-        barDataset.setValue("Lobya", new Double(40));
-        barDataset.setValue("Chini", new Double(10));
+        DefaultPieDataset<String> barDataset = salesCharts.getCategoryDataset();
 
         //create chart
-        JFreeChart piechart = ChartFactory.createPieChart("Sales sales", barDataset, false, true, false);//explain
+        JFreeChart piechart = ChartFactory.createPieChart("Sales by category", barDataset, false, true, false);//explain
 
         PiePlot piePlot = (PiePlot) piechart.getPlot();
 
-        //changing pie chart blocks colors
-        piePlot.setSectionPaint("Ghee", new Color(255, 255, 102));
-        piePlot.setSectionPaint("Chawal", new Color(102, 255, 102));
-        piePlot.setSectionPaint("Lobya", new Color(255, 102, 153));
-        piePlot.setSectionPaint("Chini", new Color(0, 204, 204));
+        //changing pie chart blocks colors, taken in turn as categories appear
+        piePlot.setDrawingSupplier(new DefaultDrawingSupplier(
+                new Paint[]{new Color(255, 255, 102), new Color(102, 255, 102), new Color(255, 102, 153), new Color(0, 204, 204),
+                    new Color(255, 178, 102), new Color(153, 153, 255)},
+                DefaultDrawingSupplier.DEFAULT_FILL_PAINT_SEQUENCE, DefaultDrawingSupplier.DEFAULT_OUTLINE_PAINT_SEQUENCE,
+                DefaultDrawingSupplier.DEFAULT_STROKE_SEQUENCE, DefaultDrawingSupplier.DEFAULT_OUTLINE_STROKE_SEQUENCE,
+                DefaultDrawingSupplier.DEFAULT_SHAPE_SEQUENCE));
 
         piePlot.setBackgroundPaint(Color.white);
 
@@ -362,13 +394,7 @@ public final class HomeUI extends javax.swing.JFrame {
     }
 
     public void showBarChart() {
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        dataset.setValue(200, "Amount", "january");
-        dataset.setValue(150, "Amount", "february");
-        dataset.setValue(18, "Amount", "march");
-        dataset.setValue(100, "Amount", "april");
-        dataset.setValue(80, "Amount", "may");
-        dataset.setValue(250, "Amount", "june");
+        DefaultCategoryDataset dataset = salesCharts.getMonthDataset();
 
         JFreeChart chart = ChartFactory.createBarChart("contribution", "monthly", "amount",
                 dataset, PlotOrientation.VERTICAL, false, true, false);
@@ -387,26 +413,27 @@ public final class HomeUI extends javax.swing.JFrame {
 
     }
 
+    /**
+     * Sales per hour of today above the basket size histogram.
+     */
     public final void showHistogram() {
+        JFreeChart hourChart = ChartFactory.createBarChart("Today by hour", "hour", "amount",
+                salesCharts.getHourDataset(), PlotOrientation.VERTICAL, false, true, false);
+        hourChart.getCategoryPlot().setBackgroundPaint(Color.white);
 
-        double[] values = {95, 49, 14, 59, 50, 66, 47, 40, 1, 67,
-            12, 58, 28, 63, 14, 9, 31, 17, 94, 71,
-            49, 64, 73, 97, 15, 63, 10, 12, 31, 62,
-            93, 49, 74, 90, 59, 14, 15, 88, 26, 57,
-            77, 44, 58, 91, 10, 67, 57, 19, 88, 84
-        };
-
-        HistogramDataset dataset = new HistogramDataset();
-        dataset.addSeries("key", values, 20);
-
-        JFreeChart chart = ChartFactory.createHistogram("JFreeChart Histogram", "Data", "Frequency", dataset, PlotOrientation.VERTICAL, false, true, false);
-        XYPlot plot = chart.getXYPlot();
+        JFreeChart chart = ChartFactory.createBarChart("Basket size", "items", "sales",
+                salesCharts.getBasketDataset(), PlotOrientation.VERTICAL, false, true, false);
+        CategoryPlot plot = chart.getCategoryPlot();
         plot.setBackgroundPaint(Color.white);
+        ((BarRenderer) plot.getRenderer()).setItemMargin(0);
+        ((BarRenderer) plot.getRenderer()).setShadowVisible(false);
 
-        ChartPanel barpChartPanel2 = new ChartPanel(chart);
-//        barpChartPanel2.setDisplayToolTips(true);
+        JPanel charts = new JPanel(new GridLayout(2, 1));
+        charts.add(new ChartPanel(hourChart));
+        charts.add(new ChartPanel(chart));
+        //removing table before adding chart
         histogramPanel.removeAll();
-        histogramPanel.add(barpChartPanel2, BorderLayout.CENTER);
+        histogramPanel.add(charts, BorderLayout.CENTER);
         histogramPanel.validate();
     }
 